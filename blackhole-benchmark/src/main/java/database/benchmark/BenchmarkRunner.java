@@ -0,0 +1,58 @@
+package database.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * 存储适配器基准测试入口
+ * JMH的 -t 只能指定一个线程数，这里按 bench.threads 列出的线程数依次运行，
+ * 每次都启用GC分析器（报告每次操作的分配字节数 gc.alloc.rate.norm），
+ * 结果以JSON写入 bench.result.dir/&lt;线程数&gt;-threads.json，便于与上一次结果对比发现性能回退。
+ * 
+ * 其余参数与JMH命令行一致，例如：
+ * <pre>
+ * java -Dbench.threads=1,4,8 -cp blackhole-benchmark/target/benchmarks.jar database.benchmark.BenchmarkRunner \
+ *     SQLiteWriteBenchmark -p journalMode=WAL -p synchronous=NORMAL
+ * </pre>
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public final class BenchmarkRunner {
+    
+    private BenchmarkRunner() {
+    }
+    
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        String[] threadCounts = System.getProperty("bench.threads", "1,4").split(",");
+        File resultDir = new File(System.getProperty("bench.result.dir", "target/jmh"));
+        if (!resultDir.isDirectory() && !resultDir.mkdirs()) {
+            throw new IllegalStateException("Cannot create result directory: " + resultDir);
+        }
+        
+        for (String value : threadCounts) {
+            int threads = Integer.parseInt(value.trim());
+            OptionsBuilder builder = new OptionsBuilder();
+            builder.parent(commandLine);
+            if (commandLine.getIncludes().isEmpty()) {
+                builder.include(BenchmarkRunner.class.getPackage().getName() + ".*Benchmark");
+            }
+            Options options = builder
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(new File(resultDir, threads + "-threads.json").getPath())
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package database.benchmark;
+
+import database.adapter.BaseStorageAdapter;
+import database.config.ConnectionPoolConfig;
+import database.config.DatabaseConfig;
+import database.core.RowMapper;
+import database.core.StorageException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+/**
+ * 基准测试公共工具
+ * 提供临时数据目录、适配器配置和模拟抓取页面的数据生成，各基准测试使用相同的表结构和行数据，
+ * 以便不同适配器、不同配置之间的结果可以直接比较
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+final class BenchmarkSupport {
+    
+    /**
+     * 模拟抓取页面表
+     */
+    static final String PAGES_TABLE = "pages";
+    
+    static final String CREATE_PAGES_SQL = "CREATE TABLE IF NOT EXISTS pages ("
+            + "id BIGINT PRIMARY KEY, "
+            + "url VARCHAR(512) NOT NULL, "
+            + "crawled_at BIGINT NOT NULL, "
+            + "status INTEGER NOT NULL, "
+            + "body TEXT)";
+    
+    static final String INSERT_PAGE_SQL = "INSERT INTO pages (id, url, crawled_at, status, body) VALUES (?, ?, ?, ?, ?)";
+    
+    static final String SELECT_BY_ID_SQL = "SELECT id, url, crawled_at, status, body FROM pages WHERE id = ?";
+    
+    static final String SELECT_PAGES_SQL = "SELECT id, url, crawled_at, status, body FROM pages ORDER BY id";
+    
+    static final String SELECT_RECENT_SQL = "SELECT id, url, crawled_at, status, body FROM pages WHERE status = ?";
+    
+    /**
+     * 抓取页面行映射器
+     */
+    static final RowMapper<CrawledPage> PAGE_MAPPER = (rs, rowNum) -> new CrawledPage(
+            rs.getLong("id"), rs.getString("url"), rs.getLong("crawled_at"), rs.getInt("status"), rs.getString("body"));
+    
+    private static final char[] BODY_ALPHABET = "abcdefghijklmnopqrstuvwxyz0123456789 <>/=\"".toCharArray();
+    
+    private BenchmarkSupport() {
+    }
+    
+    /**
+     * 创建基准测试使用的临时数据目录
+     * 
+     * @param prefix 目录名前缀
+     * @return 临时目录
+     */
+    static Path createTempDir(String prefix) {
+        try {
+            return Files.createTempDirectory("blackhole-bench-" + prefix + "-");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * 递归删除临时数据目录
+     * 
+     * @param dir 临时目录，为null时忽略
+     */
+    static void deleteRecursively(Path dir) {
+        if (dir == null || !Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * 构建适配器配置
+     * 
+     * @param type 数据库类型
+     * @param name 数据库名称
+     * @param properties 连接属性
+     * @param poolSize 最大连接数
+     * @return 数据库配置
+     */
+    static DatabaseConfig config(String type, String name, Map<String, Object> properties, int poolSize) {
+        ConnectionPoolConfig pool = new ConnectionPoolConfig(poolSize, 1, 30000, 600000, 1800000);
+        return new DatabaseConfig(type, name, true, new HashMap<>(properties), pool);
+    }
+    
+    /**
+     * 生成指定长度的页面正文
+     * 
+     * @param size 字符数
+     * @return 页面正文
+     */
+    static String body(int size) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] chars = new char[size];
+        for (int i = 0; i < size; i++) {
+            chars[i] = BODY_ALPHABET[random.nextInt(BODY_ALPHABET.length)];
+        }
+        return new String(chars);
+    }
+    
+    /**
+     * 生成一行页面参数，与 {@link #INSERT_PAGE_SQL} 的占位符顺序一致
+     * 
+     * @param id 页面ID
+     * @param body 页面正文
+     * @return 参数数组
+     */
+    static Object[] pageParams(long id, String body) {
+        return new Object[]{id, "https://example.com/page/" + id, System.currentTimeMillis(), 200, body};
+    }
+    
+    /**
+     * 生成一行页面数据，用于按表名和列映射写入的接口
+     * 
+     * @param id 页面ID
+     * @param body 页面正文
+     * @return 列名到值的映射
+     */
+    static Map<String, Object> pageRecord(long id, String body) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("id", id);
+        record.put("url", "https://example.com/page/" + id);
+        record.put("crawled_at", System.currentTimeMillis());
+        record.put("status", 200);
+        record.put("body", body);
+        return record;
+    }
+    
+    /**
+     * 建表并写入初始数据
+     * 
+     * @param adapter 适配器
+     * @param rows 行数
+     * @param rowSize 每行正文字符数
+     * @throws StorageException 写入失败时抛出异常
+     */
+    static void seedPages(BaseStorageAdapter adapter, int rows, int rowSize) throws StorageException {
+        adapter.update(CREATE_PAGES_SQL);
+        String body = body(rowSize);
+        List<Object[]> batch = new ArrayList<>(1000);
+        for (long id = 1; id <= rows; id++) {
+            batch.add(pageParams(id, body));
+            if (batch.size() == 1000) {
+                adapter.batchInsert(INSERT_PAGE_SQL, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            adapter.batchInsert(INSERT_PAGE_SQL, batch);
+        }
+    }
+    
+    /**
+     * 模拟抓取页面
+     */
+    static final class CrawledPage {
+        
+        final long id;
+        final String url;
+        final long crawledAt;
+        final int status;
+        final String body;
+        
+        CrawledPage(long id, String url, long crawledAt, int status, String body) {
+            this.id = id;
+            this.url = url;
+            this.crawledAt = crawledAt;
+            this.status = status;
+            this.body = body;
+        }
+    }
+}
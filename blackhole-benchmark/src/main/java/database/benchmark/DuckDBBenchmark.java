@@ -0,0 +1,132 @@
+package database.benchmark;
+
+import database.adapter.DuckDBAdapter;
+import database.core.StorageException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DuckDB基准测试
+ * 比较JDBC批量插入与Appender追加的写入吞吐量，以及聚合查询和分页查询的吞吐量。
+ * 批量写入的ops/s是每秒批次数，乘以batchSize即每秒行数。
+ * 
+ * 示例：java -jar blackhole-benchmark/target/benchmarks.jar DuckDBBenchmark -prof gc
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class DuckDBBenchmark {
+    
+    private static final int PAGE_SIZE = 50;
+    
+    private static final String AGGREGATE_SQL = "SELECT status, COUNT(*) AS pages, AVG(LENGTH(body)) AS avg_size "
+            + "FROM pages GROUP BY status";
+    
+    @Param({"256", "4096"})
+    public int rowSize;
+    
+    @Param({"1000"})
+    public int batchSize;
+    
+    @Param({"10000"})
+    public int rows;
+    
+    private Path dataDir;
+    private DuckDBAdapter adapter;
+    private final AtomicLong nextId = new AtomicLong();
+    
+    @Setup(Level.Trial)
+    public void setUp() throws StorageException {
+        dataDir = BenchmarkSupport.createTempDir("duckdb");
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("url", "jdbc:duckdb:" + dataDir.resolve("bench.duckdb"));
+        adapter = new DuckDBAdapter(BenchmarkSupport.config("duckdb", "bench-duckdb", properties, 4));
+        adapter.initialize();
+        BenchmarkSupport.seedPages(adapter, rows, rowSize);
+        nextId.set(rows);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws StorageException {
+        try {
+            if (adapter != null) {
+                adapter.shutdown();
+            }
+        } finally {
+            BenchmarkSupport.deleteRecursively(dataDir);
+        }
+    }
+    
+    /**
+     * 每个线程复用的页面正文和批次缓冲
+     */
+    @State(Scope.Thread)
+    public static class RowState {
+        
+        String body;
+        List<Object[]> batch;
+        
+        @Setup(Level.Trial)
+        public void setUp(DuckDBBenchmark benchmark) {
+            body = BenchmarkSupport.body(benchmark.rowSize);
+            batch = new ArrayList<>(benchmark.batchSize);
+        }
+    }
+    
+    @Benchmark
+    public int[] batchInsert(RowState row) throws StorageException {
+        fillBatch(row);
+        return adapter.batchInsert(BenchmarkSupport.INSERT_PAGE_SQL, row.batch);
+    }
+    
+    @Benchmark
+    public long appendRows(RowState row) throws StorageException {
+        fillBatch(row);
+        return adapter.appendRows(BenchmarkSupport.PAGES_TABLE, row.batch);
+    }
+    
+    @Benchmark
+    public Object aggregate() throws StorageException {
+        return adapter.queryMultiple(AGGREGATE_SQL,
+                (rs, rowNum) -> new Object[]{rs.getInt("status"), rs.getLong("pages"), rs.getDouble("avg_size")});
+    }
+    
+    @Benchmark
+    public Object queryPage() throws StorageException {
+        int pageNum = 1 + ThreadLocalRandom.current().nextInt(rows / PAGE_SIZE);
+        return adapter.queryPage(BenchmarkSupport.SELECT_PAGES_SQL, BenchmarkSupport.PAGE_MAPPER, pageNum, PAGE_SIZE);
+    }
+    
+    private void fillBatch(RowState row) {
+        row.batch.clear();
+        for (int i = 0; i < batchSize; i++) {
+            row.batch.add(BenchmarkSupport.pageParams(nextId.incrementAndGet(), row.body));
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package database.benchmark;
+
+import database.adapter.RocksDBAdapter;
+import database.core.StorageException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RocksDB基准测试
+ * 比较同步写、压缩算法和值大小对单键写入、批量写入、点查、批量点查和前缀扫描吞吐量的影响。
+ * 批量写入的ops/s是每秒批次数，乘以batchSize即每秒键数。
+ * 
+ * 示例：java -jar blackhole-benchmark/target/benchmarks.jar RocksDBBenchmark -t 4 -prof gc
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class RocksDBBenchmark {
+    
+    private static final String NAMESPACE = RocksDBAdapter.DEFAULT_NAMESPACE;
+    
+    private static final int MULTI_GET_SIZE = 32;
+    
+    private static final int SCAN_LIMIT = 100;
+    
+    @Param({"false", "true"})
+    public boolean syncWrites;
+    
+    @Param({"lz4", "zstd"})
+    public String compression;
+    
+    @Param({"256", "4096"})
+    public int valueSize;
+    
+    @Param({"100"})
+    public int batchSize;
+    
+    @Param({"100000"})
+    public int keys;
+    
+    private Path dataDir;
+    private RocksDBAdapter adapter;
+    private final AtomicLong nextKey = new AtomicLong();
+    
+    @Setup(Level.Trial)
+    public void setUp() throws StorageException {
+        dataDir = BenchmarkSupport.createTempDir("rocksdb");
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("path", dataDir.toString());
+        properties.put("sync_writes", String.valueOf(syncWrites));
+        properties.put("compression", compression);
+        adapter = new RocksDBAdapter(BenchmarkSupport.config("rocksdb", "bench-rocksdb", properties, 1));
+        adapter.initialize();
+        
+        String value = BenchmarkSupport.body(valueSize);
+        Map<String, String> entries = new LinkedHashMap<>();
+        for (int i = 0; i < keys; i++) {
+            entries.put(key(i), value);
+            if (entries.size() == 1000) {
+                adapter.putAll(NAMESPACE, entries);
+                entries.clear();
+            }
+        }
+        if (!entries.isEmpty()) {
+            adapter.putAll(NAMESPACE, entries);
+        }
+        nextKey.set(keys);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws StorageException {
+        try {
+            if (adapter != null) {
+                adapter.shutdown();
+            }
+        } finally {
+            BenchmarkSupport.deleteRecursively(dataDir);
+        }
+    }
+    
+    /**
+     * 每个线程复用的值
+     */
+    @State(Scope.Thread)
+    public static class ValueState {
+        
+        String value;
+        
+        @Setup(Level.Trial)
+        public void setUp(RocksDBBenchmark benchmark) {
+            value = BenchmarkSupport.body(benchmark.valueSize);
+        }
+    }
+    
+    @Benchmark
+    public void put(ValueState state) throws StorageException {
+        adapter.put(NAMESPACE, key(nextKey.incrementAndGet()), state.value);
+    }
+    
+    @Benchmark
+    public void putAll(ValueState state) throws StorageException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        for (int i = 0; i < batchSize; i++) {
+            entries.put(key(nextKey.incrementAndGet()), state.value);
+        }
+        adapter.putAll(NAMESPACE, entries);
+    }
+    
+    @Benchmark
+    public String get() throws StorageException {
+        return adapter.get(NAMESPACE, key(ThreadLocalRandom.current().nextInt(keys)));
+    }
+    
+    @Benchmark
+    public List<String> multiGet() throws StorageException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<String> batch = new ArrayList<>(MULTI_GET_SIZE);
+        for (int i = 0; i < MULTI_GET_SIZE; i++) {
+            batch.add(key(random.nextInt(keys)));
+        }
+        return adapter.multiGet(NAMESPACE, batch);
+    }
+    
+    @Benchmark
+    public Map<String, String> scanPrefix() throws StorageException {
+        // 键按十进制补零编码，同一前缀下约有1000个连续键
+        String prefix = key(ThreadLocalRandom.current().nextInt(keys)).substring(0, 14);
+        return adapter.scanPrefix(NAMESPACE, prefix, SCAN_LIMIT);
+    }
+    
+    private static String key(long id) {
+        return String.format("page:%012d", id);
+    }
+}
@@ -0,0 +1,122 @@
+package database.benchmark;
+
+import database.adapter.SQLiteAdapter;
+import database.benchmark.BenchmarkSupport.CrawledPage;
+import database.core.StorageException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * SQLite读取基准测试
+ * 在预先写入的数据上比较主键查询、OFFSET分页、游标分页和流式查询的吞吐量，
+ * 参数化日志模式、连接池大小和行大小，用于观察连接池大小对并发读的影响（配合 -t 指定线程数）。
+ * 
+ * 示例：java -jar blackhole-benchmark/target/benchmarks.jar SQLiteReadBenchmark -t 8 -p poolSize=8 -prof gc
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class SQLiteReadBenchmark {
+    
+    private static final int PAGE_SIZE = 50;
+    
+    private static final int STREAM_LIMIT = 1000;
+    
+    @Param({"WAL", "DELETE"})
+    public String journalMode;
+    
+    @Param({"1", "4", "16"})
+    public int poolSize;
+    
+    @Param({"256", "4096"})
+    public int rowSize;
+    
+    @Param({"10000"})
+    public int rows;
+    
+    private Path dataDir;
+    private SQLiteAdapter adapter;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws StorageException {
+        dataDir = BenchmarkSupport.createTempDir("sqlite-read");
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("url", "jdbc:sqlite:" + dataDir.resolve("bench.db"));
+        properties.put("journal_mode", journalMode);
+        properties.put("busy_timeout", "30000");
+        adapter = new SQLiteAdapter(BenchmarkSupport.config("sqlite", "bench-sqlite-read", properties, poolSize));
+        adapter.initialize();
+        BenchmarkSupport.seedPages(adapter, rows, rowSize);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws StorageException {
+        try {
+            if (adapter != null) {
+                adapter.shutdown();
+            }
+        } finally {
+            BenchmarkSupport.deleteRecursively(dataDir);
+        }
+    }
+    
+    @Benchmark
+    public Object queryById() throws StorageException {
+        long id = 1 + ThreadLocalRandom.current().nextInt(rows);
+        return adapter.querySingle(BenchmarkSupport.SELECT_BY_ID_SQL, BenchmarkSupport.PAGE_MAPPER, id);
+    }
+    
+    @Benchmark
+    public Object queryPage() throws StorageException {
+        int pageNum = 1 + ThreadLocalRandom.current().nextInt(rows / PAGE_SIZE);
+        return adapter.queryPage(BenchmarkSupport.SELECT_PAGES_SQL, BenchmarkSupport.PAGE_MAPPER, pageNum, PAGE_SIZE);
+    }
+    
+    @Benchmark
+    public Object querySeek() throws StorageException {
+        long lastSeen = ThreadLocalRandom.current().nextInt(rows - PAGE_SIZE);
+        return adapter.querySeek(BenchmarkSupport.SELECT_RECENT_SQL, BenchmarkSupport.PAGE_MAPPER,
+                "id", lastSeen, PAGE_SIZE, 200);
+    }
+    
+    @Benchmark
+    public void queryStream(Blackhole blackhole) throws StorageException {
+        try (Stream<CrawledPage> pages = adapter.queryStream(BenchmarkSupport.SELECT_RECENT_SQL,
+                BenchmarkSupport.PAGE_MAPPER, 200)) {
+            pages.limit(STREAM_LIMIT).forEach(blackhole::consume);
+        }
+    }
+    
+    @Benchmark
+    public List<CrawledPage> queryMultiple() throws StorageException {
+        long from = ThreadLocalRandom.current().nextInt(rows - PAGE_SIZE);
+        return adapter.queryMultiple("SELECT id, url, crawled_at, status, body FROM pages WHERE id > ? AND id <= ?",
+                BenchmarkSupport.PAGE_MAPPER, from, from + PAGE_SIZE);
+    }
+}
@@ -0,0 +1,135 @@
+package database.benchmark;
+
+import database.adapter.SQLiteAdapter;
+import database.core.StorageException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SQLite写入基准测试
+ * 比较日志模式（WAL/DELETE）、同步级别、写入模式（连接池直写/单写者组提交队列）和行大小对
+ * 单行插入与批量插入吞吐量的影响。批量插入的ops/s是每秒批次数，乘以batchSize即每秒行数。
+ * 
+ * 示例：java -jar blackhole-benchmark/target/benchmarks.jar SQLiteWriteBenchmark -t 4 -prof gc
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class SQLiteWriteBenchmark {
+    
+    @Param({"WAL", "DELETE"})
+    public String journalMode;
+    
+    @Param({"OFF", "NORMAL", "FULL"})
+    public String synchronous;
+    
+    @Param({"pool", "queue"})
+    public String writeMode;
+    
+    @Param({"256", "4096"})
+    public int rowSize;
+    
+    @Param({"4"})
+    public int poolSize;
+    
+    private Path dataDir;
+    private SQLiteAdapter adapter;
+    private final AtomicLong nextId = new AtomicLong();
+    
+    @Setup(Level.Trial)
+    public void setUp() throws StorageException {
+        dataDir = BenchmarkSupport.createTempDir("sqlite-write");
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("url", "jdbc:sqlite:" + dataDir.resolve("bench.db"));
+        properties.put("journal_mode", journalMode);
+        properties.put("synchronous", synchronous);
+        properties.put("busy_timeout", "30000");
+        properties.put("write_mode", writeMode);
+        adapter = new SQLiteAdapter(BenchmarkSupport.config("sqlite", "bench-sqlite-write", properties, poolSize));
+        adapter.initialize();
+        adapter.update(BenchmarkSupport.CREATE_PAGES_SQL);
+        nextId.set(0);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws StorageException {
+        try {
+            if (adapter != null) {
+                adapter.shutdown();
+            }
+        } finally {
+            BenchmarkSupport.deleteRecursively(dataDir);
+        }
+    }
+    
+    /**
+     * 每个线程复用的页面正文
+     */
+    @State(Scope.Thread)
+    public static class RowState {
+        
+        String body;
+        
+        @Setup(Level.Trial)
+        public void setUp(SQLiteWriteBenchmark benchmark) {
+            body = BenchmarkSupport.body(benchmark.rowSize);
+        }
+    }
+    
+    /**
+     * 批量插入的批次大小，只作用于批量插入基准
+     */
+    @State(Scope.Thread)
+    public static class BatchState {
+        
+        @Param({"100", "1000"})
+        public int batchSize;
+        
+        List<Object[]> batch;
+        
+        @Setup(Level.Trial)
+        public void setUp() {
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+    
+    @Benchmark
+    public int insert(RowState row) throws StorageException {
+        return adapter.insert(BenchmarkSupport.INSERT_PAGE_SQL,
+                BenchmarkSupport.pageParams(nextId.incrementAndGet(), row.body));
+    }
+    
+    @Benchmark
+    public int[] batchInsert(RowState row, BatchState state) throws StorageException {
+        state.batch.clear();
+        for (int i = 0; i < state.batchSize; i++) {
+            state.batch.add(BenchmarkSupport.pageParams(nextId.incrementAndGet(), row.body));
+        }
+        return adapter.batchInsert(BenchmarkSupport.INSERT_PAGE_SQL, state.batch);
+    }
+}
@@ -0,0 +1,135 @@
+package database.benchmark;
+
+import database.adapter.ShardedSQLiteAdapter;
+import database.core.StorageException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 分片SQLite基准测试
+ * 按主键哈希分片，比较分片数对并发写入（每个分片一个写者）和跨分片归并分页的影响，
+ * shardCount=1 即单文件基线。
+ * 
+ * 示例：java -jar blackhole-benchmark/target/benchmarks.jar ShardedSQLiteBenchmark -t 8 -prof gc
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class ShardedSQLiteBenchmark {
+    
+    private static final int PAGE_SIZE = 50;
+    
+    private static final int SEED_ROWS = 10000;
+    
+    @Param({"1", "4", "8"})
+    public int shardCount;
+    
+    @Param({"256", "4096"})
+    public int rowSize;
+    
+    @Param({"100"})
+    public int batchSize;
+    
+    private Path dataDir;
+    private ShardedSQLiteAdapter adapter;
+    private final AtomicLong nextId = new AtomicLong();
+    
+    @Setup(Level.Trial)
+    public void setUp() throws StorageException {
+        dataDir = BenchmarkSupport.createTempDir("sqlite-sharded");
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("shard_strategy", "hash");
+        properties.put("shard_key_column", "id");
+        properties.put("shard_dir", dataDir.toString());
+        properties.put("shard_count", String.valueOf(shardCount));
+        properties.put("shard_init_sql", BenchmarkSupport.CREATE_PAGES_SQL);
+        properties.put("busy_timeout", "30000");
+        adapter = new ShardedSQLiteAdapter(BenchmarkSupport.config("sqlitesharded", "bench-sharded", properties, 4));
+        adapter.initialize();
+        
+        String body = BenchmarkSupport.body(rowSize);
+        List<Map<String, Object>> seed = new ArrayList<>(SEED_ROWS);
+        for (long id = 1; id <= SEED_ROWS; id++) {
+            seed.add(BenchmarkSupport.pageRecord(id, body));
+        }
+        adapter.insertBatch(BenchmarkSupport.PAGES_TABLE, seed);
+        nextId.set(SEED_ROWS);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws StorageException {
+        try {
+            if (adapter != null) {
+                adapter.shutdown();
+            }
+        } finally {
+            BenchmarkSupport.deleteRecursively(dataDir);
+        }
+    }
+    
+    /**
+     * 每个线程复用的页面正文
+     */
+    @State(Scope.Thread)
+    public static class RowState {
+        
+        String body;
+        
+        @Setup(Level.Trial)
+        public void setUp(ShardedSQLiteBenchmark benchmark) {
+            body = BenchmarkSupport.body(benchmark.rowSize);
+        }
+    }
+    
+    @Benchmark
+    public int insert(RowState row) throws StorageException {
+        return adapter.insert(BenchmarkSupport.PAGES_TABLE, BenchmarkSupport.pageRecord(nextId.incrementAndGet(), row.body));
+    }
+    
+    @Benchmark
+    public int[] insertBatch(RowState row) throws StorageException {
+        List<Map<String, Object>> batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            batch.add(BenchmarkSupport.pageRecord(nextId.incrementAndGet(), row.body));
+        }
+        return adapter.insertBatch(BenchmarkSupport.PAGES_TABLE, batch);
+    }
+    
+    @Benchmark
+    public Object queryByKey() throws StorageException {
+        long id = 1 + ThreadLocalRandom.current().nextInt(SEED_ROWS);
+        return adapter.queryByKey(id, BenchmarkSupport.SELECT_BY_ID_SQL, BenchmarkSupport.PAGE_MAPPER, id);
+    }
+    
+    @Benchmark
+    public Object queryPage() throws StorageException {
+        int pageNum = 1 + ThreadLocalRandom.current().nextInt(20);
+        return adapter.queryPage(BenchmarkSupport.SELECT_PAGES_SQL, BenchmarkSupport.PAGE_MAPPER, pageNum, PAGE_SIZE);
+    }
+}
@@ -1,15 +1,36 @@
 package database;
 
 import database.adapter.BaseStorageAdapter;
+import database.adapter.DuckDBAdapter;
+import database.adapter.HBaseAdapter;
+import database.adapter.RedisAdapter;
+import database.adapter.RocksDBAdapter;
+import database.async.AsyncDatabaseStorage;
+import database.cache.CachingDatabaseStorage;
+import database.cache.TwoLevelCachingDatabaseStorage;
+import database.compress.CompressingDatabaseStorage;
+import database.config.AsyncExecutorConfig;
+import database.config.ColumnCompressionConfig;
 import database.config.ConfigurationManager;
+import database.config.ConnectionPoolConfig;
 import database.config.DatabaseConfig;
+import database.config.PartitionRetentionConfig;
+import database.config.QueryCacheConfig;
+import database.config.ReplicaRoutingConfig;
 import database.core.DatabaseStorage;
+import database.core.PoolMetrics;
+import database.core.PooledStorage;
 import database.core.StorageException;
 import database.factory.StorageAdapterFactory;
+import database.health.HealthCheckScheduler;
+import database.partition.PartitionManager;
+import database.routing.ReadWriteSplittingDatabaseStorage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -24,6 +45,11 @@ public class BlackholeStorageManager {
     
     private static final Logger logger = LoggerFactory.getLogger(BlackholeStorageManager.class);
     
+    /**
+     * 状态中每个适配器输出的语句统计条数（按总耗时排序）
+     */
+    private static final int STATUS_TOP_STATEMENTS = 20;
+    
     /**
      * 单例实例
      */
@@ -39,6 +65,21 @@ public class BlackholeStorageManager {
      */
     private volatile boolean initialized = false;
     
+    /**
+     * 后台健康检查（全局配置禁用时为null）
+     */
+    private volatile HealthCheckScheduler healthChecker;
+    
+    /**
+     * 异步存储门面（首次获取时创建）
+     */
+    private final Map<String, AsyncDatabaseStorage> asyncAdapters = new ConcurrentHashMap<>();
+    
+    /**
+     * 分区生命周期管理（配置了partition_tables的数据库）
+     */
+    private final Map<String, PartitionManager> partitionManagers = new ConcurrentHashMap<>();
+    
     /**
      * 私有构造函数
      */
@@ -101,6 +142,11 @@ public class BlackholeStorageManager {
                 }
             }
             
+            // 所有适配器创建完成后再装饰，二级缓存需要引用其他适配器
+            decorateAdapters(configs);
+            startHealthChecks(configs);
+            startPartitionMaintenance(configs);
+            
             initialized = true;
             logger.info("BlackholeStorageManager initialized successfully with {} adapters", adapters.size());
             
@@ -148,6 +194,11 @@ public class BlackholeStorageManager {
                 }
             }
             
+            // 所有适配器创建完成后再装饰，二级缓存需要引用其他适配器
+            decorateAdapters(configs);
+            startHealthChecks(configs);
+            startPartitionMaintenance(configs);
+            
             initialized = true;
             logger.info("BlackholeStorageManager initialized successfully with {} adapters", adapters.size());
             
@@ -172,9 +223,26 @@ public class BlackholeStorageManager {
             throw new StorageException("ADAPTER_NOT_FOUND", "Database adapter not found: " + name);
         }
         
+        HealthCheckScheduler checker = healthChecker;
+        if (checker != null && !checker.isAvailable(name)) {
+            throw new StorageException("ADAPTER_UNAVAILABLE", "Database adapter failed health checks: " + name);
+        }
+        
         return adapter;
     }
     
+    /**
+     * 适配器是否可用
+     * 连续多次健康检查失败的适配器暂时不可用，恢复后自动可用
+     * 
+     * @param name 数据库名称
+     * @return true表示适配器存在且可用
+     */
+    public boolean isAdapterAvailable(String name) {
+        HealthCheckScheduler checker = healthChecker;
+        return adapters.containsKey(name) && (checker == null || checker.isAvailable(name));
+    }
+    
     /**
      * 获取默认存储适配器
      * 
@@ -225,6 +293,133 @@ public class BlackholeStorageManager {
         return getAdapter(name);
     }
     
+    /**
+     * 获取DuckDB分析适配器
+     * 启用了查询缓存或列压缩时返回被包装的原始适配器，
+     * 通过它执行的Appender追加和文件查询不经过缓存和列压缩
+     * 
+     * @param name 数据库名称
+     * @return DuckDB适配器实例
+     * @throws StorageException 未初始化、适配器不存在或类型不是DuckDB时抛出异常
+     */
+    public DuckDBAdapter getDuckDBAdapter(String name) throws StorageException {
+        DatabaseStorage adapter = getAdapter(name);
+        if (adapter instanceof CachingDatabaseStorage) {
+            adapter = ((CachingDatabaseStorage) adapter).getDelegate();
+        }
+        if (adapter instanceof CompressingDatabaseStorage) {
+            adapter = ((CompressingDatabaseStorage) adapter).getDelegate();
+        }
+        if (!(adapter instanceof DuckDBAdapter)) {
+            throw new StorageException("UNSUPPORTED_TYPE", "Database is not a DuckDB database: " + name);
+        }
+        return (DuckDBAdapter) adapter;
+    }
+    
+    /**
+     * 获取RocksDB键值适配器
+     * 
+     * @param name 数据库名称
+     * @return RocksDB适配器实例
+     * @throws StorageException 未初始化、适配器不存在或类型不是RocksDB时抛出异常
+     */
+    public RocksDBAdapter getRocksDBAdapter(String name) throws StorageException {
+        DatabaseStorage adapter = getAdapter(name);
+        if (!(adapter instanceof RocksDBAdapter)) {
+            throw new StorageException("UNSUPPORTED_TYPE", "Database is not a RocksDB database: " + name);
+        }
+        return (RocksDBAdapter) adapter;
+    }
+    
+    /**
+     * 获取HBase键值适配器
+     * 
+     * @param name 数据库名称
+     * @return HBase适配器实例
+     * @throws StorageException 未初始化、适配器不存在或类型不是HBase时抛出异常
+     */
+    public HBaseAdapter getHBaseAdapter(String name) throws StorageException {
+        DatabaseStorage adapter = getAdapter(name);
+        if (!(adapter instanceof HBaseAdapter)) {
+            throw new StorageException("UNSUPPORTED_TYPE", "Database is not an HBase database: " + name);
+        }
+        return (HBaseAdapter) adapter;
+    }
+    
+    /**
+     * 获取异步存储门面
+     * 每个数据库一个，首次获取时按连接属性 async_* 创建，I/O并发数默认与连接池大小相同
+     * 
+     * @param name 数据库名称
+     * @return 异步存储门面
+     * @throws StorageException 未初始化、适配器不存在或不可用时抛出异常
+     */
+    public AsyncDatabaseStorage getAsyncAdapter(String name) throws StorageException {
+        DatabaseStorage adapter = getAdapter(name);
+        AsyncDatabaseStorage async = asyncAdapters.get(name);
+        if (async != null && async.getDelegate() == adapter) {
+            return async;
+        }
+        
+        DatabaseConfig config = ConfigurationManager.getConfig(name);
+        AsyncExecutorConfig asyncConfig;
+        try {
+            asyncConfig = AsyncExecutorConfig.fromProperties(config != null ? config.getProperties() : null);
+            asyncConfig.validate();
+        } catch (IllegalArgumentException e) {
+            throw new StorageException("CONFIG_INVALID", "Invalid async configuration for " + name + ": " + e.getMessage(), e);
+        }
+        
+        return asyncAdapters.compute(name, (key, existing) -> {
+            if (existing != null && existing.getDelegate() == adapter) {
+                return existing;
+            }
+            if (existing != null) {
+                existing.shutdown();
+            }
+            return new AsyncDatabaseStorage(adapter, asyncConfig, name, resolvePoolSize(adapter, config));
+        });
+    }
+    
+    /**
+     * 获取分区生命周期管理器
+     * 用于按分区写入、生成只读取指定时间范围分区的查询来源，以及手动触发维护
+     * 
+     * @param name 数据库名称
+     * @return 分区生命周期管理器
+     * @throws StorageException 未初始化或该数据库未配置partition_tables时抛出异常
+     */
+    public PartitionManager getPartitionManager(String name) throws StorageException {
+        checkInitialized();
+        
+        PartitionManager partitions = partitionManagers.get(name);
+        if (partitions == null) {
+            throw new StorageException("ADAPTER_NOT_FOUND", "No partitioned tables configured for database: " + name);
+        }
+        return partitions;
+    }
+    
+    /**
+     * 获取适配器的连接池大小，用于确定异步I/O并发数
+     * 
+     * @param adapter 存储适配器
+     * @param config 数据库配置
+     * @return 连接池最大连接数，没有连接池时为CPU核数
+     */
+    private static int resolvePoolSize(DatabaseStorage adapter, DatabaseConfig config) {
+        DatabaseStorage storage = unwrapDecorators(adapter);
+        if (storage instanceof PooledStorage) {
+            PoolMetrics metrics = ((PooledStorage) storage).getPoolMetrics();
+            if (metrics != null && metrics.getMaxSize() > 0) {
+                return metrics.getMaxSize();
+            }
+        }
+        if (config != null && config.getPool() != null) {
+            return config.getPool().getMaxPoolSize();
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+    
     /**
      * 添加存储适配器
      * 
@@ -253,7 +448,15 @@ public class BlackholeStorageManager {
     public DatabaseStorage removeAdapter(String name) throws StorageException {
         checkInitialized();
         
+        PartitionManager partitions = partitionManagers.remove(name);
+        if (partitions != null) {
+            partitions.stop();
+        }
         DatabaseStorage adapter = adapters.remove(name);
+        AsyncDatabaseStorage async = asyncAdapters.remove(name);
+        if (async != null) {
+            async.shutdown();
+        }
         if (adapter != null) {
             try {
                 adapter.shutdown();
@@ -307,6 +510,22 @@ public class BlackholeStorageManager {
         
         logger.info("Shutting down BlackholeStorageManager");
         
+        if (healthChecker != null) {
+            healthChecker.stop();
+            healthChecker = null;
+        }
+        
+        for (PartitionManager partitions : partitionManagers.values()) {
+            partitions.stop();
+        }
+        partitionManagers.clear();
+        
+        // 先排空异步调用，再关闭适配器
+        for (AsyncDatabaseStorage async : asyncAdapters.values()) {
+            async.shutdown();
+        }
+        asyncAdapters.clear();
+        
         // 关闭所有适配器
         for (Map.Entry<String, DatabaseStorage> entry : adapters.entrySet()) {
             String name = entry.getKey();
@@ -353,9 +572,229 @@ public class BlackholeStorageManager {
         }
         status.put("adapterStatus", adapterStatus);
         
+        // 获取查询缓存统计信息
+        Map<String, Map<String, Object>> cacheStats = new ConcurrentHashMap<>();
+        for (Map.Entry<String, DatabaseStorage> entry : adapters.entrySet()) {
+            if (entry.getValue() instanceof CachingDatabaseStorage) {
+                cacheStats.put(entry.getKey(), ((CachingDatabaseStorage) entry.getValue()).getCacheStats());
+            }
+        }
+        status.put("queryCacheStats", cacheStats);
+        
+        // 获取列压缩统计信息
+        Map<String, Map<String, Object>> compressionStats = new ConcurrentHashMap<>();
+        for (Map.Entry<String, DatabaseStorage> entry : adapters.entrySet()) {
+            DatabaseStorage storage = entry.getValue();
+            if (storage instanceof CachingDatabaseStorage) {
+                storage = ((CachingDatabaseStorage) storage).getDelegate();
+            }
+            if (storage instanceof CompressingDatabaseStorage) {
+                compressionStats.put(entry.getKey(), ((CompressingDatabaseStorage) storage).getCompressionStats());
+            }
+        }
+        status.put("columnCompressionStats", compressionStats);
+        
+        // 获取读写分离统计信息
+        Map<String, Map<String, Object>> routingStats = new ConcurrentHashMap<>();
+        for (Map.Entry<String, DatabaseStorage> entry : adapters.entrySet()) {
+            DatabaseStorage storage = entry.getValue();
+            if (storage instanceof CachingDatabaseStorage) {
+                storage = ((CachingDatabaseStorage) storage).getDelegate();
+            }
+            if (storage instanceof ReadWriteSplittingDatabaseStorage) {
+                routingStats.put(entry.getKey(), ((ReadWriteSplittingDatabaseStorage) storage).getStats());
+            }
+        }
+        status.put("replicaRoutingStats", routingStats);
+        
+        // 获取按SQL指纹统计的查询延迟和慢查询样本
+        Map<String, Map<String, Object>> queryMetrics = new ConcurrentHashMap<>();
+        for (Map.Entry<String, DatabaseStorage> entry : adapters.entrySet()) {
+            DatabaseStorage storage = unwrapDecorators(entry.getValue());
+            if (storage instanceof BaseStorageAdapter) {
+                queryMetrics.put(entry.getKey(), ((BaseStorageAdapter) storage).getQueryMetrics().toMap(STATUS_TOP_STATEMENTS));
+            }
+        }
+        status.put("queryMetrics", queryMetrics);
+        
+        // 获取异步执行统计信息
+        Map<String, Map<String, Object>> asyncStats = new ConcurrentHashMap<>();
+        for (Map.Entry<String, AsyncDatabaseStorage> entry : asyncAdapters.entrySet()) {
+            asyncStats.put(entry.getKey(), entry.getValue().getStats());
+        }
+        status.put("asyncStats", asyncStats);
+        
+        // 获取分区维护统计信息
+        Map<String, Map<String, Object>> partitionStats = new ConcurrentHashMap<>();
+        for (Map.Entry<String, PartitionManager> entry : partitionManagers.entrySet()) {
+            partitionStats.put(entry.getKey(), entry.getValue().getStats());
+        }
+        status.put("partitionStats", partitionStats);
+        
+        // 获取健康检查和连接池状态
+        HealthCheckScheduler checker = healthChecker;
+        if (checker != null) {
+            status.put("healthChecks", checker.getStatus());
+        }
+        
         return status;
     }
     
+    /**
+     * 启动后台健康检查和连接池自动调整
+     * 
+     * @param configs 数据库配置映射
+     */
+    private void startHealthChecks(Map<String, DatabaseConfig> configs) {
+        ConfigurationManager.GlobalConfig globalConfig = ConfigurationManager.getGlobalConfig();
+        if (globalConfig != null && !globalConfig.isHealthCheckEnabled()) {
+            logger.info("Background health checks are disabled");
+            return;
+        }
+        long interval = globalConfig != null ? globalConfig.getHealthCheckInterval() : 30000;
+        int failureThreshold = globalConfig != null ? globalConfig.getHealthCheckFailureThreshold() : 3;
+        
+        Map<String, ConnectionPoolConfig> poolConfigs = new HashMap<>();
+        for (Map.Entry<String, DatabaseConfig> entry : configs.entrySet()) {
+            ConnectionPoolConfig pool = entry.getValue().getPool();
+            if (pool != null && adapters.containsKey(entry.getKey())) {
+                poolConfigs.put(entry.getKey(), pool);
+            }
+        }
+        healthChecker = new HealthCheckScheduler(adapters, poolConfigs, interval, failureThreshold);
+        healthChecker.start();
+    }
+    
+    /**
+     * 为配置了partition_tables的数据库启动分区预建和过期分区删除
+     * 
+     * @param configs 数据库配置映射
+     * @throws StorageException 存储类型不支持分区或配置无效时抛出异常
+     */
+    private void startPartitionMaintenance(Map<String, DatabaseConfig> configs) throws StorageException {
+        for (Map.Entry<String, DatabaseConfig> entry : configs.entrySet()) {
+            String name = entry.getKey();
+            DatabaseStorage adapter = adapters.get(name);
+            if (adapter == null) {
+                continue;
+            }
+            
+            PartitionRetentionConfig retentionConfig;
+            try {
+                retentionConfig = PartitionRetentionConfig.fromProperties(entry.getValue().getProperties());
+            } catch (IllegalArgumentException e) {
+                throw new StorageException("CONFIG_INVALID", "Invalid partition configuration for " + name + ": " + e.getMessage(), e);
+            }
+            if (!retentionConfig.isEnabled()) {
+                continue;
+            }
+            
+            PartitionManager partitions = new PartitionManager(name, adapter, unwrapDecorators(adapter), retentionConfig);
+            partitionManagers.put(name, partitions);
+            partitions.start();
+        }
+    }
+    
+    /**
+     * 按配置为适配器添加装饰层（列压缩、读写分离、查询缓存等）
+     * 
+     * @param configs 数据库配置映射
+     * @throws StorageException 装饰失败时抛出异常
+     */
+    private void decorateAdapters(Map<String, DatabaseConfig> configs) throws StorageException {
+        for (Map.Entry<String, DatabaseConfig> entry : configs.entrySet()) {
+            String name = entry.getKey();
+            DatabaseConfig config = entry.getValue();
+            DatabaseStorage adapter = adapters.get(name);
+            if (adapter == null) {
+                continue;
+            }
+            
+            // 列压缩在最内层，缓存中保存的是延迟解压的结果
+            ColumnCompressionConfig compressionConfig = ColumnCompressionConfig.fromProperties(config.getProperties());
+            if (compressionConfig.isEnabled()) {
+                if (!(adapter instanceof BaseStorageAdapter)) {
+                    throw new StorageException("CONFIG_INVALID", 
+                            "Column compression requires a SQL database: " + name);
+                }
+                CompressingDatabaseStorage compressing = new CompressingDatabaseStorage((BaseStorageAdapter) adapter, compressionConfig);
+                compressing.loadDictionaries();
+                adapter = compressing;
+                adapters.put(name, adapter);
+                logger.info("Enabled column compression for database: {} ({})", name, compressionConfig);
+            }
+            
+            // 读写分离在缓存之内，缓存未命中的查询再按副本路由
+            ReplicaRoutingConfig routingConfig = ReplicaRoutingConfig.fromProperties(config.getProperties());
+            if (routingConfig.isEnabled()) {
+                if (compressionConfig.isEnabled()) {
+                    throw new StorageException("CONFIG_INVALID", 
+                            "Column compression cannot be combined with read replicas: " + name);
+                }
+                Map<String, DatabaseStorage> replicas = new LinkedHashMap<>();
+                for (String replicaName : routingConfig.getReplicas()) {
+                    DatabaseStorage replica = adapters.get(replicaName);
+                    if (replica == null || replicaName.equals(name)) {
+                        throw new StorageException("CONFIG_INVALID", 
+                                "Read replica for " + name + " is not an enabled database: " + replicaName);
+                    }
+                    // 副本自身的查询缓存不参与路由，避免健康检查读到缓存的延迟值
+                    if (replica instanceof CachingDatabaseStorage) {
+                        replica = ((CachingDatabaseStorage) replica).getDelegate();
+                    }
+                    replicas.put(replicaName, replica);
+                }
+                ReadWriteSplittingDatabaseStorage routing = new ReadWriteSplittingDatabaseStorage(adapter, replicas, routingConfig, name);
+                routing.initialize();
+                adapter = routing;
+                adapters.put(name, adapter);
+                logger.info("Enabled read/write splitting for database: {} ({})", name, routingConfig);
+            }
+            
+            QueryCacheConfig cacheConfig = QueryCacheConfig.fromProperties(config.getProperties());
+            if (!cacheConfig.isEnabled()) {
+                continue;
+            }
+            
+            String redisName = cacheConfig.getSecondLevelRedis();
+            if (redisName != null) {
+                DatabaseStorage redis = adapters.get(redisName);
+                if (!(redis instanceof RedisAdapter)) {
+                    throw new StorageException("CONFIG_INVALID", 
+                            "Second-level cache for " + name + " requires a Redis database: " + redisName);
+                }
+                DatabaseStorage cached = new TwoLevelCachingDatabaseStorage(adapter, cacheConfig, (RedisAdapter) redis, name);
+                cached.initialize();
+                adapters.put(name, cached);
+                logger.info("Enabled two-level query cache for database: {} (L2: {}, {})", name, redisName, cacheConfig);
+            } else {
+                adapters.put(name, new CachingDatabaseStorage(adapter, cacheConfig));
+                logger.info("Enabled query cache for database: {} ({})", name, cacheConfig);
+            }
+        }
+    }
+    
+    /**
+     * 去掉查询缓存、读写分离和列压缩装饰层，返回最内层的适配器（读写分离取主库）
+     * 
+     * @param storage 存储适配器
+     * @return 最内层的适配器
+     */
+    private static DatabaseStorage unwrapDecorators(DatabaseStorage storage) {
+        DatabaseStorage current = storage;
+        while (true) {
+            if (current instanceof CachingDatabaseStorage) {
+                current = ((CachingDatabaseStorage) current).getDelegate();
+            } else if (current instanceof ReadWriteSplittingDatabaseStorage) {
+                current = ((ReadWriteSplittingDatabaseStorage) current).getDelegate();
+            } else if (current instanceof CompressingDatabaseStorage) {
+                current = ((CompressingDatabaseStorage) current).getDelegate();
+            } else {
+                return current;
+            }
+        }
+    }
+    
     /**
      * 检查是否已初始化
      * 
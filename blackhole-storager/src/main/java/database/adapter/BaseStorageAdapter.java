@@ -1,10 +1,17 @@
 package database.adapter;
 
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import database.config.ConfigurationManager;
 import database.config.DatabaseConfig;
 import database.core.DatabaseStorage;
 import database.core.Page;
+import database.core.PoolMetrics;
 import database.core.RowMapper;
 import database.core.StorageException;
+import database.mapping.BeanMapper;
+import database.metrics.QueryMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -13,9 +20,21 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * 基础存储适配器
@@ -28,6 +47,39 @@ public abstract class BaseStorageAdapter implements DatabaseStorage {
     
     private static final Logger logger = LoggerFactory.getLogger(BaseStorageAdapter.class);
     
+    /**
+     * 流式查询默认fetchSize
+     */
+    protected static final int DEFAULT_STREAM_FETCH_SIZE = 1000;
+    
+    /**
+     * 总记录数缓存的最大条目数
+     */
+    private static final int MAX_COUNT_CACHE_SIZE = 1024;
+    
+    /**
+     * 排序键列名格式
+     */
+    private static final Pattern SORT_KEY_PATTERN = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+    
+    /**
+     * 表名格式（允许带库名前缀）
+     */
+    private static final Pattern TABLE_NAME_PATTERN = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)?");
+    
+    /**
+     * 查询读取的表（用于按表失效总记录数缓存）
+     */
+    private static final Pattern READ_TABLE_PATTERN =
+            Pattern.compile("(?i)\\b(?:FROM|JOIN)\\s+[`\"\\[]?([A-Za-z_][\\w.]*)[`\"\\]]?");
+    
+    /**
+     * 写语句的目标表
+     */
+    private static final Pattern WRITE_TABLE_PATTERN = Pattern.compile(
+            "(?i)^\\s*(?:INSERT(?:\\s+OR\\s+\\w+)?(?:\\s+IGNORE)?\\s+INTO|REPLACE\\s+INTO|UPDATE(?:\\s+OR\\s+\\w+)?|DELETE\\s+FROM)"
+            + "\\s+[`\"\\[]?([A-Za-z_][\\w.]*)[`\"\\]]?");
+    
     /**
      * 数据库配置
      */
@@ -43,6 +95,22 @@ public abstract class BaseStorageAdapter implements DatabaseStorage {
      */
     protected final ThreadLocal<Connection> transactionConnection = new ThreadLocal<>();
     
+    /**
+     * 总记录数缓存
+     */
+    private final Map<String, CachedCount> countCache = new ConcurrentHashMap<>();
+    
+    /**
+     * 从连接池获取连接的累计次数和累计等待时间（纳秒），用于连接池自动调整
+     */
+    private final LongAdder connectionAcquisitions = new LongAdder();
+    private final LongAdder connectionWaitNanos = new LongAdder();
+    
+    /**
+     * 按SQL指纹统计的延迟直方图和慢查询样本
+     */
+    protected final QueryMetrics queryMetrics;
+    
     /**
      * 构造函数
      * 
@@ -53,6 +121,7 @@ public abstract class BaseStorageAdapter implements DatabaseStorage {
             throw new IllegalArgumentException("Database configuration cannot be null");
         }
         this.config = config;
+        this.queryMetrics = new QueryMetrics(config.getName(), resolveSlowQueryThreshold());
     }
     
     @Override
@@ -61,6 +130,10 @@ public abstract class BaseStorageAdapter implements DatabaseStorage {
             try {
                 logger.info("Initializing {} adapter for database: {}", getDatabaseType(), config.getName());
                 doInitialize();
+                ConfigurationManager.GlobalConfig globalConfig = ConfigurationManager.getGlobalConfig();
+                if (globalConfig == null || globalConfig.isJmxEnabled()) {
+                    queryMetrics.registerMBean();
+                }
                 logger.info("Successfully initialized {} adapter", getDatabaseType());
             } catch (Exception e) {
                 initialized.set(false);
@@ -74,6 +147,7 @@ public abstract class BaseStorageAdapter implements DatabaseStorage {
         if (initialized.compareAndSet(true, false)) {
             try {
                 logger.info("Shutting down {} adapter for database: {}", getDatabaseType(), config.getName());
+                queryMetrics.unregisterMBean();
                 doShutdown();
                 logger.info("Successfully shut down {} adapter", getDatabaseType());
             } catch (Exception e) {
@@ -101,7 +175,7 @@ public abstract class BaseStorageAdapter implements DatabaseStorage {
         checkInitialized();
         
         logger.debug("Executing single query: {}", sql);
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
         
         try (Connection conn = getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -109,15 +183,13 @@ public abstract class BaseStorageAdapter implements DatabaseStorage {
             setParameters(stmt, params);
             
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    T result = rowMapper.mapRow(rs, 1);
-                    logSlowQuery(sql, startTime);
-                    return result;
-                }
-                return null;
+                T result = rs.next() ? rowMapper.mapRow(rs, 1) : null;
+                recordQuery(sql, startTime, result != null ? 1 : 0, params);
+                return result;
             }
             
         } catch (SQLException e) {
+            recordQueryError(sql, startTime);
             logger.error("Single query failed: {}", sql, e);
             throw new StorageException("QUERY_FAILED", "Failed to execute single query", e);
         }
@@ -128,7 +200,7 @@ public abstract class BaseStorageAdapter implements DatabaseStorage {
         checkInitialized();
         
         logger.debug("Executing multiple query: {}", sql);
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
         
         try (Connection conn = getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -141,11 +213,12 @@ public abstract class BaseStorageAdapter implements DatabaseStorage {
                 while (rs.next()) {
                     results.add(rowMapper.mapRow(rs, rowNum++));
                 }
-                logSlowQuery(sql, startTime);
+                recordQuery(sql, startTime, results.size(), params);
                 return results;
             }
             
         } catch (SQLException e) {
+            recordQueryError(sql, startTime);
             logger.error("Multiple query failed: {}", sql, e);
             throw new StorageException("QUERY_FAILED", "Failed to execute multiple query", e);
         }
@@ -156,36 +229,123 @@ public abstract class BaseStorageAdapter implements DatabaseStorage {
         checkInitialized();
         
         logger.debug("Executing paged query: {} (page: {}, size: {})", sql, pageNum, pageSize);
-        long startTime = System.currentTimeMillis();
         
-        // 获取总记录数
-        String countSql = "SELECT COUNT(*) FROM (" + sql + ") AS total";
-        long totalElements = querySingle(countSql, rs -> rs.getLong(1), params);
+        // 总数查询和分页查询各自计入查询统计
+        // 获取总记录数（count_cache_ttl_ms大于0时使用缓存的总数）
+        long totalElements = countTotal(sql, getLongProperty("count_cache_ttl_ms", 0), params);
         
         // 执行分页查询
         String pageSql = addPagination(sql, pageNum, pageSize);
         List<T> content = queryMultiple(pageSql, rowMapper, params);
         
-        logSlowQuery(sql, startTime);
         return new Page<>(content, pageNum, pageSize, totalElements);
     }
     
+    @Override
+    public <T> Page<T> querySeek(String sql, RowMapper<T> rowMapper, String sortKey, Object lastSeen, int pageSize, Object... params) throws StorageException {
+        checkInitialized();
+        
+        if (sortKey == null || !SORT_KEY_PATTERN.matcher(sortKey).matches()) {
+            throw new StorageException("INVALID_SORT_KEY", "Invalid sort key: " + sortKey);
+        }
+        if (pageSize < 1) {
+            throw new StorageException("INVALID_PAGE_SIZE", "Page size must be greater than 0");
+        }
+        
+        logger.debug("Executing seek query: {} (sortKey: {}, lastSeen: {}, size: {})", sql, sortKey, lastSeen, pageSize);
+        
+        // 只在第一页统计总记录数，后续页由调用方沿用第一页的总数，不再对整个结果集COUNT
+        long totalElements = lastSeen == null
+                ? countTotal(sql, getLongProperty("count_cache_ttl_ms", 0), params)
+                : Page.UNKNOWN_TOTAL;
+        
+        // 多取一行用于判断是否还有下一页
+        String seekSql = buildSeekSql(sql, sortKey, lastSeen != null, pageSize + 1);
+        Object[] seekParams = params != null ? params : new Object[0];
+        if (lastSeen != null) {
+            seekParams = Arrays.copyOf(seekParams, seekParams.length + 1);
+            seekParams[seekParams.length - 1] = lastSeen;
+        }
+        
+        Object[] cursor = new Object[1];
+        List<T> rows = queryMultiple(seekSql, (rs, rowNum) -> {
+            if (rowNum > pageSize) {
+                return null;
+            }
+            if (rowNum == pageSize) {
+                cursor[0] = rs.getObject(sortKey);
+            }
+            return rowMapper.mapRow(rs, rowNum);
+        }, seekParams);
+        
+        Object nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = new ArrayList<>(rows.subList(0, pageSize));
+            nextCursor = cursor[0];
+        }
+        
+        return Page.keyset(rows, pageSize, totalElements, nextCursor, lastSeen == null);
+    }
+    
+    @Override
+    public <T> Stream<T> queryStream(String sql, RowMapper<T> rowMapper, Object... params) throws StorageException {
+        checkInitialized();
+        
+        logger.debug("Executing streaming query: {}", sql);
+        long startTime = System.nanoTime();
+        
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        boolean inTransaction = transactionConnection.get() != null;
+        
+        try {
+            conn = getConnection();
+            stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            configureStreamingStatement(conn, stmt);
+            setParameters(stmt, params);
+            
+            ResultSet rs = stmt.executeQuery();
+            // 只统计到首批结果返回为止，行数在流消费前未知
+            recordQuery(sql, startTime, -1, params);
+            
+            ResultSetSpliterator<T> spliterator = new ResultSetSpliterator<>(conn, stmt, rs, rowMapper, !inTransaction);
+            return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+            
+        } catch (SQLException e) {
+            recordQueryError(sql, startTime);
+            logger.error("Streaming query failed: {}", sql, e);
+            if (stmt != null) {
+                try {
+                    stmt.close();
+                } catch (SQLException closeEx) {
+                    logger.warn("Failed to close streaming statement", closeEx);
+                }
+            }
+            if (!inTransaction) {
+                closeQuietly(conn);
+            }
+            throw new StorageException("QUERY_FAILED", "Failed to execute streaming query", e);
+        }
+    }
+    
     @Override
     public int insert(String sql, Object... params) throws StorageException {
         checkInitialized();
         
         logger.debug("Executing insert: {}", sql);
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
         
         try (Connection conn = getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             setParameters(stmt, params);
             int result = stmt.executeUpdate();
-            logSlowQuery(sql, startTime);
+            recordQuery(sql, startTime, result, params);
+            invalidateCountCache(sql);
             return result;
             
         } catch (SQLException e) {
+            recordQueryError(sql, startTime);
             logger.error("Insert failed: {}", sql, e);
             throw new StorageException("INSERT_FAILED", "Failed to execute insert", e);
         }
@@ -196,7 +356,7 @@ public abstract class BaseStorageAdapter implements DatabaseStorage {
         checkInitialized();
         
         logger.debug("Executing batch insert: {} (batch size: {})", sql, batchParams.size());
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
         
         try (Connection conn = getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -211,10 +371,13 @@ public abstract class BaseStorageAdapter implements DatabaseStorage {
             int[] results = stmt.executeBatch();
             conn.commit();
             
-            logSlowQuery(sql, startTime);
+            recordQuery(sql, startTime, affectedRows(results),
+                    batchParams.isEmpty() ? null : batchParams.get(0));
+            invalidateCountCache(sql);
             return results;
             
         } catch (SQLException e) {
+            recordQueryError(sql, startTime);
             logger.error("Batch insert failed: {}", sql, e);
             try {
                 if (!getConnection().getAutoCommit()) {
@@ -232,17 +395,19 @@ public abstract class BaseStorageAdapter implements DatabaseStorage {
         checkInitialized();
         
         logger.debug("Executing update: {}", sql);
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
         
         try (Connection conn = getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             setParameters(stmt, params);
             int result = stmt.executeUpdate();
-            logSlowQuery(sql, startTime);
+            recordQuery(sql, startTime, result, params);
+            invalidateCountCache(sql);
             return result;
             
         } catch (SQLException e) {
+            recordQueryError(sql, startTime);
             logger.error("Update failed: {}", sql, e);
             throw new StorageException("UPDATE_FAILED", "Failed to execute update", e);
         }
@@ -253,22 +418,162 @@ public abstract class BaseStorageAdapter implements DatabaseStorage {
         checkInitialized();
         
         logger.debug("Executing delete: {}", sql);
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
         
         try (Connection conn = getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             setParameters(stmt, params);
             int result = stmt.executeUpdate();
-            logSlowQuery(sql, startTime);
+            recordQuery(sql, startTime, result, params);
+            invalidateCountCache(sql);
             return result;
             
         } catch (SQLException e) {
+            recordQueryError(sql, startTime);
             logger.error("Delete failed: {}", sql, e);
             throw new StorageException("DELETE_FAILED", "Failed to execute delete", e);
         }
     }
     
+    @Override
+    public int upsert(String table, Map<String, Object> data, String... conflictColumns) throws StorageException {
+        checkInitialized();
+        
+        if (data == null || data.isEmpty()) {
+            throw new StorageException("INVALID_DATA", "Upsert data cannot be empty");
+        }
+        List<String> columns = new ArrayList<>(data.keySet());
+        String sql = buildUpsertSql(validateUpsert(table, columns, conflictColumns), columns, conflictColumns);
+        
+        Object[] params = new Object[columns.size()];
+        for (int i = 0; i < params.length; i++) {
+            params[i] = data.get(columns.get(i));
+        }
+        return insert(sql, params);
+    }
+    
+    @Override
+    public int[] upsertBatch(String table, List<Map<String, Object>> dataList, String... conflictColumns) throws StorageException {
+        checkInitialized();
+        
+        int[] results = new int[dataList.size()];
+        if (dataList.isEmpty()) {
+            return results;
+        }
+        
+        // 按字段集合分组，每组一条语句批量执行
+        Map<List<String>, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < dataList.size(); i++) {
+            Map<String, Object> data = dataList.get(i);
+            if (data == null || data.isEmpty()) {
+                throw new StorageException("INVALID_DATA", "Upsert data cannot be empty");
+            }
+            groups.computeIfAbsent(new ArrayList<>(data.keySet()), columns -> new ArrayList<>()).add(i);
+        }
+        
+        for (Map.Entry<List<String>, List<Integer>> group : groups.entrySet()) {
+            List<String> columns = group.getKey();
+            String sql = buildUpsertSql(validateUpsert(table, columns, conflictColumns), columns, conflictColumns);
+            
+            List<Object[]> batchParams = new ArrayList<>(group.getValue().size());
+            for (int index : group.getValue()) {
+                Map<String, Object> data = dataList.get(index);
+                Object[] params = new Object[columns.size()];
+                for (int i = 0; i < params.length; i++) {
+                    params[i] = data.get(columns.get(i));
+                }
+                batchParams.add(params);
+            }
+            
+            int[] groupResults = batchInsert(sql, batchParams);
+            for (int i = 0; i < groupResults.length; i++) {
+                results[group.getValue().get(i)] = groupResults[i];
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * 批量插入Bean
+     * 属性由BeanMapper直接绑定到预编译语句，不为每行构建Map或参数数组，原始类型属性也不装箱
+     * 
+     * @param table 表名
+     * @param beans Bean列表
+     * @param mapper Bean映射器
+     * @param <T> Bean类型
+     * @return 每行影响的行数
+     * @throws StorageException 插入失败时抛出异常
+     */
+    public <T> int[] insertBeans(String table, List<T> beans, BeanMapper<T> mapper) throws StorageException {
+        checkInitialized();
+        
+        String sql = buildBeanInsertSql(table, mapper);
+        if (beans.isEmpty()) {
+            return new int[0];
+        }
+        
+        logger.debug("Executing bean batch insert: {} (batch size: {})", sql, beans.size());
+        long startTime = System.nanoTime();
+        boolean inTransaction = transactionConnection.get() != null;
+        Connection conn = null;
+        
+        try {
+            conn = getConnection();
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                if (!inTransaction) {
+                    conn.setAutoCommit(false);
+                }
+                for (T bean : beans) {
+                    mapper.bind(stmt, bean);
+                    stmt.addBatch();
+                }
+                int[] results = stmt.executeBatch();
+                if (!inTransaction) {
+                    conn.commit();
+                }
+                recordQuery(sql, startTime, affectedRows(results), null);
+                invalidateCountCache(sql);
+                return results;
+            }
+        } catch (SQLException e) {
+            recordQueryError(sql, startTime);
+            logger.error("Bean batch insert failed: {}", sql, e);
+            if (!inTransaction && conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    logger.error("Failed to rollback bean batch insert", rollbackEx);
+                }
+            }
+            throw new StorageException("BATCH_INSERT_FAILED", "Failed to execute bean batch insert", e);
+        } finally {
+            if (!inTransaction) {
+                closeQuietly(conn);
+            }
+        }
+    }
+    
+    /**
+     * 校验表名和映射的列名，生成Bean的插入语句
+     * 
+     * @param table 表名
+     * @param mapper Bean映射器
+     * @return 插入语句
+     * @throws StorageException 表名或列名不合法时抛出异常
+     */
+    protected String buildBeanInsertSql(String table, BeanMapper<?> mapper) throws StorageException {
+        if (table == null || !TABLE_NAME_PATTERN.matcher(table).matches()) {
+            throw new StorageException("INVALID_TABLE", "Invalid table name: " + table);
+        }
+        for (String column : mapper.getColumns()) {
+            if (!SORT_KEY_PATTERN.matcher(column).matches()) {
+                throw new StorageException("INVALID_COLUMN", "Invalid column name: " + column);
+            }
+        }
+        return mapper.insertSql(table);
+    }
+    
     @Override
     public void beginTransaction() throws StorageException {
         checkInitialized();
@@ -351,7 +656,50 @@ public abstract class BaseStorageAdapter implements DatabaseStorage {
         if (conn != null) {
             return conn;
         }
-        return doGetConnection();
+        long start = System.nanoTime();
+        conn = doGetConnection();
+        connectionWaitNanos.add(System.nanoTime() - start);
+        connectionAcquisitions.increment();
+        return conn;
+    }
+    
+    /**
+     * 获取HikariCP连接池指标
+     * 
+     * @param dataSource 数据源
+     * @return 连接池指标，数据源未打开时返回null
+     */
+    protected PoolMetrics hikariPoolMetrics(HikariDataSource dataSource) {
+        if (dataSource == null || dataSource.isClosed()) {
+            return null;
+        }
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return new PoolMetrics(pool.getActiveConnections(), pool.getIdleConnections(),
+                pool.getTotalConnections(), pool.getThreadsAwaitingConnection(),
+                dataSource.getHikariConfigMXBean().getMaximumPoolSize(),
+                connectionAcquisitions.sum(), connectionWaitNanos.sum(), -1);
+    }
+    
+    /**
+     * 调整HikariCP连接池最大连接数（运行时生效）
+     * 
+     * @param dataSource 数据源
+     * @param maxPoolSize 新的最大连接数
+     * @throws StorageException 数据源未打开或参数无效时抛出异常
+     */
+    protected void resizeHikariPool(HikariDataSource dataSource, int maxPoolSize) throws StorageException {
+        checkInitialized();
+        if (dataSource == null || dataSource.isClosed()) {
+            throw new StorageException("POOL_UNAVAILABLE", getDatabaseType() + " connection pool is not available");
+        }
+        if (maxPoolSize < 1) {
+            throw new StorageException("CONFIG_INVALID", "Max pool size must be greater than 0");
+        }
+        HikariConfigMXBean poolConfig = dataSource.getHikariConfigMXBean();
+        if (poolConfig.getMinimumIdle() > maxPoolSize) {
+            poolConfig.setMinimumIdle(maxPoolSize);
+        }
+        poolConfig.setMaximumPoolSize(maxPoolSize);
     }
     
     /**
@@ -370,22 +718,264 @@ public abstract class BaseStorageAdapter implements DatabaseStorage {
     }
     
     /**
-     * 记录慢查询
+     * 设置流式查询语句的驱动提示（子类可覆盖）
+     * 默认按连接属性stream_fetch_size设置fetchSize，避免驱动一次性拉取整个结果集
      * 
-     * @param sql SQL语句
-     * @param startTime 开始时间
+     * @param conn 当前连接
+     * @param stmt 预编译语句
+     * @throws SQLException 设置失败时抛出异常
      */
-    protected void logSlowQuery(String sql, long startTime) {
-        long executionTime = System.currentTimeMillis() - startTime;
+    protected void configureStreamingStatement(Connection conn, PreparedStatement stmt) throws SQLException {
+        stmt.setFetchSize(getStreamFetchSize());
+    }
+    
+    /**
+     * 获取流式查询的fetchSize
+     * 
+     * @return fetchSize，未配置时为1000
+     */
+    protected int getStreamFetchSize() {
+        return (int) getLongProperty("stream_fetch_size", DEFAULT_STREAM_FETCH_SIZE);
+    }
+    
+    /**
+     * 读取数值型连接属性
+     * 
+     * @param key 属性名
+     * @param defaultValue 默认值
+     * @return 属性值，未配置或格式错误时返回默认值
+     */
+    protected long getLongProperty(String key, long defaultValue) {
+        Object value = config.getProperty(key);
+        if (value != null) {
+            try {
+                return Long.parseLong(value.toString().trim());
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid {}: {}, using default {}", key, value, defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+    
+    /**
+     * 统计查询总记录数（可缓存）
+     * 
+     * @param sql 原始SQL
+     * @param ttlMillis 缓存有效期（毫秒），0表示不缓存
+     * @param params 查询参数
+     * @return 总记录数
+     * @throws StorageException 查询失败时抛出异常
+     */
+    protected long countTotal(String sql, long ttlMillis, Object... params) throws StorageException {
+        String cacheKey = sql + "|" + Arrays.deepToString(params);
+        long now = System.currentTimeMillis();
         
-        // 这里可以添加慢查询阈值配置
-        long slowQueryThreshold = 1000; // 1秒
+        if (ttlMillis > 0) {
+            CachedCount cached = countCache.get(cacheKey);
+            if (cached != null && cached.expiresAt > now) {
+                return cached.value;
+            }
+        }
+        
+        String countSql = "SELECT COUNT(*) FROM (" + sql + ") AS total";
+        long totalElements = querySingle(countSql, (rs, rowNum) -> rs.getLong(1), params);
         
-        if (executionTime > slowQueryThreshold) {
-            logger.warn("Slow query detected: {} ({}ms)", sql, executionTime);
+        if (ttlMillis > 0) {
+            if (countCache.size() >= MAX_COUNT_CACHE_SIZE) {
+                countCache.values().removeIf(entry -> entry.expiresAt <= now);
+                if (countCache.size() >= MAX_COUNT_CACHE_SIZE) {
+                    countCache.clear();
+                }
+            }
+            countCache.put(cacheKey, new CachedCount(totalElements, now + ttlMillis, readTables(sql)));
+        }
+        return totalElements;
+    }
+    
+    /**
+     * 清空总记录数缓存
+     * 本适配器的写操作成功后自动调用；绕过适配器写入数据时需要手动调用
+     */
+    public void clearCountCache() {
+        countCache.clear();
+    }
+    
+    /**
+     * 清除读取了指定表的总记录数缓存
+     * 
+     * @param table 表名（可带库名前缀）
+     */
+    public void clearCountCache(String table) {
+        String normalized = normalizeTable(table);
+        countCache.values().removeIf(entry -> entry.tables.contains(normalized));
+    }
+    
+    /**
+     * 写操作成功后失效相关的总记录数缓存
+     * 能识别目标表时只清除读取了该表的缓存，无法识别时（DDL等）清空全部缓存
+     * 
+     * @param sql 写操作SQL
+     */
+    protected void invalidateCountCache(String sql) {
+        if (countCache.isEmpty()) {
+            return;
+        }
+        Matcher matcher = WRITE_TABLE_PATTERN.matcher(sql);
+        if (matcher.find()) {
+            clearCountCache(matcher.group(1));
         } else {
-            logger.debug("Query executed in {}ms: {}", executionTime, sql);
+            clearCountCache();
+        }
+    }
+    
+    private static Set<String> readTables(String sql) {
+        Set<String> tables = new HashSet<>();
+        Matcher matcher = READ_TABLE_PATTERN.matcher(sql);
+        while (matcher.find()) {
+            tables.add(normalizeTable(matcher.group(1)));
+        }
+        return tables;
+    }
+    
+    private static String normalizeTable(String table) {
+        int dot = table.lastIndexOf('.');
+        return (dot >= 0 ? table.substring(dot + 1) : table).toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * 构建键集分页SQL（子类可覆盖）
+     * 
+     * @param sql 原始SQL
+     * @param sortKey 排序键列名
+     * @param hasCursor 是否带有上一页游标
+     * @param limit 返回行数上限
+     * @return 键集分页SQL
+     */
+    protected String buildSeekSql(String sql, String sortKey, boolean hasCursor, int limit) {
+        StringBuilder seekSql = new StringBuilder("SELECT * FROM (").append(sql).append(") AS seek_page");
+        if (hasCursor) {
+            seekSql.append(" WHERE ").append(sortKey).append(" > ?");
+        }
+        seekSql.append(" ORDER BY ").append(sortKey).append(" LIMIT ").append(limit);
+        return seekSql.toString();
+    }
+    
+    /**
+     * 构建插入或更新SQL（由支持的子类覆盖）
+     * 参数顺序与columns一致
+     * 
+     * @param table 表名
+     * @param columns 写入的字段
+     * @param conflictColumns 唯一键字段
+     * @return upsert SQL
+     * @throws StorageException 数据库不支持upsert时抛出异常
+     */
+    protected String buildUpsertSql(String table, List<String> columns, String[] conflictColumns) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", getDatabaseType() + " does not support upsert");
+    }
+    
+    /**
+     * 校验upsert的表名和字段
+     * 
+     * @param table 表名
+     * @param columns 写入的字段
+     * @param conflictColumns 唯一键字段
+     * @return 表名
+     * @throws StorageException 表名或字段无效时抛出异常
+     */
+    private String validateUpsert(String table, List<String> columns, String[] conflictColumns) throws StorageException {
+        if (table == null || !TABLE_NAME_PATTERN.matcher(table).matches()) {
+            throw new StorageException("INVALID_TABLE", "Invalid table name: " + table);
+        }
+        for (String column : columns) {
+            if (column == null || !SORT_KEY_PATTERN.matcher(column).matches()) {
+                throw new StorageException("INVALID_COLUMN", "Invalid column name: " + column);
+            }
         }
+        if (conflictColumns == null || conflictColumns.length == 0) {
+            throw new StorageException("INVALID_COLUMN", "Upsert requires at least one conflict column");
+        }
+        for (String column : conflictColumns) {
+            if (!columns.contains(column)) {
+                throw new StorageException("INVALID_COLUMN", "Conflict column missing from data: " + column);
+            }
+        }
+        return table;
+    }
+    
+    /**
+     * 记录慢查询
+     * 保留给以毫秒计时的调用方，行数和参数记为未知
+     * 
+     * @param sql SQL语句
+     * @param startTime 开始时间（System.currentTimeMillis()）
+     */
+    protected void logSlowQuery(String sql, long startTime) {
+        long elapsedMillis = System.currentTimeMillis() - startTime;
+        queryMetrics.record(sql, TimeUnit.MILLISECONDS.toNanos(elapsedMillis), -1, null);
+    }
+    
+    /**
+     * 记录一次成功的执行：计入该SQL指纹的延迟直方图和行数，超过慢查询阈值时连同参数保存样本
+     * 
+     * @param sql SQL语句
+     * @param startNanos 开始时间（System.nanoTime()）
+     * @param rows 返回或影响的行数，未知时传-1
+     * @param params 参数
+     */
+    protected void recordQuery(String sql, long startNanos, long rows, Object[] params) {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        queryMetrics.record(sql, elapsedNanos, rows, params);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Query executed in {}ms: {}", TimeUnit.NANOSECONDS.toMillis(elapsedNanos), sql);
+        }
+    }
+    
+    /**
+     * 记录一次失败的执行
+     * 
+     * @param sql SQL语句
+     * @param startNanos 开始时间（System.nanoTime()）
+     */
+    protected void recordQueryError(String sql, long startNanos) {
+        queryMetrics.recordError(sql, System.nanoTime() - startNanos);
+    }
+    
+    /**
+     * 获取查询统计
+     * 
+     * @return 查询统计
+     */
+    public QueryMetrics getQueryMetrics() {
+        return queryMetrics;
+    }
+    
+    /**
+     * 解析慢查询阈值：优先使用数据库的slow_query_threshold_ms属性，其次是全局配置
+     * 
+     * @return 慢查询阈值（毫秒）
+     */
+    private long resolveSlowQueryThreshold() {
+        ConfigurationManager.GlobalConfig globalConfig = ConfigurationManager.getGlobalConfig();
+        long globalThreshold = globalConfig != null ? globalConfig.getSlowQueryThreshold() : 1000;
+        return getLongProperty("slow_query_threshold_ms", globalThreshold);
+    }
+    
+    /**
+     * 汇总批量执行影响的行数（驱动返回SUCCESS_NO_INFO等负值时按未知处理）
+     * 
+     * @param results 每条语句影响的行数
+     * @return 总行数，未知时为-1
+     */
+    private static long affectedRows(int[] results) {
+        long total = 0;
+        for (int result : results) {
+            if (result < 0) {
+                return -1;
+            }
+            total += result;
+        }
+        return total;
     }
     
     /**
@@ -444,4 +1034,19 @@ public abstract class BaseStorageAdapter implements DatabaseStorage {
      * @throws SQLException 获取连接失败时抛出异常
      */
     protected abstract Connection doGetConnection() throws SQLException;
+    
+    /**
+     * 缓存的总记录数
+     */
+    private static final class CachedCount {
+        private final long value;
+        private final long expiresAt;
+        private final Set<String> tables;
+        
+        private CachedCount(long value, long expiresAt, Set<String> tables) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.tables = tables;
+        }
+    }
 }
\ No newline at end of file
@@ -1,19 +1,120 @@
 package database.adapter;
 
 import database.config.DatabaseConfig;
+import database.core.DatabaseStorage;
+import database.core.Page;
+import database.core.RowMapper;
 import database.core.StorageException;
+import database.util.SaltedRowKey;
+import database.util.UrlHash;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Admin;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.BufferedMutatorParams;
+import org.apache.hadoop.hbase.client.ColumnFamilyDescriptorBuilder;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.hbase.client.Delete;
+import org.apache.hadoop.hbase.client.Durability;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Mutation;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.RetriesExhaustedWithDetailsException;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.client.TableDescriptorBuilder;
+import org.apache.hadoop.hbase.io.compress.Compression;
+import org.apache.hadoop.hbase.regionserver.BloomType;
+import org.apache.hadoop.hbase.util.Bytes;
 
-import java.sql.Connection;
-import java.sql.SQLException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.stream.Stream;
 
 /**
- * HBase数据库适配器
- * Apache HBase数据库的存储适配器（待实现）
+ * HBase键值适配器
+ * 使用HBase原生客户端（非JDBC），用于长期保存原始页面和文章等按行键访问的大量数据。
+ * 
+ * 写入经由每张表一个的BufferedMutator在客户端缓冲，缓冲区写满（write_buffer_mb）或
+ * 距上次提交超过flush_interval_ms时整批发送；调用 {@link #flush} 可以等待已提交的写入落到RegionServer。
+ * 批量发送失败（重试耗尽）的写入会被记录，并在下一次flush时以异常报告。
+ * 
+ * 所有行键都经过 {@link SaltedRowKey} 加盐，按时间递增的URL不会集中写入同一个Region；
+ * 建表时按分桶数预分区。点查和批量读取自动计算盐值，前缀扫描在各分桶上并行扫描后按逻辑键顺序合并。
+ * 
+ * 连接属性：
+ * zookeeper_quorum（必填）、zookeeper_port、zookeeper_znode_parent、column_family（默认d）、
+ * salt_buckets（默认16，建表后不可修改）、write_buffer_mb、flush_interval_ms、scan_caching、scan_batch、
+ * multi_get_batch、durability（USE_DEFAULT/SKIP_WAL/ASYNC_WAL/SYNC_WAL/FSYNC_WAL）、compression、
+ * 以及以 hbase_ 开头的客户端配置（下划线替换为点号，如 hbase_rpc_timeout -> hbase.rpc.timeout）
  * 
  * @author Collections Team
  * @since 1.0
  */
-public class HBaseAdapter extends BaseStorageAdapter {
+public class HBaseAdapter implements DatabaseStorage {
+    
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(HBaseAdapter.class);
+    
+    private static final String HBASE_CONF_PREFIX = "hbase_";
+    
+    /**
+     * 数据库配置
+     */
+    private final DatabaseConfig config;
+    
+    /**
+     * 适配器状态
+     */
+    private final AtomicBoolean initialized = new AtomicBoolean(false);
+    
+    /**
+     * 外部提供的连接（测试时注入模拟连接），为null时由适配器创建并负责关闭
+     */
+    private final Connection providedConnection;
+    
+    /**
+     * HBase连接（线程安全，所有表共用）
+     */
+    private Connection connection;
+    
+    /**
+     * 各表的缓冲写入器
+     */
+    private final Map<String, BufferedMutator> mutators = new ConcurrentHashMap<>();
+    
+    /**
+     * 重试耗尽的写入数和最近一次失败
+     */
+    private final AtomicLong failedMutations = new AtomicLong();
+    private final AtomicLong reportedFailures = new AtomicLong();
+    private volatile RetriesExhaustedWithDetailsException lastFailure;
+    
+    private byte[] family;
+    private SaltedRowKey rowKeys;
+    private long writeBufferBytes;
+    private long flushIntervalMillis;
+    private int scanCaching;
+    private int scanBatch;
+    private int multiGetBatch;
+    private Durability durability;
     
     /**
      * 构造函数
@@ -21,7 +122,21 @@ public class HBaseAdapter extends BaseStorageAdapter {
      * @param config 数据库配置
      */
     public HBaseAdapter(DatabaseConfig config) {
-        super(config);
+        this(config, null);
+    }
+    
+    /**
+     * 使用已有连接的构造函数（连接由调用方负责关闭）
+     * 
+     * @param config 数据库配置
+     * @param connection HBase连接
+     */
+    public HBaseAdapter(DatabaseConfig config, Connection connection) {
+        if (config == null) {
+            throw new IllegalArgumentException("Database configuration cannot be null");
+        }
+        this.config = config;
+        this.providedConnection = connection;
     }
     
     @Override
@@ -31,32 +146,606 @@ public class HBaseAdapter extends BaseStorageAdapter {
     
     @Override
     public String getConnectionInfo() {
-        return "HBase [Not Implemented]";
+        if (!initialized.get()) {
+            return "HBase [Not Connected]";
+        }
+        return String.format("HBase [%s] - Salt buckets: %d, Open mutators: %d",
+                stringProperty("zookeeper_quorum", "injected connection"), rowKeys.getBuckets(), mutators.size());
     }
     
     @Override
-    protected void doInitialize() throws Exception {
-        throw new StorageException("NOT_IMPLEMENTED", "HBase adapter is not implemented yet");
+    public void initialize() throws StorageException {
+        if (initialized.compareAndSet(false, true)) {
+            try {
+                logger.info("Initializing HBase adapter for database: {}", config.getName());
+                doInitialize();
+                logger.info("Successfully initialized HBase adapter");
+            } catch (Exception e) {
+                initialized.set(false);
+                closeConnection();
+                throw new StorageException("INIT_FAILED", "Failed to initialize HBase adapter", e);
+            }
+        }
     }
     
     @Override
-    protected void doShutdown() throws Exception {
-        // 不需要实现
+    public void shutdown() throws StorageException {
+        if (initialized.compareAndSet(true, false)) {
+            logger.info("Shutting down HBase adapter for database: {}", config.getName());
+            for (Map.Entry<String, BufferedMutator> entry : mutators.entrySet()) {
+                try {
+                    // close会先发送缓冲区中的全部写入
+                    entry.getValue().close();
+                } catch (IOException e) {
+                    logger.warn("Failed to flush pending writes for HBase table: {}", entry.getKey(), e);
+                }
+            }
+            mutators.clear();
+            closeConnection();
+            logger.info("Successfully shut down HBase adapter");
+        }
     }
     
     @Override
-    protected boolean doHealthCheck() throws Exception {
-        return false;
+    public boolean isHealthy() {
+        return initialized.get() && connection != null && !connection.isClosed() && !connection.isAborted();
+    }
+    
+    @Override
+    public <T> Optional<T> querySingle(String sql, RowMapper<T> mapper, Object... params) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "HBase does not support SQL queries");
+    }
+    
+    @Override
+    public <T> List<T> queryMultiple(String sql, RowMapper<T> mapper, Object... params) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "HBase does not support SQL queries");
+    }
+    
+    @Override
+    public <T> Page<T> queryPage(String sql, RowMapper<T> mapper, int pageNum, int pageSize, Object... params) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "HBase does not support SQL queries");
+    }
+    
+    @Override
+    public <T> Page<T> querySeek(String sql, RowMapper<T> mapper, String sortKey, Object lastSeen, int pageSize, Object... params) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "HBase does not support SQL queries");
+    }
+    
+    @Override
+    public <T> Stream<T> queryStream(String sql, RowMapper<T> mapper, Object... params) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "HBase does not support SQL queries");
     }
     
     @Override
-    protected Connection doGetConnection() throws SQLException {
-        throw new SQLException("HBase adapter is not implemented yet");
+    public int insert(String table, Map<String, Object> data) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "HBase does not support SQL insert, use put instead");
     }
     
     @Override
-    protected String addPagination(String sql, int pageNum, int pageSize) {
-        // HBase分页逻辑（待实现）
-        return sql; // 暂时返回原SQL
+    public int[] insertBatch(String table, List<Map<String, Object>> dataList) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "HBase does not support SQL batch insert, use putAll instead");
+    }
+    
+    @Override
+    public int update(String table, Map<String, Object> data, String condition, Object... params) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "HBase does not support SQL update, use put instead");
+    }
+    
+    @Override
+    public int[] updateBatch(String table, List<Map<String, Object>> dataList, String condition) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "HBase does not support SQL batch update, use putAll instead");
+    }
+    
+    @Override
+    public int delete(String table, String condition, Object... params) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "HBase does not support SQL delete, use deleteRow instead");
+    }
+    
+    @Override
+    public int[] deleteBatch(String table, List<String> conditions) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "HBase does not support SQL batch delete, use deleteRow instead");
+    }
+    
+    @Override
+    public int upsert(String table, Map<String, Object> data, String... conflictColumns) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "HBase does not support SQL upsert, use put instead");
+    }
+    
+    @Override
+    public int[] upsertBatch(String table, List<Map<String, Object>> dataList, String... conflictColumns) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "HBase does not support SQL batch upsert, use putAll instead");
+    }
+    
+    @Override
+    public void beginTransaction() throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "HBase adapter does not support transactions");
+    }
+    
+    @Override
+    public void commit() throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "HBase adapter does not support transactions");
+    }
+    
+    @Override
+    public void rollback() throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "HBase adapter does not support transactions");
+    }
+    
+    @Override
+    public boolean isInTransaction() {
+        return false;
+    }
+    
+    /**
+     * 键值操作方法
+     */
+    
+    /**
+     * 文章行键：规范化后的URL，同一站点的文章可以按 "协议://主机/" 前缀扫描
+     * 
+     * @param url 文章URL
+     * @return 逻辑行键（未加盐）
+     */
+    public static String articleKey(String url) {
+        return UrlHash.canonicalize(url);
+    }
+    
+    /**
+     * 缓冲写入一行（异步发送）
+     * 
+     * @param table 表名
+     * @param key 逻辑行键
+     * @param columns 列名到值的映射，值为byte[]时原样写入，其他类型按字符串写入，null值跳过
+     */
+    public void put(String table, String key, Map<String, ?> columns) throws StorageException {
+        mutate(table, buildPut(key, columns));
+    }
+    
+    /**
+     * 缓冲写入多行（异步发送）
+     * 
+     * @param table 表名
+     * @param rows 逻辑行键到列的映射
+     */
+    public void putAll(String table, Map<String, ? extends Map<String, ?>> rows) throws StorageException {
+        if (rows == null || rows.isEmpty()) {
+            return;
+        }
+        List<Mutation> puts = new ArrayList<>(rows.size());
+        for (Map.Entry<String, ? extends Map<String, ?>> row : rows.entrySet()) {
+            puts.add(buildPut(row.getKey(), row.getValue()));
+        }
+        BufferedMutator mutator = mutator(table);
+        try {
+            mutator.mutate(puts);
+        } catch (IOException e) {
+            throw new StorageException("HBASE_OPERATION_FAILED", "Failed to buffer puts for " + table, e);
+        }
+    }
+    
+    /**
+     * 缓冲删除一行（异步发送）
+     * 
+     * @param table 表名
+     * @param key 逻辑行键
+     */
+    public void deleteRow(String table, String key) throws StorageException {
+        Delete delete = new Delete(rowKeys.salt(key));
+        delete.setDurability(durability);
+        mutate(table, delete);
+    }
+    
+    /**
+     * 发送表的缓冲写入并等待完成
+     * 
+     * @param table 表名
+     * @throws StorageException 发送失败或此前有写入重试耗尽时抛出异常
+     */
+    public void flush(String table) throws StorageException {
+        checkInitialized();
+        BufferedMutator mutator = mutators.get(table);
+        if (mutator != null) {
+            try {
+                mutator.flush();
+            } catch (IOException e) {
+                throw new StorageException("HBASE_OPERATION_FAILED", "Failed to flush writes for " + table, e);
+            }
+        }
+        checkFailures();
+    }
+    
+    /**
+     * 发送所有表的缓冲写入并等待完成
+     * 
+     * @throws StorageException 发送失败或此前有写入重试耗尽时抛出异常
+     */
+    public void flush() throws StorageException {
+        for (String table : mutators.keySet()) {
+            flush(table);
+        }
+    }
+    
+    /**
+     * 读取一行
+     * 
+     * @param table 表名
+     * @param key 逻辑行键
+     * @return 列名到值的映射，行不存在时返回null
+     */
+    public Map<String, String> get(String table, String key) throws StorageException {
+        checkInitialized();
+        try (Table t = connection.getTable(TableName.valueOf(table))) {
+            return toColumnMap(t.get(new Get(rowKeys.salt(key)).addFamily(family)));
+        } catch (IOException e) {
+            throw new StorageException("HBASE_OPERATION_FAILED", "Failed to get row from " + table, e);
+        }
+    }
+    
+    /**
+     * 读取一个单元格的原始字节（如压缩后的页面内容）
+     * 
+     * @param table 表名
+     * @param key 逻辑行键
+     * @param column 列名
+     * @return 单元格内容，不存在时返回null
+     */
+    public byte[] getBytes(String table, String key, String column) throws StorageException {
+        checkInitialized();
+        byte[] qualifier = Bytes.toBytes(column);
+        try (Table t = connection.getTable(TableName.valueOf(table))) {
+            return t.get(new Get(rowKeys.salt(key)).addColumn(family, qualifier)).getValue(family, qualifier);
+        } catch (IOException e) {
+            throw new StorageException("HBASE_OPERATION_FAILED", "Failed to get cell from " + table, e);
+        }
+    }
+    
+    /**
+     * 批量读取多行，按multi_get_batch分批，每批一次RPC往返（客户端按RegionServer分组并行发送）
+     * 
+     * @param table 表名
+     * @param keys 逻辑行键
+     * @return 与键顺序一致的结果，不存在的行对应null
+     */
+    public List<Map<String, String>> multiGet(String table, List<String> keys) throws StorageException {
+        checkInitialized();
+        List<Map<String, String>> results = new ArrayList<>(keys.size());
+        try (Table t = connection.getTable(TableName.valueOf(table))) {
+            for (int start = 0; start < keys.size(); start += multiGetBatch) {
+                List<String> chunk = keys.subList(start, Math.min(keys.size(), start + multiGetBatch));
+                List<Get> gets = new ArrayList<>(chunk.size());
+                for (String key : chunk) {
+                    gets.add(new Get(rowKeys.salt(key)).addFamily(family));
+                }
+                for (Result result : t.get(gets)) {
+                    results.add(toColumnMap(result));
+                }
+            }
+        } catch (IOException e) {
+            throw new StorageException("HBASE_OPERATION_FAILED", "Failed to multi-get rows from " + table, e);
+        }
+        return results;
+    }
+    
+    /**
+     * 按逻辑键前缀扫描
+     * 
+     * @param table 表名
+     * @param prefix 逻辑键前缀
+     * @param limit 最多返回的行数，0表示不限制
+     * @return 按逻辑键排序的 行键 -> 列 映射
+     */
+    public Map<String, Map<String, String>> scanPrefix(String table, String prefix, int limit) throws StorageException {
+        Map<String, Map<String, String>> rows = new LinkedHashMap<>();
+        scanPrefix(table, prefix, (key, columns) -> {
+            rows.put(key, columns);
+            return limit <= 0 || rows.size() < limit;
+        });
+        return rows;
+    }
+    
+    /**
+     * 按逻辑键前缀扫描
+     * 每个分桶打开一个扫描器（按scan_caching批量拉取），用最小堆按逻辑键顺序合并各分桶的结果
+     * 
+     * @param table 表名
+     * @param prefix 逻辑键前缀，空字符串表示全表
+     * @param visitor 访问器（逻辑行键、列），返回false时停止扫描
+     */
+    public void scanPrefix(String table, String prefix, BiPredicate<String, Map<String, String>> visitor) throws StorageException {
+        checkInitialized();
+        byte[] prefixBytes = prefix.getBytes(StandardCharsets.UTF_8);
+        List<ResultScanner> scanners = new ArrayList<>(rowKeys.getBuckets());
+        PriorityQueue<ScanCursor> heads = new PriorityQueue<>(
+                Comparator.comparing((ScanCursor cursor) -> cursor.logicalKey, Bytes.BYTES_COMPARATOR));
+        
+        try (Table t = connection.getTable(TableName.valueOf(table))) {
+            for (int bucket = 0; bucket < rowKeys.getBuckets(); bucket++) {
+                Scan scan = new Scan()
+                        .withStartRow(rowKeys.scanStart(bucket, prefixBytes))
+                        .withStopRow(rowKeys.scanStop(bucket, prefixBytes))
+                        .addFamily(family)
+                        .setCaching(scanCaching)
+                        .setCacheBlocks(false);
+                if (scanBatch > 0) {
+                    scan.setBatch(scanBatch);
+                }
+                ResultScanner scanner = t.getScanner(scan);
+                scanners.add(scanner);
+                ScanCursor cursor = new ScanCursor(scanner);
+                if (cursor.advance()) {
+                    heads.add(cursor);
+                }
+            }
+            
+            while (!heads.isEmpty()) {
+                ScanCursor cursor = heads.poll();
+                byte[] logicalKey = cursor.logicalKey;
+                Map<String, String> columns = new LinkedHashMap<>();
+                // 设置了scan_batch时一行可能被拆成多个Result，连续的同一行合并后再交给访问器
+                do {
+                    columns.putAll(toColumnMap(cursor.current));
+                } while (cursor.advance() && Bytes.equals(cursor.logicalKey, logicalKey));
+                if (cursor.current != null) {
+                    heads.add(cursor);
+                }
+                if (!visitor.test(Bytes.toString(logicalKey), columns)) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new StorageException("HBASE_OPERATION_FAILED", "Failed to scan prefix in " + table, e);
+        } finally {
+            for (ResultScanner scanner : scanners) {
+                scanner.close();
+            }
+        }
+    }
+    
+    /**
+     * 创建表（已存在时不做任何操作），按盐值分桶预分区
+     * 
+     * @param table 表名
+     * @param ttlSeconds 数据保留时间（秒），0表示永久保留
+     */
+    public void createTable(String table, int ttlSeconds) throws StorageException {
+        checkInitialized();
+        TableName tableName = TableName.valueOf(table);
+        try (Admin admin = connection.getAdmin()) {
+            if (admin.tableExists(tableName)) {
+                return;
+            }
+            ColumnFamilyDescriptorBuilder familyBuilder = ColumnFamilyDescriptorBuilder.newBuilder(family)
+                    .setBloomFilterType(BloomType.ROW)
+                    .setCompressionType(compressionAlgorithm(stringProperty("compression", "none")))
+                    .setMaxVersions(1);
+            if (ttlSeconds > 0) {
+                familyBuilder.setTimeToLive(ttlSeconds);
+            }
+            TableDescriptorBuilder tableBuilder = TableDescriptorBuilder.newBuilder(tableName)
+                    .setColumnFamily(familyBuilder.build());
+            
+            if (rowKeys.getBuckets() > 1) {
+                admin.createTable(tableBuilder.build(), rowKeys.splitKeys());
+            } else {
+                admin.createTable(tableBuilder.build());
+            }
+            logger.info("Created HBase table {} with {} pre-split regions", table, rowKeys.getBuckets());
+        } catch (IOException e) {
+            throw new StorageException("HBASE_OPERATION_FAILED", "Failed to create table " + table, e);
+        }
+    }
+    
+    /**
+     * 获取统计信息
+     * 
+     * @return 打开的写入器、失败写入数等
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("saltBuckets", rowKeys != null ? rowKeys.getBuckets() : 0);
+        stats.put("openMutators", new ArrayList<>(mutators.keySet()));
+        stats.put("writeBufferBytes", writeBufferBytes);
+        stats.put("flushIntervalMillis", flushIntervalMillis);
+        stats.put("failedMutations", failedMutations.get());
+        return stats;
+    }
+    
+    /**
+     * 连接HBase
+     */
+    private void doInitialize() throws IOException, StorageException {
+        family = Bytes.toBytes(stringProperty("column_family", "d"));
+        rowKeys = new SaltedRowKey(intProperty("salt_buckets", 16));
+        writeBufferBytes = intProperty("write_buffer_mb", 4) * 1024L * 1024L;
+        flushIntervalMillis = intProperty("flush_interval_ms", 1000);
+        scanCaching = intProperty("scan_caching", 500);
+        scanBatch = intProperty("scan_batch", 0);
+        multiGetBatch = Math.max(1, intProperty("multi_get_batch", 100));
+        durability = Durability.valueOf(stringProperty("durability", "USE_DEFAULT").toUpperCase(Locale.ROOT));
+        
+        if (providedConnection != null) {
+            connection = providedConnection;
+            return;
+        }
+        
+        String quorum = stringProperty("zookeeper_quorum", "");
+        if (quorum.isEmpty()) {
+            throw new StorageException("CONFIG_INVALID", "HBase database requires 'zookeeper_quorum' property");
+        }
+        Configuration hbaseConf = HBaseConfiguration.create();
+        hbaseConf.set("hbase.zookeeper.quorum", quorum);
+        hbaseConf.set("hbase.zookeeper.property.clientPort", stringProperty("zookeeper_port", "2181"));
+        hbaseConf.set("zookeeper.znode.parent", stringProperty("zookeeper_znode_parent", "/hbase"));
+        hbaseConf.setInt("hbase.client.scanner.caching", scanCaching);
+        for (Map.Entry<String, Object> entry : config.getProperties().entrySet()) {
+            if (entry.getKey().startsWith(HBASE_CONF_PREFIX) && entry.getValue() != null) {
+                hbaseConf.set(entry.getKey().replace('_', '.'), entry.getValue().toString());
+            }
+        }
+        connection = ConnectionFactory.createConnection(hbaseConf);
+        logger.info("Connected to HBase via ZooKeeper quorum {}", quorum);
+    }
+    
+    private Put buildPut(String key, Map<String, ?> columns) throws StorageException {
+        if (columns == null || columns.isEmpty()) {
+            throw new StorageException("INVALID_DATA", "HBase put requires at least one column");
+        }
+        Put put = new Put(rowKeys.salt(key));
+        put.setDurability(durability);
+        for (Map.Entry<String, ?> column : columns.entrySet()) {
+            Object value = column.getValue();
+            if (value == null) {
+                continue;
+            }
+            byte[] bytes = value instanceof byte[] ? (byte[]) value : Bytes.toBytes(value.toString());
+            put.addColumn(family, Bytes.toBytes(column.getKey()), bytes);
+        }
+        return put;
+    }
+    
+    private void mutate(String table, Mutation mutation) throws StorageException {
+        BufferedMutator mutator = mutator(table);
+        try {
+            mutator.mutate(mutation);
+        } catch (IOException e) {
+            throw new StorageException("HBASE_OPERATION_FAILED", "Failed to buffer mutation for " + table, e);
+        }
+    }
+    
+    /**
+     * 获取表的缓冲写入器，首次使用时创建
+     */
+    private BufferedMutator mutator(String table) throws StorageException {
+        checkInitialized();
+        BufferedMutator mutator = mutators.get(table);
+        if (mutator != null) {
+            return mutator;
+        }
+        synchronized (mutators) {
+            mutator = mutators.get(table);
+            if (mutator == null) {
+                BufferedMutatorParams params = new BufferedMutatorParams(TableName.valueOf(table))
+                        .writeBufferSize(writeBufferBytes)
+                        .setWriteBufferPeriodicFlushTimeoutMs(flushIntervalMillis)
+                        .listener(this::onMutationFailure);
+                try {
+                    mutator = connection.getBufferedMutator(params);
+                } catch (IOException e) {
+                    throw new StorageException("HBASE_OPERATION_FAILED", "Failed to open buffered mutator for " + table, e);
+                }
+                mutators.put(table, mutator);
+            }
+            return mutator;
+        }
+    }
+    
+    /**
+     * 后台发送重试耗尽时的回调（在客户端线程中执行，不能抛出异常中断其他批次）
+     */
+    private void onMutationFailure(RetriesExhaustedWithDetailsException e, BufferedMutator mutator) {
+        failedMutations.addAndGet(e.getNumExceptions());
+        lastFailure = e;
+        logger.error("HBase buffered writes to {} failed after retries: {} mutations, hosts {}",
+                mutator.getName(), e.getNumExceptions(), e.getHostnamePort(0));
+    }
+    
+    /**
+     * 报告上次检查以来新增的写入失败
+     */
+    private void checkFailures() throws StorageException {
+        long failed = failedMutations.get();
+        long reported = reportedFailures.getAndSet(failed);
+        if (failed > reported) {
+            throw new StorageException("HBASE_WRITE_FAILED",
+                    (failed - reported) + " buffered HBase mutations failed after retries", lastFailure);
+        }
+    }
+    
+    private Map<String, String> toColumnMap(Result result) {
+        if (result == null || result.isEmpty()) {
+            return null;
+        }
+        NavigableMap<byte[], byte[]> familyMap = result.getFamilyMap(family);
+        Map<String, String> columns = new LinkedHashMap<>();
+        if (familyMap != null) {
+            for (Map.Entry<byte[], byte[]> cell : familyMap.entrySet()) {
+                columns.put(Bytes.toString(cell.getKey()), Bytes.toString(cell.getValue()));
+            }
+        }
+        return columns;
+    }
+    
+    private void closeConnection() {
+        if (connection != null && connection != providedConnection) {
+            try {
+                connection.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close HBase connection", e);
+            }
+        }
+        connection = null;
+    }
+    
+    private int intProperty(String key, int defaultValue) {
+        Object value = config.getProperty(key);
+        return value != null ? Integer.parseInt(value.toString().trim()) : defaultValue;
+    }
+    
+    private String stringProperty(String key, String defaultValue) {
+        Object value = config.getProperty(key);
+        return value != null ? value.toString().trim() : defaultValue;
+    }
+    
+    private static Compression.Algorithm compressionAlgorithm(String name) {
+        switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "none":
+                return Compression.Algorithm.NONE;
+            case "snappy":
+                return Compression.Algorithm.SNAPPY;
+            case "lz4":
+                return Compression.Algorithm.LZ4;
+            case "zstd":
+                return Compression.Algorithm.ZSTD;
+            case "gz":
+            case "gzip":
+                return Compression.Algorithm.GZ;
+            default:
+                throw new IllegalArgumentException("Unsupported HBase compression: " + name);
+        }
+    }
+    
+    /**
+     * 检查适配器是否已初始化
+     * 
+     * @throws StorageException 未初始化时抛出异常
+     */
+    private void checkInitialized() throws StorageException {
+        if (!initialized.get()) {
+            throw new StorageException("NOT_INITIALIZED", "HBase adapter is not initialized");
+        }
+    }
+    
+    /**
+     * 一个分桶扫描器的当前位置
+     */
+    private static final class ScanCursor {
+        private final ResultScanner scanner;
+        private Result current;
+        private byte[] logicalKey;
+        
+        private ScanCursor(ResultScanner scanner) {
+            this.scanner = scanner;
+        }
+        
+        /**
+         * 前进到下一个结果
+         * 
+         * @return 是否还有结果
+         */
+        private boolean advance() throws IOException {
+            current = scanner.next();
+            logicalKey = current != null ? SaltedRowKey.unsalt(current.getRow()) : null;
+            return current != null;
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,19 +1,61 @@
 package database.adapter;
 
 import database.config.DatabaseConfig;
+import database.core.PoolMetrics;
+import database.core.PooledStorage;
 import database.core.StorageException;
+import database.export.ExportOptions;
+import database.export.ExportResult;
+import database.export.ExportSchema;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
 
 /**
  * Hive数据库适配器
- * Apache Hive数据库的存储适配器（待实现）
+ * 通过HiveServer2 JDBC连接Apache Hive。
+ * 
+ * Hive不适合逐行INSERT（每条语句都会启动一次作业），抓取数据应先用
+ * {@link database.export.ColumnarExporter} 导出为分区的Parquet/ORC文件，再通过
+ * {@link #loadPartitions} （LOAD DATA）或 {@link #addPartitions} （ADD PARTITION）按文件整批入库。
+ * 
+ * HiveServer2不支持关闭自动提交，连接始终为自动提交模式，事务接口不可用。
  * 
  * @author Collections Team
  * @since 1.0
  */
-public class HiveAdapter extends BaseStorageAdapter {
+public class HiveAdapter extends BaseStorageAdapter implements PooledStorage {
+    
+    private static final Logger logger = LoggerFactory.getLogger(HiveAdapter.class);
+    
+    /**
+     * 以 hive_ 开头的连接属性作为Hive配置项传给会话，下划线替换为点号，
+     * 例如 hive_exec_dynamic_partition -> hive.exec.dynamic.partition
+     */
+    private static final String HIVE_CONF_PREFIX = "hive_";
+    
+    /**
+     * 一条 ALTER TABLE ... ADD PARTITION 语句最多登记的分区数
+     */
+    private static final int ADD_PARTITION_BATCH_SIZE = 100;
+    
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)?");
+    
+    /**
+     * HikariCP数据源
+     */
+    private HikariDataSource dataSource;
     
     /**
      * 构造函数
@@ -31,32 +73,307 @@ public class HiveAdapter extends BaseStorageAdapter {
     
     @Override
     public String getConnectionInfo() {
-        return "Hive [Not Implemented]";
+        if (dataSource != null && !dataSource.isClosed()) {
+            return String.format("Hive [%s] - Pool: %d/%d",
+                    dataSource.getJdbcUrl(),
+                    dataSource.getHikariPoolMXBean().getActiveConnections(),
+                    dataSource.getHikariPoolMXBean().getTotalConnections());
+        }
+        return "Hive [Not Connected]";
     }
     
     @Override
     protected void doInitialize() throws Exception {
-        throw new StorageException("NOT_IMPLEMENTED", "Hive adapter is not implemented yet");
+        logger.info("Initializing Hive adapter");
+        
+        // 创建HikariCP配置
+        HikariConfig hikariConfig = new HikariConfig();
+        
+        // 构建JDBC URL：jdbc:hive2://host:port/database?hive.conf=value;...
+        String url = buildJdbcUrl();
+        hikariConfig.setJdbcUrl(url);
+        
+        // 设置认证信息
+        Object username = config.getProperty("username");
+        Object password = config.getProperty("password");
+        if (username != null && !username.toString().trim().isEmpty()) {
+            hikariConfig.setUsername(username.toString());
+            hikariConfig.setPassword(password != null ? password.toString() : "");
+        }
+        
+        // 设置驱动类名
+        hikariConfig.setDriverClassName("org.apache.hive.jdbc.HiveDriver");
+        
+        // 设置连接池配置
+        if (config.getPool() != null) {
+            hikariConfig.setMaximumPoolSize(config.getPool().getMaxPoolSize());
+            hikariConfig.setMinimumIdle(config.getPool().getMinPoolSize());
+            hikariConfig.setConnectionTimeout(config.getPool().getConnectionTimeout());
+            hikariConfig.setIdleTimeout(config.getPool().getIdleTimeout());
+            hikariConfig.setMaxLifetime(config.getPool().getMaxLifetime());
+            hikariConfig.setLeakDetectionThreshold(config.getPool().getLeakDetectionThreshold());
+            
+            // 设置连接测试查询
+            String testQuery = config.getPool().getConnectionTestQuery();
+            if (testQuery != null && !testQuery.trim().isEmpty()) {
+                hikariConfig.setConnectionTestQuery(testQuery);
+            } else {
+                hikariConfig.setConnectionTestQuery("SELECT 1");
+            }
+        }
+        
+        // HiveServer2不支持setAutoCommit(false)，忽略连接池配置中的auto_commit
+        hikariConfig.setAutoCommit(true);
+        
+        // 设置池名称
+        hikariConfig.setPoolName("Hive-" + config.getName());
+        
+        // 创建数据源
+        dataSource = new HikariDataSource(hikariConfig);
+        
+        // 测试连接
+        try {
+            dataSource.getConnection().close();
+            logger.info("Successfully connected to Hive: {}", url);
+        } catch (SQLException e) {
+            throw new StorageException("CONNECTION_FAILED", "Failed to connect to Hive", e);
+        }
     }
     
     @Override
     protected void doShutdown() throws Exception {
-        // 不需要实现
+        logger.info("Shutting down Hive adapter");
+        
+        if (dataSource != null && !dataSource.isClosed()) {
+            dataSource.close();
+            logger.info("Hive connection pool closed");
+        }
     }
     
     @Override
     protected boolean doHealthCheck() throws Exception {
-        return false;
+        if (dataSource == null || dataSource.isClosed()) {
+            return false;
+        }
+        
+        try (Connection conn = dataSource.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("SELECT 1");
+            return true;
+        } catch (SQLException e) {
+            logger.warn("Hive health check failed: {}", e.getMessage());
+            return false;
+        }
     }
     
     @Override
     protected Connection doGetConnection() throws SQLException {
-        throw new SQLException("Hive adapter is not implemented yet");
+        if (dataSource == null || dataSource.isClosed()) {
+            throw new SQLException("Hive connection pool is not available");
+        }
+        return dataSource.getConnection();
+    }
+    
+    @Override
+    public PoolMetrics getPoolMetrics() {
+        return hikariPoolMetrics(dataSource);
+    }
+    
+    @Override
+    public void resizePool(int maxPoolSize) throws StorageException {
+        resizeHikariPool(dataSource, maxPoolSize);
+        logger.info("Resized {} connection pool to {} connections", getDatabaseType(), maxPoolSize);
     }
     
     @Override
     protected String addPagination(String sql, int pageNum, int pageSize) {
-        // Hive分页逻辑（待实现）
-        return sql; // 暂时返回原SQL
+        // Hive 2.0+ 支持 LIMIT offset, rows
+        int offset = (pageNum - 1) * pageSize;
+        return sql + " LIMIT " + offset + ", " + pageSize;
+    }
+    
+    /**
+     * 创建与导出结构一致的分区表（已存在时不做任何操作）
+     * 
+     * @param table 表名（可带库名）
+     * @param schema 导出结构，分区列在Hive中为STRING类型
+     * @param format 文件格式
+     * @throws StorageException 建表失败时抛出异常
+     */
+    public void createTable(String table, ExportSchema schema, ExportOptions.Format format) throws StorageException {
+        checkIdentifier(table);
+        schema.validate();
+        
+        List<String> columns = new ArrayList<>();
+        for (ExportSchema.Column column : schema.getColumns()) {
+            columns.add("`" + column.getName() + "` " + column.getType().getHiveType());
+        }
+        StringBuilder sql = new StringBuilder("CREATE TABLE IF NOT EXISTS ").append(table)
+                .append(" (").append(String.join(", ", columns)).append(")");
+        if (schema.isPartitioned()) {
+            List<String> partitionColumns = new ArrayList<>();
+            for (ExportSchema.PartitionColumn column : schema.getPartitionColumns()) {
+                partitionColumns.add("`" + column.getName() + "` STRING");
+            }
+            sql.append(" PARTITIONED BY (").append(String.join(", ", partitionColumns)).append(")");
+        }
+        sql.append(" STORED AS ").append(format.getHiveStorage());
+        
+        executeStatements(Collections.singletonList(sql.toString()), "TABLE_CREATE_FAILED",
+                "Failed to create Hive table: " + table);
+        logger.info("Ensured Hive table {} ({})", table, format);
+    }
+    
+    /**
+     * 通过 LOAD DATA LOCAL INPATH 按分区加载导出的文件
+     * 文件由HiveServer2从其本地文件系统读取并移动到表目录，
+     * 要求导出目录位于HiveServer2所在主机或双方共享的挂载点上。
+     * 
+     * @param table 表名（可带库名）
+     * @param result 导出结果
+     * @param overwrite 是否覆盖分区中已有的数据
+     * @return 加载的分区数
+     * @throws StorageException 加载失败时抛出异常（已加载的分区不会回退）
+     */
+    public int loadPartitions(String table, ExportResult result, boolean overwrite) throws StorageException {
+        checkIdentifier(table);
+        
+        List<String> statements = new ArrayList<>();
+        for (ExportResult.Partition partition : result.getPartitions()) {
+            if (partition.getFiles().isEmpty()) {
+                continue;
+            }
+            StringBuilder sql = new StringBuilder("LOAD DATA LOCAL INPATH ")
+                    .append(quote(partition.getDirectory().toAbsolutePath().toString()))
+                    .append(overwrite ? " OVERWRITE" : "")
+                    .append(" INTO TABLE ").append(table);
+            if (!partition.getSpec().isEmpty()) {
+                sql.append(" PARTITION ").append(partitionClause(partition.getSpec()));
+            }
+            statements.add(sql.toString());
+        }
+        
+        long startTime = System.currentTimeMillis();
+        executeStatements(statements, "LOAD_FAILED", "Failed to load exported files into Hive table: " + table);
+        logger.info("Loaded {} partitions ({} files, {} rows) into {} in {}ms", statements.size(),
+                result.getTotalFiles(), result.getTotalRows(), table, System.currentTimeMillis() - startTime);
+        return statements.size();
+    }
+    
+    /**
+     * 通过 ALTER TABLE ... ADD PARTITION ... LOCATION 登记已上传的分区
+     * 适用于导出目录已按原有布局同步到HDFS/对象存储的情况（例如外部表），
+     * 只修改元数据，不移动文件。已存在的分区保持不变。
+     * 
+     * @param table 表名（可带库名）
+     * @param result 导出结果
+     * @param locationRoot 导出目录上传后的根路径，如 hdfs://namenode/warehouse/crawl/articles
+     * @return 登记的分区数
+     * @throws StorageException 导出结果未分区或登记失败时抛出异常
+     */
+    public int addPartitions(String table, ExportResult result, String locationRoot) throws StorageException {
+        checkIdentifier(table);
+        if (!result.getSchema().isPartitioned()) {
+            throw new StorageException("INVALID_DATA", "Export result is not partitioned");
+        }
+        String root = locationRoot.endsWith("/") ? locationRoot.substring(0, locationRoot.length() - 1) : locationRoot;
+        
+        List<String> statements = new ArrayList<>();
+        StringBuilder sql = null;
+        int count = 0;
+        for (ExportResult.Partition partition : result.getPartitions()) {
+            if (sql == null) {
+                sql = new StringBuilder("ALTER TABLE ").append(table).append(" ADD IF NOT EXISTS");
+            }
+            sql.append(" PARTITION ").append(partitionClause(partition.getSpec()))
+                    .append(" LOCATION ").append(quote(root + "/" + partition.getRelativePath()));
+            count++;
+            if (count % ADD_PARTITION_BATCH_SIZE == 0) {
+                statements.add(sql.toString());
+                sql = null;
+            }
+        }
+        if (sql != null) {
+            statements.add(sql.toString());
+        }
+        
+        executeStatements(statements, "ADD_PARTITION_FAILED", "Failed to add partitions to Hive table: " + table);
+        logger.info("Registered {} partitions of {} under {}", count, table, root);
+        return count;
+    }
+    
+    /**
+     * 依次执行DDL/DML语句
+     * 
+     * @param statements 语句列表
+     * @param errorCode 失败时的错误码
+     * @param message 失败时的错误信息
+     * @throws StorageException 执行失败时抛出异常
+     */
+    private void executeStatements(List<String> statements, String errorCode, String message) throws StorageException {
+        checkInitialized();
+        if (statements.isEmpty()) {
+            return;
+        }
+        
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String sql : statements) {
+                long startTime = System.nanoTime();
+                logger.debug("Executing Hive statement: {}", sql);
+                stmt.execute(sql);
+                recordQuery(sql, startTime, -1, null);
+            }
+        } catch (SQLException e) {
+            logger.error("Hive statement failed", e);
+            throw new StorageException(errorCode, message, e);
+        }
+    }
+    
+    /**
+     * 构建JDBC URL：配置了url时直接使用，否则由host/port/database拼接，
+     * 并把 hive_ 开头的属性附加为Hive配置项
+     * 
+     * @return JDBC URL
+     */
+    private String buildJdbcUrl() {
+        Object configuredUrl = config.getProperty("url");
+        String url = configuredUrl != null ? configuredUrl.toString().trim() : "";
+        if (url.isEmpty()) {
+            url = String.format("jdbc:hive2://%s:%s/%s",
+                    config.getProperty("host", "localhost"),
+                    config.getProperty("port", 10000),
+                    config.getProperty("database", "default"));
+        }
+        
+        List<String> hiveConf = new ArrayList<>();
+        Map<String, Object> properties = config.getProperties() != null ? config.getProperties() : Collections.emptyMap();
+        for (Map.Entry<String, Object> entry : properties.entrySet()) {
+            if (entry.getKey().startsWith(HIVE_CONF_PREFIX)) {
+                hiveConf.add(entry.getKey().replace('_', '.') + "=" + entry.getValue());
+            }
+        }
+        if (!hiveConf.isEmpty() && !url.contains("?")) {
+            url = url + "?" + String.join(";", hiveConf);
+        }
+        return url;
+    }
+    
+    private static String partitionClause(Map<String, String> spec) {
+        List<String> values = new ArrayList<>();
+        for (Map.Entry<String, String> entry : spec.entrySet()) {
+            values.add("`" + entry.getKey().toLowerCase(Locale.ROOT) + "`=" + quote(entry.getValue()));
+        }
+        return "(" + String.join(", ", values) + ")";
+    }
+    
+    private static String quote(String literal) {
+        return "'" + literal.replace("\\", "\\\\").replace("'", "\\'") + "'";
+    }
+    
+    private static void checkIdentifier(String name) throws StorageException {
+        if (name == null || !IDENTIFIER.matcher(name).matches()) {
+            throw new StorageException("INVALID_IDENTIFIER", "Invalid table name: " + name);
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,8 @@
 package database.adapter;
 
 import database.config.DatabaseConfig;
+import database.core.PoolMetrics;
+import database.core.PooledStorage;
 import database.core.StorageException;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
@@ -8,9 +10,22 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * MySQL数据库适配器
@@ -19,7 +34,7 @@ import java.util.Map;
  * @author Collections Team
  * @since 1.0
  */
-public class MySQLAdapter extends BaseStorageAdapter {
+public class MySQLAdapter extends BaseStorageAdapter implements PooledStorage {
     
     private static final Logger logger = LoggerFactory.getLogger(MySQLAdapter.class);
     
@@ -28,6 +43,28 @@ public class MySQLAdapter extends BaseStorageAdapter {
      */
     private HikariDataSource dataSource;
     
+    /**
+     * 服务器版本号（主.次.修订）
+     */
+    private static final Pattern VERSION_PATTERN = Pattern.compile("^(\\d+)\\.(\\d+)\\.(\\d+)");
+    
+    /**
+     * 查询表上唯一索引的字段
+     */
+    private static final String UNIQUE_INDEX_SQL = "SELECT INDEX_NAME, COLUMN_NAME FROM information_schema.STATISTICS "
+            + "WHERE TABLE_SCHEMA = COALESCE(?, DATABASE()) AND TABLE_NAME = ? AND NON_UNIQUE = 0 "
+            + "ORDER BY INDEX_NAME, SEQ_IN_INDEX";
+    
+    /**
+     * 服务器是否支持 INSERT ... AS 行别名（MySQL 8.0.19+），首次upsert时检测
+     */
+    private volatile Boolean rowAliasSupported;
+    
+    /**
+     * 已确认存在匹配唯一索引的upsert目标（表名|冲突字段）
+     */
+    private final Set<String> verifiedConflictKeys = ConcurrentHashMap.newKeySet();
+    
     /**
      * 构造函数
      * 
@@ -168,6 +205,17 @@ public class MySQLAdapter extends BaseStorageAdapter {
         return dataSource.getConnection();
     }
     
+    @Override
+    public PoolMetrics getPoolMetrics() {
+        return hikariPoolMetrics(dataSource);
+    }
+    
+    @Override
+    public void resizePool(int maxPoolSize) throws StorageException {
+        resizeHikariPool(dataSource, maxPoolSize);
+        logger.info("Resized {} connection pool to {} connections", getDatabaseType(), maxPoolSize);
+    }
+    
     @Override
     protected String addPagination(String sql, int pageNum, int pageSize) {
         // MySQL分页使用LIMIT和OFFSET
@@ -175,6 +223,144 @@ public class MySQLAdapter extends BaseStorageAdapter {
         return sql + " LIMIT " + pageSize + " OFFSET " + offset;
     }
     
+    /**
+     * 构建MySQL的upsert语句
+     * MySQL的 ON DUPLICATE KEY UPDATE 不能指定冲突字段：插入与表上任意一个唯一索引（含主键）冲突都会转为更新。
+     * 因此这里先确认conflictColumns恰好对应一个唯一索引（每个表和字段组合只查询一次），
+     * 表上的其他唯一索引同样会触发更新，调用方需要自行保证它们不会与写入的数据冲突。
+     * 
+     * MySQL 8.0.19及以上使用行别名（INSERT ... AS new ON DUPLICATE KEY UPDATE c = new.c），
+     * 更早的版本和MariaDB不支持行别名，使用已废弃的 VALUES(c) 写法
+     * 
+     * @param table 表名
+     * @param columns 写入的字段
+     * @param conflictColumns 唯一键字段
+     * @return upsert语句
+     * @throws StorageException 没有与冲突字段对应的唯一索引时抛出异常
+     */
+    @Override
+    protected String buildUpsertSql(String table, List<String> columns, String[] conflictColumns) throws StorageException {
+        verifyConflictIndex(table, conflictColumns);
+        boolean rowAlias = isRowAliasSupported();
+        
+        // 影响行数：新插入为1，更新为2，值未变化为0
+        List<String> conflicts = Arrays.asList(conflictColumns);
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table)
+                .append(" (").append(String.join(", ", columns)).append(") VALUES (")
+                .append(String.join(", ", Collections.nCopies(columns.size(), "?")))
+                .append(rowAlias ? ") AS new ON DUPLICATE KEY UPDATE " : ") ON DUPLICATE KEY UPDATE ");
+        
+        StringBuilder assignments = new StringBuilder();
+        for (String column : columns) {
+            if (!conflicts.contains(column)) {
+                if (assignments.length() > 0) {
+                    assignments.append(", ");
+                }
+                assignments.append(column).append(" = ");
+                if (rowAlias) {
+                    assignments.append("new.").append(column);
+                } else {
+                    assignments.append("VALUES(").append(column).append(")");
+                }
+            }
+        }
+        if (assignments.length() == 0) {
+            // 只有唯一键字段时保持原记录不变
+            assignments.append(conflictColumns[0]).append(" = ").append(conflictColumns[0]);
+        }
+        return sql.append(assignments).toString();
+    }
+    
+    /**
+     * 确认表上存在与冲突字段完全对应的唯一索引
+     * 
+     * @param table 表名（可带库名前缀）
+     * @param conflictColumns 唯一键字段
+     * @throws StorageException 索引不存在或查询失败时抛出异常
+     */
+    private void verifyConflictIndex(String table, String[] conflictColumns) throws StorageException {
+        Set<String> expected = new HashSet<>();
+        for (String column : conflictColumns) {
+            expected.add(column.toLowerCase(Locale.ROOT));
+        }
+        String cacheKey = table.toLowerCase(Locale.ROOT) + "|" + new java.util.TreeSet<>(expected);
+        if (verifiedConflictKeys.contains(cacheKey)) {
+            return;
+        }
+        
+        int dot = table.indexOf('.');
+        String schema = dot > 0 ? table.substring(0, dot) : null;
+        String tableName = dot > 0 ? table.substring(dot + 1) : table;
+        Map<String, Set<String>> uniqueIndexes = new LinkedHashMap<>();
+        // 元数据查询使用独立连接，不占用当前事务的连接
+        try (Connection conn = doGetConnection();
+             PreparedStatement stmt = conn.prepareStatement(UNIQUE_INDEX_SQL)) {
+            stmt.setString(1, schema);
+            stmt.setString(2, tableName);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    uniqueIndexes.computeIfAbsent(rs.getString(1), name -> new HashSet<>())
+                            .add(rs.getString(2).toLowerCase(Locale.ROOT));
+                }
+            }
+        } catch (SQLException e) {
+            throw new StorageException("UPSERT_FAILED", "Failed to read unique indexes of table: " + table, e);
+        }
+        
+        if (!uniqueIndexes.containsValue(expected)) {
+            throw new StorageException("INVALID_COLUMN", "No unique index on " + table + " matches conflict columns "
+                    + Arrays.toString(conflictColumns) + "; MySQL upsert resolves conflicts on unique indexes only");
+        }
+        verifiedConflictKeys.add(cacheKey);
+    }
+    
+    /**
+     * 检测服务器是否支持行别名（MySQL 8.0.19+，MariaDB不支持）
+     * 
+     * @return true表示支持
+     * @throws StorageException 读取服务器版本失败时抛出异常
+     */
+    private boolean isRowAliasSupported() throws StorageException {
+        Boolean supported = rowAliasSupported;
+        if (supported == null) {
+            try (Connection conn = doGetConnection()) {
+                DatabaseMetaData metaData = conn.getMetaData();
+                supported = supportsRowAlias(metaData.getDatabaseProductVersion());
+            } catch (SQLException e) {
+                throw new StorageException("UPSERT_FAILED", "Failed to read MySQL server version", e);
+            }
+            rowAliasSupported = supported;
+        }
+        return supported;
+    }
+    
+    /**
+     * 判断服务器版本是否支持行别名
+     * 
+     * @param version 服务器版本字符串，例如 8.0.33 或 5.5.5-10.11.2-MariaDB
+     * @return true表示支持
+     */
+    static boolean supportsRowAlias(String version) {
+        if (version == null || version.toLowerCase(Locale.ROOT).contains("mariadb")) {
+            return false;
+        }
+        Matcher matcher = VERSION_PATTERN.matcher(version);
+        if (!matcher.find()) {
+            return false;
+        }
+        int major = Integer.parseInt(matcher.group(1));
+        int minor = Integer.parseInt(matcher.group(2));
+        int patch = Integer.parseInt(matcher.group(3));
+        return major > 8 || (major == 8 && (minor > 0 || patch >= 19));
+    }
+    
+    @Override
+    protected void configureStreamingStatement(Connection conn, PreparedStatement stmt) throws SQLException {
+        // Connector/J仅在fetchSize为Integer.MIN_VALUE且结果集只进只读时逐行流式读取，
+        // 其他取值会把整个结果集缓存在客户端内存中
+        stmt.setFetchSize(Integer.MIN_VALUE);
+    }
+    
     /**
      * 获取MySQL服务器版本信息
      * 
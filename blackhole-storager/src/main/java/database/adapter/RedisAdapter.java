@@ -2,16 +2,27 @@ package database.adapter;
 
 import database.config.DatabaseConfig;
 import database.core.Page;
+import database.core.PoolMetrics;
+import database.core.PooledStorage;
 import database.core.RowMapper;
 import database.core.StorageException;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.Transaction;
+import redis.clients.jedis.params.SetParams;
+import redis.clients.jedis.exceptions.JedisDataException;
 import redis.clients.jedis.exceptions.JedisException;
 
 import java.sql.Connection;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Redis数据库适配器
@@ -20,7 +31,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * @author Collections Team
  * @since 1.0
  */
-public class RedisAdapter implements DatabaseStorage {
+public class RedisAdapter implements DatabaseStorage, PooledStorage {
     
     private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(RedisAdapter.class);
     
@@ -39,6 +50,22 @@ public class RedisAdapter implements DatabaseStorage {
      */
     private final AtomicBoolean initialized = new AtomicBoolean(false);
     
+    /**
+     * 默认批次大小（每个命令或每次同步包含的元素数）
+     */
+    public static final int DEFAULT_BATCH_CHUNK_SIZE = 1000;
+    
+    /**
+     * 批量操作的分块大小
+     */
+    private int batchChunkSize = DEFAULT_BATCH_CHUNK_SIZE;
+    
+    /**
+     * 比较并删除脚本
+     */
+    private static final String COMPARE_AND_DELETE_SCRIPT =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
+    
     /**
      * 构造函数
      * 
@@ -124,6 +151,16 @@ public class RedisAdapter implements DatabaseStorage {
         throw new StorageException("UNSUPPORTED_OPERATION", "Redis does not support SQL queries");
     }
     
+    @Override
+    public <T> Page<T> querySeek(String sql, RowMapper<T> rowMapper, String sortKey, Object lastSeen, int pageSize, Object... params) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "Redis does not support SQL queries");
+    }
+    
+    @Override
+    public <T> Stream<T> queryStream(String sql, RowMapper<T> rowMapper, Object... params) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "Redis does not support SQL queries");
+    }
+    
     @Override
     public int insert(String sql, Object... params) throws StorageException {
         throw new StorageException("UNSUPPORTED_OPERATION", "Redis does not support SQL insert");
@@ -144,6 +181,16 @@ public class RedisAdapter implements DatabaseStorage {
         throw new StorageException("UNSUPPORTED_OPERATION", "Redis does not support SQL delete");
     }
     
+    @Override
+    public int upsert(String table, Map<String, Object> data, String... conflictColumns) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "Redis does not support SQL upsert");
+    }
+    
+    @Override
+    public int[] upsertBatch(String table, List<Map<String, Object>> dataList, String... conflictColumns) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "Redis does not support SQL batch upsert");
+    }
+    
     @Override
     public void beginTransaction() throws StorageException {
         throw new StorageException("UNSUPPORTED_OPERATION", "Redis does not support transactions in this adapter");
@@ -393,6 +440,372 @@ public class RedisAdapter implements DatabaseStorage {
         }
     }
     
+    /**
+     * 批量设置字符串值（MSET）
+     * 超过批次大小时自动分块，所有分块在同一连接上通过管道发送；
+     * 任一分块被服务端拒绝（如OOM、READONLY）时抛出异常，之前成功的分块不会回滚
+     * 
+     * @param values 键值映射
+     * @return 写入的键数量
+     */
+    public int mset(Map<String, String> values) throws StorageException {
+        checkInitialized();
+        if (values == null || values.isEmpty()) {
+            return 0;
+        }
+        
+        try (Jedis jedis = jedisPool.getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            List<Response<String>> responses = new ArrayList<>();
+            List<String> keysValues = new ArrayList<>(Math.min(values.size(), batchChunkSize) * 2);
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                keysValues.add(entry.getKey());
+                keysValues.add(entry.getValue());
+                if (keysValues.size() >= batchChunkSize * 2) {
+                    responses.add(pipeline.mset(keysValues.toArray(new String[0])));
+                    keysValues.clear();
+                }
+            }
+            if (!keysValues.isEmpty()) {
+                responses.add(pipeline.mset(keysValues.toArray(new String[0])));
+            }
+            syncResponses(pipeline, responses, "MSET");
+            return values.size();
+        } catch (JedisException e) {
+            logger.error("Redis MSET operation failed for {} keys", values.size(), e);
+            throw new StorageException("REDIS_OPERATION_FAILED", "Failed to set multiple values", e);
+        }
+    }
+    
+    /**
+     * 批量获取字符串值（MGET）
+     * 超过批次大小时自动分块，所有分块在同一连接上通过管道发送
+     * 
+     * @param keys 键列表
+     * @return 与键顺序一致的值列表，不存在的键对应null
+     */
+    public List<String> mget(List<String> keys) throws StorageException {
+        checkInitialized();
+        if (keys == null || keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        try (Jedis jedis = jedisPool.getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            List<Response<List<String>>> responses = new ArrayList<>();
+            for (int from = 0; from < keys.size(); from += batchChunkSize) {
+                List<String> chunk = keys.subList(from, Math.min(from + batchChunkSize, keys.size()));
+                responses.add(pipeline.mget(chunk.toArray(new String[0])));
+            }
+            pipeline.sync();
+            
+            List<String> result = new ArrayList<>(keys.size());
+            for (Response<List<String>> response : responses) {
+                result.addAll(response.get());
+            }
+            return result;
+        } catch (JedisException e) {
+            logger.error("Redis MGET operation failed for {} keys", keys.size(), e);
+            throw new StorageException("REDIS_OPERATION_FAILED", "Failed to get multiple values", e);
+        }
+    }
+    
+    /**
+     * 批量设置哈希字段（HSET key field value [field value ...]）
+     * 
+     * @param key 哈希键
+     * @param fields 字段映射
+     * @return 新增的字段数量
+     */
+    public long hsetAll(String key, Map<String, String> fields) throws StorageException {
+        return hsetBatch(Collections.singletonMap(key, fields));
+    }
+    
+    /**
+     * 批量写入多个哈希
+     * 每个哈希的字段超过批次大小时自动分块，所有命令在同一连接上通过管道发送，
+     * 每累计一个批次的命令同步一次，避免响应缓冲无限增长
+     * 
+     * @param hashes 哈希键到字段映射的映射
+     * @return 新增的字段总数
+     */
+    public long hsetBatch(Map<String, Map<String, String>> hashes) throws StorageException {
+        checkInitialized();
+        if (hashes == null || hashes.isEmpty()) {
+            return 0;
+        }
+        
+        try (Jedis jedis = jedisPool.getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            List<Response<Long>> responses = new ArrayList<>();
+            long added = 0;
+            for (Map.Entry<String, Map<String, String>> hash : hashes.entrySet()) {
+                Map<String, String> chunk = new HashMap<>();
+                for (Map.Entry<String, String> field : hash.getValue().entrySet()) {
+                    chunk.put(field.getKey(), field.getValue());
+                    if (chunk.size() >= batchChunkSize) {
+                        responses.add(pipeline.hset(hash.getKey(), chunk));
+                        chunk = new HashMap<>();
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    responses.add(pipeline.hset(hash.getKey(), chunk));
+                }
+                if (responses.size() >= batchChunkSize) {
+                    added += syncCounts(pipeline, responses, "HSET");
+                }
+            }
+            return added + syncCounts(pipeline, responses, "HSET");
+        } catch (JedisException e) {
+            logger.error("Redis batch HSET operation failed for {} hashes", hashes.size(), e);
+            throw new StorageException("REDIS_OPERATION_FAILED", "Failed to set hash fields in batch", e);
+        }
+    }
+    
+    /**
+     * 批量添加集合成员
+     * 成员超过批次大小时自动分块，所有分块在同一连接上通过管道发送
+     * 
+     * @param key 集合键
+     * @param members 要添加的成员
+     * @return 添加成功的成员数量
+     */
+    public long saddAll(String key, Collection<String> members) throws StorageException {
+        checkInitialized();
+        if (members == null || members.isEmpty()) {
+            return 0;
+        }
+        
+        try (Jedis jedis = jedisPool.getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            List<Response<Long>> responses = new ArrayList<>();
+            List<String> chunk = new ArrayList<>(Math.min(members.size(), batchChunkSize));
+            for (String member : members) {
+                chunk.add(member);
+                if (chunk.size() >= batchChunkSize) {
+                    responses.add(pipeline.sadd(key, chunk.toArray(new String[0])));
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                responses.add(pipeline.sadd(key, chunk.toArray(new String[0])));
+            }
+            return syncCounts(pipeline, responses, "SADD");
+        } catch (JedisException e) {
+            logger.error("Redis batch SADD operation failed for key: {}", key, e);
+            throw new StorageException("REDIS_OPERATION_FAILED", "Failed to add to set in batch", e);
+        }
+    }
+    
+    /**
+     * 在管道中执行任意命令
+     * 回调内发出的所有命令在同一连接上一次性发送，结束后统一读取响应
+     * 
+     * @param commands 向管道发出命令的回调
+     * @return 按命令顺序排列的响应，失败的命令对应异常对象
+     */
+    public List<Object> pipelined(Consumer<Pipeline> commands) throws StorageException {
+        checkInitialized();
+        
+        try (Jedis jedis = jedisPool.getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            commands.accept(pipeline);
+            return pipeline.syncAndReturnAll();
+        } catch (JedisException e) {
+            logger.error("Redis pipeline execution failed", e);
+            throw new StorageException("REDIS_OPERATION_FAILED", "Failed to execute pipeline", e);
+        }
+    }
+    
+    /**
+     * 对大量元素逐个在管道中执行命令
+     * 每处理一个批次的元素同步一次管道，内存占用与元素总数无关
+     * 
+     * @param items 要处理的元素
+     * @param command 为单个元素向管道发出命令的回调
+     * @param <T> 元素类型
+     * @return 处理的元素数量
+     */
+    public <T> int pipelined(Collection<T> items, BiConsumer<Pipeline, T> command) throws StorageException {
+        checkInitialized();
+        if (items == null || items.isEmpty()) {
+            return 0;
+        }
+        
+        try (Jedis jedis = jedisPool.getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            int pending = 0;
+            for (T item : items) {
+                command.accept(pipeline, item);
+                if (++pending >= batchChunkSize) {
+                    pipeline.sync();
+                    pending = 0;
+                }
+            }
+            pipeline.sync();
+            return items.size();
+        } catch (JedisException e) {
+            logger.error("Redis batched pipeline execution failed for {} items", items.size(), e);
+            throw new StorageException("REDIS_OPERATION_FAILED", "Failed to execute batched pipeline", e);
+        }
+    }
+    
+    /**
+     * 在MULTI/EXEC事务中执行命令
+     * 回调内发出的命令原子执行；回调抛出异常时放弃事务（DISCARD）
+     * 
+     * @param commands 向事务发出命令的回调
+     * @return 按命令顺序排列的执行结果
+     */
+    public List<Object> multi(Consumer<Transaction> commands) throws StorageException {
+        checkInitialized();
+        
+        try (Jedis jedis = jedisPool.getResource()) {
+            Transaction transaction = jedis.multi();
+            try {
+                commands.accept(transaction);
+            } catch (RuntimeException e) {
+                transaction.discard();
+                throw e;
+            }
+            List<Object> result = transaction.exec();
+            if (result == null) {
+                throw new StorageException("REDIS_OPERATION_FAILED", "Redis transaction was aborted");
+            }
+            return result;
+        } catch (JedisException e) {
+            logger.error("Redis MULTI/EXEC execution failed", e);
+            throw new StorageException("REDIS_OPERATION_FAILED", "Failed to execute transaction", e);
+        }
+    }
+    
+    /**
+     * 获取二进制值
+     * 
+     * @param key 键
+     * @return 值，不存在时返回null
+     */
+    public byte[] getBytes(byte[] key) throws StorageException {
+        checkInitialized();
+        
+        try (Jedis jedis = jedisPool.getResource()) {
+            return jedis.get(key);
+        } catch (JedisException e) {
+            logger.error("Redis GET operation failed for binary key", e);
+            throw new StorageException("REDIS_OPERATION_FAILED", "Failed to get binary value", e);
+        }
+    }
+    
+    /**
+     * 设置带过期时间的二进制值
+     * 
+     * @param key 键
+     * @param value 值
+     * @param ttlMillis 过期时间（毫秒）
+     * @return 成功返回OK
+     */
+    public String setBytes(byte[] key, byte[] value, long ttlMillis) throws StorageException {
+        checkInitialized();
+        
+        try (Jedis jedis = jedisPool.getResource()) {
+            return jedis.psetex(key, ttlMillis, value);
+        } catch (JedisException e) {
+            logger.error("Redis PSETEX operation failed for binary key", e);
+            throw new StorageException("REDIS_OPERATION_FAILED", "Failed to set binary value", e);
+        }
+    }
+    
+    /**
+     * 仅在键不存在时设置值（SET NX PX），可用作分布式锁
+     * 
+     * @param key 键
+     * @param value 值
+     * @param ttlMillis 过期时间（毫秒）
+     * @return true表示设置成功
+     */
+    public boolean setIfAbsent(String key, String value, long ttlMillis) throws StorageException {
+        checkInitialized();
+        
+        try (Jedis jedis = jedisPool.getResource()) {
+            return "OK".equals(jedis.set(key, value, SetParams.setParams().nx().px(ttlMillis)));
+        } catch (JedisException e) {
+            logger.error("Redis SET NX operation failed for key: {}", key, e);
+            throw new StorageException("REDIS_OPERATION_FAILED", "Failed to set value if absent", e);
+        }
+    }
+    
+    /**
+     * 仅在当前值等于期望值时删除键，用于安全释放分布式锁
+     * 
+     * @param key 键
+     * @param expected 期望值
+     * @return true表示已删除
+     */
+    public boolean deleteIfEquals(String key, String expected) throws StorageException {
+        checkInitialized();
+        
+        try (Jedis jedis = jedisPool.getResource()) {
+            Object result = jedis.eval(COMPARE_AND_DELETE_SCRIPT, 1, key, expected);
+            return result instanceof Long && (Long) result > 0;
+        } catch (JedisException e) {
+            logger.error("Redis compare-and-delete failed for key: {}", key, e);
+            throw new StorageException("REDIS_OPERATION_FAILED", "Failed to delete key if equals", e);
+        }
+    }
+    
+    /**
+     * 自增计数器
+     * 
+     * @param key 键
+     * @return 自增后的值
+     */
+    public long incr(String key) throws StorageException {
+        checkInitialized();
+        
+        try (Jedis jedis = jedisPool.getResource()) {
+            return jedis.incr(key);
+        } catch (JedisException e) {
+            logger.error("Redis INCR operation failed for key: {}", key, e);
+            throw new StorageException("REDIS_OPERATION_FAILED", "Failed to increment value", e);
+        }
+    }
+    
+    /**
+     * 发布消息
+     * 
+     * @param channel 频道
+     * @param message 消息
+     * @return 收到消息的订阅者数量
+     */
+    public long publish(String channel, String message) throws StorageException {
+        checkInitialized();
+        
+        try (Jedis jedis = jedisPool.getResource()) {
+            return jedis.publish(channel, message);
+        } catch (JedisException e) {
+            logger.error("Redis PUBLISH operation failed for channel: {}", channel, e);
+            throw new StorageException("REDIS_OPERATION_FAILED", "Failed to publish message", e);
+        }
+    }
+    
+    /**
+     * 订阅频道
+     * 该方法会阻塞当前线程并独占一个连接，直到监听器取消订阅
+     * 
+     * @param listener 订阅监听器
+     * @param channels 频道列表
+     */
+    public void subscribe(JedisPubSub listener, String... channels) throws StorageException {
+        checkInitialized();
+        
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.subscribe(listener, channels);
+        } catch (JedisException e) {
+            logger.error("Redis SUBSCRIBE failed for channels: {}", Arrays.toString(channels), e);
+            throw new StorageException("REDIS_OPERATION_FAILED", "Failed to subscribe", e);
+        }
+    }
+    
     /**
      * 获取Redis服务器信息
      * 
@@ -445,6 +858,60 @@ public class RedisAdapter implements DatabaseStorage {
         return stats;
     }
     
+    /**
+     * 同步管道并累加计数类响应
+     * 
+     * @param pipeline 管道
+     * @param responses 待读取的响应，读取后清空
+     * @param command 命令名称（用于错误信息）
+     * @return 响应值之和
+     * @throws StorageException 有命令被服务端拒绝时抛出异常
+     */
+    private long syncCounts(Pipeline pipeline, List<Response<Long>> responses, String command) throws StorageException {
+        long total = 0;
+        for (Long count : syncResponses(pipeline, responses, command)) {
+            if (count != null) {
+                total += count;
+            }
+        }
+        return total;
+    }
+    
+    /**
+     * 同步管道并读取所有响应
+     * 管道中单个命令的错误（如OOM、READONLY）只在读取响应时抛出，不读取响应会把失败的命令当作成功
+     * 
+     * @param pipeline 管道
+     * @param responses 待读取的响应，读取后清空
+     * @param command 命令名称（用于错误信息）
+     * @return 与响应顺序一致的值
+     * @throws StorageException 有命令被服务端拒绝时抛出异常
+     */
+    private <T> List<T> syncResponses(Pipeline pipeline, List<Response<T>> responses, String command) throws StorageException {
+        pipeline.sync();
+        List<T> values = new ArrayList<>(responses.size());
+        JedisDataException firstError = null;
+        int failed = 0;
+        for (Response<T> response : responses) {
+            try {
+                values.add(response.get());
+            } catch (JedisDataException e) {
+                failed++;
+                if (firstError == null) {
+                    firstError = e;
+                }
+            }
+        }
+        int total = responses.size();
+        responses.clear();
+        if (firstError != null) {
+            logger.error("Redis pipelined {} failed for {} of {} commands", command, failed, total, firstError);
+            throw new StorageException("REDIS_OPERATION_FAILED", "Pipelined " + command + " failed for " + failed
+                    + " of " + total + " commands: " + firstError.getMessage(), firstError);
+        }
+        return values;
+    }
+    
     /**
      * 检查适配器是否已初始化
      * 
@@ -470,6 +937,11 @@ public class RedisAdapter implements DatabaseStorage {
         String password = config.getConnectionProperties().get("password");
         int database = Integer.parseInt(config.getConnectionProperties().getOrDefault("database", "0"));
         int timeout = Integer.parseInt(config.getConnectionProperties().getOrDefault("timeout", "2000"));
+        Object chunkSize = config.getProperty("batch_chunk_size");
+        batchChunkSize = chunkSize != null ? Integer.parseInt(chunkSize.toString().trim()) : DEFAULT_BATCH_CHUNK_SIZE;
+        if (batchChunkSize < 1) {
+            throw new StorageException("CONFIG_INVALID", "batch_chunk_size must be greater than 0");
+        }
         
         // 创建连接池配置
         JedisPoolConfig poolConfig = new JedisPoolConfig();
@@ -547,6 +1019,33 @@ public class RedisAdapter implements DatabaseStorage {
         }
     }
     
+    @Override
+    public PoolMetrics getPoolMetrics() {
+        if (jedisPool == null || jedisPool.isClosed()) {
+            return null;
+        }
+        // commons-pool只统计最近借出的平均等待时间，没有累计值
+        return new PoolMetrics(getActiveConnections(), getIdleConnections(),
+                getActiveConnections() + getIdleConnections(), getWaitingForConnection(), getMaxConnections(),
+                jedisPool.getBorrowedCount(), -1, jedisPool.getMeanBorrowWaitTimeMillis());
+    }
+    
+    @Override
+    public void resizePool(int maxPoolSize) throws StorageException {
+        checkInitialized();
+        if (jedisPool == null || jedisPool.isClosed()) {
+            throw new StorageException("POOL_UNAVAILABLE", "Redis connection pool is not available");
+        }
+        if (maxPoolSize < 1) {
+            throw new StorageException("CONFIG_INVALID", "Max pool size must be greater than 0");
+        }
+        jedisPool.setMaxTotal(maxPoolSize);
+        if (jedisPool.getMaxIdle() > maxPoolSize) {
+            jedisPool.setMaxIdle(maxPoolSize);
+        }
+        logger.info("Resized Redis connection pool to {} connections", maxPoolSize);
+    }
+    
     /**
      * 获取活跃连接数
      * 
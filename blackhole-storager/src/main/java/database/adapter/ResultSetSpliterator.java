@@ -0,0 +1,111 @@
+package database.adapter;
+
+import database.core.RowMapper;
+import database.core.StorageException;
+import database.core.UncheckedStorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * 结果集分割器
+ * 将打开的ResultSet包装为按需推进的Spliterator，每次推进只映射一行，
+ * 关闭时依次释放结果集、语句以及（非事务中的）连接
+ * 
+ * @param <T> 目标类型
+ * @author Collections Team
+ * @since 1.0
+ */
+class ResultSetSpliterator<T> extends Spliterators.AbstractSpliterator<T> implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ResultSetSpliterator.class);
+    
+    private final Connection connection;
+    private final PreparedStatement statement;
+    private final ResultSet resultSet;
+    private final RowMapper<T> rowMapper;
+    private final boolean closeConnection;
+    
+    /**
+     * 当前行号（从1开始）
+     */
+    private int rowNum = 0;
+    
+    /**
+     * 是否已关闭
+     */
+    private boolean closed = false;
+    
+    /**
+     * 构造函数
+     * 
+     * @param connection 数据库连接
+     * @param statement 预编译语句
+     * @param resultSet 已打开的结果集
+     * @param rowMapper 行映射器
+     * @param closeConnection 关闭时是否归还连接（事务连接由事务自身管理）
+     */
+    ResultSetSpliterator(Connection connection, PreparedStatement statement, ResultSet resultSet,
+                         RowMapper<T> rowMapper, boolean closeConnection) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.connection = connection;
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.rowMapper = rowMapper;
+        this.closeConnection = closeConnection;
+    }
+    
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (closed) {
+            return false;
+        }
+        
+        try {
+            if (!resultSet.next()) {
+                close();
+                return false;
+            }
+            action.accept(rowMapper.mapRow(resultSet, ++rowNum));
+            return true;
+        } catch (SQLException e) {
+            close();
+            throw new UncheckedStorageException(
+                    new StorageException("QUERY_FAILED", "Failed to read streaming result at row " + (rowNum + 1), e));
+        }
+    }
+    
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        
+        try {
+            resultSet.close();
+        } catch (SQLException e) {
+            logger.warn("Failed to close streaming result set", e);
+        }
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            logger.warn("Failed to close streaming statement", e);
+        }
+        if (closeConnection) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                logger.warn("Failed to close streaming connection", e);
+            }
+        }
+        logger.debug("Streaming query closed after {} rows", rowNum);
+    }
+}
@@ -0,0 +1,910 @@
+package database.adapter;
+
+import database.config.DatabaseConfig;
+import database.core.DatabaseStorage;
+import database.core.Page;
+import database.core.RowMapper;
+import database.core.StorageException;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.CompressionType;
+import org.rocksdb.DBOptions;
+import org.rocksdb.FlushOptions;
+import org.rocksdb.LRUCache;
+import org.rocksdb.Options;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.Slice;
+import org.rocksdb.Snapshot;
+import org.rocksdb.TtlDB;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiPredicate;
+import java.util.stream.Stream;
+
+/**
+ * RocksDB嵌入式键值适配器
+ * 基于LSM树的本地键值存储，适合已见URL、抓取元数据、ETag、待抓取队列等高写入量的抓取状态数据，
+ * 无网络开销。不同类型的数据放在不同的列族（命名空间）中，可分别设置TTL。
+ * 
+ * 连接属性：
+ * path（数据目录，必填）、column_families（列族列表，"名称"或"名称:TTL秒数"，列表或逗号分隔）、
+ * ttl_seconds（未单独指定TTL的列族的默认TTL，0表示不过期）、write_buffer_size_mb、max_write_buffer_number、
+ * block_cache_mb、bloom_bits_per_key、compression（lz4/zstd/snappy/none）、max_background_jobs、
+ * sync_writes、disable_wal
+ * 
+ * 设置了TTL时使用TtlDB打开，过期数据在压缩（compaction）时删除；压缩前仍可能读到已过期的数据。
+ * TtlDB在每个值后附加时间戳，与普通RocksDB的数据格式不兼容，因此打开方式记录在数据目录的
+ * OPEN_MODE文件中：TTL库之后总以TtlDB打开（未配置TTL的列族TTL为0，不过期），
+ * 以普通方式创建的库配置了TTL时拒绝打开。
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class RocksDBAdapter implements DatabaseStorage {
+    
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(RocksDBAdapter.class);
+    
+    /**
+     * 默认列族名称
+     */
+    public static final String DEFAULT_NAMESPACE = "default";
+    
+    /**
+     * 记录打开方式的文件（位于数据目录中）
+     */
+    static final String OPEN_MODE_FILE = "OPEN_MODE";
+    private static final String MODE_TTL = "ttl";
+    private static final String MODE_PLAIN = "plain";
+    
+    static {
+        RocksDB.loadLibrary();
+    }
+    
+    /**
+     * 数据库配置
+     */
+    private final DatabaseConfig config;
+    
+    /**
+     * 适配器状态
+     */
+    private final AtomicBoolean initialized = new AtomicBoolean(false);
+    
+    /**
+     * 数据库实例
+     */
+    private RocksDB db;
+    
+    /**
+     * 列族句柄（名称 -> 句柄）
+     */
+    private final Map<String, ColumnFamilyHandle> columnFamilies = new ConcurrentHashMap<>();
+    
+    /**
+     * 需要在关闭时释放的本地对象
+     */
+    private final List<AutoCloseable> resources = new ArrayList<>();
+    
+    private DBOptions dbOptions;
+    private WriteOptions writeOptions;
+    private String path;
+    
+    /**
+     * 构造函数
+     * 
+     * @param config 数据库配置
+     */
+    public RocksDBAdapter(DatabaseConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException("Database configuration cannot be null");
+        }
+        this.config = config;
+    }
+    
+    @Override
+    public String getDatabaseType() {
+        return "RocksDB";
+    }
+    
+    @Override
+    public String getConnectionInfo() {
+        if (!initialized.get()) {
+            return "RocksDB [Not Opened]";
+        }
+        return String.format("RocksDB [%s] - Column families: %s", path, columnFamilies.keySet());
+    }
+    
+    @Override
+    public void initialize() throws StorageException {
+        if (initialized.compareAndSet(false, true)) {
+            try {
+                logger.info("Initializing RocksDB adapter for database: {}", config.getName());
+                doInitialize();
+                logger.info("Successfully initialized RocksDB adapter at {}", path);
+            } catch (Exception e) {
+                initialized.set(false);
+                closeResources();
+                throw new StorageException("INIT_FAILED", "Failed to initialize RocksDB adapter", e);
+            }
+        }
+    }
+    
+    @Override
+    public void shutdown() throws StorageException {
+        if (initialized.compareAndSet(true, false)) {
+            logger.info("Shutting down RocksDB adapter for database: {}", config.getName());
+            try (FlushOptions flushOptions = new FlushOptions().setWaitForFlush(true)) {
+                db.flush(flushOptions, new ArrayList<>(columnFamilies.values()));
+            } catch (RocksDBException e) {
+                logger.warn("Failed to flush RocksDB memtables before shutdown", e);
+            } finally {
+                closeResources();
+            }
+            logger.info("Successfully shut down RocksDB adapter");
+        }
+    }
+    
+    @Override
+    public boolean isHealthy() {
+        if (!initialized.get()) {
+            return false;
+        }
+        try {
+            return db.getLongProperty("rocksdb.background-errors") == 0;
+        } catch (RocksDBException e) {
+            logger.warn("Health check failed for RocksDB adapter: {}", e.getMessage());
+            return false;
+        }
+    }
+    
+    @Override
+    public <T> Optional<T> querySingle(String sql, RowMapper<T> mapper, Object... params) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "RocksDB does not support SQL queries");
+    }
+    
+    @Override
+    public <T> List<T> queryMultiple(String sql, RowMapper<T> mapper, Object... params) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "RocksDB does not support SQL queries");
+    }
+    
+    @Override
+    public <T> Page<T> queryPage(String sql, RowMapper<T> mapper, int pageNum, int pageSize, Object... params) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "RocksDB does not support SQL queries");
+    }
+    
+    @Override
+    public <T> Page<T> querySeek(String sql, RowMapper<T> mapper, String sortKey, Object lastSeen, int pageSize, Object... params) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "RocksDB does not support SQL queries");
+    }
+    
+    @Override
+    public <T> Stream<T> queryStream(String sql, RowMapper<T> mapper, Object... params) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "RocksDB does not support SQL queries");
+    }
+    
+    @Override
+    public int insert(String table, Map<String, Object> data) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "RocksDB does not support SQL insert");
+    }
+    
+    @Override
+    public int[] insertBatch(String table, List<Map<String, Object>> dataList) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "RocksDB does not support SQL batch insert");
+    }
+    
+    @Override
+    public int update(String table, Map<String, Object> data, String condition, Object... params) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "RocksDB does not support SQL update");
+    }
+    
+    @Override
+    public int[] updateBatch(String table, List<Map<String, Object>> dataList, String condition) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "RocksDB does not support SQL batch update");
+    }
+    
+    @Override
+    public int delete(String table, String condition, Object... params) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "RocksDB does not support SQL delete");
+    }
+    
+    @Override
+    public int[] deleteBatch(String table, List<String> conditions) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "RocksDB does not support SQL batch delete");
+    }
+    
+    @Override
+    public int upsert(String table, Map<String, Object> data, String... conflictColumns) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "RocksDB does not support SQL upsert");
+    }
+    
+    @Override
+    public int[] upsertBatch(String table, List<Map<String, Object>> dataList, String... conflictColumns) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "RocksDB does not support SQL batch upsert");
+    }
+    
+    @Override
+    public void beginTransaction() throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "RocksDB adapter does not support transactions, use writeBatch instead");
+    }
+    
+    @Override
+    public void commit() throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "RocksDB adapter does not support transactions, use writeBatch instead");
+    }
+    
+    @Override
+    public void rollback() throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "RocksDB adapter does not support transactions, use writeBatch instead");
+    }
+    
+    @Override
+    public boolean isInTransaction() {
+        return false;
+    }
+    
+    /**
+     * 键值操作方法
+     */
+    
+    /**
+     * 读取默认列族中的值
+     * 
+     * @param key 键
+     * @return 值，不存在时返回null
+     */
+    public String get(String key) throws StorageException {
+        return get(DEFAULT_NAMESPACE, key);
+    }
+    
+    /**
+     * 读取值
+     * 
+     * @param namespace 列族名称
+     * @param key 键
+     * @return 值，不存在时返回null
+     */
+    public String get(String namespace, String key) throws StorageException {
+        return decode(get(namespace, encode(key)));
+    }
+    
+    /**
+     * 读取值
+     * 
+     * @param namespace 列族名称
+     * @param key 键
+     * @return 值，不存在时返回null
+     */
+    public byte[] get(String namespace, byte[] key) throws StorageException {
+        ColumnFamilyHandle handle = handle(namespace);
+        try {
+            return db.get(handle, key);
+        } catch (RocksDBException e) {
+            throw new StorageException("ROCKSDB_OPERATION_FAILED", "Failed to get key from " + namespace, e);
+        }
+    }
+    
+    /**
+     * 批量读取值
+     * 
+     * @param namespace 列族名称
+     * @param keys 键列表
+     * @return 与键顺序一致的值列表，不存在的键对应null
+     */
+    public List<String> multiGet(String namespace, List<String> keys) throws StorageException {
+        ColumnFamilyHandle handle = handle(namespace);
+        List<byte[]> keyBytes = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            keyBytes.add(encode(key));
+        }
+        try {
+            List<byte[]> values = db.multiGetAsList(Collections.nCopies(keyBytes.size(), handle), keyBytes);
+            List<String> result = new ArrayList<>(values.size());
+            for (byte[] value : values) {
+                result.add(decode(value));
+            }
+            return result;
+        } catch (RocksDBException e) {
+            throw new StorageException("ROCKSDB_OPERATION_FAILED", "Failed to multi-get keys from " + namespace, e);
+        }
+    }
+    
+    /**
+     * 判断键是否可能存在（先查布隆过滤器和内存表，不存在时无需读盘）
+     * 
+     * @param namespace 列族名称
+     * @param key 键
+     * @return 是否存在
+     */
+    public boolean exists(String namespace, String key) throws StorageException {
+        ColumnFamilyHandle handle = handle(namespace);
+        byte[] keyBytes = encode(key);
+        if (!db.keyMayExist(handle, keyBytes, null)) {
+            return false;
+        }
+        return get(namespace, keyBytes) != null;
+    }
+    
+    /**
+     * 写入默认列族
+     * 
+     * @param key 键
+     * @param value 值
+     */
+    public void put(String key, String value) throws StorageException {
+        put(DEFAULT_NAMESPACE, key, value);
+    }
+    
+    /**
+     * 写入值
+     * 
+     * @param namespace 列族名称
+     * @param key 键
+     * @param value 值
+     */
+    public void put(String namespace, String key, String value) throws StorageException {
+        put(namespace, encode(key), encode(value));
+    }
+    
+    /**
+     * 写入值
+     * 
+     * @param namespace 列族名称
+     * @param key 键
+     * @param value 值
+     */
+    public void put(String namespace, byte[] key, byte[] value) throws StorageException {
+        ColumnFamilyHandle handle = handle(namespace);
+        try {
+            db.put(handle, writeOptions, key, value);
+        } catch (RocksDBException e) {
+            throw new StorageException("ROCKSDB_OPERATION_FAILED", "Failed to put key into " + namespace, e);
+        }
+    }
+    
+    /**
+     * 删除默认列族中的键
+     * 
+     * @param key 键
+     */
+    public void delete(String key) throws StorageException {
+        delete(DEFAULT_NAMESPACE, key);
+    }
+    
+    /**
+     * 删除键
+     * 
+     * @param namespace 列族名称
+     * @param key 键
+     */
+    public void delete(String namespace, String key) throws StorageException {
+        ColumnFamilyHandle handle = handle(namespace);
+        try {
+            db.delete(handle, writeOptions, encode(key));
+        } catch (RocksDBException e) {
+            throw new StorageException("ROCKSDB_OPERATION_FAILED", "Failed to delete key from " + namespace, e);
+        }
+    }
+    
+    /**
+     * 批量写入同一列族
+     * 
+     * @param namespace 列族名称
+     * @param entries 键值映射
+     */
+    public void putAll(String namespace, Map<String, String> entries) throws StorageException {
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+        writeBatch(batch -> {
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                batch.put(namespace, entry.getKey(), entry.getValue());
+            }
+        });
+    }
+    
+    /**
+     * 原子地执行一批写入和删除（可跨列族），只写一次WAL
+     * 
+     * @param operations 批量操作
+     */
+    public void writeBatch(BatchOperations operations) throws StorageException {
+        checkInitialized();
+        try (WriteBatch writeBatch = new WriteBatch()) {
+            operations.apply(new Batch(writeBatch));
+            db.write(writeOptions, writeBatch);
+        } catch (RocksDBException e) {
+            throw new StorageException("ROCKSDB_OPERATION_FAILED", "Failed to write batch", e);
+        }
+    }
+    
+    /**
+     * 按前缀遍历，按键的字节序返回
+     * 
+     * @param namespace 列族名称
+     * @param prefix 键前缀
+     * @param limit 最多返回的条数，0表示不限制
+     * @return 有序的键值映射
+     */
+    public Map<String, String> scanPrefix(String namespace, String prefix, int limit) throws StorageException {
+        Map<String, String> result = new LinkedHashMap<>();
+        scanPrefix(namespace, prefix, (key, value) -> {
+            result.put(decode(key), decode(value));
+            return limit <= 0 || result.size() < limit;
+        });
+        return result;
+    }
+    
+    /**
+     * 按前缀遍历
+     * 
+     * @param namespace 列族名称
+     * @param prefix 键前缀
+     * @param visitor 访问器，返回false时停止遍历
+     */
+    public void scanPrefix(String namespace, String prefix, BiPredicate<byte[], byte[]> visitor) throws StorageException {
+        try (ReadOptions readOptions = new ReadOptions()) {
+            scanPrefix(namespace, encode(prefix), readOptions, visitor);
+        }
+    }
+    
+    /**
+     * 创建快照，快照内的读取看到的是创建时刻的一致视图，使用完毕后必须关闭
+     * 
+     * @return 快照
+     */
+    public KvSnapshot snapshot() throws StorageException {
+        checkInitialized();
+        return new KvSnapshot(db.getSnapshot());
+    }
+    
+    /**
+     * 手动压缩列族，清理已删除和已过期（TTL）的数据
+     * 
+     * @param namespace 列族名称
+     */
+    public void compact(String namespace) throws StorageException {
+        ColumnFamilyHandle handle = handle(namespace);
+        try {
+            db.compactRange(handle);
+        } catch (RocksDBException e) {
+            throw new StorageException("ROCKSDB_OPERATION_FAILED", "Failed to compact " + namespace, e);
+        }
+    }
+    
+    /**
+     * 手动压缩所有列族
+     */
+    public void compactAll() throws StorageException {
+        for (String namespace : columnFamilies.keySet()) {
+            compact(namespace);
+        }
+    }
+    
+    /**
+     * 将内存表刷到磁盘
+     */
+    public void flush() throws StorageException {
+        checkInitialized();
+        try (FlushOptions flushOptions = new FlushOptions().setWaitForFlush(true)) {
+            db.flush(flushOptions, new ArrayList<>(columnFamilies.values()));
+        } catch (RocksDBException e) {
+            throw new StorageException("ROCKSDB_OPERATION_FAILED", "Failed to flush memtables", e);
+        }
+    }
+    
+    /**
+     * 获取列族名称
+     * 
+     * @return 列族名称集合
+     */
+    public Collection<String> getNamespaces() {
+        return Collections.unmodifiableSet(columnFamilies.keySet());
+    }
+    
+    /**
+     * 获取统计信息
+     * 
+     * @return 各列族的估计键数量、SST大小和内存表大小
+     */
+    public Map<String, Object> getStats() throws StorageException {
+        checkInitialized();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("path", path);
+        try {
+            for (Map.Entry<String, ColumnFamilyHandle> entry : columnFamilies.entrySet()) {
+                Map<String, Object> cfStats = new HashMap<>();
+                cfStats.put("estimatedKeys", db.getLongProperty(entry.getValue(), "rocksdb.estimate-num-keys"));
+                cfStats.put("sstBytes", db.getLongProperty(entry.getValue(), "rocksdb.total-sst-files-size"));
+                cfStats.put("memtableBytes", db.getLongProperty(entry.getValue(), "rocksdb.cur-size-all-mem-tables"));
+                stats.put(entry.getKey(), cfStats);
+            }
+        } catch (RocksDBException e) {
+            throw new StorageException("ROCKSDB_OPERATION_FAILED", "Failed to read RocksDB statistics", e);
+        }
+        return stats;
+    }
+    
+    /**
+     * 打开数据库
+     */
+    private void doInitialize() throws RocksDBException, StorageException {
+        Object pathValue = config.getProperty("path");
+        if (pathValue == null || pathValue.toString().trim().isEmpty()) {
+            throw new StorageException("CONFIG_INVALID", "RocksDB database requires 'path' property");
+        }
+        path = new File(pathValue.toString().trim()).getAbsolutePath();
+        new File(path).mkdirs();
+        
+        int defaultTtl = intProperty("ttl_seconds", 0);
+        Map<String, Integer> namespaceTtls = parseColumnFamilies(config.getProperty("column_families"), defaultTtl);
+        // 已存在但未配置的列族也必须打开
+        try (Options listOptions = new Options()) {
+            for (byte[] existing : RocksDB.listColumnFamilies(listOptions, path)) {
+                namespaceTtls.putIfAbsent(new String(existing, StandardCharsets.UTF_8), defaultTtl);
+            }
+        }
+        
+        LRUCache blockCache = new LRUCache(intProperty("block_cache_mb", 256) * 1024L * 1024L);
+        resources.add(blockCache);
+        BloomFilter bloomFilter = new BloomFilter(intProperty("bloom_bits_per_key", 10), false);
+        resources.add(bloomFilter);
+        
+        ColumnFamilyOptions cfOptions = new ColumnFamilyOptions()
+                .setWriteBufferSize(intProperty("write_buffer_size_mb", 64) * 1024L * 1024L)
+                .setMaxWriteBufferNumber(intProperty("max_write_buffer_number", 3))
+                .setLevelCompactionDynamicLevelBytes(true)
+                .setCompressionType(compressionType(config.getProperty("compression", "lz4").toString()))
+                .setBottommostCompressionType(CompressionType.ZSTD_COMPRESSION)
+                .setTableFormatConfig(new BlockBasedTableConfig()
+                        .setBlockCache(blockCache)
+                        .setFilterPolicy(bloomFilter)
+                        .setCacheIndexAndFilterBlocks(true));
+        resources.add(cfOptions);
+        
+        dbOptions = new DBOptions()
+                .setCreateIfMissing(true)
+                .setCreateMissingColumnFamilies(true)
+                .setMaxBackgroundJobs(intProperty("max_background_jobs", 4))
+                .setBytesPerSync(1024 * 1024);
+        resources.add(dbOptions);
+        
+        writeOptions = new WriteOptions()
+                .setSync(Boolean.parseBoolean(config.getProperty("sync_writes", "false").toString()))
+                .setDisableWAL(Boolean.parseBoolean(config.getProperty("disable_wal", "false").toString()));
+        resources.add(writeOptions);
+        
+        List<String> names = new ArrayList<>(namespaceTtls.keySet());
+        List<ColumnFamilyDescriptor> descriptors = new ArrayList<>(names.size());
+        List<Integer> ttls = new ArrayList<>(names.size());
+        boolean useTtl = false;
+        for (String name : names) {
+            descriptors.add(new ColumnFamilyDescriptor(name.getBytes(StandardCharsets.UTF_8), cfOptions));
+            int ttl = namespaceTtls.get(name);
+            ttls.add(ttl);
+            useTtl |= ttl > 0;
+        }
+        
+        String storedMode = readOpenMode();
+        if (MODE_TTL.equals(storedMode)) {
+            useTtl = true;
+        } else if (MODE_PLAIN.equals(storedMode) && useTtl) {
+            throw new StorageException("CONFIG_INVALID", "RocksDB at " + path
+                    + " was created without TTL and cannot be reopened with TTL: " + namespaceTtls);
+        }
+        
+        List<ColumnFamilyHandle> handles = new ArrayList<>(names.size());
+        db = useTtl
+                ? TtlDB.open(dbOptions, path, descriptors, handles, ttls, false)
+                : RocksDB.open(dbOptions, path, descriptors, handles);
+        for (int i = 0; i < names.size(); i++) {
+            columnFamilies.put(names.get(i), handles.get(i));
+        }
+        if (storedMode == null) {
+            writeOpenMode(useTtl ? MODE_TTL : MODE_PLAIN);
+        }
+        logger.info("Opened RocksDB at {} with column families {} (TTL: {})", path, names, useTtl ? namespaceTtls : "none");
+    }
+    
+    /**
+     * 读取数据目录中记录的打开方式，未记录时返回null
+     */
+    private String readOpenMode() throws StorageException {
+        File file = new File(path, OPEN_MODE_FILE);
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            String mode = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim();
+            if (!MODE_TTL.equals(mode) && !MODE_PLAIN.equals(mode)) {
+                throw new StorageException("CONFIG_INVALID", "Unknown RocksDB open mode '" + mode + "' in " + file);
+            }
+            return mode;
+        } catch (IOException e) {
+            throw new StorageException("INIT_FAILED", "Failed to read RocksDB open mode from " + file, e);
+        }
+    }
+    
+    private void writeOpenMode(String mode) throws StorageException {
+        File file = new File(path, OPEN_MODE_FILE);
+        try {
+            Files.write(file.toPath(), mode.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new StorageException("INIT_FAILED", "Failed to record RocksDB open mode in " + file, e);
+        }
+    }
+    
+    /**
+     * 使用指定读选项按前缀遍历
+     */
+    private void scanPrefix(String namespace, byte[] prefix, ReadOptions readOptions,
+                            BiPredicate<byte[], byte[]> visitor) throws StorageException {
+        ColumnFamilyHandle handle = handle(namespace);
+        byte[] upperBound = prefixUpperBound(prefix);
+        Slice upperSlice = upperBound != null ? new Slice(upperBound) : null;
+        try {
+            if (upperSlice != null) {
+                readOptions.setIterateUpperBound(upperSlice);
+            }
+            try (RocksIterator iterator = db.newIterator(handle, readOptions)) {
+                for (iterator.seek(prefix); iterator.isValid(); iterator.next()) {
+                    byte[] key = iterator.key();
+                    if (!startsWith(key, prefix) || !visitor.test(key, iterator.value())) {
+                        break;
+                    }
+                }
+                iterator.status();
+            }
+        } catch (RocksDBException e) {
+            throw new StorageException("ROCKSDB_OPERATION_FAILED", "Failed to scan prefix in " + namespace, e);
+        } finally {
+            if (upperSlice != null) {
+                upperSlice.close();
+            }
+        }
+    }
+    
+    /**
+     * 获取列族句柄
+     */
+    private ColumnFamilyHandle handle(String namespace) throws StorageException {
+        checkInitialized();
+        ColumnFamilyHandle handle = columnFamilies.get(namespace);
+        if (handle == null) {
+            throw new StorageException("INVALID_TABLE", "Unknown RocksDB column family: " + namespace);
+        }
+        return handle;
+    }
+    
+    /**
+     * 按打开的逆序释放本地资源
+     */
+    private void closeResources() {
+        for (ColumnFamilyHandle handle : columnFamilies.values()) {
+            handle.close();
+        }
+        columnFamilies.clear();
+        if (db != null) {
+            db.close();
+            db = null;
+        }
+        for (int i = resources.size() - 1; i >= 0; i--) {
+            try {
+                resources.get(i).close();
+            } catch (Exception e) {
+                logger.warn("Failed to release RocksDB resource", e);
+            }
+        }
+        resources.clear();
+    }
+    
+    private int intProperty(String key, int defaultValue) {
+        Object value = config.getProperty(key);
+        return value != null ? Integer.parseInt(value.toString().trim()) : defaultValue;
+    }
+    
+    /**
+     * 解析列族配置，默认列族总是存在
+     * 
+     * @param value 列族配置（列表或逗号分隔，"名称"或"名称:TTL秒数"）
+     * @param defaultTtl 默认TTL
+     * @return 列族名称到TTL的映射
+     */
+    private static Map<String, Integer> parseColumnFamilies(Object value, int defaultTtl) {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        result.put(DEFAULT_NAMESPACE, defaultTtl);
+        if (value == null) {
+            return result;
+        }
+        Collection<?> entries = value instanceof Collection
+                ? (Collection<?>) value
+                : Arrays.asList(value.toString().split(","));
+        for (Object entry : entries) {
+            String spec = entry != null ? entry.toString().trim() : "";
+            if (spec.isEmpty()) {
+                continue;
+            }
+            int separator = spec.indexOf(':');
+            if (separator > 0) {
+                result.put(spec.substring(0, separator).trim(), Integer.parseInt(spec.substring(separator + 1).trim()));
+            } else {
+                result.put(spec, defaultTtl);
+            }
+        }
+        return result;
+    }
+    
+    private static CompressionType compressionType(String name) {
+        switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "none":
+                return CompressionType.NO_COMPRESSION;
+            case "snappy":
+                return CompressionType.SNAPPY_COMPRESSION;
+            case "zstd":
+                return CompressionType.ZSTD_COMPRESSION;
+            case "lz4":
+                return CompressionType.LZ4_COMPRESSION;
+            default:
+                throw new IllegalArgumentException("Unsupported RocksDB compression: " + name);
+        }
+    }
+    
+    /**
+     * 计算前缀遍历的上界（前缀的字节序后继），前缀全为0xFF时没有上界
+     */
+    static byte[] prefixUpperBound(byte[] prefix) {
+        for (int i = prefix.length - 1; i >= 0; i--) {
+            if (prefix[i] != (byte) 0xFF) {
+                byte[] bound = Arrays.copyOf(prefix, i + 1);
+                bound[i]++;
+                return bound;
+            }
+        }
+        return null;
+    }
+    
+    private static boolean startsWith(byte[] key, byte[] prefix) {
+        if (key.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (key[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static byte[] encode(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    private static String decode(byte[] value) {
+        return value != null ? new String(value, StandardCharsets.UTF_8) : null;
+    }
+    
+    /**
+     * 检查适配器是否已初始化
+     * 
+     * @throws StorageException 未初始化时抛出异常
+     */
+    private void checkInitialized() throws StorageException {
+        if (!initialized.get()) {
+            throw new StorageException("NOT_INITIALIZED", "RocksDB adapter is not initialized");
+        }
+    }
+    
+    /**
+     * 批量操作回调
+     */
+    @FunctionalInterface
+    public interface BatchOperations {
+        
+        /**
+         * 向批次中添加操作
+         * 
+         * @param batch 批次
+         * @throws RocksDBException 添加失败时抛出异常
+         * @throws StorageException 列族不存在时抛出异常
+         */
+        void apply(Batch batch) throws RocksDBException, StorageException;
+    }
+    
+    /**
+     * 写批次，提交前所有操作只在内存中累积
+     */
+    public final class Batch {
+        
+        private final WriteBatch writeBatch;
+        
+        private Batch(WriteBatch writeBatch) {
+            this.writeBatch = writeBatch;
+        }
+        
+        public Batch put(String namespace, String key, String value) throws RocksDBException, StorageException {
+            writeBatch.put(handle(namespace), encode(key), encode(value));
+            return this;
+        }
+        
+        public Batch put(String namespace, byte[] key, byte[] value) throws RocksDBException, StorageException {
+            writeBatch.put(handle(namespace), key, value);
+            return this;
+        }
+        
+        public Batch delete(String namespace, String key) throws RocksDBException, StorageException {
+            writeBatch.delete(handle(namespace), encode(key));
+            return this;
+        }
+        
+        public int count() {
+            return writeBatch.count();
+        }
+    }
+    
+    /**
+     * 一致性快照读取
+     */
+    public final class KvSnapshot implements AutoCloseable {
+        
+        private final Snapshot snapshot;
+        private final ReadOptions readOptions;
+        
+        private KvSnapshot(Snapshot snapshot) {
+            this.snapshot = snapshot;
+            this.readOptions = new ReadOptions().setSnapshot(snapshot);
+        }
+        
+        public String get(String namespace, String key) throws StorageException {
+            try {
+                return decode(db.get(handle(namespace), readOptions, encode(key)));
+            } catch (RocksDBException e) {
+                throw new StorageException("ROCKSDB_OPERATION_FAILED", "Failed to get key from snapshot", e);
+            }
+        }
+        
+        public Map<String, String> scanPrefix(String namespace, String prefix, int limit) throws StorageException {
+            Map<String, String> result = new LinkedHashMap<>();
+            try (ReadOptions scanOptions = new ReadOptions().setSnapshot(snapshot)) {
+                RocksDBAdapter.this.scanPrefix(namespace, encode(prefix), scanOptions, (key, value) -> {
+                    result.put(decode(key), decode(value));
+                    return limit <= 0 || result.size() < limit;
+                });
+            }
+            return result;
+        }
+        
+        public long getSequenceNumber() {
+            return snapshot.getSequenceNumber();
+        }
+        
+        @Override
+        public void close() {
+            readOptions.close();
+            if (db != null) {
+                db.releaseSnapshot(snapshot);
+            }
+        }
+    }
+}
@@ -1,14 +1,24 @@
 package database.adapter;
 
 import database.config.DatabaseConfig;
+import database.core.PoolMetrics;
+import database.core.PooledStorage;
 import database.core.StorageException;
+import database.mapping.BeanMapper;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
 
 /**
  * SQLite数据库适配器
@@ -17,15 +27,35 @@ import java.sql.SQLException;
  * @author Collections Team
  * @since 1.0
  */
-public class SQLiteAdapter extends BaseStorageAdapter {
+public class SQLiteAdapter extends BaseStorageAdapter implements PooledStorage {
     
     private static final Logger logger = LoggerFactory.getLogger(SQLiteAdapter.class);
     
+    /**
+     * 单写者模式下每个事务最多合并的写请求数
+     */
+    private static final long DEFAULT_WRITE_BATCH_SIZE = 500;
+    
+    /**
+     * 单写者模式下等待更多写请求的时间窗口（毫秒）
+     */
+    private static final long DEFAULT_WRITE_BATCH_WINDOW = 5;
+    
+    /**
+     * 单写者模式下写队列容量
+     */
+    private static final long DEFAULT_WRITE_QUEUE_CAPACITY = 10000;
+    
     /**
      * HikariCP数据源
      */
     private HikariDataSource dataSource;
     
+    /**
+     * 单写者组提交队列（write_mode为queue时启用）
+     */
+    private SQLiteWriteQueue writeQueue;
+    
     /**
      * 构造函数
      * 
@@ -87,19 +117,8 @@ public class SQLiteAdapter extends BaseStorageAdapter {
             }
         }
         
-        // 设置SQLite特定属性
-        hikariConfig.addDataSourceProperty("foreign_keys", "true");
-        hikariConfig.addDataSourceProperty("journal_mode", "WAL"); // 使用WAL模式提高并发性能
-        hikariConfig.addDataSourceProperty("synchronous", "normal");
-        hikariConfig.addDataSourceProperty("cache_size", "10000");
-        hikariConfig.addDataSourceProperty("temp_store", "memory");
-        
-        // 设置连接属性
-        for (String key : config.getConnectionProperties().keySet()) {
-            if (!"url".equals(key)) {
-                hikariConfig.addDataSourceProperty(key, config.getConnectionProperties().get(key));
-            }
-        }
+        // 设置SQLite特定属性和连接属性
+        hikariConfig.setDataSourceProperties(buildConnectionProperties());
         
         // 设置池名称
         hikariConfig.setPoolName("SQLite-" + config.getName());
@@ -113,12 +132,28 @@ public class SQLiteAdapter extends BaseStorageAdapter {
         } catch (SQLException e) {
             throw new StorageException("CONNECTION_FAILED", "Failed to connect to SQLite database", e);
         }
+        
+        // 单写者模式：所有写操作经由一个专用连接组提交，读操作仍使用连接池
+        Object writeMode = config.getProperty("write_mode");
+        if (writeMode != null && "queue".equalsIgnoreCase(writeMode.toString().trim())) {
+            writeQueue = new SQLiteWriteQueue(config.getName(), this::openWriterConnection,
+                    (int) getLongProperty("write_batch_size", DEFAULT_WRITE_BATCH_SIZE),
+                    getLongProperty("write_batch_window_ms", DEFAULT_WRITE_BATCH_WINDOW),
+                    (int) getLongProperty("write_queue_capacity", DEFAULT_WRITE_QUEUE_CAPACITY));
+            writeQueue.start();
+            logger.info("SQLite single-writer group commit enabled for database: {}", config.getName());
+        }
     }
     
     @Override
     protected void doShutdown() throws Exception {
         logger.info("Shutting down SQLite adapter");
         
+        if (writeQueue != null) {
+            writeQueue.stop();
+            writeQueue = null;
+        }
+        
         if (dataSource != null && !dataSource.isClosed()) {
             dataSource.close();
             logger.info("SQLite connection pool closed");
@@ -149,6 +184,66 @@ public class SQLiteAdapter extends BaseStorageAdapter {
         return dataSource.getConnection();
     }
     
+    @Override
+    public PoolMetrics getPoolMetrics() {
+        return hikariPoolMetrics(dataSource);
+    }
+    
+    @Override
+    public void resizePool(int maxPoolSize) throws StorageException {
+        resizeHikariPool(dataSource, maxPoolSize);
+        logger.info("Resized {} connection pool to {} connections", getDatabaseType(), maxPoolSize);
+    }
+    
+    @Override
+    public int insert(String sql, Object... params) throws StorageException {
+        if (!useWriteQueue()) {
+            return super.insert(sql, params);
+        }
+        return queuedWrite(sql, Collections.singletonList(params), "INSERT_FAILED", "Failed to execute insert")[0];
+    }
+    
+    @Override
+    public int[] batchInsert(String sql, List<Object[]> batchParams) throws StorageException {
+        if (!useWriteQueue()) {
+            return super.batchInsert(sql, batchParams);
+        }
+        if (batchParams.isEmpty()) {
+            return new int[0];
+        }
+        return queuedWrite(sql, batchParams, "BATCH_INSERT_FAILED", "Failed to execute batch insert");
+    }
+    
+    @Override
+    public <T> int[] insertBeans(String table, List<T> beans, BeanMapper<T> mapper) throws StorageException {
+        if (!useWriteQueue()) {
+            return super.insertBeans(table, beans, mapper);
+        }
+        // 写队列按参数数组合并批次，这里退回参数数组，换取与其他写操作共用单写线程
+        String sql = buildBeanInsertSql(table, mapper);
+        List<Object[]> batchParams = new ArrayList<>(beans.size());
+        for (T bean : beans) {
+            batchParams.add(mapper.toParameters(bean));
+        }
+        return batchInsert(sql, batchParams);
+    }
+    
+    @Override
+    public int update(String sql, Object... params) throws StorageException {
+        if (!useWriteQueue()) {
+            return super.update(sql, params);
+        }
+        return queuedWrite(sql, Collections.singletonList(params), "UPDATE_FAILED", "Failed to execute update")[0];
+    }
+    
+    @Override
+    public int delete(String sql, Object... params) throws StorageException {
+        if (!useWriteQueue()) {
+            return super.delete(sql, params);
+        }
+        return queuedWrite(sql, Collections.singletonList(params), "DELETE_FAILED", "Failed to execute delete")[0];
+    }
+    
     @Override
     protected String addPagination(String sql, int pageNum, int pageSize) {
         // SQLite分页使用LIMIT和OFFSET
@@ -156,6 +251,111 @@ public class SQLiteAdapter extends BaseStorageAdapter {
         return sql + " LIMIT " + pageSize + " OFFSET " + offset;
     }
     
+    @Override
+    protected String buildUpsertSql(String table, List<String> columns, String[] conflictColumns) {
+        // INSERT ... ON CONFLICT DO UPDATE（SQLite 3.24+），excluded引用本次写入的值
+        List<String> conflicts = Arrays.asList(conflictColumns);
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table)
+                .append(" (").append(String.join(", ", columns)).append(") VALUES (")
+                .append(String.join(", ", Collections.nCopies(columns.size(), "?")))
+                .append(") ON CONFLICT (").append(String.join(", ", conflicts)).append(")");
+        
+        StringBuilder assignments = new StringBuilder();
+        for (String column : columns) {
+            if (!conflicts.contains(column)) {
+                if (assignments.length() > 0) {
+                    assignments.append(", ");
+                }
+                assignments.append(column).append(" = excluded.").append(column);
+            }
+        }
+        if (assignments.length() == 0) {
+            sql.append(" DO NOTHING");
+        } else {
+            sql.append(" DO UPDATE SET ").append(assignments);
+        }
+        return sql.toString();
+    }
+    
+    @Override
+    protected void configureStreamingStatement(Connection conn, PreparedStatement stmt) throws SQLException {
+        // sqlite-jdbc在next()时逐步执行sqlite3_step，本身不缓存整个结果集，
+        // fetchSize仅控制每次预读的行数
+        stmt.setFetchSize(getStreamFetchSize());
+    }
+    
+    /**
+     * 是否通过写队列执行写操作
+     * 显式事务中的写操作仍使用事务连接，保证事务内的读写一致
+     * 
+     * @return true表示使用写队列
+     */
+    private boolean useWriteQueue() {
+        return writeQueue != null && transactionConnection.get() == null;
+    }
+    
+    /**
+     * 通过写队列执行写操作，并等待其所在批次提交
+     * 
+     * @param sql SQL语句
+     * @param batchParams 参数列表
+     * @param errorCode 失败时的错误码
+     * @param message 失败时的错误信息
+     * @return 每次执行影响的行数
+     * @throws StorageException 执行失败时抛出异常
+     */
+    private int[] queuedWrite(String sql, List<Object[]> batchParams, String errorCode, String message) throws StorageException {
+        checkInitialized();
+        
+        logger.debug("Queueing write: {} (batch size: {})", sql, batchParams.size());
+        long startTime = System.nanoTime();
+        
+        try {
+            int[] results = writeQueue.execute(sql, batchParams);
+            recordQuery(sql, startTime, Arrays.stream(results).filter(count -> count > 0).asLongStream().sum(),
+                    batchParams.isEmpty() ? null : batchParams.get(0));
+            invalidateCountCache(sql);
+            return results;
+        } catch (StorageException e) {
+            recordQueryError(sql, startTime);
+            if ("WRITE_FAILED".equals(e.getErrorCode())) {
+                throw new StorageException(errorCode, message, e.getCause());
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * 构建SQLite连接属性（PRAGMA默认值加上配置的连接属性）
+     * 
+     * @return 连接属性
+     */
+    private Properties buildConnectionProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("foreign_keys", "true");
+        properties.setProperty("journal_mode", "WAL"); // 使用WAL模式提高并发性能
+        properties.setProperty("synchronous", "normal");
+        properties.setProperty("cache_size", "10000");
+        properties.setProperty("temp_store", "memory");
+        
+        for (String key : config.getConnectionProperties().keySet()) {
+            if (!"url".equals(key)) {
+                properties.setProperty(key, config.getConnectionProperties().get(key));
+            }
+        }
+        return properties;
+    }
+    
+    /**
+     * 打开单写者模式的专用写连接
+     * 
+     * @return 写连接
+     * @throws SQLException 打开失败时抛出异常
+     */
+    private Connection openWriterConnection() throws SQLException {
+        return DriverManager.getConnection(config.getConnectionProperties().get("url"), buildConnectionProperties());
+    }
+    
     /**
      * 获取SQLite数据库文件大小
      * 
@@ -239,6 +439,11 @@ public class SQLiteAdapter extends BaseStorageAdapter {
                 stats.put("waitingForConnection", dataSource.getHikariPoolMXBean().getThreadsAwaitingConnection());
             }
             
+            // 获取写队列统计信息
+            if (writeQueue != null) {
+                stats.put("writeQueue", writeQueue.getStats());
+            }
+            
             // 获取PRAGMA信息
             stats.put("journalMode", executePragma("journal_mode"));
             stats.put("synchronous", executePragma("synchronous"));
@@ -0,0 +1,391 @@
+package database.adapter;
+
+import database.core.StorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SQLite单写者组提交队列
+ * SQLite同一时刻只允许一个写者，多个线程通过连接池并发写入时会争抢写锁并等待busy_timeout。
+ * 该队列将所有写操作交给一个专用写线程，由它持有唯一的写连接，把一个时间窗口内到达的
+ * 写请求合并到同一个事务中提交，每批只需一次fsync。
+ * 
+ * 每个请求在独立的SAVEPOINT中执行，单个请求失败只回滚自身，不影响同批次的其他请求；
+ * 请求的结果在事务提交成功后才返回给调用方。
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+final class SQLiteWriteQueue {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SQLiteWriteQueue.class);
+    
+    /**
+     * 写连接工厂
+     */
+    interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+    
+    /**
+     * 写连接工厂
+     */
+    private final ConnectionFactory connectionFactory;
+    
+    /**
+     * 每个事务最多合并的请求数
+     */
+    private final int maxBatchSize;
+    
+    /**
+     * 等待更多请求加入同一批次的时间窗口（纳秒）
+     */
+    private final long batchWindowNanos;
+    
+    /**
+     * 待执行的写请求
+     */
+    private final BlockingQueue<WriteRequest> queue;
+    
+    /**
+     * 写线程
+     */
+    private final Thread writerThread;
+    
+    /**
+     * 是否正在运行
+     */
+    private volatile boolean running;
+    
+    /**
+     * 统计信息
+     */
+    private final AtomicLong committedBatches = new AtomicLong();
+    private final AtomicLong committedRequests = new AtomicLong();
+    private final AtomicLong failedRequests = new AtomicLong();
+    
+    /**
+     * 构造函数
+     * 
+     * @param name 数据库名称（用于线程命名）
+     * @param connectionFactory 写连接工厂
+     * @param maxBatchSize 每个事务最多合并的请求数
+     * @param batchWindowMillis 批次时间窗口（毫秒）
+     * @param queueCapacity 队列容量，队列满时写入方阻塞
+     */
+    SQLiteWriteQueue(String name, ConnectionFactory connectionFactory, int maxBatchSize,
+                     long batchWindowMillis, int queueCapacity) {
+        this.connectionFactory = connectionFactory;
+        this.maxBatchSize = maxBatchSize;
+        this.batchWindowNanos = TimeUnit.MILLISECONDS.toNanos(batchWindowMillis);
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.writerThread = new Thread(this::runWriter, "blackhole-sqlite-writer-" + name);
+        this.writerThread.setDaemon(true);
+    }
+    
+    /**
+     * 启动写线程
+     * 
+     * @throws StorageException 写连接无法打开时抛出异常
+     */
+    void start() throws StorageException {
+        // 先验证写连接可用，避免启动后所有写请求都失败
+        try {
+            connectionFactory.open().close();
+            logger.debug("SQLite writer connection verified");
+        } catch (SQLException e) {
+            throw new StorageException("CONNECTION_FAILED", "Failed to open SQLite writer connection", e);
+        }
+        running = true;
+        writerThread.start();
+    }
+    
+    /**
+     * 停止写线程，已入队的请求会在停止前执行完
+     */
+    void stop() {
+        running = false;
+        writerThread.interrupt();
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        // 写线程退出后仍未执行的请求直接失败
+        List<WriteRequest> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (WriteRequest request : remaining) {
+            request.result.completeExceptionally(
+                    new StorageException("WRITER_STOPPED", "SQLite writer has been stopped"));
+        }
+    }
+    
+    /**
+     * 提交写请求并等待其所在批次提交
+     * 
+     * @param sql SQL语句
+     * @param batchParams 参数列表，每个元素对应一次执行
+     * @return 每次执行影响的行数
+     * @throws StorageException 执行或提交失败时抛出异常
+     */
+    int[] execute(String sql, List<Object[]> batchParams) throws StorageException {
+        if (!running) {
+            throw new StorageException("WRITER_STOPPED", "SQLite writer is not running");
+        }
+        
+        WriteRequest request = new WriteRequest(sql, batchParams);
+        try {
+            queue.put(request);
+            if (!running && queue.remove(request)) {
+                // 入队时写线程恰好停止，请求不会再被执行
+                throw new StorageException("WRITER_STOPPED", "SQLite writer has been stopped");
+            }
+            return request.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageException("WRITE_INTERRUPTED", "Interrupted while waiting for SQLite writer", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof StorageException) {
+                throw (StorageException) cause;
+            }
+            throw new StorageException("WRITE_FAILED", "SQLite write failed", cause);
+        }
+    }
+    
+    /**
+     * 获取统计信息
+     * 
+     * @return 统计信息映射
+     */
+    Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        long batches = committedBatches.get();
+        long requests = committedRequests.get();
+        stats.put("queuedRequests", queue.size());
+        stats.put("committedBatches", batches);
+        stats.put("committedRequests", requests);
+        stats.put("failedRequests", failedRequests.get());
+        stats.put("averageBatchSize", batches == 0 ? 0.0 : (double) requests / batches);
+        return stats;
+    }
+    
+    /**
+     * 写线程主循环
+     */
+    private void runWriter() {
+        Connection conn = null;
+        List<WriteRequest> batch = new ArrayList<>(maxBatchSize);
+        
+        while (running || !queue.isEmpty()) {
+            try {
+                if (!collectBatch(batch)) {
+                    continue;
+                }
+                if (conn == null || conn.isClosed()) {
+                    conn = connectionFactory.open();
+                    conn.setAutoCommit(false);
+                }
+                commitBatch(conn, batch);
+            } catch (InterruptedException e) {
+                // stop()时中断，继续循环以执行完队列中剩余的请求
+            } catch (SQLException e) {
+                logger.error("SQLite writer failed to commit batch of {} requests", batch.size(), e);
+                failBatch(batch, new StorageException("WRITE_FAILED", "Failed to commit SQLite write batch", e));
+                closeQuietly(conn);
+                conn = null;
+            } catch (RuntimeException e) {
+                logger.error("Unexpected error in SQLite writer", e);
+                failBatch(batch, new StorageException("WRITE_FAILED", "Unexpected SQLite writer error", e));
+            } finally {
+                batch.clear();
+            }
+        }
+        
+        closeQuietly(conn);
+        logger.info("SQLite writer stopped");
+    }
+    
+    /**
+     * 收集一个批次：阻塞等待第一个请求，然后在时间窗口内继续收集，直到达到批次上限
+     * 
+     * @param batch 批次容器
+     * @return true表示收集到了请求
+     * @throws InterruptedException 等待被中断时抛出异常
+     */
+    private boolean collectBatch(List<WriteRequest> batch) throws InterruptedException {
+        WriteRequest first = running ? queue.poll(1, TimeUnit.SECONDS) : queue.poll();
+        if (first == null) {
+            return false;
+        }
+        batch.add(first);
+        
+        long deadline = System.nanoTime() + batchWindowNanos;
+        while (batch.size() < maxBatchSize) {
+            if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !running) {
+                break;
+            }
+            WriteRequest next;
+            try {
+                next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                // 正在停止，先提交已收集的请求
+                break;
+            }
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return true;
+    }
+    
+    /**
+     * 在一个事务中执行并提交整个批次
+     * 
+     * @param conn 写连接
+     * @param batch 批次
+     * @throws SQLException 提交失败时抛出异常
+     */
+    private void commitBatch(Connection conn, List<WriteRequest> batch) throws SQLException {
+        Map<String, PreparedStatement> statements = new HashMap<>();
+        List<int[]> results = new ArrayList<>(batch.size());
+        List<SQLException> failures = new ArrayList<>(batch.size());
+        
+        try {
+            for (WriteRequest request : batch) {
+                Savepoint savepoint = conn.setSavepoint();
+                PreparedStatement stmt = statements.get(request.sql);
+                try {
+                    if (stmt == null) {
+                        stmt = conn.prepareStatement(request.sql);
+                        statements.put(request.sql, stmt);
+                    }
+                    results.add(executeRequest(stmt, request));
+                    failures.add(null);
+                    conn.releaseSavepoint(savepoint);
+                } catch (SQLException e) {
+                    if (stmt != null) {
+                        stmt.clearBatch();
+                    }
+                    conn.rollback(savepoint);
+                    conn.releaseSavepoint(savepoint);
+                    results.add(null);
+                    failures.add(e);
+                }
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            try {
+                conn.rollback();
+            } catch (SQLException rollbackEx) {
+                logger.error("Failed to rollback SQLite write batch", rollbackEx);
+            }
+            throw e;
+        } finally {
+            for (PreparedStatement stmt : statements.values()) {
+                try {
+                    stmt.close();
+                } catch (SQLException e) {
+                    logger.warn("Failed to close statement", e);
+                }
+            }
+        }
+        
+        committedBatches.incrementAndGet();
+        for (int i = 0; i < batch.size(); i++) {
+            WriteRequest request = batch.get(i);
+            SQLException failure = failures.get(i);
+            if (failure == null) {
+                committedRequests.incrementAndGet();
+                request.result.complete(results.get(i));
+            } else {
+                failedRequests.incrementAndGet();
+                logger.error("SQLite write failed: {}", request.sql, failure);
+                request.result.completeExceptionally(
+                        new StorageException("WRITE_FAILED", "Failed to execute write: " + request.sql, failure));
+            }
+        }
+    }
+    
+    /**
+     * 执行单个写请求
+     * 
+     * @param stmt 预编译语句
+     * @param request 写请求
+     * @return 每次执行影响的行数
+     * @throws SQLException 执行失败时抛出异常
+     */
+    private int[] executeRequest(PreparedStatement stmt, WriteRequest request) throws SQLException {
+        if (request.batchParams.size() == 1) {
+            bind(stmt, request.batchParams.get(0));
+            return new int[] {stmt.executeUpdate()};
+        }
+        for (Object[] params : request.batchParams) {
+            bind(stmt, params);
+            stmt.addBatch();
+        }
+        return stmt.executeBatch();
+    }
+    
+    private static void bind(PreparedStatement stmt, Object[] params) throws SQLException {
+        stmt.clearParameters();
+        if (params != null) {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+        }
+    }
+    
+    private void failBatch(List<WriteRequest> batch, StorageException failure) {
+        for (WriteRequest request : batch) {
+            if (request.result.completeExceptionally(failure)) {
+                failedRequests.incrementAndGet();
+            }
+        }
+    }
+    
+    private static void closeQuietly(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                logger.warn("Failed to close SQLite writer connection", e);
+            }
+        }
+    }
+    
+    /**
+     * 写请求
+     */
+    private static final class WriteRequest {
+        private final String sql;
+        private final List<Object[]> batchParams;
+        private final CompletableFuture<int[]> result = new CompletableFuture<>();
+        
+        private WriteRequest(String sql, List<Object[]> batchParams) {
+            this.sql = sql;
+            this.batchParams = batchParams;
+        }
+    }
+}
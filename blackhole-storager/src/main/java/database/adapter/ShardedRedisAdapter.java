@@ -0,0 +1,725 @@
+package database.adapter;
+
+import database.config.DatabaseConfig;
+import database.core.DatabaseStorage;
+import database.core.Page;
+import database.core.RowMapper;
+import database.core.StorageException;
+import database.shard.ConsistentHashRing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * 分片Redis适配器
+ * 将键通过一致性哈希（带虚拟节点）分布到多个Redis节点上，每个节点由独立的RedisAdapter管理。
+ * 多键批量操作按分片分组后并行执行；新增节点时只有约1/N的键改变归属（不做数据迁移，
+ * 适用于缓存和去重集合等可重建的数据）。
+ * 
+ * 节点通过连接属性 nodes 配置，可以是 "host:port" 的列表或逗号分隔的字符串；
+ * 其余连接属性和连接池配置由所有节点共享。
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class ShardedRedisAdapter implements DatabaseStorage {
+    
+    private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ShardedRedisAdapter.class);
+    
+    /**
+     * 数据库配置
+     */
+    private final DatabaseConfig config;
+    
+    /**
+     * 节点哈希环
+     */
+    private final ConsistentHashRing<RedisAdapter> ring;
+    
+    /**
+     * 并行执行分片操作的线程池
+     */
+    private ExecutorService shardExecutor;
+    
+    /**
+     * 适配器状态
+     */
+    private final AtomicBoolean initialized = new AtomicBoolean(false);
+    
+    /**
+     * 构造函数
+     * 
+     * @param config 数据库配置
+     */
+    public ShardedRedisAdapter(DatabaseConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException("Database configuration cannot be null");
+        }
+        this.config = config;
+        Object virtualNodes = config.getProperty("virtual_nodes");
+        this.ring = new ConsistentHashRing<>(virtualNodes != null
+                ? Integer.parseInt(virtualNodes.toString().trim())
+                : ConsistentHashRing.DEFAULT_VIRTUAL_NODES);
+    }
+    
+    @Override
+    public String getDatabaseType() {
+        return "RedisSharded";
+    }
+    
+    @Override
+    public String getConnectionInfo() {
+        if (!initialized.get()) {
+            return "Sharded Redis [Not Connected]";
+        }
+        return String.format("Sharded Redis %s - %d virtual nodes per shard",
+                ring.getNodes().keySet(), ring.getVirtualNodes());
+    }
+    
+    @Override
+    public void initialize() throws StorageException {
+        if (initialized.compareAndSet(false, true)) {
+            try {
+                logger.info("Initializing sharded Redis adapter for database: {}", config.getName());
+                List<String> nodeIds = parseNodes(config.getProperty("nodes"));
+                if (nodeIds.isEmpty()) {
+                    throw new StorageException("CONFIG_INVALID", "Sharded Redis requires at least one node in 'nodes'");
+                }
+                shardExecutor = Executors.newCachedThreadPool(new ShardThreadFactory(config.getName()));
+                for (String nodeId : nodeIds) {
+                    ring.addNode(nodeId, startNode(nodeId));
+                }
+                logger.info("Successfully initialized sharded Redis adapter with {} nodes", ring.size());
+            } catch (Exception e) {
+                initialized.set(false);
+                shutdownNodes();
+                throw new StorageException("INIT_FAILED", "Failed to initialize sharded Redis adapter", e);
+            }
+        }
+    }
+    
+    @Override
+    public void shutdown() throws StorageException {
+        if (initialized.compareAndSet(true, false)) {
+            logger.info("Shutting down sharded Redis adapter for database: {}", config.getName());
+            shutdownNodes();
+            logger.info("Successfully shut down sharded Redis adapter");
+        }
+    }
+    
+    @Override
+    public boolean isHealthy() {
+        if (!initialized.get() || ring.size() == 0) {
+            return false;
+        }
+        for (RedisAdapter node : ring.getNodes().values()) {
+            if (!node.isHealthy()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    public <T> Optional<T> querySingle(String sql, RowMapper<T> mapper, Object... params) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "Redis does not support SQL queries");
+    }
+    
+    @Override
+    public <T> List<T> queryMultiple(String sql, RowMapper<T> mapper, Object... params) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "Redis does not support SQL queries");
+    }
+    
+    @Override
+    public <T> Page<T> queryPage(String sql, RowMapper<T> mapper, int pageNum, int pageSize, Object... params) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "Redis does not support SQL queries");
+    }
+    
+    @Override
+    public <T> Page<T> querySeek(String sql, RowMapper<T> mapper, String sortKey, Object lastSeen, int pageSize, Object... params) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "Redis does not support SQL queries");
+    }
+    
+    @Override
+    public <T> Stream<T> queryStream(String sql, RowMapper<T> mapper, Object... params) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "Redis does not support SQL queries");
+    }
+    
+    @Override
+    public int insert(String table, Map<String, Object> data) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "Redis does not support SQL insert");
+    }
+    
+    @Override
+    public int[] insertBatch(String table, List<Map<String, Object>> dataList) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "Redis does not support SQL batch insert");
+    }
+    
+    @Override
+    public int update(String table, Map<String, Object> data, String condition, Object... params) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "Redis does not support SQL update");
+    }
+    
+    @Override
+    public int[] updateBatch(String table, List<Map<String, Object>> dataList, String condition) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "Redis does not support SQL batch update");
+    }
+    
+    @Override
+    public int delete(String table, String condition, Object... params) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "Redis does not support SQL delete");
+    }
+    
+    @Override
+    public int[] deleteBatch(String table, List<String> conditions) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "Redis does not support SQL batch delete");
+    }
+    
+    @Override
+    public int upsert(String table, Map<String, Object> data, String... conflictColumns) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "Redis does not support SQL upsert");
+    }
+    
+    @Override
+    public int[] upsertBatch(String table, List<Map<String, Object>> dataList, String... conflictColumns) throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "Redis does not support SQL batch upsert");
+    }
+    
+    @Override
+    public void beginTransaction() throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "Sharded Redis does not support transactions");
+    }
+    
+    @Override
+    public void commit() throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "Sharded Redis does not support transactions");
+    }
+    
+    @Override
+    public void rollback() throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "Sharded Redis does not support transactions");
+    }
+    
+    @Override
+    public boolean isInTransaction() {
+        return false;
+    }
+    
+    /**
+     * 分片管理方法
+     */
+    
+    /**
+     * 新增节点
+     * 节点连接成功后才加入哈希环；原先路由到其他节点的约1/N的键将改为路由到新节点
+     * 
+     * @param nodeId 节点地址（host:port）
+     */
+    public void addNode(String nodeId) throws StorageException {
+        checkInitialized();
+        
+        String normalized = normalizeNodeId(nodeId);
+        if (ring.getNodes().containsKey(normalized)) {
+            throw new StorageException("CONFIG_INVALID", "Redis node already exists: " + normalized);
+        }
+        RedisAdapter node = startNode(normalized);
+        try {
+            ring.addNode(normalized, node);
+        } catch (IllegalArgumentException e) {
+            node.shutdown();
+            throw new StorageException("CONFIG_INVALID", e.getMessage(), e);
+        }
+        logger.info("Added Redis node {} to sharded database: {}", normalized, config.getName());
+    }
+    
+    /**
+     * 移除节点
+     * 原先路由到该节点的键将改为路由到环上的后继节点
+     * 
+     * @param nodeId 节点地址（host:port）
+     * @return true表示节点存在并已移除
+     */
+    public boolean removeNode(String nodeId) throws StorageException {
+        checkInitialized();
+        
+        RedisAdapter node = ring.removeNode(normalizeNodeId(nodeId));
+        if (node == null) {
+            return false;
+        }
+        node.shutdown();
+        logger.info("Removed Redis node {} from sharded database: {}", nodeId, config.getName());
+        return true;
+    }
+    
+    /**
+     * 获取键所属的节点地址
+     * 
+     * @param key 键
+     * @return 节点地址（host:port）
+     */
+    public String getNodeFor(String key) throws StorageException {
+        checkInitialized();
+        return ring.getNodeId(key);
+    }
+    
+    /**
+     * 获取键所属的节点适配器，用于执行未在此类中封装的单键操作
+     * 
+     * @param key 键
+     * @return 节点适配器
+     */
+    public RedisAdapter getShard(String key) throws StorageException {
+        checkInitialized();
+        return ring.getNode(key);
+    }
+    
+    /**
+     * 获取所有节点适配器
+     * 
+     * @return 节点地址到适配器的只读映射
+     */
+    public Map<String, RedisAdapter> getShards() {
+        return ring.getNodes();
+    }
+    
+    /**
+     * 单键操作（路由到所属分片）
+     */
+    
+    /**
+     * 设置字符串值
+     * @see RedisAdapter#set
+     */
+    public String set(String key, String value) throws StorageException {
+        return getShard(key).set(key, value);
+    }
+    
+    /**
+     * 获取字符串值
+     * @see RedisAdapter#get
+     */
+    public String get(String key) throws StorageException {
+        return getShard(key).get(key);
+    }
+    
+    /**
+     * 检查键是否存在
+     * @see RedisAdapter#exists
+     */
+    public boolean exists(String key) throws StorageException {
+        return getShard(key).exists(key);
+    }
+    
+    /**
+     * 设置哈希字段
+     * @see RedisAdapter#hset
+     */
+    public long hset(String key, String field, String value) throws StorageException {
+        return getShard(key).hset(key, field, value);
+    }
+    
+    /**
+     * 获取哈希字段值
+     * @see RedisAdapter#hget
+     */
+    public String hget(String key, String field) throws StorageException {
+        return getShard(key).hget(key, field);
+    }
+    
+    /**
+     * 获取所有哈希字段
+     * @see RedisAdapter#hgetAll
+     */
+    public Map<String, String> hgetAll(String key) throws StorageException {
+        return getShard(key).hgetAll(key);
+    }
+    
+    /**
+     * 批量设置哈希字段
+     * @see RedisAdapter#hsetAll
+     */
+    public long hsetAll(String key, Map<String, String> fields) throws StorageException {
+        return getShard(key).hsetAll(key, fields);
+    }
+    
+    /**
+     * 添加到列表
+     * @see RedisAdapter#lpush
+     */
+    public long lpush(String key, String... values) throws StorageException {
+        return getShard(key).lpush(key, values);
+    }
+    
+    /**
+     * 从列表获取元素
+     * @see RedisAdapter#lrange
+     */
+    public List<String> lrange(String key, long start, long end) throws StorageException {
+        return getShard(key).lrange(key, start, end);
+    }
+    
+    /**
+     * 添加到集合
+     * @see RedisAdapter#sadd
+     */
+    public long sadd(String key, String... members) throws StorageException {
+        return getShard(key).sadd(key, members);
+    }
+    
+    /**
+     * 批量添加集合成员
+     * @see RedisAdapter#saddAll
+     */
+    public long saddAll(String key, Collection<String> members) throws StorageException {
+        return getShard(key).saddAll(key, members);
+    }
+    
+    /**
+     * 获取集合成员
+     * @see RedisAdapter#smembers
+     */
+    public Set<String> smembers(String key) throws StorageException {
+        return getShard(key).smembers(key);
+    }
+    
+    /**
+     * 设置过期时间
+     * @see RedisAdapter#expire
+     */
+    public long expire(String key, int seconds) throws StorageException {
+        return getShard(key).expire(key, seconds);
+    }
+    
+    /**
+     * 获取剩余过期时间
+     * @see RedisAdapter#ttl
+     */
+    public long ttl(String key) throws StorageException {
+        return getShard(key).ttl(key);
+    }
+    
+    /**
+     * 自增计数器
+     * @see RedisAdapter#incr
+     */
+    public long incr(String key) throws StorageException {
+        return getShard(key).incr(key);
+    }
+    
+    /**
+     * 多键操作（按分片分组并行执行）
+     */
+    
+    /**
+     * 删除键
+     * 
+     * @param keys 要删除的键
+     * @return 删除的键数量
+     */
+    public long del(String... keys) throws StorageException {
+        checkInitialized();
+        
+        Map<RedisAdapter, List<String>> groups = ring.groupByNode(Arrays.asList(keys));
+        long deleted = 0;
+        for (Long count : forEachShard(groups, (node, shardKeys) -> node.del(shardKeys.toArray(new String[0])))) {
+            deleted += count;
+        }
+        return deleted;
+    }
+    
+    /**
+     * 批量设置字符串值
+     * 
+     * @param values 键值映射
+     * @return 写入的键数量
+     */
+    public int mset(Map<String, String> values) throws StorageException {
+        checkInitialized();
+        if (values == null || values.isEmpty()) {
+            return 0;
+        }
+        
+        Map<RedisAdapter, List<String>> groups = ring.groupByNode(values.keySet());
+        int written = 0;
+        for (Integer count : forEachShard(groups, (node, shardKeys) -> {
+            Map<String, String> shardValues = new LinkedHashMap<>(shardKeys.size() * 2);
+            for (String key : shardKeys) {
+                shardValues.put(key, values.get(key));
+            }
+            return node.mset(shardValues);
+        })) {
+            written += count;
+        }
+        return written;
+    }
+    
+    /**
+     * 批量获取字符串值
+     * 
+     * @param keys 键列表
+     * @return 与键顺序一致的值列表，不存在的键对应null
+     */
+    public List<String> mget(List<String> keys) throws StorageException {
+        checkInitialized();
+        if (keys == null || keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        Map<RedisAdapter, List<String>> groups = ring.groupByNode(keys);
+        List<List<String>> shardValues = forEachShard(groups, RedisAdapter::mget);
+        
+        // 按原始顺序合并各分片的结果
+        Map<String, String> valueByKey = new HashMap<>(keys.size() * 2);
+        int shard = 0;
+        for (List<String> shardKeys : groups.values()) {
+            List<String> values = shardValues.get(shard++);
+            for (int i = 0; i < shardKeys.size(); i++) {
+                valueByKey.put(shardKeys.get(i), values.get(i));
+            }
+        }
+        List<String> result = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            result.add(valueByKey.get(key));
+        }
+        return result;
+    }
+    
+    /**
+     * 批量写入多个哈希
+     * 
+     * @param hashes 哈希键到字段映射的映射
+     * @return 新增的字段总数
+     */
+    public long hsetBatch(Map<String, Map<String, String>> hashes) throws StorageException {
+        checkInitialized();
+        if (hashes == null || hashes.isEmpty()) {
+            return 0;
+        }
+        
+        Map<RedisAdapter, List<String>> groups = ring.groupByNode(hashes.keySet());
+        long added = 0;
+        for (Long count : forEachShard(groups, (node, shardKeys) -> {
+            Map<String, Map<String, String>> shardHashes = new LinkedHashMap<>(shardKeys.size() * 2);
+            for (String key : shardKeys) {
+                shardHashes.put(key, hashes.get(key));
+            }
+            return node.hsetBatch(shardHashes);
+        })) {
+            added += count;
+        }
+        return added;
+    }
+    
+    /**
+     * 获取各分片的统计信息
+     * 
+     * @return 节点地址到统计信息的映射
+     */
+    public Map<String, Object> getShardStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("nodeCount", ring.size());
+        stats.put("virtualNodes", ring.getVirtualNodes());
+        Map<String, Object> nodes = new LinkedHashMap<>();
+        for (Map.Entry<String, RedisAdapter> entry : ring.getNodes().entrySet()) {
+            nodes.put(entry.getKey(), entry.getValue().getRedisStats());
+        }
+        stats.put("nodes", nodes);
+        return stats;
+    }
+    
+    /**
+     * 创建节点适配器，子类可覆盖以注入测试用的假节点
+     * 
+     * @param nodeConfig 节点配置（host/port已替换为该节点的地址）
+     * @return 未初始化的节点适配器
+     */
+    protected RedisAdapter createNodeAdapter(DatabaseConfig nodeConfig) {
+        return new RedisAdapter(nodeConfig);
+    }
+    
+    /**
+     * 分片任务
+     * 
+     * @param <R> 结果类型
+     */
+    @FunctionalInterface
+    private interface ShardTask<R> {
+        R execute(RedisAdapter node, List<String> keys) throws StorageException;
+    }
+    
+    /**
+     * 在每个分片上执行任务，多个分片时并行执行
+     * 
+     * @param groups 节点适配器到键列表的映射（由哈希环在同一快照上分组）
+     * @param task 分片任务
+     * @return 与分组顺序一致的结果列表
+     * @throws StorageException 任一分片失败时抛出异常
+     */
+    private <R> List<R> forEachShard(Map<RedisAdapter, List<String>> groups, ShardTask<R> task) throws StorageException {
+        List<R> results = new ArrayList<>(groups.size());
+        
+        if (groups.size() == 1) {
+            Map.Entry<RedisAdapter, List<String>> group = groups.entrySet().iterator().next();
+            results.add(task.execute(group.getKey(), group.getValue()));
+            return results;
+        }
+        
+        List<Future<R>> futures = new ArrayList<>(groups.size());
+        for (Map.Entry<RedisAdapter, List<String>> group : groups.entrySet()) {
+            RedisAdapter node = group.getKey();
+            List<String> keys = group.getValue();
+            futures.add(shardExecutor.submit(() -> task.execute(node, keys)));
+        }
+        
+        StorageException failure = null;
+        for (Future<R> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (failure == null) {
+                    failure = cause instanceof StorageException
+                            ? (StorageException) cause
+                            : new StorageException("REDIS_OPERATION_FAILED", "Shard operation failed", cause);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new StorageException("REDIS_OPERATION_FAILED", "Interrupted while waiting for shard operation", e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return results;
+    }
+    
+    /**
+     * 创建并初始化节点适配器
+     * 
+     * @param nodeId 节点地址（host:port）
+     * @return 已初始化的节点适配器
+     */
+    private RedisAdapter startNode(String nodeId) throws StorageException {
+        int separator = nodeId.lastIndexOf(':');
+        Map<String, Object> properties = config.getProperties() != null
+                ? new HashMap<>(config.getProperties()) : new HashMap<>();
+        properties.remove("nodes");
+        properties.remove("virtual_nodes");
+        properties.put("host", nodeId.substring(0, separator));
+        properties.put("port", nodeId.substring(separator + 1));
+        
+        DatabaseConfig nodeConfig = new DatabaseConfig("redis", config.getName() + "@" + nodeId,
+                true, properties, config.getPool());
+        RedisAdapter node = createNodeAdapter(nodeConfig);
+        node.initialize();
+        return node;
+    }
+    
+    /**
+     * 关闭并移除所有节点
+     */
+    private void shutdownNodes() {
+        for (String nodeId : new ArrayList<>(ring.getNodes().keySet())) {
+            RedisAdapter node = ring.removeNode(nodeId);
+            try {
+                node.shutdown();
+            } catch (StorageException e) {
+                logger.warn("Failed to shut down Redis node: {}", nodeId, e);
+            }
+        }
+        if (shardExecutor != null) {
+            shardExecutor.shutdown();
+            try {
+                if (!shardExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                    shardExecutor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                shardExecutor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            shardExecutor = null;
+        }
+    }
+    
+    /**
+     * 解析节点列表
+     * 
+     * @param nodes 节点配置（列表或逗号分隔的字符串）
+     * @return 规范化后的节点地址列表
+     */
+    private static List<String> parseNodes(Object nodes) {
+        List<String> result = new ArrayList<>();
+        if (nodes == null) {
+            return result;
+        }
+        Collection<?> entries = nodes instanceof Collection
+                ? (Collection<?>) nodes
+                : Arrays.asList(nodes.toString().split(","));
+        for (Object entry : entries) {
+            if (entry != null && !entry.toString().trim().isEmpty()) {
+                result.add(normalizeNodeId(entry.toString()));
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 规范化节点地址，未指定端口时使用6379
+     * 
+     * @param nodeId 节点地址
+     * @return host:port
+     */
+    private static String normalizeNodeId(String nodeId) {
+        if (nodeId == null || nodeId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Redis node address cannot be empty");
+        }
+        String trimmed = nodeId.trim();
+        return trimmed.lastIndexOf(':') > 0 ? trimmed : trimmed + ":6379";
+    }
+    
+    /**
+     * 检查适配器是否已初始化
+     * 
+     * @throws StorageException 未初始化时抛出异常
+     */
+    private void checkInitialized() throws StorageException {
+        if (!initialized.get()) {
+            throw new StorageException("NOT_INITIALIZED", "Sharded Redis adapter is not initialized");
+        }
+    }
+    
+    /**
+     * 分片线程工厂
+     */
+    private static final class ShardThreadFactory implements java.util.concurrent.ThreadFactory {
+        
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+        
+        ShardThreadFactory(String databaseName) {
+            this.prefix = "blackhole-redis-shard-" + databaseName + "-";
+        }
+        
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,1294 @@
+package database.adapter;
+
+import database.config.DatabaseConfig;
+import database.core.DatabaseStorage;
+import database.core.Page;
+import database.core.RowMapper;
+import database.core.StorageException;
+import database.core.UncheckedStorageException;
+import database.shard.ConsistentHashRing;
+import database.util.DateValues;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 分片SQLite适配器
+ * 把一张逻辑表分散到同一目录下的多个SQLite文件中，每个文件由独立的SQLiteAdapter管理，
+ * 默认使用单写者队列（write_mode: queue），不同分片的写入互不阻塞、并行执行。
+ * 
+ * 两种分片方式（shard_strategy）：
+ * <ul>
+ *   <li>hash：按 shard_key_column 的值一致性哈希到固定的 shard_count 个文件（prefix_00.db ...），
+ *       调整分片数时约1/N的键改变归属，已写入的数据不会迁移</li>
+ *   <li>date：按 shard_key_column 的日期归入按天或按月（shard_date_granularity）的文件
+ *       （prefix_2026-10.db ...），首次写入某个时间段时创建文件；旧时间段可以整体卸载或归档，
+ *       只关闭对应文件，不影响正在写入的分片</li>
+ * </ul>
+ * 
+ * 写入按分片键路由，批量写入按分片分组后并行执行；更新和删除广播到所有分片，影响行数求和。
+ * 查询广播到所有分片后合并：queryPage按SQL末尾ORDER BY的列归并排序，querySeek按排序键归并。
+ * 新建的分片文件会先执行 shard_init_sql 和 {@link #applySchema(String...)} 登记的建表语句。
+ * 不支持跨分片事务。
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class ShardedSQLiteAdapter implements DatabaseStorage {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ShardedSQLiteAdapter.class);
+    
+    /**
+     * 默认分片数（hash方式）
+     */
+    private static final int DEFAULT_SHARD_COUNT = 8;
+    
+    /**
+     * 分片文件扩展名，以及SQLite WAL模式下的附属文件后缀
+     */
+    private static final String SHARD_FILE_SUFFIX = ".db";
+    private static final String[] SIDE_FILE_SUFFIXES = {"-wal", "-shm", "-journal"};
+    
+    /**
+     * SQL末尾的ORDER BY子句
+     */
+    private static final Pattern ORDER_BY_PATTERN = Pattern.compile("(?is).*\\border\\s+by\\s+(.+?)\\s*;?\\s*$");
+    
+    /**
+     * ORDER BY中的一个排序列：[表别名.]列名 [ASC|DESC]
+     */
+    private static final Pattern ORDER_ITEM_PATTERN = Pattern.compile(
+            "(?i)\\s*(?:[A-Za-z_][A-Za-z0-9_]*\\.)?([A-Za-z_][A-Za-z0-9_]*)(?:\\s+(asc|desc))?\\s*");
+    
+    /**
+     * 分片键列名和表名格式
+     */
+    private static final Pattern IDENTIFIER_PATTERN = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+    
+    /**
+     * 分片方式
+     */
+    private enum Strategy {
+        HASH, DATE
+    }
+    
+    /**
+     * 数据库配置
+     */
+    private final DatabaseConfig config;
+    
+    private final Strategy strategy;
+    private final String keyColumn;
+    private final Path shardDir;
+    private final Path archiveDir;
+    private final String filePrefix;
+    private final int shardCount;
+    private final boolean monthly;
+    private final ZoneId zone;
+    
+    /**
+     * hash方式的分片哈希环
+     */
+    private final ConsistentHashRing<Shard> ring;
+    
+    /**
+     * 当前打开的分片（分片ID → 分片），按ID排序；date方式的ID即时间段，字典序与时间顺序一致
+     */
+    private final NavigableMap<String, Shard> shards = new ConcurrentSkipListMap<>();
+    
+    /**
+     * 已卸载或归档的时间段，拒绝再写入，避免迟到的数据重新创建文件
+     */
+    private final Set<String> closedPeriods = ConcurrentHashMap.newKeySet();
+    
+    /**
+     * 新建分片时执行的建表语句
+     */
+    private final List<String> schemaStatements = new CopyOnWriteArrayList<>();
+    
+    /**
+     * 并行执行分片操作的线程池
+     */
+    private ExecutorService shardExecutor;
+    
+    /**
+     * 适配器状态
+     */
+    private final AtomicBoolean initialized = new AtomicBoolean(false);
+    
+    /**
+     * 构造函数
+     * 
+     * @param config 数据库配置
+     */
+    public ShardedSQLiteAdapter(DatabaseConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException("Database configuration cannot be null");
+        }
+        this.config = config;
+        
+        String strategyName = stringProperty("shard_strategy", "hash").toUpperCase(Locale.ROOT);
+        try {
+            this.strategy = Strategy.valueOf(strategyName);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported shard_strategy: " + strategyName.toLowerCase(Locale.ROOT));
+        }
+        this.keyColumn = stringProperty("shard_key_column", "");
+        if (!IDENTIFIER_PATTERN.matcher(keyColumn).matches()) {
+            throw new IllegalArgumentException("Sharded SQLite requires a valid 'shard_key_column'");
+        }
+        this.shardDir = Paths.get(stringProperty("shard_dir", "./data/shards"));
+        String archive = stringProperty("shard_archive_dir", "");
+        this.archiveDir = archive.isEmpty() ? shardDir.resolve("archive") : Paths.get(archive);
+        this.filePrefix = stringProperty("shard_file_prefix", config.getName());
+        this.shardCount = Integer.parseInt(stringProperty("shard_count", String.valueOf(DEFAULT_SHARD_COUNT)));
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("shard_count must be greater than 0");
+        }
+        String granularity = stringProperty("shard_date_granularity", "day");
+        if (!"day".equalsIgnoreCase(granularity) && !"month".equalsIgnoreCase(granularity)) {
+            throw new IllegalArgumentException("shard_date_granularity must be 'day' or 'month'");
+        }
+        this.monthly = "month".equalsIgnoreCase(granularity);
+        String timeZone = stringProperty("shard_time_zone", "");
+        this.zone = timeZone.isEmpty() ? ZoneId.systemDefault() : ZoneId.of(timeZone);
+        
+        Object virtualNodes = config.getProperty("virtual_nodes");
+        this.ring = new ConsistentHashRing<>(virtualNodes != null
+                ? Integer.parseInt(virtualNodes.toString().trim())
+                : ConsistentHashRing.DEFAULT_VIRTUAL_NODES);
+        
+        Object initSql = config.getProperty("shard_init_sql");
+        if (initSql instanceof Collection) {
+            for (Object statement : (Collection<?>) initSql) {
+                addSchemaStatements(String.valueOf(statement));
+            }
+        } else if (initSql != null) {
+            addSchemaStatements(initSql.toString());
+        }
+    }
+    
+    @Override
+    public String getDatabaseType() {
+        return "SQLiteSharded";
+    }
+    
+    @Override
+    public String getConnectionInfo() {
+        if (!initialized.get()) {
+            return "Sharded SQLite [Not Connected]";
+        }
+        return String.format("Sharded SQLite [%s] - %s on %s, %d open shards",
+                shardDir, strategy.name().toLowerCase(Locale.ROOT), keyColumn, shards.size());
+    }
+    
+    @Override
+    public void initialize() throws StorageException {
+        if (initialized.compareAndSet(false, true)) {
+            try {
+                logger.info("Initializing sharded SQLite adapter for database: {}", config.getName());
+                Files.createDirectories(shardDir);
+                shardExecutor = Executors.newCachedThreadPool(new ShardThreadFactory(config.getName()));
+                
+                if (strategy == Strategy.HASH) {
+                    int width = String.valueOf(shardCount - 1).length();
+                    for (int i = 0; i < shardCount; i++) {
+                        String shardId = String.format("%0" + Math.max(2, width) + "d", i);
+                        Shard shard = openShard(shardId);
+                        ring.addNode(shardId, shard);
+                    }
+                } else {
+                    // 归档目录中已有的时间段不再接受写入
+                    closedPeriods.addAll(listPeriods(archiveDir));
+                    for (String period : listPeriods(shardDir)) {
+                        openShard(period);
+                    }
+                }
+                logger.info("Successfully initialized sharded SQLite adapter with {} shards in {}", shards.size(), shardDir);
+            } catch (Exception e) {
+                initialized.set(false);
+                shutdownShards();
+                throw new StorageException("INIT_FAILED", "Failed to initialize sharded SQLite adapter", e);
+            }
+        }
+    }
+    
+    @Override
+    public void shutdown() throws StorageException {
+        if (initialized.compareAndSet(true, false)) {
+            logger.info("Shutting down sharded SQLite adapter for database: {}", config.getName());
+            shutdownShards();
+            logger.info("Successfully shut down sharded SQLite adapter");
+        }
+    }
+    
+    @Override
+    public boolean isHealthy() {
+        if (!initialized.get()) {
+            return false;
+        }
+        for (Shard shard : shards.values()) {
+            if (!shard.adapter.isHealthy()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * 查询方法（广播到所有分片后合并）
+     */
+    
+    @Override
+    public <T> Optional<T> querySingle(String sql, RowMapper<T> mapper, Object... params) throws StorageException {
+        checkInitialized();
+        
+        for (Optional<T> result : forEachShard(openShards(), true, shard -> shard.storage().querySingle(sql, mapper, params))) {
+            if (result.isPresent()) {
+                return result;
+            }
+        }
+        return Optional.empty();
+    }
+    
+    @Override
+    public <T> List<T> queryMultiple(String sql, RowMapper<T> mapper, Object... params) throws StorageException {
+        checkInitialized();
+        return concat(forEachShard(openShards(), true, shard -> shard.storage().queryMultiple(sql, mapper, params)));
+    }
+    
+    /**
+     * 分页查询
+     * 每个分片取前 pageNum*pageSize 行，按SQL末尾ORDER BY的列归并后跳过前面的页；
+     * 没有ORDER BY时按分片顺序拼接。页码越大每个分片读取的行越多，深分页请使用 {@link #querySeek}。
+     */
+    @Override
+    public <T> Page<T> queryPage(String sql, RowMapper<T> mapper, int pageNum, int pageSize, Object... params) throws StorageException {
+        checkInitialized();
+        if (pageNum < 1) {
+            throw new StorageException("INVALID_PAGE_NUMBER", "Page number must be greater than 0");
+        }
+        if (pageSize < 1) {
+            throw new StorageException("INVALID_PAGE_SIZE", "Page size must be greater than 0");
+        }
+        long limit = (long) pageNum * pageSize;
+        if (limit > Integer.MAX_VALUE) {
+            throw new StorageException("INVALID_PAGE_NUMBER", "Page number too large: " + pageNum);
+        }
+        
+        List<SortColumn> ordering = parseOrderBy(sql);
+        RowMapper<Keyed<T>> keyedMapper = keyedMapper(mapper, ordering);
+        List<Page<Keyed<T>>> pages = forEachShard(openShards(), true,
+                shard -> shard.storage().queryPage(sql, keyedMapper, 1, (int) limit, params));
+        
+        long totalElements = 0;
+        List<List<Keyed<T>>> runs = new ArrayList<>(pages.size());
+        for (Page<Keyed<T>> page : pages) {
+            totalElements += page.getTotalElements();
+            runs.add(page.getContent());
+        }
+        
+        List<Keyed<T>> merged = merge(runs, keyComparator(ordering));
+        int from = (int) Math.min(merged.size(), limit - pageSize);
+        int to = (int) Math.min(merged.size(), limit);
+        return new Page<>(values(merged.subList(from, to)), pageNum, pageSize, totalElements);
+    }
+    
+    /**
+     * 键集分页查询
+     * 每个分片按排序键升序各取一页后归并，取前pageSize行；返回的游标在所有分片上继续有效
+     */
+    @Override
+    public <T> Page<T> querySeek(String sql, RowMapper<T> mapper, String sortKey, Object lastSeen, int pageSize, Object... params) throws StorageException {
+        checkInitialized();
+        if (sortKey == null || !IDENTIFIER_PATTERN.matcher(sortKey).matches()) {
+            throw new StorageException("INVALID_SORT_KEY", "Invalid sort key: " + sortKey);
+        }
+        if (pageSize < 1) {
+            throw new StorageException("INVALID_PAGE_SIZE", "Page size must be greater than 0");
+        }
+        
+        List<SortColumn> ordering = Collections.singletonList(new SortColumn(sortKey, false));
+        RowMapper<Keyed<T>> keyedMapper = keyedMapper(mapper, ordering);
+        List<Page<Keyed<T>>> pages = forEachShard(openShards(), true,
+                shard -> shard.storage().querySeek(sql, keyedMapper, sortKey, lastSeen, pageSize, params));
+        
+        long totalElements = 0;
+        boolean shardHasMore = false;
+        List<List<Keyed<T>>> runs = new ArrayList<>(pages.size());
+        for (Page<Keyed<T>> page : pages) {
+            totalElements = totalElements != Page.UNKNOWN_TOTAL && page.isTotalKnown()
+                    ? totalElements + page.getTotalElements() : Page.UNKNOWN_TOTAL;
+            shardHasMore |= page.getNextCursor() != null;
+            runs.add(page.getContent());
+        }
+        
+        List<Keyed<T>> merged = merge(runs, keyComparator(ordering));
+        List<Keyed<T>> content = merged.subList(0, Math.min(merged.size(), pageSize));
+        // 未取到的行排序键都大于游标，下一页会从各分片重新读到
+        Object nextCursor = (merged.size() > pageSize || shardHasMore) && !content.isEmpty()
+                ? content.get(content.size() - 1).keys[0] : null;
+        return Page.keyset(values(content), pageSize, totalElements, nextCursor, lastSeen == null);
+    }
+    
+    /**
+     * 流式查询
+     * 依次遍历各分片的结果流，每个分片的游标在遍历到时才打开，遍历完即关闭
+     */
+    @Override
+    public <T> Stream<T> queryStream(String sql, RowMapper<T> mapper, Object... params) throws StorageException {
+        checkInitialized();
+        
+        return openShards().stream().flatMap(shard -> {
+            try {
+                return shard.storage().queryStream(sql, mapper, params);
+            } catch (StorageException e) {
+                throw new UncheckedStorageException(e);
+            }
+        });
+    }
+    
+    /**
+     * 按时间范围查询（date方式）
+     * 只查询与 [from, to] 有交集的分片，其余分片不打开游标
+     * 
+     * @param from 起始日期（含），null表示不限
+     * @param to 结束日期（含），null表示不限
+     * @param sql 查询SQL
+     * @param mapper 行映射器
+     * @param params 查询参数
+     * @param <T> 结果类型
+     * @return 按分片时间顺序拼接的结果
+     */
+    public <T> List<T> queryRange(LocalDate from, LocalDate to, String sql, RowMapper<T> mapper, Object... params) throws StorageException {
+        checkInitialized();
+        if (strategy != Strategy.DATE) {
+            throw new StorageException("UNSUPPORTED_OPERATION", "Range queries require shard_strategy 'date'");
+        }
+        
+        String fromPeriod = from != null ? periodOf(from) : null;
+        String toPeriod = to != null ? periodOf(to) : null;
+        List<Shard> selected = new ArrayList<>();
+        for (Shard shard : shards.values()) {
+            if ((fromPeriod == null || shard.id.compareTo(fromPeriod) >= 0)
+                    && (toPeriod == null || shard.id.compareTo(toPeriod) <= 0)) {
+                selected.add(shard);
+            }
+        }
+        return concat(forEachShard(selected, true, shard -> shard.storage().queryMultiple(sql, mapper, params)));
+    }
+    
+    /**
+     * 查询分片键所在的单个分片
+     * 
+     * @param shardKey 分片键的值
+     * @param sql 查询SQL
+     * @param mapper 行映射器
+     * @param params 查询参数
+     * @param <T> 结果类型
+     * @return 查询结果，分片尚未创建时为空列表
+     */
+    public <T> List<T> queryByKey(Object shardKey, String sql, RowMapper<T> mapper, Object... params) throws StorageException {
+        checkInitialized();
+        
+        Shard shard = shards.get(shardIdFor(shardKey));
+        if (shard == null) {
+            return new ArrayList<>();
+        }
+        return concat(forEachShard(Collections.singletonList(shard), false,
+                s -> s.storage().queryMultiple(sql, mapper, params)));
+    }
+    
+    /**
+     * 写入方法（按分片键路由，批量写入按分片并行）
+     */
+    
+    @Override
+    public int insert(String table, Map<String, Object> data) throws StorageException {
+        checkInitialized();
+        Shard shard = routeShard(data);
+        return forEachShard(Collections.singletonList(shard), false, s -> s.storage().insert(table, data)).get(0);
+    }
+    
+    @Override
+    public int[] insertBatch(String table, List<Map<String, Object>> dataList) throws StorageException {
+        checkInitialized();
+        return routeBatch(dataList, (storage, rows) -> storage.insertBatch(table, rows));
+    }
+    
+    @Override
+    public int upsert(String table, Map<String, Object> data, String... conflictColumns) throws StorageException {
+        checkInitialized();
+        Shard shard = routeShard(data);
+        return forEachShard(Collections.singletonList(shard), false, s -> s.storage().upsert(table, data, conflictColumns)).get(0);
+    }
+    
+    @Override
+    public int[] upsertBatch(String table, List<Map<String, Object>> dataList, String... conflictColumns) throws StorageException {
+        checkInitialized();
+        return routeBatch(dataList, (storage, rows) -> storage.upsertBatch(table, rows, conflictColumns));
+    }
+    
+    /**
+     * 更新记录
+     * 广播到所有分片；不允许修改分片键，否则记录会留在错误的分片中
+     */
+    @Override
+    public int update(String table, Map<String, Object> data, String condition, Object... params) throws StorageException {
+        checkInitialized();
+        if (data != null && data.containsKey(keyColumn)) {
+            throw new StorageException("SHARD_KEY_IMMUTABLE", "Shard key column cannot be updated: " + keyColumn);
+        }
+        
+        int updated = 0;
+        for (Integer count : forEachShard(openShards(), true, shard -> shard.storage().update(table, data, condition, params))) {
+            updated += count;
+        }
+        return updated;
+    }
+    
+    /**
+     * 批量更新记录
+     * 所有记录都带分片键时按分片路由，否则广播到所有分片并按记录累加影响行数
+     */
+    @Override
+    public int[] updateBatch(String table, List<Map<String, Object>> dataList, String condition) throws StorageException {
+        checkInitialized();
+        if (dataList == null || dataList.isEmpty()) {
+            return new int[0];
+        }
+        
+        for (Map<String, Object> data : dataList) {
+            if (data == null || data.get(keyColumn) == null) {
+                return sumCounts(dataList.size(), forEachShard(openShards(), true,
+                        shard -> shard.storage().updateBatch(table, dataList, condition)));
+            }
+        }
+        return routeBatch(dataList, (storage, rows) -> storage.updateBatch(table, rows, condition));
+    }
+    
+    @Override
+    public int delete(String table, String condition, Object... params) throws StorageException {
+        checkInitialized();
+        
+        int deleted = 0;
+        for (Integer count : forEachShard(openShards(), true, shard -> shard.storage().delete(table, condition, params))) {
+            deleted += count;
+        }
+        return deleted;
+    }
+    
+    @Override
+    public int[] deleteBatch(String table, List<String> conditions) throws StorageException {
+        checkInitialized();
+        if (conditions == null || conditions.isEmpty()) {
+            return new int[0];
+        }
+        return sumCounts(conditions.size(), forEachShard(openShards(), true,
+                shard -> shard.storage().deleteBatch(table, conditions)));
+    }
+    
+    @Override
+    public void beginTransaction() throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "Sharded SQLite does not support transactions");
+    }
+    
+    @Override
+    public void commit() throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "Sharded SQLite does not support transactions");
+    }
+    
+    @Override
+    public void rollback() throws StorageException {
+        throw new StorageException("UNSUPPORTED_OPERATION", "Sharded SQLite does not support transactions");
+    }
+    
+    @Override
+    public boolean isInTransaction() {
+        return false;
+    }
+    
+    /**
+     * 分片管理方法
+     */
+    
+    /**
+     * 在所有已打开的分片上执行建表语句，并登记到之后新建的分片上
+     * 语句应当可重复执行（CREATE TABLE IF NOT EXISTS / CREATE INDEX IF NOT EXISTS）
+     * 
+     * @param statements 建表语句
+     */
+    public void applySchema(String... statements) throws StorageException {
+        checkInitialized();
+        
+        List<String> added = new ArrayList<>();
+        for (String statement : statements) {
+            if (statement != null && !statement.trim().isEmpty()) {
+                added.add(statement.trim());
+            }
+        }
+        forEachShard(openShards(), true, shard -> {
+            for (String statement : added) {
+                shard.adapter.update(statement);
+            }
+            return null;
+        });
+        for (String statement : added) {
+            if (!schemaStatements.contains(statement)) {
+                schemaStatements.add(statement);
+            }
+        }
+    }
+    
+    /**
+     * 获取分片键所属的分片ID
+     * 
+     * @param shardKey 分片键的值
+     * @return 分片ID（hash方式为序号，date方式为时间段）
+     */
+    public String getShardFor(Object shardKey) throws StorageException {
+        checkInitialized();
+        return shardIdFor(shardKey);
+    }
+    
+    /**
+     * 获取已打开的分片适配器，用于执行未在此类中封装的单分片操作
+     * 
+     * @return 分片ID到适配器的只读映射
+     */
+    public Map<String, SQLiteAdapter> getShards() {
+        Map<String, SQLiteAdapter> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Shard> entry : shards.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().adapter);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+    
+    /**
+     * 卸载时间段分片（date方式）
+     * 等待该分片上正在执行的操作完成后关闭文件，文件保留在原目录；之后对该时间段的写入将被拒绝，
+     * 查询不再包含该分片。其他分片不受影响。
+     * 
+     * @param period 时间段（yyyy-MM-dd或yyyy-MM）
+     * @return true表示分片已打开并已卸载
+     */
+    public boolean detachShard(String period) throws StorageException {
+        checkInitialized();
+        requireDateStrategy();
+        
+        closedPeriods.add(period);
+        Shard shard = shards.remove(period);
+        if (shard == null) {
+            return false;
+        }
+        closeShard(shard);
+        logger.info("Detached SQLite shard {} from sharded database: {}", period, config.getName());
+        return true;
+    }
+    
+    /**
+     * 重新挂载已卸载的时间段分片（date方式），文件不存在时在首次写入时创建
+     * 
+     * @param period 时间段（yyyy-MM-dd或yyyy-MM）
+     */
+    public void attachShard(String period) throws StorageException {
+        checkInitialized();
+        requireDateStrategy();
+        if (Files.exists(archiveDir.resolve(shardFileName(period)))) {
+            throw new StorageException("SHARD_ARCHIVED", "Shard has been archived: " + period);
+        }
+        
+        closedPeriods.remove(period);
+        if (Files.exists(shardDir.resolve(shardFileName(period)))) {
+            getOrCreateShard(period);
+        }
+    }
+    
+    /**
+     * 归档时间段分片（date方式）
+     * 卸载分片后把数据库文件（以及WAL等附属文件）移动到 shard_archive_dir
+     * 
+     * @param period 时间段（yyyy-MM-dd或yyyy-MM）
+     * @return 归档后的文件路径，分片文件不存在时为null
+     */
+    public Path archiveShard(String period) throws StorageException {
+        checkInitialized();
+        requireDateStrategy();
+        
+        Shard shard = shards.get(period);
+        if (shard != null) {
+            // 先把WAL合并回主文件，归档目录里只留一个完整的.db文件
+            shard.adapter.executePragma("wal_checkpoint(TRUNCATE)");
+        }
+        detachShard(period);
+        
+        String fileName = shardFileName(period);
+        Path source = shardDir.resolve(fileName);
+        if (!Files.exists(source)) {
+            return null;
+        }
+        try {
+            Files.createDirectories(archiveDir);
+            Path target = archiveDir.resolve(fileName);
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+            for (String suffix : SIDE_FILE_SUFFIXES) {
+                Path side = shardDir.resolve(fileName + suffix);
+                if (Files.exists(side)) {
+                    Files.move(side, archiveDir.resolve(fileName + suffix), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            logger.info("Archived SQLite shard {} to {}", period, target);
+            return target;
+        } catch (IOException e) {
+            throw new StorageException("SHARD_ARCHIVE_FAILED", "Failed to archive SQLite shard: " + period, e);
+        }
+    }
+    
+    /**
+     * 删除时间段分片（date方式）
+     * 卸载分片后删除数据库文件及附属文件，用于超过保留期限的数据
+     * 
+     * @param period 时间段（yyyy-MM-dd或yyyy-MM）
+     * @return true表示分片文件存在并已删除
+     */
+    public boolean dropShard(String period) throws StorageException {
+        checkInitialized();
+        requireDateStrategy();
+        
+        detachShard(period);
+        String fileName = shardFileName(period);
+        try {
+            boolean deleted = Files.deleteIfExists(shardDir.resolve(fileName));
+            for (String suffix : SIDE_FILE_SUFFIXES) {
+                Files.deleteIfExists(shardDir.resolve(fileName + suffix));
+            }
+            if (deleted) {
+                logger.info("Dropped SQLite shard {} from sharded database: {}", period, config.getName());
+            }
+            return deleted;
+        } catch (IOException e) {
+            throw new StorageException("SHARD_DROP_FAILED", "Failed to delete SQLite shard: " + period, e);
+        }
+    }
+    
+    /**
+     * 获取date方式的时间段粒度
+     * 
+     * @return "day"或"month"，hash方式返回null
+     */
+    public String getDateGranularity() {
+        if (strategy != Strategy.DATE) {
+            return null;
+        }
+        return monthly ? "month" : "day";
+    }
+    
+    /**
+     * 获取分片键列名
+     * 
+     * @return 分片键列名
+     */
+    public String getShardKeyColumn() {
+        return keyColumn;
+    }
+    
+    /**
+     * 归档早于指定日期所在时间段的全部分片（date方式）
+     * 
+     * @param cutoff 截止日期，该日期所在的时间段及之后的分片保留
+     * @return 已归档的时间段
+     */
+    public List<String> archiveShardsBefore(LocalDate cutoff) throws StorageException {
+        checkInitialized();
+        requireDateStrategy();
+        
+        List<String> archived = new ArrayList<>();
+        for (String period : new ArrayList<>(shards.headMap(periodOf(cutoff), false).keySet())) {
+            if (archiveShard(period) != null) {
+                archived.add(period);
+            }
+        }
+        return archived;
+    }
+    
+    /**
+     * 获取各分片的统计信息
+     * 
+     * @return 统计信息
+     */
+    public Map<String, Object> getShardStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("strategy", strategy.name().toLowerCase(Locale.ROOT));
+        stats.put("keyColumn", keyColumn);
+        stats.put("shardDir", shardDir.toString());
+        stats.put("shardCount", shards.size());
+        long totalSize = 0;
+        Map<String, Object> shardStats = new LinkedHashMap<>();
+        for (Map.Entry<String, Shard> entry : shards.entrySet()) {
+            long size = entry.getValue().adapter.getDatabaseFileSize();
+            totalSize += Math.max(size, 0);
+            Map<String, Object> shard = new LinkedHashMap<>();
+            shard.put("file", entry.getValue().file.toString());
+            shard.put("sizeBytes", size);
+            shard.put("healthy", entry.getValue().adapter.isHealthy());
+            shardStats.put(entry.getKey(), shard);
+        }
+        stats.put("totalSizeBytes", totalSize);
+        stats.put("shards", shardStats);
+        if (strategy == Strategy.DATE) {
+            List<String> closed = new ArrayList<>(closedPeriods);
+            Collections.sort(closed);
+            stats.put("closedPeriods", closed);
+        }
+        return stats;
+    }
+    
+    /**
+     * 创建分片适配器，子类可覆盖以注入测试用的实现
+     * 
+     * @param shardConfig 分片配置（url已指向该分片的文件）
+     * @return 未初始化的分片适配器
+     */
+    protected SQLiteAdapter createShardAdapter(DatabaseConfig shardConfig) {
+        return new SQLiteAdapter(shardConfig);
+    }
+    
+    /**
+     * 分片任务
+     * 
+     * @param <R> 结果类型
+     */
+    @FunctionalInterface
+    private interface ShardTask<R> {
+        R execute(Shard shard) throws StorageException;
+    }
+    
+    /**
+     * 分组写入任务
+     */
+    @FunctionalInterface
+    private interface BatchTask {
+        int[] execute(DatabaseStorage storage, List<Map<String, Object>> rows) throws StorageException;
+    }
+    
+    /**
+     * 在每个分片上执行任务，多个分片时并行执行
+     * 执行期间持有分片的读锁，卸载和归档会等待正在执行的任务完成
+     * 
+     * @param targets 目标分片
+     * @param skipClosed true表示跳过执行前已被卸载的分片（广播查询），false表示抛出SHARD_ARCHIVED
+     * @param task 分片任务
+     * @return 已执行分片的结果，与目标分片的顺序一致
+     * @throws StorageException 任一分片失败时抛出异常
+     */
+    private <R> List<R> forEachShard(List<Shard> targets, boolean skipClosed, ShardTask<R> task) throws StorageException {
+        List<R> results = new ArrayList<>(targets.size());
+        if (targets.size() == 1) {
+            Optional<R> result = runLocked(targets.get(0), skipClosed, task);
+            result.ifPresent(results::add);
+            return results;
+        }
+        
+        List<Future<Optional<R>>> futures = new ArrayList<>(targets.size());
+        for (Shard shard : targets) {
+            futures.add(shardExecutor.submit(() -> runLocked(shard, skipClosed, task)));
+        }
+        
+        StorageException failure = null;
+        for (Future<Optional<R>> future : futures) {
+            try {
+                future.get().ifPresent(results::add);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (failure == null) {
+                    failure = cause instanceof StorageException
+                            ? (StorageException) cause
+                            : new StorageException("SHARD_OPERATION_FAILED", "Shard operation failed", cause);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new StorageException("SHARD_OPERATION_FAILED", "Interrupted while waiting for shard operation", e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return results;
+    }
+    
+    private <R> Optional<R> runLocked(Shard shard, boolean skipClosed, ShardTask<R> task) throws StorageException {
+        shard.lock.readLock().lock();
+        try {
+            if (shard.closed) {
+                if (skipClosed) {
+                    return Optional.empty();
+                }
+                throw new StorageException("SHARD_ARCHIVED", "Shard has been detached: " + shard.id);
+            }
+            return Optional.ofNullable(task.execute(shard));
+        } finally {
+            shard.lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * 按分片键把批量记录分组，各分片并行写入后按原始顺序合并影响行数
+     */
+    private int[] routeBatch(List<Map<String, Object>> dataList, BatchTask task) throws StorageException {
+        if (dataList == null || dataList.isEmpty()) {
+            return new int[0];
+        }
+        
+        Map<Shard, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < dataList.size(); i++) {
+            groups.computeIfAbsent(routeShard(dataList.get(i)), shard -> new ArrayList<>()).add(i);
+        }
+        
+        int[] results = new int[dataList.size()];
+        forEachShard(new ArrayList<>(groups.keySet()), false, shard -> {
+            List<Integer> indexes = groups.get(shard);
+            List<Map<String, Object>> rows = new ArrayList<>(indexes.size());
+            for (Integer index : indexes) {
+                rows.add(dataList.get(index));
+            }
+            int[] counts = task.execute(shard.storage(), rows);
+            for (int i = 0; i < indexes.size() && i < counts.length; i++) {
+                results[indexes.get(i)] = counts[i];
+            }
+            return null;
+        });
+        return results;
+    }
+    
+    /**
+     * 确定记录所属的分片，date方式下时间段的文件不存在时创建
+     */
+    private Shard routeShard(Map<String, Object> data) throws StorageException {
+        if (data == null) {
+            throw new StorageException("SHARD_KEY_MISSING", "Record cannot be null");
+        }
+        String shardId = shardIdFor(data.get(keyColumn));
+        if (strategy == Strategy.DATE) {
+            return getOrCreateShard(shardId);
+        }
+        Shard shard = shards.get(shardId);
+        if (shard == null) {
+            throw new StorageException("NOT_INITIALIZED", "Sharded SQLite adapter is not initialized");
+        }
+        return shard;
+    }
+    
+    private String shardIdFor(Object shardKey) throws StorageException {
+        if (shardKey == null) {
+            throw new StorageException("SHARD_KEY_MISSING", "Missing value for shard key column: " + keyColumn);
+        }
+        return strategy == Strategy.HASH ? ring.getNodeId(String.valueOf(shardKey)) : periodOf(toLocalDate(shardKey));
+    }
+    
+    private Shard getOrCreateShard(String period) throws StorageException {
+        Shard shard = shards.get(period);
+        if (shard != null) {
+            return shard;
+        }
+        synchronized (shards) {
+            shard = shards.get(period);
+            if (shard != null) {
+                return shard;
+            }
+            if (closedPeriods.contains(period)) {
+                throw new StorageException("SHARD_ARCHIVED", "Shard has been detached or archived: " + period);
+            }
+            return openShard(period);
+        }
+    }
+    
+    /**
+     * 打开分片文件并执行建表语句
+     */
+    private Shard openShard(String shardId) throws StorageException {
+        Path file = shardDir.resolve(shardFileName(shardId));
+        Map<String, Object> properties = config.getProperties() != null
+                ? new HashMap<>(config.getProperties()) : new HashMap<>();
+        properties.keySet().removeIf(key -> key.startsWith("shard_"));
+        properties.remove("virtual_nodes");
+        properties.put("url", "jdbc:sqlite:" + file);
+        // 每个分片一个写者线程，分片之间并行写入
+        properties.putIfAbsent("write_mode", "queue");
+        
+        DatabaseConfig shardConfig = new DatabaseConfig("sqlite", config.getName() + "@" + shardId,
+                true, properties, config.getPool());
+        SQLiteAdapter adapter = createShardAdapter(shardConfig);
+        adapter.initialize();
+        try {
+            for (String statement : schemaStatements) {
+                adapter.update(statement);
+            }
+        } catch (StorageException e) {
+            adapter.shutdown();
+            throw e;
+        }
+        
+        Shard shard = new Shard(shardId, file, adapter);
+        shards.put(shardId, shard);
+        logger.debug("Opened SQLite shard {} at {}", shardId, file);
+        return shard;
+    }
+    
+    /**
+     * 等待分片上正在执行的操作完成后关闭分片
+     */
+    private void closeShard(Shard shard) {
+        shard.lock.writeLock().lock();
+        try {
+            shard.closed = true;
+            shard.adapter.shutdown();
+        } catch (StorageException e) {
+            logger.warn("Failed to shut down SQLite shard: {}", shard.id, e);
+        } finally {
+            shard.lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * 关闭并移除所有分片
+     */
+    private void shutdownShards() {
+        for (String shardId : new ArrayList<>(shards.keySet())) {
+            if (strategy == Strategy.HASH) {
+                ring.removeNode(shardId);
+            }
+            Shard shard = shards.remove(shardId);
+            if (shard != null) {
+                closeShard(shard);
+            }
+        }
+        if (shardExecutor != null) {
+            shardExecutor.shutdown();
+            try {
+                if (!shardExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                    shardExecutor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                shardExecutor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            shardExecutor = null;
+        }
+    }
+    
+    private List<Shard> openShards() {
+        return new ArrayList<>(shards.values());
+    }
+    
+    /**
+     * 列出目录中属于本表的时间段分片文件
+     */
+    private List<String> listPeriods(Path dir) throws IOException {
+        List<String> periods = new ArrayList<>();
+        if (!Files.isDirectory(dir)) {
+            return periods;
+        }
+        Pattern fileName = Pattern.compile(Pattern.quote(filePrefix + "_")
+                + (monthly ? "(\\d{4}-\\d{2})" : "(\\d{4}-\\d{2}-\\d{2})") + Pattern.quote(SHARD_FILE_SUFFIX));
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                Matcher matcher = fileName.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    periods.add(matcher.group(1));
+                }
+            }
+        }
+        Collections.sort(periods);
+        return periods;
+    }
+    
+    private String shardFileName(String shardId) {
+        return filePrefix + "_" + shardId + SHARD_FILE_SUFFIX;
+    }
+    
+    private String periodOf(LocalDate date) {
+        return monthly ? YearMonth.from(date).toString() : date.toString();
+    }
+    
+    /**
+     * 把分片键的值转换为日期
+     */
+    private LocalDate toLocalDate(Object value) throws StorageException {
+        try {
+            return DateValues.toLocalDate(value, zone);
+        } catch (IllegalArgumentException e) {
+            throw new StorageException("INVALID_SHARD_KEY", "Cannot derive a date from shard key value: " + value, e);
+        }
+    }
+    
+    /**
+     * 解析SQL末尾的ORDER BY子句
+     * 
+     * @return 排序列，没有ORDER BY时为空列表
+     * @throws StorageException 排序项不是普通列（表达式、函数）时抛出异常，无法在分片之间归并
+     */
+    private static List<SortColumn> parseOrderBy(String sql) throws StorageException {
+        Matcher matcher = ORDER_BY_PATTERN.matcher(sql);
+        if (!matcher.matches()) {
+            return Collections.emptyList();
+        }
+        String clause = matcher.group(1);
+        if (clause.indexOf(')') >= 0) {
+            // ORDER BY属于子查询或窗口函数
+            return Collections.emptyList();
+        }
+        
+        List<SortColumn> columns = new ArrayList<>();
+        for (String item : clause.split(",")) {
+            Matcher column = ORDER_ITEM_PATTERN.matcher(item);
+            if (!column.matches()) {
+                throw new StorageException("UNSUPPORTED_OPERATION",
+                        "Sharded paging can only merge ORDER BY on plain columns: " + item.trim());
+            }
+            columns.add(new SortColumn(column.group(1), "desc".equalsIgnoreCase(column.group(2))));
+        }
+        return columns;
+    }
+    
+    /**
+     * 包装行映射器，同时读取排序列的值
+     */
+    private static <T> RowMapper<Keyed<T>> keyedMapper(RowMapper<T> mapper, List<SortColumn> ordering) {
+        return (rs, rowNum) -> {
+            Object[] keys = new Object[ordering.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = rs.getObject(ordering.get(i).column);
+            }
+            return new Keyed<>(keys, mapper.mapRow(rs, rowNum));
+        };
+    }
+    
+    private static <T> Comparator<Keyed<T>> keyComparator(List<SortColumn> ordering) {
+        if (ordering.isEmpty()) {
+            return null;
+        }
+        return (left, right) -> {
+            for (int i = 0; i < ordering.size(); i++) {
+                int result = compareKeys(left.keys[i], right.keys[i]);
+                if (result != 0) {
+                    return ordering.get(i).descending ? -result : result;
+                }
+            }
+            return 0;
+        };
+    }
+    
+    /**
+     * 归并各分片已排序的结果；比较器为null时按分片顺序拼接
+     * 排序键相同的行保持分片顺序，结果稳定
+     */
+    private static <T> List<Keyed<T>> merge(List<List<Keyed<T>>> runs, Comparator<Keyed<T>> comparator) {
+        List<Keyed<T>> merged = concat(runs);
+        if (comparator != null) {
+            // 各段已有序，TimSort对这种输入只做归并
+            merged.sort(comparator);
+        }
+        return merged;
+    }
+    
+    /**
+     * 比较排序列的值，与SQLite的排序规则一致：NULL最小，数值按大小比较
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareKeys(Object left, Object right) {
+        if (left == null || right == null) {
+            return left == null ? (right == null ? 0 : -1) : 1;
+        }
+        if (left instanceof Number && right instanceof Number) {
+            if (isIntegral(left) && isIntegral(right)) {
+                return Long.compare(((Number) left).longValue(), ((Number) right).longValue());
+            }
+            return Double.compare(((Number) left).doubleValue(), ((Number) right).doubleValue());
+        }
+        if (left instanceof Comparable && left.getClass().isInstance(right)) {
+            return ((Comparable) left).compareTo(right);
+        }
+        if (left instanceof byte[] && right instanceof byte[]) {
+            return compareBytes((byte[]) left, (byte[]) right);
+        }
+        return left.toString().compareTo(right.toString());
+    }
+    
+    private static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+    
+    private static int compareBytes(byte[] left, byte[] right) {
+        int length = Math.min(left.length, right.length);
+        for (int i = 0; i < length; i++) {
+            int result = Integer.compare(left[i] & 0xff, right[i] & 0xff);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Integer.compare(left.length, right.length);
+    }
+    
+    private static <T> List<T> concat(List<? extends List<T>> lists) {
+        int size = 0;
+        for (List<T> list : lists) {
+            size += list.size();
+        }
+        List<T> result = new ArrayList<>(size);
+        for (List<T> list : lists) {
+            result.addAll(list);
+        }
+        return result;
+    }
+    
+    private static <T> List<T> values(List<Keyed<T>> rows) {
+        List<T> result = new ArrayList<>(rows.size());
+        for (Keyed<T> row : rows) {
+            result.add(row.value);
+        }
+        return result;
+    }
+    
+    private static int[] sumCounts(int size, List<int[]> shardCounts) {
+        int[] results = new int[size];
+        for (int[] counts : shardCounts) {
+            for (int i = 0; i < size && i < counts.length; i++) {
+                results[i] += counts[i];
+            }
+        }
+        return results;
+    }
+    
+    private String stringProperty(String key, String defaultValue) {
+        Object value = config.getProperty(key);
+        return value != null ? value.toString().trim() : defaultValue;
+    }
+    
+    private void addSchemaStatements(String sql) {
+        for (String statement : sql.split(";")) {
+            if (!statement.trim().isEmpty()) {
+                schemaStatements.add(statement.trim());
+            }
+        }
+    }
+    
+    private void requireDateStrategy() throws StorageException {
+        if (strategy != Strategy.DATE) {
+            throw new StorageException("UNSUPPORTED_OPERATION", "Detaching and archiving shards require shard_strategy 'date'");
+        }
+    }
+    
+    /**
+     * 检查适配器是否已初始化
+     * 
+     * @throws StorageException 未初始化时抛出异常
+     */
+    private void checkInitialized() throws StorageException {
+        if (!initialized.get()) {
+            throw new StorageException("NOT_INITIALIZED", "Sharded SQLite adapter is not initialized");
+        }
+    }
+    
+    /**
+     * 分片：一个SQLite文件及其适配器
+     */
+    private static final class Shard {
+        private final String id;
+        private final Path file;
+        private final SQLiteAdapter adapter;
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private volatile boolean closed;
+        
+        Shard(String id, Path file, SQLiteAdapter adapter) {
+            this.id = id;
+            this.file = file;
+            this.adapter = adapter;
+        }
+        
+        DatabaseStorage storage() {
+            return adapter;
+        }
+    }
+    
+    /**
+     * 排序列
+     */
+    private static final class SortColumn {
+        private final String column;
+        private final boolean descending;
+        
+        SortColumn(String column, boolean descending) {
+            this.column = column;
+            this.descending = descending;
+        }
+    }
+    
+    /**
+     * 带排序列值的行
+     */
+    private static final class Keyed<T> {
+        private final Object[] keys;
+        private final T value;
+        
+        Keyed(Object[] keys, T value) {
+            this.keys = keys;
+            this.value = value;
+        }
+    }
+    
+    /**
+     * 分片线程工厂
+     */
+    private static final class ShardThreadFactory implements ThreadFactory {
+        
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+        
+        ShardThreadFactory(String databaseName) {
+            this.prefix = "blackhole-sqlite-shard-" + databaseName + "-";
+        }
+        
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,403 @@
+package database.async;
+
+import database.config.AsyncExecutorConfig;
+import database.core.DatabaseStorage;
+import database.core.Page;
+import database.core.RowMapper;
+import database.core.StorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 异步存储门面
+ * 把阻塞的 {@link DatabaseStorage} 调用放到每个适配器专用的I/O执行器上，返回 {@link CompletableFuture}，
+ * 解析线程、下载线程提交写入后可以继续工作，不再等待数据库往返。
+ * 
+ * <ul>
+ *   <li>I/O并发数默认等于连接池最大连接数，多出的调用排队而不是在连接池上超时</li>
+ *   <li>运行在JDK 21+且未禁用时使用虚拟线程，并发数由信号量限制为同样的大小</li>
+ *   <li>Future总是在回调执行器上完成，thenApply等未指定执行器的后续阶段不会占用I/O线程</li>
+ *   <li>排队超过上限时返回以ASYNC_REJECTED失败的Future，而不是阻塞调用方</li>
+ * </ul>
+ * 
+ * 事务绑定在线程上，跨多个Future的事务无法成立，需要事务时使用 {@link #inTransaction(StorageOperation)}
+ * 在同一个I/O线程上执行整个事务。流式查询持有连接直到流关闭，不提供异步版本。
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class AsyncDatabaseStorage {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AsyncDatabaseStorage.class);
+    
+    /**
+     * 关闭时等待已提交调用完成的时间（毫秒）
+     */
+    private static final long SHUTDOWN_TIMEOUT = 30000;
+    
+    private final DatabaseStorage delegate;
+    private final String name;
+    private final int concurrency;
+    private final int queueCapacity;
+    private final boolean virtual;
+    
+    private final ExecutorService ioExecutor;
+    private final Semaphore permits;
+    private final Executor callbackExecutor;
+    private final ExecutorService ownedCallbackExecutor;
+    
+    private final AtomicInteger pending = new AtomicInteger();
+    
+    /**
+     * 已提交但尚未执行完的调用，关闭超时后以ASYNC_REJECTED失败，避免调用方永远等待
+     */
+    private final Set<CompletableFuture<?>> inFlight = ConcurrentHashMap.newKeySet();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    
+    /**
+     * 数据库操作
+     * 
+     * @param <T> 结果类型
+     */
+    @FunctionalInterface
+    public interface StorageOperation<T> {
+        
+        /**
+         * 在I/O线程上执行操作
+         * 
+         * @param storage 被包装的存储
+         * @return 操作结果
+         * @throws StorageException 操作失败时抛出异常
+         */
+        T apply(DatabaseStorage storage) throws StorageException;
+    }
+    
+    /**
+     * 构造函数
+     * 
+     * @param delegate 被包装的存储
+     * @param config 异步访问配置
+     * @param name 数据库名称（用于线程命名和日志）
+     * @param poolSize 连接池最大连接数，配置的I/O线程数为0时使用
+     */
+    public AsyncDatabaseStorage(DatabaseStorage delegate, AsyncExecutorConfig config, String name, int poolSize) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate storage cannot be null");
+        }
+        config.validate();
+        this.delegate = delegate;
+        this.name = name;
+        this.concurrency = config.getIoThreads() > 0 ? config.getIoThreads() : Math.max(1, poolSize);
+        this.queueCapacity = config.getQueueCapacity();
+        
+        ExecutorService virtualExecutor = config.isVirtualThreads() ? newVirtualThreadExecutor() : null;
+        this.virtual = virtualExecutor != null;
+        if (virtual) {
+            this.ioExecutor = virtualExecutor;
+            this.permits = new Semaphore(concurrency);
+        } else {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(concurrency, concurrency,
+                    60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueCapacity),
+                    daemonThreads("async-io-" + name));
+            executor.allowCoreThreadTimeOut(true);
+            this.ioExecutor = executor;
+            this.permits = null;
+        }
+        
+        if (config.getCallbackThreads() > 0) {
+            this.ownedCallbackExecutor = Executors.newFixedThreadPool(config.getCallbackThreads(),
+                    daemonThreads("async-callback-" + name));
+            this.callbackExecutor = ownedCallbackExecutor;
+        } else {
+            this.ownedCallbackExecutor = null;
+            this.callbackExecutor = ForkJoinPool.commonPool();
+        }
+        
+        logger.info("Created async storage for {} (concurrency: {}, virtual threads: {}, {})",
+                name, concurrency, virtual, config);
+    }
+    
+    /**
+     * 异步执行任意数据库操作
+     * 
+     * @param operation 数据库操作
+     * @param <T> 结果类型
+     * @return 操作结果的Future，在回调执行器上完成
+     */
+    public <T> CompletableFuture<T> submit(StorageOperation<T> operation) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        submitted.increment();
+        
+        // 虚拟线程没有执行器队列，用在途调用数模拟同样的排队上限
+        if (pending.incrementAndGet() > concurrency + queueCapacity && virtual) {
+            pending.decrementAndGet();
+            reject(future, null);
+            return future;
+        }
+        
+        inFlight.add(future);
+        try {
+            ioExecutor.execute(() -> run(operation, future));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(future);
+            pending.decrementAndGet();
+            reject(future, e);
+        }
+        return future;
+    }
+    
+    private <T> void run(StorageOperation<T> operation, CompletableFuture<T> future) {
+        boolean acquired = false;
+        try {
+            if (future.isDone()) {
+                // 调用方已取消，不再访问数据库
+                return;
+            }
+            if (permits != null) {
+                permits.acquire();
+                acquired = true;
+            }
+            T result = operation.apply(delegate);
+            succeeded.increment();
+            complete(future, result, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failed.increment();
+            complete(future, null, new StorageException("ASYNC_INTERRUPTED", "Async operation interrupted: " + name, e));
+        } catch (Throwable e) {
+            failed.increment();
+            complete(future, null, e);
+        } finally {
+            if (acquired) {
+                permits.release();
+            }
+            inFlight.remove(future);
+            pending.decrementAndGet();
+        }
+    }
+    
+    private <T> void complete(CompletableFuture<T> future, T result, Throwable failure) {
+        Runnable completion = () -> {
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(result);
+            }
+        };
+        try {
+            callbackExecutor.execute(completion);
+        } catch (RejectedExecutionException e) {
+            // 回调执行器已关闭（正在关闭门面），只能在I/O线程上完成
+            completion.run();
+        }
+    }
+    
+    private void reject(CompletableFuture<?> future, Throwable cause) {
+        rejected.increment();
+        StorageException exception = cause != null
+                ? new StorageException("ASYNC_REJECTED", "Async queue is full or shut down: " + name, cause)
+                : new StorageException("ASYNC_REJECTED", "Async queue is full: " + name);
+        future.completeExceptionally(exception);
+    }
+    
+    public <T> CompletableFuture<Optional<T>> querySingle(String sql, RowMapper<T> mapper, Object... params) {
+        return submit(storage -> storage.querySingle(sql, mapper, params));
+    }
+    
+    public <T> CompletableFuture<List<T>> queryMultiple(String sql, RowMapper<T> mapper, Object... params) {
+        return submit(storage -> storage.queryMultiple(sql, mapper, params));
+    }
+    
+    public <T> CompletableFuture<Page<T>> queryPage(String sql, RowMapper<T> mapper, int pageNum, int pageSize, Object... params) {
+        return submit(storage -> storage.queryPage(sql, mapper, pageNum, pageSize, params));
+    }
+    
+    public <T> CompletableFuture<Page<T>> querySeek(String sql, RowMapper<T> mapper, String sortKey, Object lastSeen, int pageSize, Object... params) {
+        return submit(storage -> storage.querySeek(sql, mapper, sortKey, lastSeen, pageSize, params));
+    }
+    
+    public CompletableFuture<Integer> insert(String table, Map<String, Object> data) {
+        return submit(storage -> storage.insert(table, data));
+    }
+    
+    public CompletableFuture<int[]> insertBatch(String table, List<Map<String, Object>> dataList) {
+        return submit(storage -> storage.insertBatch(table, dataList));
+    }
+    
+    public CompletableFuture<Integer> update(String table, Map<String, Object> data, String condition, Object... params) {
+        return submit(storage -> storage.update(table, data, condition, params));
+    }
+    
+    public CompletableFuture<int[]> updateBatch(String table, List<Map<String, Object>> dataList, String condition) {
+        return submit(storage -> storage.updateBatch(table, dataList, condition));
+    }
+    
+    public CompletableFuture<Integer> delete(String table, String condition, Object... params) {
+        return submit(storage -> storage.delete(table, condition, params));
+    }
+    
+    public CompletableFuture<int[]> deleteBatch(String table, List<String> conditions) {
+        return submit(storage -> storage.deleteBatch(table, conditions));
+    }
+    
+    public CompletableFuture<Integer> upsert(String table, Map<String, Object> data, String... conflictColumns) {
+        return submit(storage -> storage.upsert(table, data, conflictColumns));
+    }
+    
+    public CompletableFuture<int[]> upsertBatch(String table, List<Map<String, Object>> dataList, String... conflictColumns) {
+        return submit(storage -> storage.upsertBatch(table, dataList, conflictColumns));
+    }
+    
+    /**
+     * 在同一个I/O线程上执行整个事务：成功时提交，抛出异常时回滚
+     * 
+     * @param operation 事务内的操作
+     * @param <T> 结果类型
+     * @return 操作结果的Future
+     */
+    public <T> CompletableFuture<T> inTransaction(StorageOperation<T> operation) {
+        return submit(storage -> {
+            storage.beginTransaction();
+            try {
+                T result = operation.apply(storage);
+                storage.commit();
+                return result;
+            } catch (StorageException | RuntimeException e) {
+                try {
+                    storage.rollback();
+                } catch (StorageException rollbackEx) {
+                    logger.error("Failed to rollback async transaction on {}", name, rollbackEx);
+                    e.addSuppressed(rollbackEx);
+                }
+                throw e;
+            }
+        });
+    }
+    
+    /**
+     * 获取被包装的存储
+     * 
+     * @return 被包装的存储
+     */
+    public DatabaseStorage getDelegate() {
+        return delegate;
+    }
+    
+    /**
+     * 获取异步执行统计
+     * 
+     * @return 统计信息
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("concurrency", concurrency);
+        stats.put("virtualThreads", virtual);
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("pending", pending.get());
+        stats.put("submitted", submitted.sum());
+        stats.put("succeeded", succeeded.sum());
+        stats.put("failed", failed.sum());
+        stats.put("rejected", rejected.sum());
+        if (ioExecutor instanceof ThreadPoolExecutor) {
+            ThreadPoolExecutor executor = (ThreadPoolExecutor) ioExecutor;
+            stats.put("active", executor.getActiveCount());
+            stats.put("queued", executor.getQueue().size());
+        } else if (permits != null) {
+            stats.put("active", concurrency - permits.availablePermits());
+            stats.put("queued", permits.getQueueLength());
+        }
+        return stats;
+    }
+    
+    /**
+     * 关闭执行器
+     * 已提交的调用继续执行直到完成或超时，之后提交的调用以ASYNC_REJECTED失败；不关闭被包装的存储。
+     * 超时后丢弃排队的调用并中断执行中的调用，它们的Future以ASYNC_REJECTED失败
+     */
+    public void shutdown() {
+        ioExecutor.shutdown();
+        try {
+            if (!ioExecutor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                List<Runnable> dropped = ioExecutor.shutdownNow();
+                pending.addAndGet(-dropped.size());
+                int unfinished = failUnfinished();
+                logger.warn("Async storage for {} did not drain in time, {} queued calls dropped, {} unfinished calls failed",
+                        name, dropped.size(), unfinished);
+            }
+        } catch (InterruptedException e) {
+            List<Runnable> dropped = ioExecutor.shutdownNow();
+            pending.addAndGet(-dropped.size());
+            failUnfinished();
+            Thread.currentThread().interrupt();
+        }
+        if (ownedCallbackExecutor != null) {
+            ownedCallbackExecutor.shutdown();
+        }
+        logger.info("Async storage for {} shut down", name);
+    }
+    
+    /**
+     * 让所有未完成的调用以ASYNC_REJECTED失败
+     * 线程池丢弃的任务不会再执行；虚拟线程执行器不返回被丢弃的任务，被中断的调用也可能迟迟不返回，
+     * 因此按已登记的Future处理，之后才完成的调用对已失败的Future没有影响
+     * 
+     * @return 失败的调用数
+     */
+    private int failUnfinished() {
+        int count = 0;
+        for (CompletableFuture<?> future : inFlight) {
+            if (future.completeExceptionally(new StorageException("ASYNC_REJECTED",
+                    "Async storage shut down before the call completed: " + name))) {
+                rejected.increment();
+                count++;
+            }
+        }
+        inFlight.clear();
+        return count;
+    }
+    
+    /**
+     * 创建每个任务一个虚拟线程的执行器（JDK 21+），按反射调用以保持Java 8编译目标
+     * 
+     * @return 执行器，运行环境不支持时返回null
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+    
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,613 @@
+package database.blob;
+
+import com.github.luben.zstd.Zstd;
+import database.core.StorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 内容寻址的原始页面存储
+ * 以内容的SHA-256为键，把页面逐条压缩后追加到大的pack文件中，并维护一个追加写的
+ * 哈希 -> (pack, 偏移) 索引文件。已封存的pack以内存映射读取，仍在追加的活动pack用定位读取，
+ * 避免随写入反复重新映射。
+ * 内容相同的页面只存一份，重复写入直接返回已有的哈希。
+ * 
+ * pack记录格式：magic(4) | sha256(32) | flags(1) | rawLength(4) | storedLength(4) | payload
+ * 索引记录格式：sha256(32) | packId(4) | offset(8) | rawLength(4) | storedLength(4) | flags(1)
+ * 
+ * 启动时加载索引，丢弃越界或不完整的尾部记录，并扫描最后一个pack补回已写入pack但未写入索引的记录。
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class PackBlobStore implements Closeable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PackBlobStore.class);
+    
+    /**
+     * 默认单个pack文件的最大字节数
+     */
+    public static final long DEFAULT_MAX_PACK_BYTES = 1024L * 1024 * 1024;
+    
+    /**
+     * 默认zstd压缩级别
+     */
+    public static final int DEFAULT_COMPRESSION_LEVEL = 3;
+    
+    private static final int MAGIC = 0x424C4F42;
+    private static final int HASH_LENGTH = 32;
+    private static final int ENTRY_HEADER_LENGTH = 4 + HASH_LENGTH + 1 + 4 + 4;
+    private static final int INDEX_RECORD_LENGTH = HASH_LENGTH + 4 + 8 + 4 + 4 + 1;
+    private static final byte FLAG_RAW = 0;
+    private static final byte FLAG_ZSTD = 1;
+    private static final String INDEX_FILE = "blobs.idx";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    });
+    
+    private final Path directory;
+    private final long maxPackBytes;
+    private final int compressionLevel;
+    
+    /**
+     * 内存索引（哈希前128位 -> 位置）
+     */
+    private final Map<Key, Location> index = new ConcurrentHashMap<>();
+    
+    /**
+     * 已封存pack的只读内存映射，每个pack只映射一次
+     */
+    private final Map<Integer, MappedByteBuffer> mappings = new ConcurrentHashMap<>();
+    
+    /**
+     * 活动pack及其只读通道，滚动时整体替换
+     */
+    private volatile ActivePack activePack;
+    
+    private final Object writeLock = new Object();
+    private FileChannel indexChannel;
+    private FileChannel packChannel;
+    private int activePackId;
+    private long activePackSize;
+    private volatile boolean closed;
+    
+    private final AtomicLong putCount = new AtomicLong();
+    private final AtomicLong dedupHits = new AtomicLong();
+    private final AtomicLong rawBytes = new AtomicLong();
+    private final AtomicLong storedBytes = new AtomicLong();
+    
+    /**
+     * 使用默认参数打开存储
+     * 
+     * @param directory 存储目录
+     * @throws StorageException 打开失败时抛出
+     */
+    public PackBlobStore(Path directory) throws StorageException {
+        this(directory, DEFAULT_MAX_PACK_BYTES, DEFAULT_COMPRESSION_LEVEL);
+    }
+    
+    /**
+     * 打开存储，目录不存在时自动创建
+     * 
+     * @param directory 存储目录
+     * @param maxPackBytes 单个pack文件的最大字节数（不超过2GB，以便整体映射）
+     * @param compressionLevel zstd压缩级别
+     * @throws StorageException 打开失败时抛出
+     */
+    public PackBlobStore(Path directory, long maxPackBytes, int compressionLevel) throws StorageException {
+        if (maxPackBytes < 1024 * 1024 || maxPackBytes > Integer.MAX_VALUE) {
+            throw new StorageException("CONFIG_INVALID", "Max pack bytes must be between 1MB and 2GB: " + maxPackBytes);
+        }
+        this.directory = directory.toAbsolutePath();
+        this.maxPackBytes = maxPackBytes;
+        this.compressionLevel = compressionLevel;
+        
+        try {
+            Files.createDirectories(this.directory);
+            recover();
+        } catch (IOException e) {
+            throw new StorageException("INIT_FAILED", "Failed to open blob store: " + this.directory, e);
+        }
+        logger.info("Opened blob store {} with {} blobs in {} packs", this.directory, index.size(), activePackId + 1);
+    }
+    
+    /**
+     * 写入内容，已存在相同内容时直接返回其哈希
+     * 
+     * @param content 内容
+     * @return 内容的SHA-256（十六进制）
+     * @throws StorageException 写入失败时抛出
+     */
+    public String put(byte[] content) throws StorageException {
+        ensureOpen();
+        byte[] hash = sha256(content);
+        Key key = Key.of(hash);
+        putCount.incrementAndGet();
+        if (index.containsKey(key)) {
+            dedupHits.incrementAndGet();
+            return toHex(hash);
+        }
+        
+        // 压缩在锁外进行，压缩后不更小时存原文
+        byte[] compressed = Zstd.compress(content, compressionLevel);
+        byte flags = compressed.length < content.length ? FLAG_ZSTD : FLAG_RAW;
+        byte[] payload = flags == FLAG_ZSTD ? compressed : content;
+        
+        synchronized (writeLock) {
+            ensureOpen();
+            if (index.containsKey(key)) {
+                dedupHits.incrementAndGet();
+                return toHex(hash);
+            }
+            try {
+                long entryLength = ENTRY_HEADER_LENGTH + payload.length;
+                if (activePackSize > 0 && activePackSize + entryLength > maxPackBytes) {
+                    rollPack();
+                }
+                
+                long offset = activePackSize;
+                ByteBuffer entry = ByteBuffer.allocate((int) entryLength);
+                entry.putInt(MAGIC).put(hash).put(flags).putInt(content.length).putInt(payload.length).put(payload);
+                entry.flip();
+                writeFully(packChannel, entry);
+                activePackSize += entryLength;
+                
+                Location location = new Location(activePackId, offset, content.length, payload.length, flags);
+                writeFully(indexChannel, encodeIndexRecord(hash, location));
+                index.put(key, location);
+            } catch (IOException e) {
+                throw new StorageException("WRITE_FAILED", "Failed to write blob to " + directory, e);
+            }
+        }
+        rawBytes.addAndGet(content.length);
+        storedBytes.addAndGet(payload.length);
+        return toHex(hash);
+    }
+    
+    /**
+     * 以UTF-8写入文本内容
+     * 
+     * @param text 文本
+     * @return 内容的SHA-256（十六进制）
+     * @throws StorageException 写入失败时抛出
+     */
+    public String putString(String text) throws StorageException {
+        return put(text.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * 读取内容
+     * 
+     * @param hash 内容的SHA-256（十六进制）
+     * @return 内容，不存在时返回null
+     * @throws StorageException 读取失败或数据损坏时抛出
+     */
+    public byte[] get(String hash) throws StorageException {
+        ensureOpen();
+        Location location = index.get(Key.of(fromHex(hash)));
+        if (location == null) {
+            return null;
+        }
+        try {
+            ByteBuffer entry = readEntry(location);
+            if (entry.getInt() != MAGIC) {
+                throw new StorageException("INVALID_DATA", "Corrupted blob entry " + hash + " in pack " + location.packId);
+            }
+            entry.position(ENTRY_HEADER_LENGTH);
+            byte[] payload = new byte[location.storedLength];
+            entry.get(payload);
+            return location.flags == FLAG_ZSTD ? Zstd.decompress(payload, location.rawLength) : payload;
+        } catch (IOException e) {
+            throw new StorageException("QUERY_FAILED", "Failed to read blob " + hash, e);
+        }
+    }
+    
+    /**
+     * 以UTF-8读取文本内容
+     * 
+     * @param hash 内容的SHA-256（十六进制）
+     * @return 文本，不存在时返回null
+     * @throws StorageException 读取失败时抛出
+     */
+    public String getString(String hash) throws StorageException {
+        byte[] content = get(hash);
+        return content != null ? new String(content, StandardCharsets.UTF_8) : null;
+    }
+    
+    /**
+     * 判断内容是否存在
+     * 
+     * @param hash 内容的SHA-256（十六进制）
+     * @return 是否存在
+     */
+    public boolean contains(String hash) {
+        return index.containsKey(Key.of(fromHex(hash)));
+    }
+    
+    /**
+     * 获取存储的内容数量
+     * 
+     * @return 不重复的内容数量
+     */
+    public int size() {
+        return index.size();
+    }
+    
+    /**
+     * 将pack和索引刷到磁盘
+     * 
+     * @throws StorageException 刷盘失败时抛出
+     */
+    public void flush() throws StorageException {
+        synchronized (writeLock) {
+            if (closed) {
+                return;
+            }
+            try {
+                packChannel.force(false);
+                indexChannel.force(false);
+            } catch (IOException e) {
+                throw new StorageException("WRITE_FAILED", "Failed to flush blob store " + directory, e);
+            }
+        }
+    }
+    
+    /**
+     * 获取统计信息
+     * 
+     * @return 统计信息
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("directory", directory.toString());
+        stats.put("blobs", index.size());
+        stats.put("packs", activePackId + 1);
+        stats.put("puts", putCount.get());
+        stats.put("dedupHits", dedupHits.get());
+        stats.put("rawBytes", rawBytes.get());
+        stats.put("storedBytes", storedBytes.get());
+        return stats;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        synchronized (writeLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                packChannel.force(false);
+                indexChannel.force(false);
+            } finally {
+                packChannel.close();
+                indexChannel.close();
+                activePack.reader.close();
+                mappings.clear();
+            }
+        }
+        logger.info("Closed blob store {}", directory);
+    }
+    
+    /**
+     * 加载索引并修复崩溃留下的不完整数据
+     */
+    private void recover() throws IOException {
+        indexChannel = FileChannel.open(directory.resolve(INDEX_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        Map<Integer, Long> packSizes = new HashMap<>();
+        long validIndexLength = 0;
+        
+        ByteBuffer record = ByteBuffer.allocate(INDEX_RECORD_LENGTH);
+        long indexLength = indexChannel.size();
+        while (validIndexLength + INDEX_RECORD_LENGTH <= indexLength) {
+            record.clear();
+            readFully(indexChannel, record, validIndexLength);
+            record.flip();
+            byte[] hash = new byte[HASH_LENGTH];
+            record.get(hash);
+            Location location = new Location(record.getInt(), record.getLong(), record.getInt(), record.getInt(), record.get());
+            
+            Long packSize = packSizes.computeIfAbsent(location.packId, this::packSizeOrZero);
+            if (location.offset + ENTRY_HEADER_LENGTH + location.storedLength > packSize) {
+                logger.warn("Blob index entry points beyond pack {}, truncating index at {}", location.packId, validIndexLength);
+                break;
+            }
+            index.put(Key.of(hash), location);
+            activePackId = Math.max(activePackId, location.packId);
+            validIndexLength += INDEX_RECORD_LENGTH;
+        }
+        indexChannel.truncate(validIndexLength);
+        indexChannel.position(validIndexLength);
+        
+        // 找到最后一个pack（可能还没有任何索引记录）
+        while (Files.exists(packPath(activePackId + 1))) {
+            activePackId++;
+        }
+        packChannel = FileChannel.open(packPath(activePackId),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        activePackSize = scanUnindexedEntries();
+        packChannel.truncate(activePackSize);
+        packChannel.position(activePackSize);
+        activePack = new ActivePack(activePackId, FileChannel.open(packPath(activePackId), StandardOpenOption.READ));
+    }
+    
+    /**
+     * 扫描活动pack中索引之后的记录，补写索引，返回有效数据的长度
+     */
+    private long scanUnindexedEntries() throws IOException {
+        long position = 0;
+        for (Location location : index.values()) {
+            if (location.packId == activePackId) {
+                position = Math.max(position, location.offset + ENTRY_HEADER_LENGTH + location.storedLength);
+            }
+        }
+        
+        long size = packChannel.size();
+        ByteBuffer header = ByteBuffer.allocate(ENTRY_HEADER_LENGTH);
+        int recovered = 0;
+        while (position + ENTRY_HEADER_LENGTH <= size) {
+            header.clear();
+            readFully(packChannel, header, position);
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                break;
+            }
+            byte[] hash = new byte[HASH_LENGTH];
+            header.get(hash);
+            byte flags = header.get();
+            int rawLength = header.getInt();
+            int storedLength = header.getInt();
+            if (storedLength < 0 || position + ENTRY_HEADER_LENGTH + storedLength > size) {
+                break;
+            }
+            Location location = new Location(activePackId, position, rawLength, storedLength, flags);
+            Key key = Key.of(hash);
+            if (!index.containsKey(key)) {
+                writeFully(indexChannel, encodeIndexRecord(hash, location));
+                index.put(key, location);
+                recovered++;
+            }
+            position += ENTRY_HEADER_LENGTH + storedLength;
+        }
+        if (recovered > 0 || position < size) {
+            logger.warn("Recovered {} unindexed blobs in pack {}, discarded {} trailing bytes",
+                    recovered, activePackId, size - position);
+        }
+        return position;
+    }
+    
+    private void rollPack() throws IOException {
+        packChannel.force(false);
+        packChannel.close();
+        activePackId++;
+        packChannel = FileChannel.open(packPath(activePackId),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        activePackSize = 0;
+        ActivePack sealed = activePack;
+        activePack = new ActivePack(activePackId, FileChannel.open(packPath(activePackId), StandardOpenOption.READ));
+        sealed.reader.close();
+        logger.info("Blob store {} rolled to pack {}", directory, activePackId);
+    }
+    
+    /**
+     * 读取一条记录（含头部），返回的缓冲区从记录起始位置开始
+     * 活动pack用定位读取；读取期间pack被封存时改从映射读取
+     */
+    private ByteBuffer readEntry(Location location) throws IOException {
+        int entryLength = ENTRY_HEADER_LENGTH + location.storedLength;
+        ActivePack active = activePack;
+        if (location.packId == active.packId) {
+            ByteBuffer entry = ByteBuffer.allocate(entryLength);
+            try {
+                readFully(active.reader, entry, location.offset);
+                entry.flip();
+                return entry;
+            } catch (ClosedByInterruptException e) {
+                // 中断会关闭共享的读通道，重新打开后再抛出
+                reopenActiveReader(active);
+                throw e;
+            } catch (ClosedChannelException e) {
+                if (activePack.packId == location.packId) {
+                    throw e;
+                }
+            }
+        }
+        ByteBuffer view = sealedMapping(location.packId).duplicate();
+        view.limit((int) (location.offset + entryLength));
+        view.position((int) location.offset);
+        return view.slice();
+    }
+    
+    private void reopenActiveReader(ActivePack active) throws IOException {
+        synchronized (writeLock) {
+            if (!closed && activePack == active) {
+                activePack = new ActivePack(active.packId, FileChannel.open(packPath(active.packId), StandardOpenOption.READ));
+            }
+        }
+    }
+    
+    /**
+     * 获取已封存pack的映射，封存后pack不再增长，只需映射一次
+     */
+    private MappedByteBuffer sealedMapping(int packId) throws IOException {
+        MappedByteBuffer mapped = mappings.get(packId);
+        if (mapped != null) {
+            return mapped;
+        }
+        synchronized (mappings) {
+            mapped = mappings.get(packId);
+            if (mapped == null) {
+                try (FileChannel channel = FileChannel.open(packPath(packId), StandardOpenOption.READ)) {
+                    mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+                mappings.put(packId, mapped);
+            }
+            return mapped;
+        }
+    }
+    
+    private Path packPath(int packId) {
+        return directory.resolve(String.format("pack-%06d.pack", packId));
+    }
+    
+    private long packSizeOrZero(int packId) {
+        try {
+            Path path = packPath(packId);
+            return Files.exists(path) ? Files.size(path) : 0L;
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+    
+    private void ensureOpen() throws StorageException {
+        if (closed) {
+            throw new StorageException("NOT_INITIALIZED", "Blob store is closed: " + directory);
+        }
+    }
+    
+    private static ByteBuffer encodeIndexRecord(byte[] hash, Location location) {
+        ByteBuffer record = ByteBuffer.allocate(INDEX_RECORD_LENGTH);
+        record.put(hash).putInt(location.packId).putLong(location.offset)
+                .putInt(location.rawLength).putInt(location.storedLength).put(location.flags);
+        record.flip();
+        return record;
+    }
+    
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+    
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+    }
+    
+    private static byte[] sha256(byte[] content) {
+        MessageDigest digest = SHA256.get();
+        digest.reset();
+        return digest.digest(content);
+    }
+    
+    private static String toHex(byte[] bytes) {
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = HEX[(bytes[i] >> 4) & 0x0F];
+            hex[i * 2 + 1] = HEX[bytes[i] & 0x0F];
+        }
+        return new String(hex);
+    }
+    
+    private static byte[] fromHex(String hex) {
+        if (hex == null || hex.length() != HASH_LENGTH * 2) {
+            throw new IllegalArgumentException("Invalid blob hash: " + hex);
+        }
+        byte[] bytes = new byte[HASH_LENGTH];
+        for (int i = 0; i < HASH_LENGTH; i++) {
+            int high = Character.digit(hex.charAt(i * 2), 16);
+            int low = Character.digit(hex.charAt(i * 2 + 1), 16);
+            if (high < 0 || low < 0) {
+                throw new IllegalArgumentException("Invalid blob hash: " + hex);
+            }
+            bytes[i] = (byte) ((high << 4) | low);
+        }
+        return bytes;
+    }
+    
+    /**
+     * 内存索引键，取哈希前128位以减少内存占用
+     */
+    private static final class Key {
+        private final long high;
+        private final long low;
+        
+        private Key(long high, long low) {
+            this.high = high;
+            this.low = low;
+        }
+        
+        static Key of(byte[] hash) {
+            ByteBuffer buffer = ByteBuffer.wrap(hash);
+            return new Key(buffer.getLong(), buffer.getLong());
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return high == other.high && low == other.low;
+        }
+        
+        @Override
+        public int hashCode() {
+            return (int) (high ^ (high >>> 32));
+        }
+    }
+    
+    /**
+     * 活动pack的编号和只读通道
+     */
+    private static final class ActivePack {
+        private final int packId;
+        private final FileChannel reader;
+        
+        private ActivePack(int packId, FileChannel reader) {
+            this.packId = packId;
+            this.reader = reader;
+        }
+    }
+    
+    /**
+     * 内容在pack中的位置
+     */
+    private static final class Location {
+        private final int packId;
+        private final long offset;
+        private final int rawLength;
+        private final int storedLength;
+        private final byte flags;
+        
+        private Location(int packId, long offset, int rawLength, int storedLength, byte flags) {
+            this.packId = packId;
+            this.offset = offset;
+            this.rawLength = rawLength;
+            this.storedLength = storedLength;
+            this.flags = flags;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package database.cache;
+
+import database.core.Page;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 紧凑二进制编解码器
+ * 对查询结果中常见的类型（字符串、数值、日期、List、Map、Optional、Page）使用
+ * 带类型标签的紧凑编码，整数采用zigzag变长编码；其他类型抛出NotSerializableException，
+ * 由调用方跳过二级缓存（二级缓存的数据来自共享的Redis，不使用Java反序列化）
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class BinaryValueCodec implements CacheValueCodec {
+    
+    private static final byte FORMAT_VERSION = 1;
+    
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_INT = 2;
+    private static final byte TAG_LONG = 3;
+    private static final byte TAG_DOUBLE = 4;
+    private static final byte TAG_TRUE = 5;
+    private static final byte TAG_FALSE = 6;
+    private static final byte TAG_BYTES = 7;
+    private static final byte TAG_LIST = 8;
+    private static final byte TAG_MAP = 9;
+    private static final byte TAG_OPTIONAL_EMPTY = 10;
+    private static final byte TAG_OPTIONAL = 11;
+    private static final byte TAG_PAGE = 12;
+    private static final byte TAG_KEYSET_PAGE = 13;
+    private static final byte TAG_TIMESTAMP = 14;
+    private static final byte TAG_DATE = 15;
+    private static final byte TAG_DECIMAL = 16;
+    private static final byte TAG_FLOAT = 17;
+    
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeByte(FORMAT_VERSION);
+        write(out, value);
+        out.flush();
+        return buffer.toByteArray();
+    }
+    
+    @Override
+    public Object decode(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        byte version = in.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported cache value format version: " + version);
+        }
+        return read(in);
+    }
+    
+    private void write(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+        } else if (value instanceof String) {
+            out.writeByte(TAG_STRING);
+            writeBytes(out, ((String) value).getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof Integer) {
+            out.writeByte(TAG_INT);
+            writeVarLong(out, (Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(TAG_LONG);
+            writeVarLong(out, (Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            out.writeByte(TAG_FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean) value ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof byte[]) {
+            out.writeByte(TAG_BYTES);
+            writeBytes(out, (byte[]) value);
+        } else if (value instanceof BigDecimal) {
+            out.writeByte(TAG_DECIMAL);
+            writeBytes(out, value.toString().getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof java.sql.Timestamp) {
+            java.sql.Timestamp timestamp = (java.sql.Timestamp) value;
+            out.writeByte(TAG_TIMESTAMP);
+            writeVarLong(out, timestamp.getTime());
+            writeVarLong(out, timestamp.getNanos());
+        } else if (value.getClass() == java.util.Date.class) {
+            out.writeByte(TAG_DATE);
+            writeVarLong(out, ((java.util.Date) value).getTime());
+        } else if (value instanceof Optional) {
+            Optional<?> optional = (Optional<?>) value;
+            if (optional.isPresent()) {
+                out.writeByte(TAG_OPTIONAL);
+                write(out, optional.get());
+            } else {
+                out.writeByte(TAG_OPTIONAL_EMPTY);
+            }
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            out.writeByte(TAG_LIST);
+            writeVarLong(out, list.size());
+            for (Object element : list) {
+                write(out, element);
+            }
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            out.writeByte(TAG_MAP);
+            writeVarLong(out, map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                write(out, entry.getKey());
+                write(out, entry.getValue());
+            }
+        } else if (value instanceof Page) {
+            Page<?> page = (Page<?>) value;
+            if (page.getNextCursor() != null || !page.isTotalKnown()) {
+                out.writeByte(TAG_KEYSET_PAGE);
+                writeVarLong(out, page.getPageSize());
+                writeVarLong(out, page.getTotalElements());
+                out.writeBoolean(page.isFirst());
+                write(out, page.getNextCursor());
+            } else {
+                out.writeByte(TAG_PAGE);
+                writeVarLong(out, page.getPageNum());
+                writeVarLong(out, page.getPageSize());
+                writeVarLong(out, page.getTotalElements());
+            }
+            write(out, page.getContent());
+        } else {
+            throw new NotSerializableException(value.getClass().getName());
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Object read(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                return new String(readBytes(in), StandardCharsets.UTF_8);
+            case TAG_INT:
+                return (int) readVarLong(in);
+            case TAG_LONG:
+                return readVarLong(in);
+            case TAG_DOUBLE:
+                return in.readDouble();
+            case TAG_FLOAT:
+                return in.readFloat();
+            case TAG_TRUE:
+                return Boolean.TRUE;
+            case TAG_FALSE:
+                return Boolean.FALSE;
+            case TAG_BYTES:
+                return readBytes(in);
+            case TAG_DECIMAL:
+                return new BigDecimal(new String(readBytes(in), StandardCharsets.UTF_8));
+            case TAG_TIMESTAMP: {
+                java.sql.Timestamp timestamp = new java.sql.Timestamp(readVarLong(in));
+                timestamp.setNanos((int) readVarLong(in));
+                return timestamp;
+            }
+            case TAG_DATE:
+                return new java.util.Date(readVarLong(in));
+            case TAG_OPTIONAL_EMPTY:
+                return Optional.empty();
+            case TAG_OPTIONAL:
+                return Optional.ofNullable(read(in));
+            case TAG_LIST: {
+                int size = (int) readVarLong(in);
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(read(in));
+                }
+                return Collections.unmodifiableList(list);
+            }
+            case TAG_MAP: {
+                int size = (int) readVarLong(in);
+                Map<Object, Object> map = new LinkedHashMap<>(size * 2);
+                for (int i = 0; i < size; i++) {
+                    map.put(read(in), read(in));
+                }
+                return map;
+            }
+            case TAG_PAGE: {
+                int pageNum = (int) readVarLong(in);
+                int pageSize = (int) readVarLong(in);
+                long totalElements = readVarLong(in);
+                return new Page<>((List<Object>) read(in), pageNum, pageSize, totalElements);
+            }
+            case TAG_KEYSET_PAGE: {
+                int pageSize = (int) readVarLong(in);
+                long totalElements = readVarLong(in);
+                boolean first = in.readBoolean();
+                Object nextCursor = read(in);
+                return Page.keyset((List<Object>) read(in), pageSize, totalElements, nextCursor, first);
+            }
+            default:
+                throw new IOException("Unknown cache value tag: " + tag);
+        }
+    }
+    
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+    
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[(int) readVarLong(in)];
+        in.readFully(bytes);
+        return bytes;
+    }
+    
+    /**
+     * zigzag变长编码，小整数只占1-2个字节
+     */
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.writeByte((int) zigzag);
+    }
+    
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long zigzag = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+        throw new IOException("Malformed variable-length integer");
+    }
+}
@@ -0,0 +1,31 @@
+package database.cache;
+
+import java.io.IOException;
+
+/**
+ * 缓存值编解码器
+ * 将查询结果序列化为字节数组，用于跨进程共享的二级缓存
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public interface CacheValueCodec {
+    
+    /**
+     * 编码查询结果
+     * 
+     * @param value 查询结果（Optional、List或Page）
+     * @return 编码后的字节数组
+     * @throws IOException 编码失败时抛出异常；值的类型不受支持时抛出NotSerializableException，调用方跳过二级缓存
+     */
+    byte[] encode(Object value) throws IOException;
+    
+    /**
+     * 解码查询结果
+     * 
+     * @param bytes 编码后的字节数组
+     * @return 查询结果
+     * @throws IOException 数据损坏或无法解码时抛出异常
+     */
+    Object decode(byte[] bytes) throws IOException;
+}
@@ -0,0 +1,699 @@
+package database.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import database.config.QueryCacheConfig;
+import database.core.CacheableRowMapper;
+import database.core.DatabaseStorage;
+import database.core.Page;
+import database.core.RowMapper;
+import database.core.StorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 读穿透查询缓存装饰器
+ * 以SQL+参数+映射器为键缓存querySingle/queryMultiple/queryPage的结果，
+ * 使用Caffeine（W-TinyLFU淘汰策略）按缓存行数限制容量，支持按查询设置有效期；
+ * 通过同一装饰器执行的insert/update/delete会使相关表的缓存失效
+ * 
+ * 映射器按实例区分：不同映射器即使类相同（例如捕获变量的lambda）也不会共用缓存条目，
+ * 因此需要命中缓存的查询应复用同一个映射器实例（常量、BeanMapper.of(type).rowMapper()等），
+ * 每次调用都新建的映射器只会未命中；实现CacheableRowMapper的映射器按命名空间区分
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class CachingDatabaseStorage implements DatabaseStorage {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CachingDatabaseStorage.class);
+    
+    /**
+     * 从SQL中提取表名（FROM/JOIN之后的标识符）
+     */
+    private static final Pattern TABLE_PATTERN =
+            Pattern.compile("(?i)\\b(?:FROM|JOIN)\\s+[`\"\\[]?([A-Za-z_][\\w.]*)[`\"\\]]?");
+    
+    /**
+     * 被装饰的存储
+     */
+    private final DatabaseStorage delegate;
+    
+    /**
+     * 缓存配置
+     */
+    private final QueryCacheConfig cacheConfig;
+    
+    /**
+     * 查询结果缓存
+     */
+    private final Cache<CacheKey, CachedResult> cache;
+    
+    /**
+     * 表版本号，写入时递增，缓存条目记录写入时的版本号用于判断是否失效
+     */
+    private final Map<String, AtomicLong> tableGenerations = new ConcurrentHashMap<>();
+    
+    /**
+     * 按SQL设置的缓存有效期（毫秒）
+     */
+    private final Map<String, Long> queryTtls = new ConcurrentHashMap<>();
+    
+    /**
+     * 事务中写过的表，提交或回滚时再次失效
+     */
+    private final ThreadLocal<Set<String>> transactionTables = new ThreadLocal<>();
+    
+    /**
+     * 正在加载的查询，用于合并同一进程内的并发未命中
+     */
+    private final Map<CacheKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder staleCount = new LongAdder();
+    private final LongAdder invalidationCount = new LongAdder();
+    
+    /**
+     * 构造函数
+     * 
+     * @param delegate 被装饰的存储
+     * @param cacheConfig 缓存配置
+     */
+    public CachingDatabaseStorage(DatabaseStorage delegate, QueryCacheConfig cacheConfig) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate storage cannot be null");
+        }
+        if (cacheConfig == null) {
+            throw new IllegalArgumentException("Query cache configuration cannot be null");
+        }
+        cacheConfig.validate();
+        
+        this.delegate = delegate;
+        this.cacheConfig = cacheConfig;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(cacheConfig.getMaxWeight())
+                .weigher((CacheKey key, CachedResult value) -> value.weight)
+                .expireAfter(new Expiry<CacheKey, CachedResult>() {
+                    @Override
+                    public long expireAfterCreate(CacheKey key, CachedResult value, long currentTime) {
+                        return value.ttlNanos;
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(CacheKey key, CachedResult value, long currentTime, long currentDuration) {
+                        return value.ttlNanos;
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(CacheKey key, CachedResult value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+    
+    /**
+     * 获取被装饰的存储
+     * 
+     * @return 被装饰的存储
+     */
+    public DatabaseStorage getDelegate() {
+        return delegate;
+    }
+    
+    /**
+     * 为指定SQL设置缓存有效期
+     * 
+     * @param sql SQL查询语句（与查询时完全一致）
+     * @param ttlMillis 有效期（毫秒）
+     */
+    public void setQueryTtl(String sql, long ttlMillis) {
+        if (ttlMillis < 1) {
+            throw new IllegalArgumentException("Query cache TTL must be greater than 0");
+        }
+        queryTtls.put(sql, ttlMillis);
+    }
+    
+    /**
+     * 使指定表的所有缓存失效
+     * 
+     * @param table 表名
+     */
+    public void invalidateTable(String table) {
+        if (table == null) {
+            return;
+        }
+        publishInvalidation(normalizeTable(table));
+        invalidationCount.increment();
+        logger.debug("Invalidated query cache for table: {}", table);
+    }
+    
+    /**
+     * 推进表版本号使其缓存失效（子类可覆盖以通知其他节点）
+     * 
+     * @param table 规范化后的表名
+     */
+    protected void publishInvalidation(String table) {
+        tableGenerations.computeIfAbsent(table, t -> new AtomicLong()).incrementAndGet();
+    }
+    
+    /**
+     * 清空全部缓存
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+    
+    /**
+     * 获取缓存统计信息
+     * 
+     * @return 统计信息映射
+     */
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> stats = new HashMap<>();
+        long hits = hitCount.sum();
+        long misses = missCount.sum();
+        stats.put("hitCount", hits);
+        stats.put("missCount", misses);
+        stats.put("hitRate", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        stats.put("staleCount", staleCount.sum());
+        stats.put("invalidationCount", invalidationCount.sum());
+        stats.put("evictionCount", cache.stats().evictionCount());
+        stats.put("entryCount", cache.estimatedSize());
+        stats.put("maxWeight", cacheConfig.getMaxWeight());
+        return stats;
+    }
+    
+    @Override
+    public void initialize() throws StorageException {
+        delegate.initialize();
+    }
+    
+    @Override
+    public void shutdown() throws StorageException {
+        cache.invalidateAll();
+        delegate.shutdown();
+    }
+    
+    @Override
+    public boolean isHealthy() {
+        return delegate.isHealthy();
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Optional<T> querySingle(String sql, RowMapper<T> mapper, Object... params) throws StorageException {
+        if (delegate.isInTransaction()) {
+            return delegate.querySingle(sql, mapper, params);
+        }
+        
+        CacheKey key = new CacheKey("single", sql, params, mapper, 0, 0);
+        return (Optional<T>) getOrLoad(key, () -> delegate.querySingle(sql, mapper, params));
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> List<T> queryMultiple(String sql, RowMapper<T> mapper, Object... params) throws StorageException {
+        if (delegate.isInTransaction()) {
+            return delegate.queryMultiple(sql, mapper, params);
+        }
+        
+        CacheKey key = new CacheKey("multiple", sql, params, mapper, 0, 0);
+        return (List<T>) getOrLoad(key, () -> Collections.unmodifiableList(delegate.queryMultiple(sql, mapper, params)));
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Page<T> queryPage(String sql, RowMapper<T> mapper, int pageNum, int pageSize, Object... params) throws StorageException {
+        if (delegate.isInTransaction()) {
+            return delegate.queryPage(sql, mapper, pageNum, pageSize, params);
+        }
+        
+        CacheKey key = new CacheKey("page", sql, params, mapper, pageNum, pageSize);
+        return (Page<T>) getOrLoad(key, () -> delegate.queryPage(sql, mapper, pageNum, pageSize, params));
+    }
+    
+    @Override
+    public <T> Page<T> querySeek(String sql, RowMapper<T> mapper, String sortKey, Object lastSeen, int pageSize, Object... params) throws StorageException {
+        return delegate.querySeek(sql, mapper, sortKey, lastSeen, pageSize, params);
+    }
+    
+    @Override
+    public <T> Stream<T> queryStream(String sql, RowMapper<T> mapper, Object... params) throws StorageException {
+        return delegate.queryStream(sql, mapper, params);
+    }
+    
+    @Override
+    public int insert(String table, Map<String, Object> data) throws StorageException {
+        try {
+            return delegate.insert(table, data);
+        } finally {
+            onTableWritten(table);
+        }
+    }
+    
+    @Override
+    public int[] insertBatch(String table, List<Map<String, Object>> dataList) throws StorageException {
+        try {
+            return delegate.insertBatch(table, dataList);
+        } finally {
+            onTableWritten(table);
+        }
+    }
+    
+    @Override
+    public int update(String table, Map<String, Object> data, String condition, Object... params) throws StorageException {
+        try {
+            return delegate.update(table, data, condition, params);
+        } finally {
+            onTableWritten(table);
+        }
+    }
+    
+    @Override
+    public int[] updateBatch(String table, List<Map<String, Object>> dataList, String condition) throws StorageException {
+        try {
+            return delegate.updateBatch(table, dataList, condition);
+        } finally {
+            onTableWritten(table);
+        }
+    }
+    
+    @Override
+    public int delete(String table, String condition, Object... params) throws StorageException {
+        try {
+            return delegate.delete(table, condition, params);
+        } finally {
+            onTableWritten(table);
+        }
+    }
+    
+    @Override
+    public int[] deleteBatch(String table, List<String> conditions) throws StorageException {
+        try {
+            return delegate.deleteBatch(table, conditions);
+        } finally {
+            onTableWritten(table);
+        }
+    }
+    
+    @Override
+    public int upsert(String table, Map<String, Object> data, String... conflictColumns) throws StorageException {
+        try {
+            return delegate.upsert(table, data, conflictColumns);
+        } finally {
+            onTableWritten(table);
+        }
+    }
+    
+    @Override
+    public int[] upsertBatch(String table, List<Map<String, Object>> dataList, String... conflictColumns) throws StorageException {
+        try {
+            return delegate.upsertBatch(table, dataList, conflictColumns);
+        } finally {
+            onTableWritten(table);
+        }
+    }
+    
+    @Override
+    public void beginTransaction() throws StorageException {
+        delegate.beginTransaction();
+        transactionTables.set(new HashSet<>());
+    }
+    
+    @Override
+    public void commit() throws StorageException {
+        try {
+            delegate.commit();
+        } finally {
+            flushTransactionTables();
+        }
+    }
+    
+    @Override
+    public void rollback() throws StorageException {
+        try {
+            delegate.rollback();
+        } finally {
+            flushTransactionTables();
+        }
+    }
+    
+    @Override
+    public boolean isInTransaction() {
+        return delegate.isInTransaction();
+    }
+    
+    @Override
+    public String getDatabaseType() {
+        return delegate.getDatabaseType();
+    }
+    
+    @Override
+    public String getConnectionInfo() {
+        return delegate.getConnectionInfo() + " - QueryCache: " + cache.estimatedSize() + " entries";
+    }
+    
+    /**
+     * 读取缓存，未命中时加载
+     * 同一进程内对同一个键的并发未命中只会执行一次加载，其余线程等待其结果
+     * 
+     * @param key 缓存键
+     * @param loader 加载器
+     * @return 查询结果
+     * @throws StorageException 加载失败时抛出异常
+     */
+    protected Object getOrLoad(CacheKey key, QueryLoader loader) throws StorageException {
+        Object cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+        
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof StorageException) {
+                    throw (StorageException) e.getCause();
+                }
+                throw new StorageException("CACHE_LOAD_FAILED", "Failed to load cached query", e.getCause());
+            }
+        }
+        
+        try {
+            Object result = loadMissing(key, loader);
+            future.complete(result);
+            return result;
+        } catch (StorageException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+    
+    /**
+     * 加载未命中的查询并写入缓存（子类可覆盖以接入二级缓存）
+     * 
+     * @param key 缓存键
+     * @param loader 加载器
+     * @return 查询结果
+     * @throws StorageException 加载失败时抛出异常
+     */
+    protected Object loadMissing(CacheKey key, QueryLoader loader) throws StorageException {
+        long[] generations = snapshot(key.tables);
+        Object result = loader.load();
+        store(key, result, generations);
+        return result;
+    }
+    
+    /**
+     * 查找未失效的缓存结果
+     * 
+     * @param key 缓存键
+     * @return 缓存结果，未命中时返回null
+     */
+    protected Object lookup(CacheKey key) {
+        CachedResult cached = cache.getIfPresent(key);
+        if (cached != null) {
+            if (Arrays.equals(cached.generations, snapshot(key.tables))) {
+                hitCount.increment();
+                return cached.value;
+            }
+            cache.invalidate(key);
+            staleCount.increment();
+        }
+        missCount.increment();
+        return null;
+    }
+    
+    /**
+     * 写入本地缓存
+     * 
+     * @param key 缓存键
+     * @param value 查询结果
+     * @param generations 查询前的表版本号
+     */
+    protected void store(CacheKey key, Object value, long[] generations) {
+        cache.put(key, new CachedResult(value, generations, weigh(value), TimeUnit.MILLISECONDS.toNanos(getTtl(key))));
+    }
+    
+    /**
+     * 获取缓存键的有效期
+     * 
+     * @param key 缓存键
+     * @return 有效期（毫秒）
+     */
+    protected long getTtl(CacheKey key) {
+        return queryTtls.getOrDefault(key.sql, cacheConfig.getDefaultTtl());
+    }
+    
+    /**
+     * 获取表的当前版本号（子类可覆盖以从共享存储加载）
+     * 
+     * @param table 规范化后的表名
+     * @return 当前版本号
+     */
+    protected long currentGeneration(String table) {
+        AtomicLong generation = tableGenerations.get(table);
+        return generation != null ? generation.get() : 0;
+    }
+    
+    /**
+     * 将表版本号推进到不小于指定值
+     * 
+     * @param table 表名
+     * @param generation 版本号
+     */
+    protected void advanceGeneration(String table, long generation) {
+        tableGenerations.computeIfAbsent(normalizeTable(table), t -> new AtomicLong())
+                .accumulateAndGet(generation, Math::max);
+    }
+    
+    /**
+     * 获取表版本号快照
+     * 
+     * @param tables 表名数组
+     * @return 版本号数组，顺序与表名一致
+     */
+    protected long[] snapshot(String[] tables) {
+        long[] generations = new long[tables.length];
+        for (int i = 0; i < tables.length; i++) {
+            generations[i] = currentGeneration(tables[i]);
+        }
+        return generations;
+    }
+    
+    /**
+     * 记录表被写入
+     * 
+     * @param table 表名
+     */
+    private void onTableWritten(String table) {
+        invalidateTable(table);
+        Set<String> tables = transactionTables.get();
+        if (tables != null && table != null) {
+            tables.add(table);
+        }
+    }
+    
+    /**
+     * 事务结束时再次失效事务中写过的表，
+     * 避免其他线程在提交前读到旧数据并写回缓存
+     */
+    private void flushTransactionTables() {
+        Set<String> tables = transactionTables.get();
+        transactionTables.remove();
+        if (tables != null) {
+            for (String table : tables) {
+                invalidateTable(table);
+            }
+        }
+    }
+    
+    /**
+     * 从SQL中提取涉及的表名
+     * 
+     * @param sql SQL语句
+     * @return 规范化后的表名数组（已排序）
+     */
+    static String[] extractTables(String sql) {
+        Set<String> tables = new HashSet<>();
+        Matcher matcher = TABLE_PATTERN.matcher(sql);
+        while (matcher.find()) {
+            tables.add(normalizeTable(matcher.group(1)));
+        }
+        String[] result = tables.toArray(new String[0]);
+        Arrays.sort(result);
+        return result;
+    }
+    
+    /**
+     * 规范化表名：去掉库名前缀并转为小写
+     * 
+     * @param table 表名
+     * @return 规范化后的表名
+     */
+    static String normalizeTable(String table) {
+        String name = table.trim();
+        int dot = name.lastIndexOf('.');
+        if (dot >= 0) {
+            name = name.substring(dot + 1);
+        }
+        return name.replaceAll("[`\"\\[\\]]", "").toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * 计算缓存结果的权重（按行数）
+     * 
+     * @param value 查询结果
+     * @return 权重
+     */
+    static int weigh(Object value) {
+        if (value instanceof List) {
+            return ((List<?>) value).size() + 1;
+        }
+        if (value instanceof Page) {
+            return ((Page<?>) value).getNumberOfElements() + 1;
+        }
+        return 1;
+    }
+    
+    /**
+     * 查询加载器
+     */
+    @FunctionalInterface
+    protected interface QueryLoader {
+        
+        /**
+         * 执行实际查询
+         * 
+         * @return 查询结果
+         * @throws StorageException 查询失败时抛出异常
+         */
+        Object load() throws StorageException;
+    }
+    
+    /**
+     * 缓存键
+     */
+    protected static final class CacheKey {
+        private final String kind;
+        private final String sql;
+        private final Object[] params;
+        private final RowMapper<?> mapper;
+        private final String namespace;
+        private final int pageNum;
+        private final int pageSize;
+        private final String[] tables;
+        private final int hash;
+        
+        private CacheKey(String kind, String sql, Object[] params, RowMapper<?> mapper, int pageNum, int pageSize) {
+            this.kind = kind;
+            this.sql = sql;
+            this.params = params != null ? params.clone() : new Object[0];
+            this.namespace = mapper instanceof CacheableRowMapper ? ((CacheableRowMapper<?>) mapper).cacheNamespace() : null;
+            this.mapper = namespace != null ? null : mapper;
+            this.pageNum = pageNum;
+            this.pageSize = pageSize;
+            this.tables = extractTables(sql);
+            this.hash = Objects.hash(kind, sql, Arrays.deepHashCode(this.params),
+                    namespace != null ? namespace.hashCode() : System.identityHashCode(mapper), pageNum, pageSize);
+        }
+        
+        /**
+         * 获取涉及的表名
+         * 
+         * @return 规范化后的表名数组
+         */
+        public String[] getTables() {
+            return tables.clone();
+        }
+        
+        /**
+         * 获取映射器的缓存命名空间
+         * 
+         * @return 命名空间，映射器未实现CacheableRowMapper时返回null
+         */
+        public String getNamespace() {
+            return namespace;
+        }
+        
+        /**
+         * 获取键的稳定字符串表示，用于跨进程共享的缓存
+         * 
+         * @return 字符串表示，映射器没有命名空间时返回null
+         */
+        public String toExternalForm() {
+            if (namespace == null) {
+                return null;
+            }
+            return kind + "|" + namespace + "|" + pageNum + "|" + pageSize + "|" + sql + "|" + Arrays.deepToString(params);
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return pageNum == other.pageNum
+                    && pageSize == other.pageSize
+                    && kind.equals(other.kind)
+                    && sql.equals(other.sql)
+                    && mapper == other.mapper
+                    && Objects.equals(namespace, other.namespace)
+                    && Arrays.deepEquals(params, other.params);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+    
+    /**
+     * 缓存的查询结果
+     */
+    private static final class CachedResult {
+        private final Object value;
+        private final long[] generations;
+        private final int weight;
+        private final long ttlNanos;
+        
+        private CachedResult(Object value, long[] generations, int weight, long ttlNanos) {
+            this.value = value;
+            this.generations = generations;
+            this.weight = weight;
+            this.ttlNanos = ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,434 @@
+package database.cache;
+
+import database.adapter.RedisAdapter;
+import database.config.QueryCacheConfig;
+import database.core.DatabaseStorage;
+import database.core.StorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.JedisPubSub;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 两级查询缓存装饰器
+ * 本地堆内缓存作为一级缓存，RedisAdapter作为多个JVM共享的二级缓存：
+ * 二级缓存的值以紧凑二进制格式保存并带有表版本号；表版本号保存在Redis中，
+ * 写入时自增并通过pub/sub通知其他节点；多个节点同时未命中时只有拿到Redis锁的节点查询数据库，
+ * 其他节点等待其回填二级缓存
+ * 
+ * 二级缓存键由映射器的缓存命名空间（CacheableRowMapper）和SQL、参数组成，
+ * 没有命名空间的映射器以及编解码器无法编码的结果只使用一级缓存
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class TwoLevelCachingDatabaseStorage extends CachingDatabaseStorage {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TwoLevelCachingDatabaseStorage.class);
+    
+    /**
+     * 加载锁的持有时间（毫秒），也是其他节点等待回填的最长时间
+     */
+    private static final long LOCK_TIMEOUT = 3000;
+    
+    /**
+     * 等待回填时轮询二级缓存的间隔（毫秒）
+     */
+    private static final long LOCK_POLL_INTERVAL = 50;
+    
+    /**
+     * 订阅断开后的重连间隔（毫秒）
+     */
+    private static final long RESUBSCRIBE_DELAY = 1000;
+    
+    /**
+     * 二级缓存使用的Redis适配器
+     */
+    private final RedisAdapter redis;
+    
+    /**
+     * Redis键前缀
+     */
+    private final String keyPrefix;
+    
+    /**
+     * 失效通知频道
+     */
+    private final String channel;
+    
+    /**
+     * 当前节点标识，用于忽略自己发出的失效通知
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+    
+    /**
+     * 值编解码器
+     */
+    private final CacheValueCodec codec;
+    
+    /**
+     * 已从Redis加载过版本号的表
+     */
+    private final Set<String> loadedGenerations = ConcurrentHashMap.newKeySet();
+    
+    /**
+     * 结果无法编码的映射器命名空间，之后不再经过二级缓存（避免其他节点空等回填）
+     */
+    private final Set<String> unencodableNamespaces = ConcurrentHashMap.newKeySet();
+    
+    /**
+     * 失效通知监听器
+     */
+    private final InvalidationListener listener = new InvalidationListener();
+    
+    /**
+     * 订阅线程
+     */
+    private Thread subscriberThread;
+    
+    /**
+     * 订阅线程是否运行
+     */
+    private volatile boolean running = false;
+    
+    private final LongAdder secondLevelHitCount = new LongAdder();
+    private final LongAdder secondLevelMissCount = new LongAdder();
+    private final LongAdder secondLevelErrorCount = new LongAdder();
+    private final LongAdder lockWaitCount = new LongAdder();
+    private final LongAdder secondLevelSkipCount = new LongAdder();
+    
+    /**
+     * 构造函数
+     * 
+     * @param delegate 被装饰的存储
+     * @param cacheConfig 缓存配置
+     * @param redis 二级缓存使用的Redis适配器
+     * @param namespace 缓存命名空间，共享同一数据库的节点必须一致
+     */
+    public TwoLevelCachingDatabaseStorage(DatabaseStorage delegate, QueryCacheConfig cacheConfig,
+                                          RedisAdapter redis, String namespace) {
+        this(delegate, cacheConfig, redis, namespace, new BinaryValueCodec());
+    }
+    
+    /**
+     * 构造函数
+     * 
+     * @param delegate 被装饰的存储
+     * @param cacheConfig 缓存配置
+     * @param redis 二级缓存使用的Redis适配器
+     * @param namespace 缓存命名空间，共享同一数据库的节点必须一致
+     * @param codec 值编解码器
+     */
+    public TwoLevelCachingDatabaseStorage(DatabaseStorage delegate, QueryCacheConfig cacheConfig,
+                                          RedisAdapter redis, String namespace, CacheValueCodec codec) {
+        super(delegate, cacheConfig);
+        if (redis == null) {
+            throw new IllegalArgumentException("Redis adapter cannot be null");
+        }
+        if (codec == null) {
+            throw new IllegalArgumentException("Cache value codec cannot be null");
+        }
+        this.redis = redis;
+        this.codec = codec;
+        this.keyPrefix = "blackhole:qc:" + namespace + ":";
+        this.channel = keyPrefix + "invalidate";
+    }
+    
+    @Override
+    public void initialize() throws StorageException {
+        super.initialize();
+        startSubscriber();
+    }
+    
+    @Override
+    public void shutdown() throws StorageException {
+        stopSubscriber();
+        super.shutdown();
+    }
+    
+    @Override
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> stats = super.getCacheStats();
+        stats.put("secondLevelHitCount", secondLevelHitCount.sum());
+        stats.put("secondLevelMissCount", secondLevelMissCount.sum());
+        stats.put("secondLevelErrorCount", secondLevelErrorCount.sum());
+        stats.put("lockWaitCount", lockWaitCount.sum());
+        stats.put("secondLevelSkipCount", secondLevelSkipCount.sum());
+        stats.put("subscribed", listener.isSubscribed());
+        return stats;
+    }
+    
+    @Override
+    protected Object loadMissing(CacheKey key, QueryLoader loader) throws StorageException {
+        if (key.getNamespace() == null || unencodableNamespaces.contains(key.getNamespace())) {
+            secondLevelSkipCount.increment();
+            return super.loadMissing(key, loader);
+        }
+        
+        String[] tables = key.getTables();
+        String digest = digest(key.toExternalForm());
+        byte[] valueKey = (keyPrefix + "q:" + digest).getBytes(StandardCharsets.UTF_8);
+        
+        Object cached = readSecondLevel(key, valueKey, tables);
+        if (cached != null) {
+            return cached;
+        }
+        
+        // 只有拿到锁的节点查询数据库，其他节点等待回填，避免缓存击穿
+        String lockKey = keyPrefix + "lock:" + digest;
+        String token = nodeId + ":" + Thread.currentThread().getId();
+        boolean locked = tryLock(lockKey, token);
+        if (!locked) {
+            lockWaitCount.increment();
+            long deadline = System.currentTimeMillis() + LOCK_TIMEOUT;
+            while (System.currentTimeMillis() < deadline) {
+                try {
+                    Thread.sleep(LOCK_POLL_INTERVAL);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                cached = readSecondLevel(key, valueKey, tables);
+                if (cached != null) {
+                    return cached;
+                }
+                if (tryLock(lockKey, token)) {
+                    locked = true;
+                    break;
+                }
+            }
+        }
+        
+        try {
+            long[] generations = snapshot(tables);
+            Object result = loader.load();
+            store(key, result, generations);
+            writeSecondLevel(key, valueKey, result, generations);
+            return result;
+        } finally {
+            if (locked) {
+                releaseLock(lockKey, token);
+            }
+        }
+    }
+    
+    @Override
+    protected long currentGeneration(String table) {
+        if (!loadedGenerations.contains(table)) {
+            try {
+                String value = redis.get(generationKey(table));
+                advanceGeneration(table, value != null ? Long.parseLong(value) : 0);
+                loadedGenerations.add(table);
+            } catch (StorageException | NumberFormatException e) {
+                logger.warn("Failed to load cache generation for table: {}", table, e);
+            }
+        }
+        return super.currentGeneration(table);
+    }
+    
+    @Override
+    protected void publishInvalidation(String table) {
+        try {
+            long generation = redis.incr(generationKey(table));
+            advanceGeneration(table, generation);
+            redis.publish(channel, nodeId + " " + table + " " + generation);
+        } catch (StorageException e) {
+            // Redis不可用时至少保证本地缓存失效
+            logger.warn("Failed to publish cache invalidation for table: {}", table, e);
+            super.publishInvalidation(table);
+        }
+    }
+    
+    /**
+     * 读取二级缓存，版本号过期的值视为未命中
+     * 
+     * @param key 缓存键
+     * @param valueKey Redis键
+     * @param tables 涉及的表名
+     * @return 查询结果，未命中时返回null
+     */
+    private Object readSecondLevel(CacheKey key, byte[] valueKey, String[] tables) {
+        try {
+            byte[] bytes = redis.getBytes(valueKey);
+            if (bytes != null) {
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+                long[] generations = new long[in.readInt()];
+                for (int i = 0; i < generations.length; i++) {
+                    generations[i] = in.readLong();
+                }
+                if (Arrays.equals(generations, snapshot(tables))) {
+                    byte[] payload = new byte[in.available()];
+                    in.readFully(payload);
+                    Object value = codec.decode(payload);
+                    store(key, value, generations);
+                    secondLevelHitCount.increment();
+                    return value;
+                }
+            }
+        } catch (StorageException | IOException e) {
+            secondLevelErrorCount.increment();
+            logger.warn("Failed to read second-level cache", e);
+        }
+        secondLevelMissCount.increment();
+        return null;
+    }
+    
+    /**
+     * 写入二级缓存
+     * 
+     * @param key 缓存键
+     * @param valueKey Redis键
+     * @param value 查询结果
+     * @param generations 查询前的表版本号
+     */
+    private void writeSecondLevel(CacheKey key, byte[] valueKey, Object value, long[] generations) {
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(buffer);
+            out.writeInt(generations.length);
+            for (long generation : generations) {
+                out.writeLong(generation);
+            }
+            out.write(codec.encode(value));
+            out.flush();
+            redis.setBytes(valueKey, buffer.toByteArray(), getTtl(key));
+        } catch (NotSerializableException e) {
+            unencodableNamespaces.add(key.getNamespace());
+            secondLevelSkipCount.increment();
+            logger.warn("Results of cache namespace {} cannot be encoded, using local cache only: {}",
+                    key.getNamespace(), e.getMessage());
+        } catch (StorageException | IOException e) {
+            secondLevelErrorCount.increment();
+            logger.warn("Failed to write second-level cache", e);
+        }
+    }
+    
+    private boolean tryLock(String lockKey, String token) {
+        try {
+            return redis.setIfAbsent(lockKey, token, LOCK_TIMEOUT);
+        } catch (StorageException e) {
+            // 拿不到锁信息时直接查询数据库
+            logger.warn("Failed to acquire cache load lock: {}", lockKey, e);
+            return true;
+        }
+    }
+    
+    private void releaseLock(String lockKey, String token) {
+        try {
+            redis.deleteIfEquals(lockKey, token);
+        } catch (StorageException e) {
+            logger.warn("Failed to release cache load lock: {}", lockKey, e);
+        }
+    }
+    
+    private String generationKey(String table) {
+        return keyPrefix + "gen:" + table;
+    }
+    
+    /**
+     * 计算键摘要（SHA-256前128位）
+     * 
+     * @param text 原始键
+     * @return 十六进制摘要
+     */
+    private static String digest(String text) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(32);
+            for (int i = 0; i < 16; i++) {
+                sb.append(String.format("%02x", hash[i]));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    /**
+     * 启动失效通知订阅线程
+     */
+    private synchronized void startSubscriber() {
+        if (running) {
+            return;
+        }
+        running = true;
+        subscriberThread = new Thread(() -> {
+            while (running) {
+                try {
+                    redis.subscribe(listener, channel);
+                } catch (StorageException e) {
+                    logger.warn("Cache invalidation subscription lost, retrying in {}ms", RESUBSCRIBE_DELAY, e);
+                }
+                if (running) {
+                    try {
+                        Thread.sleep(RESUBSCRIBE_DELAY);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }, "blackhole-cache-invalidation");
+        subscriberThread.setDaemon(true);
+        subscriberThread.start();
+        logger.info("Started cache invalidation subscriber on channel: {}", channel);
+    }
+    
+    /**
+     * 停止失效通知订阅线程
+     */
+    private synchronized void stopSubscriber() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        if (listener.isSubscribed()) {
+            listener.unsubscribe();
+        }
+        if (subscriberThread != null) {
+            subscriberThread.interrupt();
+            subscriberThread = null;
+        }
+    }
+    
+    /**
+     * 失效通知监听器
+     * 消息格式：节点标识 表名 版本号
+     */
+    private class InvalidationListener extends JedisPubSub {
+        
+        @Override
+        public void onSubscribe(String channel, int subscribedChannels) {
+            // 断线期间可能漏掉通知，重新订阅后从Redis重新加载版本号
+            loadedGenerations.clear();
+        }
+        
+        @Override
+        public void onMessage(String channel, String message) {
+            String[] parts = message.split(" ");
+            if (parts.length != 3 || nodeId.equals(parts[0])) {
+                return;
+            }
+            try {
+                advanceGeneration(parts[1], Long.parseLong(parts[2]));
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring malformed cache invalidation message: {}", message);
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package database.compress;
+
+/**
+ * 延迟解压的文本列值
+ * 查询时只保存压缩后的字节，第一次访问内容时才解压，之后复用解压结果；
+ * 只读取标题、URL等字段而不访问正文的列表页不会产生解压开销。
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public final class CompressedText implements CharSequence {
+    
+    private final byte[] encoded;
+    private final ZstdDictionaryCodec codec;
+    private volatile String text;
+    
+    /**
+     * 构造延迟解压的文本
+     * 
+     * @param encoded 编码结果
+     * @param codec 编解码器
+     */
+    CompressedText(byte[] encoded, ZstdDictionaryCodec codec) {
+        this.encoded = encoded;
+        this.codec = codec;
+    }
+    
+    /**
+     * 获取压缩后的字节（不复制）
+     * 
+     * @return 编码结果
+     */
+    public byte[] getEncoded() {
+        return encoded;
+    }
+    
+    /**
+     * 获取压缩后的大小
+     * 
+     * @return 字节数
+     */
+    public int getCompressedSize() {
+        return encoded.length;
+    }
+    
+    /**
+     * 获取原文的UTF-8字节数（不解压）
+     * 
+     * @return 字节数
+     */
+    public int getRawSize() {
+        return ZstdDictionaryCodec.rawLength(encoded);
+    }
+    
+    /**
+     * 获取压缩使用的字典ID
+     * 
+     * @return 字典ID
+     */
+    public int getDictionaryId() {
+        return ZstdDictionaryCodec.dictionaryId(encoded);
+    }
+    
+    /**
+     * 是否已解压
+     * 
+     * @return 是否已解压
+     */
+    public boolean isDecompressed() {
+        return text != null;
+    }
+    
+    @Override
+    public int length() {
+        return toString().length();
+    }
+    
+    @Override
+    public char charAt(int index) {
+        return toString().charAt(index);
+    }
+    
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().subSequence(start, end);
+    }
+    
+    @Override
+    public String toString() {
+        String result = text;
+        if (result == null) {
+            result = codec.decompressToString(encoded);
+            text = result;
+        }
+        return result;
+    }
+}
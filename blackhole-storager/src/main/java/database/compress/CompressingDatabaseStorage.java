@@ -0,0 +1,570 @@
+package database.compress;
+
+import database.adapter.BaseStorageAdapter;
+import database.config.ColumnCompressionConfig;
+import database.core.DatabaseStorage;
+import database.core.Page;
+import database.core.RowMapper;
+import database.core.StorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * 透明列压缩装饰器
+ * 写入时把配置的文本列按分组（如来源站点）用zstd字典压缩为二进制，读取时通过
+ * {@link #rowMapper()} 或 {@link #readText(ResultSet, String)} 得到延迟解压的 {@link CompressedText}。
+ * 
+ * 字典持久化在同一数据库的 compression_dictionaries 表中，字典ID随每个值一起保存；
+ * 某个分组还没有字典时，先用无字典的zstd压缩并收集样本，样本数达到配置值后在后台训练字典，
+ * 之后的写入使用新字典。压缩列在表中应声明为BLOB（MySQL建议MEDIUMBLOB/LONGBLOB），
+ * 且不能作为FTS外部内容表的被索引列。
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class CompressingDatabaseStorage implements DatabaseStorage {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CompressingDatabaseStorage.class);
+    
+    /**
+     * 字典表名
+     */
+    public static final String DICTIONARY_TABLE = "compression_dictionaries";
+    
+    /**
+     * 单个训练样本的最大字节数
+     */
+    private static final int MAX_SAMPLE_BYTES = 128 * 1024;
+    
+    /**
+     * 分组名称的最大长度
+     */
+    private static final int MAX_SCOPE_LENGTH = 255;
+    
+    /**
+     * 因未知字典ID重新加载字典表的最小间隔
+     */
+    private static final long DICTIONARY_RELOAD_INTERVAL_MILLIS = 5000;
+    
+    /**
+     * 被装饰的存储
+     */
+    private final DatabaseStorage delegate;
+    
+    /**
+     * 被装饰的适配器（用于建表和读写字典）
+     */
+    private final BaseStorageAdapter adapter;
+    
+    /**
+     * 压缩配置
+     */
+    private final ColumnCompressionConfig compressionConfig;
+    
+    /**
+     * 编解码器
+     */
+    private final ZstdDictionaryCodec codec;
+    
+    /**
+     * 各分组待训练的样本
+     */
+    private final Map<String, List<byte[]>> samples = new ConcurrentHashMap<>();
+    
+    /**
+     * 正在训练字典的分组
+     */
+    private final Set<String> trainingScopes = ConcurrentHashMap.newKeySet();
+    
+    /**
+     * 后台训练线程
+     */
+    private final ExecutorService trainer;
+    
+    private final LongAdder compressedValues = new LongAdder();
+    private final LongAdder rawBytes = new LongAdder();
+    private final LongAdder storedBytes = new LongAdder();
+    
+    private final Object dictionaryReloadLock = new Object();
+    private long lastDictionaryReload;
+    
+    /**
+     * 构造函数
+     * 
+     * @param adapter 被装饰的适配器
+     * @param compressionConfig 压缩配置
+     */
+    public CompressingDatabaseStorage(BaseStorageAdapter adapter, ColumnCompressionConfig compressionConfig) {
+        if (adapter == null) {
+            throw new IllegalArgumentException("Delegate adapter cannot be null");
+        }
+        if (compressionConfig == null) {
+            throw new IllegalArgumentException("Column compression configuration cannot be null");
+        }
+        compressionConfig.validate();
+        
+        this.delegate = adapter;
+        this.adapter = adapter;
+        this.compressionConfig = compressionConfig;
+        this.codec = new ZstdDictionaryCodec(compressionConfig.getLevel());
+        this.codec.setDictionaryLoader(this::reloadForMissingDictionary);
+        this.trainer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "compression-dictionary-trainer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * 获取被装饰的存储
+     * 
+     * @return 被装饰的存储
+     */
+    public DatabaseStorage getDelegate() {
+        return delegate;
+    }
+    
+    /**
+     * 获取编解码器
+     * 
+     * @return 编解码器
+     */
+    public ZstdDictionaryCodec getCodec() {
+        return codec;
+    }
+    
+    /**
+     * 创建字典表并加载全部字典（适配器初始化之后调用）
+     * 
+     * @throws StorageException 加载失败时抛出异常
+     */
+    public void loadDictionaries() throws StorageException {
+        adapter.update("CREATE TABLE IF NOT EXISTS " + DICTIONARY_TABLE + " ("
+                + "dict_id INTEGER PRIMARY KEY, "
+                + "scope VARCHAR(" + MAX_SCOPE_LENGTH + ") NOT NULL, "
+                + "dict_data MEDIUMBLOB NOT NULL, "
+                + "created_at BIGINT NOT NULL)");
+        
+        List<Object[]> rows = adapter.queryMultiple(
+                "SELECT dict_id, scope, dict_data FROM " + DICTIONARY_TABLE + " ORDER BY dict_id",
+                (rs, rowNum) -> new Object[]{rs.getInt(1), rs.getString(2), rs.getBytes(3)});
+        for (Object[] row : rows) {
+            codec.registerDictionary((Integer) row[0], (String) row[1], (byte[]) row[2], true);
+        }
+        logger.info("Loaded {} compression dictionaries", rows.size());
+    }
+    
+    /**
+     * 用样本训练分组的新字典并持久化，之后该分组的写入使用新字典
+     * 
+     * @param scope 字典分组
+     * @param sampleTexts 样本文本
+     * @return 新字典ID
+     * @throws StorageException 字典保存失败时抛出异常
+     */
+    public int trainDictionary(String scope, List<String> sampleTexts) throws StorageException {
+        List<byte[]> sampleBytes = new ArrayList<>(sampleTexts.size());
+        for (String text : sampleTexts) {
+            sampleBytes.add(truncateSample(text.getBytes(StandardCharsets.UTF_8)));
+        }
+        return trainAndStore(scope, sampleBytes);
+    }
+    
+    /**
+     * 获取压缩统计信息
+     * 
+     * @return 统计信息映射
+     */
+    public Map<String, Object> getCompressionStats() {
+        Map<String, Object> stats = new HashMap<>();
+        long raw = rawBytes.sum();
+        long stored = storedBytes.sum();
+        stats.put("compressedValues", compressedValues.sum());
+        stats.put("rawBytes", raw);
+        stats.put("storedBytes", stored);
+        stats.put("ratio", stored == 0 ? 0.0 : (double) raw / stored);
+        stats.put("dictionaries", codec.getDictionaryInfo());
+        stats.put("pendingScopes", samples.size());
+        return stats;
+    }
+    
+    /**
+     * 返回把所有列读为Map的行映射器，压缩列映射为延迟解压的 {@link CompressedText}
+     * 
+     * @return 行映射器
+     */
+    public RowMapper<Map<String, Object>> rowMapper() {
+        return (rs, rowNum) -> {
+            ResultSetMetaData metaData = rs.getMetaData();
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                row.put(metaData.getColumnLabel(i), decode(rs.getObject(i)));
+            }
+            return row;
+        };
+    }
+    
+    /**
+     * 读取文本列，压缩值返回延迟解压的 {@link CompressedText}，未压缩的历史数据按原样返回
+     * 
+     * @param rs 结果集
+     * @param column 列名
+     * @return 文本，列值为NULL时返回null
+     * @throws SQLException 读取失败时抛出异常
+     */
+    public CharSequence readText(ResultSet rs, String column) throws SQLException {
+        Object decoded = decode(rs.getObject(column));
+        if (decoded == null || decoded instanceof CharSequence) {
+            return (CharSequence) decoded;
+        }
+        if (decoded instanceof byte[]) {
+            return new String((byte[]) decoded, StandardCharsets.UTF_8);
+        }
+        return decoded.toString();
+    }
+    
+    /**
+     * 将列值中的压缩数据包装为延迟解压的文本，其他值原样返回
+     * 解压时遇到其他进程新训练、本进程尚未加载的字典，会重新加载字典表后重试
+     * 
+     * @param value 列值
+     * @return 解码后的值
+     */
+    public Object decode(Object value) {
+        if (ZstdDictionaryCodec.isEncoded(value)) {
+            return new CompressedText((byte[]) value, codec);
+        }
+        return value;
+    }
+    
+    @Override
+    public void initialize() throws StorageException {
+        delegate.initialize();
+        loadDictionaries();
+    }
+    
+    @Override
+    public void shutdown() throws StorageException {
+        trainer.shutdownNow();
+        delegate.shutdown();
+    }
+    
+    @Override
+    public boolean isHealthy() {
+        return delegate.isHealthy();
+    }
+    
+    @Override
+    public <T> Optional<T> querySingle(String sql, RowMapper<T> mapper, Object... params) throws StorageException {
+        return delegate.querySingle(sql, mapper, params);
+    }
+    
+    @Override
+    public <T> List<T> queryMultiple(String sql, RowMapper<T> mapper, Object... params) throws StorageException {
+        return delegate.queryMultiple(sql, mapper, params);
+    }
+    
+    @Override
+    public <T> Page<T> queryPage(String sql, RowMapper<T> mapper, int pageNum, int pageSize, Object... params) throws StorageException {
+        return delegate.queryPage(sql, mapper, pageNum, pageSize, params);
+    }
+    
+    @Override
+    public <T> Page<T> querySeek(String sql, RowMapper<T> mapper, String sortKey, Object lastSeen, int pageSize, Object... params) throws StorageException {
+        return delegate.querySeek(sql, mapper, sortKey, lastSeen, pageSize, params);
+    }
+    
+    @Override
+    public <T> Stream<T> queryStream(String sql, RowMapper<T> mapper, Object... params) throws StorageException {
+        return delegate.queryStream(sql, mapper, params);
+    }
+    
+    @Override
+    public int insert(String table, Map<String, Object> data) throws StorageException {
+        return delegate.insert(table, encodeRow(table, data));
+    }
+    
+    @Override
+    public int[] insertBatch(String table, List<Map<String, Object>> dataList) throws StorageException {
+        return delegate.insertBatch(table, encodeRows(table, dataList));
+    }
+    
+    @Override
+    public int update(String table, Map<String, Object> data, String condition, Object... params) throws StorageException {
+        return delegate.update(table, encodeRow(table, data), condition, params);
+    }
+    
+    @Override
+    public int[] updateBatch(String table, List<Map<String, Object>> dataList, String condition) throws StorageException {
+        return delegate.updateBatch(table, encodeRows(table, dataList), condition);
+    }
+    
+    @Override
+    public int delete(String table, String condition, Object... params) throws StorageException {
+        return delegate.delete(table, condition, params);
+    }
+    
+    @Override
+    public int[] deleteBatch(String table, List<String> conditions) throws StorageException {
+        return delegate.deleteBatch(table, conditions);
+    }
+    
+    @Override
+    public int upsert(String table, Map<String, Object> data, String... conflictColumns) throws StorageException {
+        return delegate.upsert(table, encodeRow(table, data), conflictColumns);
+    }
+    
+    @Override
+    public int[] upsertBatch(String table, List<Map<String, Object>> dataList, String... conflictColumns) throws StorageException {
+        return delegate.upsertBatch(table, encodeRows(table, dataList), conflictColumns);
+    }
+    
+    @Override
+    public void beginTransaction() throws StorageException {
+        delegate.beginTransaction();
+    }
+    
+    @Override
+    public void commit() throws StorageException {
+        delegate.commit();
+    }
+    
+    @Override
+    public void rollback() throws StorageException {
+        delegate.rollback();
+    }
+    
+    @Override
+    public boolean isInTransaction() {
+        return delegate.isInTransaction();
+    }
+    
+    @Override
+    public String getDatabaseType() {
+        return delegate.getDatabaseType();
+    }
+    
+    @Override
+    public String getConnectionInfo() {
+        return delegate.getConnectionInfo() + " - ColumnCompression: " + codec.getDictionaryInfo().size() + " dictionaries";
+    }
+    
+    /**
+     * 压缩一批行
+     * 
+     * @param table 表名
+     * @param dataList 行数据列表
+     * @return 压缩后的行数据列表
+     */
+    private List<Map<String, Object>> encodeRows(String table, List<Map<String, Object>> dataList) {
+        if (dataList == null || !compressionConfig.getColumns().containsKey(normalize(table))) {
+            return dataList;
+        }
+        List<Map<String, Object>> encoded = new ArrayList<>(dataList.size());
+        for (Map<String, Object> data : dataList) {
+            encoded.add(encodeRow(table, data));
+        }
+        return encoded;
+    }
+    
+    /**
+     * 压缩一行中配置的列，返回新的Map，不修改调用方的数据
+     * 
+     * @param table 表名
+     * @param data 行数据
+     * @return 压缩后的行数据
+     */
+    private Map<String, Object> encodeRow(String table, Map<String, Object> data) {
+        if (data == null || table == null) {
+            return data;
+        }
+        String tableKey = normalize(table);
+        Set<String> columns = compressionConfig.getColumns().get(tableKey);
+        if (columns == null) {
+            return data;
+        }
+        
+        String scope = null;
+        Map<String, Object> encoded = new LinkedHashMap<>(data);
+        for (Map.Entry<String, Object> entry : encoded.entrySet()) {
+            Object value = entry.getValue();
+            if (!columns.contains(normalize(entry.getKey()))) {
+                continue;
+            }
+            if (value instanceof CompressedText) {
+                entry.setValue(((CompressedText) value).getEncoded());
+            } else if (value instanceof CharSequence) {
+                if (scope == null) {
+                    scope = resolveScope(tableKey, data);
+                }
+                byte[] raw = value.toString().getBytes(StandardCharsets.UTF_8);
+                byte[] compressed = codec.compress(scope, raw);
+                entry.setValue(compressed);
+                compressedValues.increment();
+                rawBytes.add(raw.length);
+                storedBytes.add(compressed.length);
+                collectSample(scope, raw);
+            }
+        }
+        return encoded;
+    }
+    
+    /**
+     * 取行中分组列的值作为字典分组，URL取主机名
+     * 
+     * @param table 规范化后的表名
+     * @param data 行数据
+     * @return 字典分组
+     */
+    private String resolveScope(String table, Map<String, Object> data) {
+        String scopeColumn = compressionConfig.getScopeColumns().get(table);
+        if (scopeColumn == null) {
+            return ZstdDictionaryCodec.DEFAULT_SCOPE;
+        }
+        Object value = null;
+        for (Map.Entry<String, Object> entry : data.entrySet()) {
+            if (scopeColumn.equals(normalize(entry.getKey()))) {
+                value = entry.getValue();
+                break;
+            }
+        }
+        if (value == null || value.toString().trim().isEmpty()) {
+            return ZstdDictionaryCodec.DEFAULT_SCOPE;
+        }
+        String scope = value.toString().trim().toLowerCase(Locale.ROOT);
+        if (scope.contains("://")) {
+            try {
+                String host = URI.create(scope).getHost();
+                if (host != null) {
+                    scope = host.startsWith("www.") ? host.substring(4) : host;
+                }
+            } catch (IllegalArgumentException e) {
+                // 无法解析的URL按原值分组
+            }
+        }
+        return scope.length() > MAX_SCOPE_LENGTH ? scope.substring(0, MAX_SCOPE_LENGTH) : scope;
+    }
+    
+    /**
+     * 收集还没有字典的分组的样本，达到配置数量后提交后台训练
+     * 
+     * @param scope 字典分组
+     * @param raw 原始数据
+     */
+    private void collectSample(String scope, byte[] raw) {
+        int target = compressionConfig.getTrainSamples();
+        if (target == 0 || codec.hasDictionary(scope) || trainingScopes.contains(scope)) {
+            return;
+        }
+        List<byte[]> buffer = samples.computeIfAbsent(scope, s -> new ArrayList<>());
+        List<byte[]> ready = null;
+        synchronized (buffer) {
+            buffer.add(truncateSample(raw));
+            if (buffer.size() >= target && trainingScopes.add(scope)) {
+                ready = new ArrayList<>(buffer);
+                samples.remove(scope, buffer);
+            }
+        }
+        if (ready != null) {
+            List<byte[]> trainingSamples = ready;
+            trainer.execute(() -> {
+                try {
+                    trainAndStore(scope, trainingSamples);
+                } catch (Exception e) {
+                    logger.warn("Failed to train compression dictionary for scope {}", scope, e);
+                } finally {
+                    trainingScopes.remove(scope);
+                }
+            });
+        }
+    }
+    
+    /**
+     * 训练字典，先写入字典表再启用，保证任何引用该字典的数据都能解压
+     * 
+     * @param scope 字典分组
+     * @param sampleBytes 样本
+     * @return 新字典ID
+     * @throws StorageException 字典保存失败时抛出异常
+     */
+    private int trainAndStore(String scope, List<byte[]> sampleBytes) throws StorageException {
+        if (sampleBytes.isEmpty()) {
+            throw new StorageException("INVALID_DATA", "Dictionary training requires samples");
+        }
+        byte[] dictionary;
+        try {
+            dictionary = ZstdDictionaryCodec.train(sampleBytes, compressionConfig.getDictionarySize());
+        } catch (RuntimeException e) {
+            throw new StorageException("INVALID_DATA", "Failed to train compression dictionary for scope " + scope, e);
+        }
+        
+        StorageException lastError = null;
+        for (int attempt = 0; attempt < 3; attempt++) {
+            int id = codec.getMaxDictionaryId() + 1;
+            try {
+                adapter.insert("INSERT INTO " + DICTIONARY_TABLE + " (dict_id, scope, dict_data, created_at) VALUES (?, ?, ?, ?)",
+                        id, scope, dictionary, System.currentTimeMillis());
+                codec.registerDictionary(id, scope, dictionary, true);
+                logger.info("Trained compression dictionary {} for scope {} ({} bytes from {} samples)",
+                        id, scope, dictionary.length, sampleBytes.size());
+                return id;
+            } catch (StorageException e) {
+                // 其他进程可能已占用该ID，重新加载后重试
+                lastError = e;
+                loadDictionaries();
+            }
+        }
+        throw lastError;
+    }
+    
+    /**
+     * 重新加载字典表以获取未知的字典，按固定间隔限流，避免损坏的字典ID反复查询数据库
+     */
+    private boolean reloadForMissingDictionary(int dictId) {
+        synchronized (dictionaryReloadLock) {
+            if (codec.isDictionaryLoaded(dictId)) {
+                return true;
+            }
+            long now = System.currentTimeMillis();
+            if (now - lastDictionaryReload < DICTIONARY_RELOAD_INTERVAL_MILLIS) {
+                return false;
+            }
+            lastDictionaryReload = now;
+            try {
+                loadDictionaries();
+            } catch (StorageException e) {
+                logger.warn("Failed to reload compression dictionaries for unknown dictionary {}", dictId, e);
+                return false;
+            }
+            return codec.isDictionaryLoaded(dictId);
+        }
+    }
+    
+    private static byte[] truncateSample(byte[] raw) {
+        return raw.length > MAX_SAMPLE_BYTES ? Arrays.copyOf(raw, MAX_SAMPLE_BYTES) : raw;
+    }
+    
+    private static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,333 @@
+package database.compress;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.github.luben.zstd.ZstdDictTrainer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
+
+/**
+ * 带字典的zstd编解码器
+ * 同一来源的文章正文有大量相同的模板文字，单行压缩对短文本几乎无效；
+ * 按来源（分组）训练字典后，短文本也能获得数倍的压缩比。
+ * 
+ * 编码结果带有一个10字节的头：magic(1) | version(1) | dictId(4) | rawLength(4)，
+ * 字典ID随数据一起保存，重新训练产生新ID的字典后，旧数据仍使用原字典解压。
+ * dictId为0表示未使用字典，为-1表示压缩无收益、按原文保存。
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class ZstdDictionaryCodec {
+    
+    /**
+     * 未指定分组时使用的默认分组
+     */
+    public static final String DEFAULT_SCOPE = "default";
+    
+    /**
+     * 未使用字典
+     */
+    public static final int NO_DICTIONARY = 0;
+    
+    /**
+     * 原文保存
+     */
+    public static final int STORED_RAW = -1;
+    
+    static final int HEADER_LENGTH = 10;
+    private static final byte MAGIC = (byte) 0xB7;
+    private static final byte FORMAT_VERSION = 1;
+    
+    /**
+     * 压缩级别
+     */
+    private final int level;
+    
+    /**
+     * 所有已知字典（字典ID -> 字典），用于解压
+     */
+    private final Map<Integer, Dictionary> dictionaries = new ConcurrentHashMap<>();
+    
+    /**
+     * 各分组当前用于压缩的字典
+     */
+    private final Map<String, Dictionary> activeDictionaries = new ConcurrentHashMap<>();
+    
+    /**
+     * 解压遇到未加载的字典时调用，返回true表示字典已加载、可以重试
+     */
+    private volatile IntPredicate dictionaryLoader;
+    
+    /**
+     * 构造函数
+     * 
+     * @param level zstd压缩级别
+     */
+    public ZstdDictionaryCodec(int level) {
+        this.level = level;
+    }
+    
+    /**
+     * 设置未加载字典的加载器
+     * 其他进程训练的新字典只在加载后才能解压，加载器负责从持久化存储中补充加载
+     * 
+     * @param dictionaryLoader 参数为字典ID，返回字典是否已加载
+     */
+    public void setDictionaryLoader(IntPredicate dictionaryLoader) {
+        this.dictionaryLoader = dictionaryLoader;
+    }
+    
+    /**
+     * 压缩文本
+     * 
+     * @param scope 字典分组
+     * @param text 文本
+     * @return 编码结果
+     */
+    public byte[] compress(String scope, String text) {
+        return compress(scope, text.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * 压缩数据，分组有字典时使用字典压缩
+     * 
+     * @param scope 字典分组
+     * @param raw 原始数据
+     * @return 编码结果
+     */
+    public byte[] compress(String scope, byte[] raw) {
+        Dictionary dictionary = scope != null ? activeDictionaries.get(scope) : null;
+        byte[] payload;
+        int dictId;
+        if (dictionary != null) {
+            payload = Zstd.compress(raw, dictionary.compressor);
+            dictId = dictionary.id;
+        } else {
+            payload = Zstd.compress(raw, level);
+            dictId = NO_DICTIONARY;
+        }
+        if (payload.length >= raw.length) {
+            payload = raw;
+            dictId = STORED_RAW;
+        }
+        
+        ByteBuffer encoded = ByteBuffer.allocate(HEADER_LENGTH + payload.length);
+        encoded.put(MAGIC).put(FORMAT_VERSION).putInt(dictId).putInt(raw.length).put(payload);
+        return encoded.array();
+    }
+    
+    /**
+     * 解压数据
+     * 
+     * @param encoded 编码结果
+     * @return 原始数据
+     * @throws IllegalArgumentException 数据不是本编解码器的编码结果时抛出异常
+     * @throws IllegalStateException 数据使用的字典未加载且加载器无法加载时抛出异常
+     */
+    public byte[] decompress(byte[] encoded) {
+        if (!isEncoded(encoded)) {
+            throw new IllegalArgumentException("Value is not a compressed column value");
+        }
+        ByteBuffer header = ByteBuffer.wrap(encoded, 2, 8);
+        int dictId = header.getInt();
+        int rawLength = header.getInt();
+        int payloadLength = encoded.length - HEADER_LENGTH;
+        
+        if (dictId == STORED_RAW) {
+            byte[] raw = new byte[payloadLength];
+            System.arraycopy(encoded, HEADER_LENGTH, raw, 0, payloadLength);
+            return raw;
+        }
+        byte[] payload = new byte[payloadLength];
+        System.arraycopy(encoded, HEADER_LENGTH, payload, 0, payloadLength);
+        if (dictId == NO_DICTIONARY) {
+            return Zstd.decompress(payload, rawLength);
+        }
+        Dictionary dictionary = dictionaries.get(dictId);
+        IntPredicate loader = dictionaryLoader;
+        if (dictionary == null && loader != null && loader.test(dictId)) {
+            dictionary = dictionaries.get(dictId);
+        }
+        if (dictionary == null) {
+            throw new IllegalStateException("Compression dictionary not loaded: " + dictId);
+        }
+        return Zstd.decompress(payload, dictionary.decompressor, rawLength);
+    }
+    
+    /**
+     * 解压为文本
+     * 
+     * @param encoded 编码结果
+     * @return 文本
+     */
+    public String decompressToString(byte[] encoded) {
+        return new String(decompress(encoded), StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * 用样本训练字典（不注册）
+     * 
+     * @param samples 样本
+     * @param dictionarySize 字典大小（字节）
+     * @return 字典内容
+     */
+    public static byte[] train(Collection<byte[]> samples, int dictionarySize) {
+        long totalBytes = 0;
+        for (byte[] sample : samples) {
+            totalBytes += sample.length;
+        }
+        ZstdDictTrainer trainer = new ZstdDictTrainer((int) Math.min(totalBytes, Integer.MAX_VALUE), dictionarySize);
+        for (byte[] sample : samples) {
+            if (!trainer.addSample(sample)) {
+                break;
+            }
+        }
+        return trainer.trainSamples();
+    }
+    
+    /**
+     * 注册字典
+     * 
+     * @param id 字典ID（大于0）
+     * @param scope 字典分组
+     * @param content 字典内容
+     * @param activate 是否作为分组的压缩字典（同一分组取ID最大的字典）
+     */
+    public void registerDictionary(int id, String scope, byte[] content, boolean activate) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Dictionary ID must be greater than 0");
+        }
+        Dictionary dictionary = new Dictionary(id, scope, content, level);
+        dictionaries.put(id, dictionary);
+        if (activate) {
+            activeDictionaries.merge(scope, dictionary, (current, candidate) -> candidate.id > current.id ? candidate : current);
+        }
+    }
+    
+    /**
+     * 分组是否已有压缩字典
+     * 
+     * @param scope 字典分组
+     * @return 是否已有字典
+     */
+    public boolean hasDictionary(String scope) {
+        return activeDictionaries.containsKey(scope);
+    }
+    
+    /**
+     * 获取分组当前的字典ID
+     * 
+     * @param scope 字典分组
+     * @return 字典ID，没有字典时返回0
+     */
+    public int getActiveDictionaryId(String scope) {
+        Dictionary dictionary = activeDictionaries.get(scope);
+        return dictionary != null ? dictionary.id : NO_DICTIONARY;
+    }
+    
+    /**
+     * 字典是否已加载
+     * 
+     * @param id 字典ID
+     * @return 是否已加载
+     */
+    public boolean isDictionaryLoaded(int id) {
+        return dictionaries.containsKey(id);
+    }
+    
+    /**
+     * 获取已注册字典的最大ID
+     * 
+     * @return 最大ID，没有字典时返回0
+     */
+    public int getMaxDictionaryId() {
+        int max = NO_DICTIONARY;
+        for (Integer id : dictionaries.keySet()) {
+            max = Math.max(max, id);
+        }
+        return max;
+    }
+    
+    /**
+     * 获取字典概况
+     * 
+     * @return 每个字典的ID、分组、大小和是否为当前字典
+     */
+    public List<Map<String, Object>> getDictionaryInfo() {
+        List<Map<String, Object>> info = new ArrayList<>();
+        for (Dictionary dictionary : dictionaries.values()) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("id", dictionary.id);
+            item.put("scope", dictionary.scope);
+            item.put("size", dictionary.size);
+            item.put("active", activeDictionaries.get(dictionary.scope) == dictionary);
+            info.add(item);
+        }
+        info.sort((a, b) -> Integer.compare((Integer) a.get("id"), (Integer) b.get("id")));
+        return Collections.unmodifiableList(info);
+    }
+    
+    /**
+     * 判断值是否为本编解码器的编码结果
+     * 
+     * @param value 列值
+     * @return 是否为编码结果
+     */
+    public static boolean isEncoded(Object value) {
+        if (!(value instanceof byte[])) {
+            return false;
+        }
+        byte[] bytes = (byte[]) value;
+        return bytes.length >= HEADER_LENGTH && bytes[0] == MAGIC && bytes[1] == FORMAT_VERSION;
+    }
+    
+    /**
+     * 读取编码结果中的字典ID
+     * 
+     * @param encoded 编码结果
+     * @return 字典ID
+     */
+    public static int dictionaryId(byte[] encoded) {
+        return ByteBuffer.wrap(encoded, 2, 4).getInt();
+    }
+    
+    /**
+     * 读取编码结果中的原始长度（不解压）
+     * 
+     * @param encoded 编码结果
+     * @return 原始数据长度（字节）
+     */
+    public static int rawLength(byte[] encoded) {
+        return ByteBuffer.wrap(encoded, 6, 4).getInt();
+    }
+    
+    /**
+     * 已加载的字典
+     */
+    private static final class Dictionary {
+        private final int id;
+        private final String scope;
+        private final int size;
+        private final ZstdDictCompress compressor;
+        private final ZstdDictDecompress decompressor;
+        
+        private Dictionary(int id, String scope, byte[] content, int level) {
+            this.id = id;
+            this.scope = scope;
+            this.size = content.length;
+            this.compressor = new ZstdDictCompress(content, level);
+            this.decompressor = new ZstdDictDecompress(content);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package database.config;
+
+import java.util.Map;
+
+/**
+ * 异步访问配置类
+ * 封装异步门面的I/O线程数、排队上限、虚拟线程和回调线程设置，从数据库连接属性中读取：
+ * async_io_threads、async_queue_capacity、async_virtual_threads、async_callback_threads
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class AsyncExecutorConfig {
+    
+    /**
+     * 同时执行的数据库调用数，0表示与连接池最大连接数相同
+     */
+    private int ioThreads = 0;
+    
+    /**
+     * 等待执行的调用上限，超过后新调用直接以ASYNC_REJECTED失败
+     */
+    private int queueCapacity = 10000;
+    
+    /**
+     * 运行环境支持时（JDK 21+）是否使用虚拟线程执行数据库调用
+     */
+    private boolean virtualThreads = true;
+    
+    /**
+     * 完成回调的专用线程数，0表示使用ForkJoinPool公共池
+     */
+    private int callbackThreads = 0;
+    
+    /**
+     * 默认构造函数
+     */
+    public AsyncExecutorConfig() {
+        // 默认构造函数用于JSON/YAML反序列化
+    }
+    
+    /**
+     * 获取I/O线程数
+     * 
+     * @return I/O线程数，0表示与连接池大小相同
+     */
+    public int getIoThreads() {
+        return ioThreads;
+    }
+    
+    /**
+     * 设置I/O线程数
+     * 
+     * @param ioThreads I/O线程数，0表示与连接池大小相同
+     */
+    public void setIoThreads(int ioThreads) {
+        if (ioThreads < 0) {
+            throw new IllegalArgumentException("Async I/O threads cannot be negative");
+        }
+        this.ioThreads = ioThreads;
+    }
+    
+    /**
+     * 获取排队上限
+     * 
+     * @return 排队上限
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+    
+    /**
+     * 设置排队上限
+     * 
+     * @param queueCapacity 排队上限
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Async queue capacity must be greater than 0");
+        }
+        this.queueCapacity = queueCapacity;
+    }
+    
+    /**
+     * 是否使用虚拟线程
+     * 
+     * @return true表示运行环境支持时使用虚拟线程
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+    
+    /**
+     * 设置是否使用虚拟线程
+     * 
+     * @param virtualThreads true表示运行环境支持时使用虚拟线程
+     */
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+    
+    /**
+     * 获取回调线程数
+     * 
+     * @return 回调线程数，0表示使用ForkJoinPool公共池
+     */
+    public int getCallbackThreads() {
+        return callbackThreads;
+    }
+    
+    /**
+     * 设置回调线程数
+     * 
+     * @param callbackThreads 回调线程数，0表示使用ForkJoinPool公共池
+     */
+    public void setCallbackThreads(int callbackThreads) {
+        if (callbackThreads < 0) {
+            throw new IllegalArgumentException("Async callback threads cannot be negative");
+        }
+        this.callbackThreads = callbackThreads;
+    }
+    
+    /**
+     * 验证配置有效性
+     * 
+     * @throws IllegalArgumentException 配置无效时抛出异常
+     */
+    public void validate() throws IllegalArgumentException {
+        if (ioThreads < 0) {
+            throw new IllegalArgumentException("Async I/O threads cannot be negative");
+        }
+        
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Async queue capacity must be greater than 0");
+        }
+        
+        if (callbackThreads < 0) {
+            throw new IllegalArgumentException("Async callback threads cannot be negative");
+        }
+    }
+    
+    /**
+     * 从数据库连接属性创建异步访问配置
+     * 
+     * @param properties 连接属性
+     * @return 异步访问配置，未配置的项使用默认值
+     */
+    public static AsyncExecutorConfig fromProperties(Map<String, Object> properties) {
+        AsyncExecutorConfig config = new AsyncExecutorConfig();
+        if (properties == null) {
+            return config;
+        }
+        
+        Object ioThreads = properties.get("async_io_threads");
+        if (ioThreads != null) {
+            config.setIoThreads(Integer.parseInt(ioThreads.toString().trim()));
+        }
+        Object queueCapacity = properties.get("async_queue_capacity");
+        if (queueCapacity != null) {
+            config.setQueueCapacity(Integer.parseInt(queueCapacity.toString().trim()));
+        }
+        Object virtualThreads = properties.get("async_virtual_threads");
+        if (virtualThreads != null) {
+            config.setVirtualThreads(Boolean.parseBoolean(virtualThreads.toString().trim()));
+        }
+        Object callbackThreads = properties.get("async_callback_threads");
+        if (callbackThreads != null) {
+            config.setCallbackThreads(Integer.parseInt(callbackThreads.toString().trim()));
+        }
+        return config;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("AsyncExecutorConfig{ioThreads=%d, queueCapacity=%d, virtualThreads=%s, callbackThreads=%d}",
+                ioThreads, queueCapacity, virtualThreads, callbackThreads);
+    }
+}
@@ -0,0 +1,273 @@
+package database.config;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 列压缩配置类
+ * 封装透明列压缩的压缩列、字典分组列和字典训练参数，从数据库连接属性中读取：
+ * column_compression_enabled、column_compression_columns、column_compression_scope、
+ * column_compression_level、column_compression_dict_size、column_compression_train_samples
+ * 
+ * 列以"表名.列名"的形式配置，多个之间用逗号分隔，例如 "articles.content,articles.summary"；
+ * 分组列同样以"表名.列名"配置，该列的值（如来源站点或URL）决定使用哪个字典。
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class ColumnCompressionConfig {
+    
+    /**
+     * 是否启用列压缩
+     */
+    private boolean enabled = false;
+    
+    /**
+     * 压缩列（表名 -> 列名集合），名称均为小写
+     */
+    private Map<String, Set<String>> columns = new LinkedHashMap<>();
+    
+    /**
+     * 字典分组列（表名 -> 列名），未配置的表使用默认字典
+     */
+    private Map<String, String> scopeColumns = new LinkedHashMap<>();
+    
+    /**
+     * zstd压缩级别
+     */
+    private int level = 3;
+    
+    /**
+     * 训练出的字典大小（字节）
+     */
+    private int dictionarySize = 32 * 1024;
+    
+    /**
+     * 每个分组收集多少个样本后自动训练字典，0表示不自动训练
+     */
+    private int trainSamples = 1000;
+    
+    /**
+     * 默认构造函数
+     */
+    public ColumnCompressionConfig() {
+        // 默认构造函数用于JSON/YAML反序列化
+    }
+    
+    /**
+     * 是否启用列压缩
+     * 
+     * @return true表示启用
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * 设置是否启用列压缩
+     * 
+     * @param enabled 是否启用
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    /**
+     * 获取压缩列
+     * 
+     * @return 表名到列名集合的映射
+     */
+    public Map<String, Set<String>> getColumns() {
+        return Collections.unmodifiableMap(columns);
+    }
+    
+    /**
+     * 添加压缩列
+     * 
+     * @param table 表名
+     * @param column 列名
+     */
+    public void addColumn(String table, String column) {
+        columns.computeIfAbsent(normalize(table), t -> new LinkedHashSet<>()).add(normalize(column));
+    }
+    
+    /**
+     * 获取字典分组列
+     * 
+     * @return 表名到分组列名的映射
+     */
+    public Map<String, String> getScopeColumns() {
+        return Collections.unmodifiableMap(scopeColumns);
+    }
+    
+    /**
+     * 设置表的字典分组列
+     * 
+     * @param table 表名
+     * @param column 分组列名
+     */
+    public void setScopeColumn(String table, String column) {
+        scopeColumns.put(normalize(table), normalize(column));
+    }
+    
+    /**
+     * 获取压缩级别
+     * 
+     * @return zstd压缩级别
+     */
+    public int getLevel() {
+        return level;
+    }
+    
+    /**
+     * 设置压缩级别
+     * 
+     * @param level zstd压缩级别（1-22）
+     */
+    public void setLevel(int level) {
+        if (level < 1 || level > 22) {
+            throw new IllegalArgumentException("Compression level must be between 1 and 22");
+        }
+        this.level = level;
+    }
+    
+    /**
+     * 获取字典大小
+     * 
+     * @return 字典大小（字节）
+     */
+    public int getDictionarySize() {
+        return dictionarySize;
+    }
+    
+    /**
+     * 设置字典大小
+     * 
+     * @param dictionarySize 字典大小（字节）
+     */
+    public void setDictionarySize(int dictionarySize) {
+        if (dictionarySize < 1024) {
+            throw new IllegalArgumentException("Dictionary size must be at least 1024 bytes");
+        }
+        this.dictionarySize = dictionarySize;
+    }
+    
+    /**
+     * 获取自动训练的样本数
+     * 
+     * @return 样本数，0表示不自动训练
+     */
+    public int getTrainSamples() {
+        return trainSamples;
+    }
+    
+    /**
+     * 设置自动训练的样本数
+     * 
+     * @param trainSamples 样本数，0表示不自动训练
+     */
+    public void setTrainSamples(int trainSamples) {
+        if (trainSamples < 0) {
+            throw new IllegalArgumentException("Train samples cannot be negative");
+        }
+        this.trainSamples = trainSamples;
+    }
+    
+    /**
+     * 验证配置有效性
+     * 
+     * @throws IllegalArgumentException 配置无效时抛出异常
+     */
+    public void validate() throws IllegalArgumentException {
+        if (enabled && columns.isEmpty()) {
+            throw new IllegalArgumentException("Column compression requires at least one column");
+        }
+        
+        if (level < 1 || level > 22) {
+            throw new IllegalArgumentException("Compression level must be between 1 and 22");
+        }
+        
+        if (dictionarySize < 1024) {
+            throw new IllegalArgumentException("Dictionary size must be at least 1024 bytes");
+        }
+    }
+    
+    /**
+     * 从数据库连接属性创建列压缩配置
+     * 
+     * @param properties 连接属性
+     * @return 列压缩配置，未配置时返回禁用的默认配置
+     */
+    public static ColumnCompressionConfig fromProperties(Map<String, Object> properties) {
+        ColumnCompressionConfig config = new ColumnCompressionConfig();
+        if (properties == null) {
+            return config;
+        }
+        
+        Object enabled = properties.get("column_compression_enabled");
+        if (enabled != null) {
+            config.setEnabled(Boolean.parseBoolean(enabled.toString().trim()));
+        }
+        Object columns = properties.get("column_compression_columns");
+        if (columns != null) {
+            for (String[] column : parseQualifiedColumns(columns.toString())) {
+                config.addColumn(column[0], column[1]);
+            }
+        }
+        Object scope = properties.get("column_compression_scope");
+        if (scope != null) {
+            for (String[] column : parseQualifiedColumns(scope.toString())) {
+                config.setScopeColumn(column[0], column[1]);
+            }
+        }
+        Object level = properties.get("column_compression_level");
+        if (level != null) {
+            config.setLevel(Integer.parseInt(level.toString().trim()));
+        }
+        Object dictionarySize = properties.get("column_compression_dict_size");
+        if (dictionarySize != null) {
+            config.setDictionarySize(Integer.parseInt(dictionarySize.toString().trim()));
+        }
+        Object trainSamples = properties.get("column_compression_train_samples");
+        if (trainSamples != null) {
+            config.setTrainSamples(Integer.parseInt(trainSamples.toString().trim()));
+        }
+        return config;
+    }
+    
+    /**
+     * 解析 "表名.列名" 列表
+     * 
+     * @param value 逗号分隔的列表
+     * @return 表名和列名数组的集合
+     */
+    private static Set<String[]> parseQualifiedColumns(String value) {
+        Set<String[]> result = new LinkedHashSet<>();
+        for (String item : value.split(",")) {
+            String trimmed = item.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int dot = trimmed.lastIndexOf('.');
+            if (dot <= 0 || dot == trimmed.length() - 1) {
+                throw new IllegalArgumentException("Compressed column must be written as table.column: " + trimmed);
+            }
+            result.add(new String[]{trimmed.substring(0, dot), trimmed.substring(dot + 1)});
+        }
+        return result;
+    }
+    
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("ColumnCompressionConfig{enabled=%s, columns=%s, scopeColumns=%s, level=%d, dictionarySize=%d, trainSamples=%d}",
+                enabled, columns, scopeColumns, level, dictionarySize, trainSamples);
+    }
+}
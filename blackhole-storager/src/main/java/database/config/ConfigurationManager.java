@@ -250,12 +250,14 @@ public class ConfigurationManager {
     /**
      * 全局配置类
      */
-    private static class GlobalConfig {
+    public static class GlobalConfig {
         private String defaultDatabase;
         private boolean healthCheckEnabled = true;
         private long healthCheckInterval = 30000; // 30秒
+        private int healthCheckFailureThreshold = 3;
         private long slowQueryThreshold = 1000; // 1秒
         private boolean sqlLoggingEnabled = false;
+        private boolean jmxEnabled = true;
         private int maxRetries = 3;
         private long retryDelay = 1000; // 1秒
         
@@ -283,6 +285,14 @@ public class ConfigurationManager {
             this.healthCheckInterval = healthCheckInterval;
         }
         
+        public int getHealthCheckFailureThreshold() {
+            return healthCheckFailureThreshold;
+        }
+        
+        public void setHealthCheckFailureThreshold(int healthCheckFailureThreshold) {
+            this.healthCheckFailureThreshold = healthCheckFailureThreshold;
+        }
+        
         public long getSlowQueryThreshold() {
             return slowQueryThreshold;
         }
@@ -299,6 +309,14 @@ public class ConfigurationManager {
             this.sqlLoggingEnabled = sqlLoggingEnabled;
         }
         
+        public boolean isJmxEnabled() {
+            return jmxEnabled;
+        }
+        
+        public void setJmxEnabled(boolean jmxEnabled) {
+            this.jmxEnabled = jmxEnabled;
+        }
+        
         public int getMaxRetries() {
             return maxRetries;
         }
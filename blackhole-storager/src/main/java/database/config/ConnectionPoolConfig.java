@@ -49,6 +49,21 @@ public class ConnectionPoolConfig {
      */
     private boolean autoCommit = true;
     
+    /**
+     * 自动调整时连接池可扩大到的最大连接数，0表示不自动调整（缩小时不低于maxPoolSize）
+     */
+    private int autoSizeMaxPoolSize = 0;
+    
+    /**
+     * 获取连接的平均等待时间超过该值（毫秒）视为连接不足
+     */
+    private long autoSizeWaitThreshold = 20;
+    
+    /**
+     * 连续多少次检查都连接不足（或都空闲过多）才调整连接池
+     */
+    private int autoSizeSustainChecks = 3;
+    
     /**
      * 默认构造函数
      */
@@ -239,6 +254,78 @@ public class ConnectionPoolConfig {
         this.autoCommit = autoCommit;
     }
     
+    /**
+     * 是否启用连接池自动调整
+     * 
+     * @return true表示启用
+     */
+    public boolean isAutoSizeEnabled() {
+        return autoSizeMaxPoolSize > maxPoolSize;
+    }
+    
+    /**
+     * 获取自动调整的最大连接数上限
+     * 
+     * @return 最大连接数上限，0表示不自动调整
+     */
+    public int getAutoSizeMaxPoolSize() {
+        return autoSizeMaxPoolSize;
+    }
+    
+    /**
+     * 设置自动调整的最大连接数上限
+     * 
+     * @param autoSizeMaxPoolSize 最大连接数上限，0表示不自动调整
+     */
+    public void setAutoSizeMaxPoolSize(int autoSizeMaxPoolSize) {
+        if (autoSizeMaxPoolSize < 0) {
+            throw new IllegalArgumentException("Auto-size max pool size must be non-negative");
+        }
+        this.autoSizeMaxPoolSize = autoSizeMaxPoolSize;
+    }
+    
+    /**
+     * 获取连接不足的等待时间阈值
+     * 
+     * @return 等待时间阈值（毫秒）
+     */
+    public long getAutoSizeWaitThreshold() {
+        return autoSizeWaitThreshold;
+    }
+    
+    /**
+     * 设置连接不足的等待时间阈值
+     * 
+     * @param autoSizeWaitThreshold 等待时间阈值（毫秒）
+     */
+    public void setAutoSizeWaitThreshold(long autoSizeWaitThreshold) {
+        if (autoSizeWaitThreshold < 1) {
+            throw new IllegalArgumentException("Auto-size wait threshold must be greater than 0");
+        }
+        this.autoSizeWaitThreshold = autoSizeWaitThreshold;
+    }
+    
+    /**
+     * 获取触发调整所需的连续检查次数
+     * 
+     * @return 连续检查次数
+     */
+    public int getAutoSizeSustainChecks() {
+        return autoSizeSustainChecks;
+    }
+    
+    /**
+     * 设置触发调整所需的连续检查次数
+     * 
+     * @param autoSizeSustainChecks 连续检查次数
+     */
+    public void setAutoSizeSustainChecks(int autoSizeSustainChecks) {
+        if (autoSizeSustainChecks < 1) {
+            throw new IllegalArgumentException("Auto-size sustain checks must be greater than 0");
+        }
+        this.autoSizeSustainChecks = autoSizeSustainChecks;
+    }
+    
     /**
      * 验证配置有效性
      * 
@@ -272,6 +359,10 @@ public class ConnectionPoolConfig {
         if (leakDetectionThreshold != 0 && leakDetectionThreshold < 2000) {
             throw new IllegalArgumentException("Leak detection threshold must be at least 2000ms or 0 (disabled)");
         }
+        
+        if (autoSizeMaxPoolSize != 0 && autoSizeMaxPoolSize < maxPoolSize) {
+            throw new IllegalArgumentException("Auto-size max pool size cannot be less than max pool size");
+        }
     }
     
     /**
@@ -317,8 +408,8 @@ public class ConnectionPoolConfig {
     public String toString() {
         return String.format("ConnectionPoolConfig{maxPoolSize=%d, minPoolSize=%d, " +
                 "connectionTimeout=%d, idleTimeout=%d, maxLifetime=%d, " +
-                "leakDetectionThreshold=%d, autoCommit=%s}",
+                "leakDetectionThreshold=%d, autoCommit=%s, autoSizeMaxPoolSize=%d}",
                 maxPoolSize, minPoolSize, connectionTimeout, idleTimeout, 
-                maxLifetime, leakDetectionThreshold, autoCommit);
+                maxLifetime, leakDetectionThreshold, autoCommit, autoSizeMaxPoolSize);
     }
 }
\ No newline at end of file
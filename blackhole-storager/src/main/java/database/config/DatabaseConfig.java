@@ -13,7 +13,7 @@ import java.util.Objects;
 public class DatabaseConfig {
     
     /**
-     * 数据库类型（sqlite, mysql, redis, hive, hbase）
+     * 数据库类型（sqlite, mysql, redis, redissharded, hive, hbase）
      */
     private String type;
     
@@ -205,9 +205,21 @@ public class DatabaseConfig {
             case "mysql":
                 validateMySQLProperties();
                 break;
+            case "duckdb":
+                validateDuckDBProperties();
+                break;
             case "redis":
                 validateRedisProperties();
                 break;
+            case "redissharded":
+                validateShardedRedisProperties();
+                break;
+            case "sqlitesharded":
+                validateShardedSQLiteProperties();
+                break;
+            case "rocksdb":
+                validateRocksDBProperties();
+                break;
             case "hive":
                 validateHiveProperties();
                 break;
@@ -244,6 +256,13 @@ public class DatabaseConfig {
         }
     }
     
+    private void validateDuckDBProperties() {
+        Object url = properties.get("url");
+        if (url == null || !url.toString().trim().startsWith("jdbc:duckdb:")) {
+            throw new IllegalArgumentException("DuckDB database requires 'url' property starting with 'jdbc:duckdb:'");
+        }
+    }
+    
     private void validateRedisProperties() {
         if (!properties.containsKey("host")) {
             throw new IllegalArgumentException("Redis database requires 'host' property");
@@ -253,9 +272,39 @@ public class DatabaseConfig {
         }
     }
     
+    private void validateShardedRedisProperties() {
+        Object nodes = properties.get("nodes");
+        if (nodes == null || nodes.toString().trim().isEmpty()) {
+            throw new IllegalArgumentException("Sharded Redis database requires 'nodes' property");
+        }
+    }
+    
+    private void validateShardedSQLiteProperties() {
+        Object keyColumn = properties.get("shard_key_column");
+        if (keyColumn == null || keyColumn.toString().trim().isEmpty()) {
+            throw new IllegalArgumentException("Sharded SQLite database requires 'shard_key_column' property");
+        }
+        Object strategy = properties.get("shard_strategy");
+        if (strategy != null && !"hash".equalsIgnoreCase(strategy.toString().trim())
+                && !"date".equalsIgnoreCase(strategy.toString().trim())) {
+            throw new IllegalArgumentException("Sharded SQLite 'shard_strategy' must be 'hash' or 'date'");
+        }
+    }
+    
+    private void validateRocksDBProperties() {
+        Object path = properties.get("path");
+        if (path == null || path.toString().trim().isEmpty()) {
+            throw new IllegalArgumentException("RocksDB database requires 'path' property");
+        }
+    }
+    
     private void validateHiveProperties() {
+        // 配置了完整的JDBC URL时不需要host和port
+        if (properties.containsKey("url")) {
+            return;
+        }
         if (!properties.containsKey("host")) {
-            throw new IllegalArgumentException("Hive database requires 'host' property");
+            throw new IllegalArgumentException("Hive database requires 'url' or 'host' property");
         }
         if (!properties.containsKey("port")) {
             throw new IllegalArgumentException("Hive database requires 'port' property");
@@ -266,6 +315,13 @@ public class DatabaseConfig {
         if (!properties.containsKey("zookeeper_quorum")) {
             throw new IllegalArgumentException("HBase database requires 'zookeeper_quorum' property");
         }
+        Object saltBuckets = properties.get("salt_buckets");
+        if (saltBuckets != null) {
+            int buckets = Integer.parseInt(saltBuckets.toString().trim());
+            if (buckets < 1 || buckets > 256) {
+                throw new IllegalArgumentException("HBase 'salt_buckets' must be between 1 and 256");
+            }
+        }
     }
     
     @Override
@@ -0,0 +1,352 @@
+package database.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 分区生命周期配置类
+ * 封装按抓取日期分区的表、分区粒度、保留期限和后台维护间隔，从数据库连接属性中读取：
+ * partition_tables、partition_granularity、partition_retention_days、partition_precreate、
+ * partition_maintenance_interval_ms、partition_archive
+ * 
+ * partition_tables 的每一项为 "表名:分区列" 或 "表名:分区列:保留天数"（逗号分隔或YAML列表），
+ * 未单独指定保留天数的表使用 partition_retention_days。
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class PartitionRetentionConfig {
+    
+    private static final Pattern IDENTIFIER_PATTERN = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+    
+    /**
+     * 按日期分区的表
+     */
+    private List<TableRetention> tables = new ArrayList<>();
+    
+    /**
+     * 分区粒度：day、week（周一开始）或 month
+     */
+    private String granularity = "day";
+    
+    /**
+     * 默认保留天数，0表示永久保留（只预建分区，不删除）
+     */
+    private int retentionDays = 0;
+    
+    /**
+     * 预先创建的未来分区个数（不含当前分区）
+     */
+    private int precreate = 3;
+    
+    /**
+     * 后台维护间隔（毫秒）
+     */
+    private long maintenanceInterval = 3600000;
+    
+    /**
+     * 按文件分片的SQLite过期时是否移动到归档目录（false表示直接删除文件）
+     */
+    private boolean archive = false;
+    
+    /**
+     * 默认构造函数
+     */
+    public PartitionRetentionConfig() {
+        // 默认构造函数用于JSON/YAML反序列化
+    }
+    
+    /**
+     * 是否配置了分区表
+     * 
+     * @return true表示启用分区维护
+     */
+    public boolean isEnabled() {
+        return !tables.isEmpty();
+    }
+    
+    /**
+     * 获取分区表
+     * 
+     * @return 分区表列表
+     */
+    public List<TableRetention> getTables() {
+        return Collections.unmodifiableList(tables);
+    }
+    
+    /**
+     * 设置分区表
+     * 
+     * @param tables 分区表列表
+     */
+    public void setTables(List<TableRetention> tables) {
+        this.tables = tables != null ? new ArrayList<>(tables) : new ArrayList<>();
+    }
+    
+    /**
+     * 获取分区粒度
+     * 
+     * @return day、week或month
+     */
+    public String getGranularity() {
+        return granularity;
+    }
+    
+    /**
+     * 设置分区粒度
+     * 
+     * @param granularity day、week或month
+     */
+    public void setGranularity(String granularity) {
+        String normalized = granularity != null ? granularity.trim().toLowerCase(Locale.ROOT) : "";
+        if (!"day".equals(normalized) && !"week".equals(normalized) && !"month".equals(normalized)) {
+            throw new IllegalArgumentException("Partition granularity must be 'day', 'week' or 'month'");
+        }
+        this.granularity = normalized;
+    }
+    
+    /**
+     * 获取默认保留天数
+     * 
+     * @return 保留天数，0表示永久保留
+     */
+    public int getRetentionDays() {
+        return retentionDays;
+    }
+    
+    /**
+     * 设置默认保留天数
+     * 
+     * @param retentionDays 保留天数，0表示永久保留
+     */
+    public void setRetentionDays(int retentionDays) {
+        if (retentionDays < 0) {
+            throw new IllegalArgumentException("Partition retention days cannot be negative");
+        }
+        this.retentionDays = retentionDays;
+    }
+    
+    /**
+     * 获取预建分区个数
+     * 
+     * @return 预建分区个数
+     */
+    public int getPrecreate() {
+        return precreate;
+    }
+    
+    /**
+     * 设置预建分区个数
+     * 
+     * @param precreate 预建分区个数
+     */
+    public void setPrecreate(int precreate) {
+        if (precreate < 0) {
+            throw new IllegalArgumentException("Partition precreate count cannot be negative");
+        }
+        this.precreate = precreate;
+    }
+    
+    /**
+     * 获取后台维护间隔
+     * 
+     * @return 维护间隔（毫秒）
+     */
+    public long getMaintenanceInterval() {
+        return maintenanceInterval;
+    }
+    
+    /**
+     * 设置后台维护间隔
+     * 
+     * @param maintenanceInterval 维护间隔（毫秒）
+     */
+    public void setMaintenanceInterval(long maintenanceInterval) {
+        if (maintenanceInterval < 1000) {
+            throw new IllegalArgumentException("Partition maintenance interval must be at least 1000ms");
+        }
+        this.maintenanceInterval = maintenanceInterval;
+    }
+    
+    /**
+     * 过期的文件分片是否归档
+     * 
+     * @return true表示移动到归档目录，false表示删除
+     */
+    public boolean isArchive() {
+        return archive;
+    }
+    
+    /**
+     * 设置过期的文件分片是否归档
+     * 
+     * @param archive true表示移动到归档目录，false表示删除
+     */
+    public void setArchive(boolean archive) {
+        this.archive = archive;
+    }
+    
+    /**
+     * 获取表的有效保留天数
+     * 
+     * @param table 分区表
+     * @return 保留天数，0表示永久保留
+     */
+    public int getRetentionDays(TableRetention table) {
+        return table.getRetentionDays() >= 0 ? table.getRetentionDays() : retentionDays;
+    }
+    
+    /**
+     * 验证配置有效性
+     * 
+     * @throws IllegalArgumentException 配置无效时抛出异常
+     */
+    public void validate() throws IllegalArgumentException {
+        if (precreate < 0) {
+            throw new IllegalArgumentException("Partition precreate count cannot be negative");
+        }
+        
+        if (maintenanceInterval < 1000) {
+            throw new IllegalArgumentException("Partition maintenance interval must be at least 1000ms");
+        }
+        
+        Set<String> names = new HashSet<>();
+        for (TableRetention table : tables) {
+            if (!names.add(table.getTable().toLowerCase(Locale.ROOT))) {
+                throw new IllegalArgumentException("Duplicate partitioned table: " + table.getTable());
+            }
+        }
+    }
+    
+    /**
+     * 从数据库连接属性创建分区生命周期配置
+     * 
+     * @param properties 连接属性
+     * @return 分区生命周期配置，未配置partition_tables时不启用
+     */
+    public static PartitionRetentionConfig fromProperties(Map<String, Object> properties) {
+        PartitionRetentionConfig config = new PartitionRetentionConfig();
+        if (properties == null) {
+            return config;
+        }
+        
+        Object tables = properties.get("partition_tables");
+        if (tables != null) {
+            List<TableRetention> parsed = new ArrayList<>();
+            Collection<?> entries = tables instanceof Collection
+                    ? (Collection<?>) tables
+                    : Arrays.asList(tables.toString().split(","));
+            for (Object entry : entries) {
+                String spec = entry != null ? entry.toString().trim() : "";
+                if (!spec.isEmpty()) {
+                    parsed.add(TableRetention.parse(spec));
+                }
+            }
+            config.setTables(parsed);
+        }
+        Object granularity = properties.get("partition_granularity");
+        if (granularity != null) {
+            config.setGranularity(granularity.toString());
+        }
+        Object retentionDays = properties.get("partition_retention_days");
+        if (retentionDays != null) {
+            config.setRetentionDays(Integer.parseInt(retentionDays.toString().trim()));
+        }
+        Object precreate = properties.get("partition_precreate");
+        if (precreate != null) {
+            config.setPrecreate(Integer.parseInt(precreate.toString().trim()));
+        }
+        Object interval = properties.get("partition_maintenance_interval_ms");
+        if (interval != null) {
+            config.setMaintenanceInterval(Long.parseLong(interval.toString().trim()));
+        }
+        Object archive = properties.get("partition_archive");
+        if (archive != null) {
+            config.setArchive(Boolean.parseBoolean(archive.toString().trim()));
+        }
+        return config;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("PartitionRetentionConfig{tables=%s, granularity=%s, retentionDays=%d, precreate=%d, maintenanceInterval=%d, archive=%s}",
+                tables, granularity, retentionDays, precreate, maintenanceInterval, archive);
+    }
+    
+    /**
+     * 分区表配置
+     */
+    public static class TableRetention {
+        
+        private final String table;
+        private final String column;
+        private final int retentionDays;
+        
+        /**
+         * 构造函数
+         * 
+         * @param table 表名
+         * @param column 分区列（日期或时间类型）
+         * @param retentionDays 保留天数，-1表示使用默认值
+         */
+        public TableRetention(String table, String column, int retentionDays) {
+            if (table == null || !IDENTIFIER_PATTERN.matcher(table).matches()) {
+                throw new IllegalArgumentException("Invalid partitioned table name: " + table);
+            }
+            if (column == null || !IDENTIFIER_PATTERN.matcher(column).matches()) {
+                throw new IllegalArgumentException("Invalid partition column for " + table + ": " + column);
+            }
+            if (retentionDays < -1) {
+                throw new IllegalArgumentException("Partition retention days cannot be negative: " + table);
+            }
+            this.table = table;
+            this.column = column;
+            this.retentionDays = retentionDays;
+        }
+        
+        /**
+         * 解析 "表名:分区列[:保留天数]"
+         * 
+         * @param spec 配置项
+         * @return 分区表配置
+         */
+        public static TableRetention parse(String spec) {
+            String[] parts = spec.split(":");
+            if (parts.length < 2 || parts.length > 3) {
+                throw new IllegalArgumentException("Partitioned table must be 'table:column[:retention_days]': " + spec);
+            }
+            int retentionDays = parts.length == 3 ? Integer.parseInt(parts[2].trim()) : -1;
+            return new TableRetention(parts[0].trim(), parts[1].trim(), retentionDays);
+        }
+        
+        public String getTable() {
+            return table;
+        }
+        
+        public String getColumn() {
+            return column;
+        }
+        
+        /**
+         * 获取单独指定的保留天数
+         * 
+         * @return 保留天数，-1表示使用默认值
+         */
+        public int getRetentionDays() {
+            return retentionDays;
+        }
+        
+        @Override
+        public String toString() {
+            return table + ":" + column + (retentionDays >= 0 ? ":" + retentionDays : "");
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package database.config;
+
+import java.util.Map;
+
+/**
+ * 查询缓存配置类
+ * 封装读穿透查询缓存的容量和过期参数，从数据库连接属性中读取：
+ * query_cache_enabled、query_cache_max_weight、query_cache_ttl_ms、query_cache_l2_redis
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class QueryCacheConfig {
+    
+    /**
+     * 是否启用查询缓存
+     */
+    private boolean enabled = false;
+    
+    /**
+     * 缓存最大权重（按缓存的行数计算，单条结果计为1）
+     */
+    private long maxWeight = 10000;
+    
+    /**
+     * 默认缓存有效期（毫秒）
+     */
+    private long defaultTtl = 60000; // 1分钟
+    
+    /**
+     * 作为二级缓存的Redis数据库名称，为空时只使用本地缓存
+     */
+    private String secondLevelRedis;
+    
+    /**
+     * 默认构造函数
+     */
+    public QueryCacheConfig() {
+        // 默认构造函数用于JSON/YAML反序列化
+    }
+    
+    /**
+     * 全参数构造函数
+     * 
+     * @param enabled 是否启用
+     * @param maxWeight 缓存最大权重
+     * @param defaultTtl 默认缓存有效期（毫秒）
+     */
+    public QueryCacheConfig(boolean enabled, long maxWeight, long defaultTtl) {
+        this.enabled = enabled;
+        this.maxWeight = maxWeight;
+        this.defaultTtl = defaultTtl;
+    }
+    
+    /**
+     * 是否启用查询缓存
+     * 
+     * @return true表示启用
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * 设置是否启用查询缓存
+     * 
+     * @param enabled 是否启用
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    /**
+     * 获取缓存最大权重
+     * 
+     * @return 缓存最大权重
+     */
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+    
+    /**
+     * 设置缓存最大权重
+     * 
+     * @param maxWeight 缓存最大权重
+     */
+    public void setMaxWeight(long maxWeight) {
+        if (maxWeight < 1) {
+            throw new IllegalArgumentException("Query cache max weight must be greater than 0");
+        }
+        this.maxWeight = maxWeight;
+    }
+    
+    /**
+     * 获取默认缓存有效期
+     * 
+     * @return 默认缓存有效期（毫秒）
+     */
+    public long getDefaultTtl() {
+        return defaultTtl;
+    }
+    
+    /**
+     * 设置默认缓存有效期
+     * 
+     * @param defaultTtl 默认缓存有效期（毫秒）
+     */
+    public void setDefaultTtl(long defaultTtl) {
+        if (defaultTtl < 1) {
+            throw new IllegalArgumentException("Query cache TTL must be greater than 0");
+        }
+        this.defaultTtl = defaultTtl;
+    }
+    
+    /**
+     * 获取二级缓存Redis数据库名称
+     * 
+     * @return Redis数据库名称，未配置时返回null
+     */
+    public String getSecondLevelRedis() {
+        return secondLevelRedis;
+    }
+    
+    /**
+     * 设置二级缓存Redis数据库名称
+     * 
+     * @param secondLevelRedis Redis数据库名称
+     */
+    public void setSecondLevelRedis(String secondLevelRedis) {
+        this.secondLevelRedis = secondLevelRedis;
+    }
+    
+    /**
+     * 验证配置有效性
+     * 
+     * @throws IllegalArgumentException 配置无效时抛出异常
+     */
+    public void validate() throws IllegalArgumentException {
+        if (maxWeight < 1) {
+            throw new IllegalArgumentException("Query cache max weight must be greater than 0");
+        }
+        
+        if (defaultTtl < 1) {
+            throw new IllegalArgumentException("Query cache TTL must be greater than 0");
+        }
+    }
+    
+    /**
+     * 从数据库连接属性创建查询缓存配置
+     * 
+     * @param properties 连接属性
+     * @return 查询缓存配置，未配置时返回禁用的默认配置
+     */
+    public static QueryCacheConfig fromProperties(Map<String, Object> properties) {
+        QueryCacheConfig config = new QueryCacheConfig();
+        if (properties == null) {
+            return config;
+        }
+        
+        Object enabled = properties.get("query_cache_enabled");
+        if (enabled != null) {
+            config.setEnabled(Boolean.parseBoolean(enabled.toString().trim()));
+        }
+        Object maxWeight = properties.get("query_cache_max_weight");
+        if (maxWeight != null) {
+            config.setMaxWeight(Long.parseLong(maxWeight.toString().trim()));
+        }
+        Object ttl = properties.get("query_cache_ttl_ms");
+        if (ttl != null) {
+            config.setDefaultTtl(Long.parseLong(ttl.toString().trim()));
+        }
+        Object secondLevelRedis = properties.get("query_cache_l2_redis");
+        if (secondLevelRedis != null && !secondLevelRedis.toString().trim().isEmpty()) {
+            config.setSecondLevelRedis(secondLevelRedis.toString().trim());
+        }
+        return config;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("QueryCacheConfig{enabled=%s, maxWeight=%d, defaultTtl=%d, secondLevelRedis=%s}",
+                enabled, maxWeight, defaultTtl, secondLevelRedis);
+    }
+}
@@ -0,0 +1,262 @@
+package database.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 读写分离配置类
+ * 封装只读副本列表、后台健康检查和复制延迟阈值，从主库的连接属性中读取：
+ * read_replicas、replica_health_check_interval_ms、replica_max_lag_seconds、replica_lag_query、
+ * replica_failure_threshold、replica_read_after_write_ms
+ * 
+ * 副本以其自身的数据库配置名称引用（逗号分隔或YAML列表），副本需要作为独立的数据库配置并启用。
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class ReplicaRoutingConfig {
+    
+    /**
+     * 只读副本的数据库配置名称
+     */
+    private List<String> replicas = new ArrayList<>();
+    
+    /**
+     * 后台健康检查间隔（毫秒）
+     */
+    private long healthCheckInterval = 5000;
+    
+    /**
+     * 允许的最大复制延迟（秒），超过后该副本不再接收读请求
+     */
+    private long maxLagSeconds = 10;
+    
+    /**
+     * 查询复制延迟（秒）的SQL，返回单个数值；为空时MySQL副本使用 SHOW REPLICA STATUS（不支持时回退到 SHOW SLAVE STATUS），其他类型不检查延迟
+     */
+    private String lagQuery;
+    
+    /**
+     * 连续读失败多少次后将副本标记为不可用（等待下一次健康检查恢复）
+     */
+    private int failureThreshold = 3;
+    
+    /**
+     * 线程写入后多长时间内的读请求仍发往主库（毫秒），用于读到自己刚写入的数据，0表示不启用
+     */
+    private long readAfterWriteWindow = 0;
+    
+    /**
+     * 默认构造函数
+     */
+    public ReplicaRoutingConfig() {
+        // 默认构造函数用于JSON/YAML反序列化
+    }
+    
+    /**
+     * 是否配置了只读副本
+     * 
+     * @return true表示启用读写分离
+     */
+    public boolean isEnabled() {
+        return !replicas.isEmpty();
+    }
+    
+    /**
+     * 获取只读副本名称
+     * 
+     * @return 副本的数据库配置名称
+     */
+    public List<String> getReplicas() {
+        return Collections.unmodifiableList(replicas);
+    }
+    
+    /**
+     * 设置只读副本名称
+     * 
+     * @param replicas 副本的数据库配置名称
+     */
+    public void setReplicas(List<String> replicas) {
+        this.replicas = replicas != null ? new ArrayList<>(replicas) : new ArrayList<>();
+    }
+    
+    /**
+     * 获取健康检查间隔
+     * 
+     * @return 健康检查间隔（毫秒）
+     */
+    public long getHealthCheckInterval() {
+        return healthCheckInterval;
+    }
+    
+    /**
+     * 设置健康检查间隔
+     * 
+     * @param healthCheckInterval 健康检查间隔（毫秒）
+     */
+    public void setHealthCheckInterval(long healthCheckInterval) {
+        if (healthCheckInterval < 100) {
+            throw new IllegalArgumentException("Replica health check interval must be at least 100ms");
+        }
+        this.healthCheckInterval = healthCheckInterval;
+    }
+    
+    /**
+     * 获取允许的最大复制延迟
+     * 
+     * @return 最大复制延迟（秒）
+     */
+    public long getMaxLagSeconds() {
+        return maxLagSeconds;
+    }
+    
+    /**
+     * 设置允许的最大复制延迟
+     * 
+     * @param maxLagSeconds 最大复制延迟（秒）
+     */
+    public void setMaxLagSeconds(long maxLagSeconds) {
+        if (maxLagSeconds < 0) {
+            throw new IllegalArgumentException("Replica max lag cannot be negative");
+        }
+        this.maxLagSeconds = maxLagSeconds;
+    }
+    
+    /**
+     * 获取复制延迟查询
+     * 
+     * @return 延迟查询SQL，未配置时返回null
+     */
+    public String getLagQuery() {
+        return lagQuery;
+    }
+    
+    /**
+     * 设置复制延迟查询
+     * 
+     * @param lagQuery 延迟查询SQL
+     */
+    public void setLagQuery(String lagQuery) {
+        this.lagQuery = lagQuery;
+    }
+    
+    /**
+     * 获取连续失败阈值
+     * 
+     * @return 连续失败次数
+     */
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+    
+    /**
+     * 设置连续失败阈值
+     * 
+     * @param failureThreshold 连续失败次数
+     */
+    public void setFailureThreshold(int failureThreshold) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("Replica failure threshold must be greater than 0");
+        }
+        this.failureThreshold = failureThreshold;
+    }
+    
+    /**
+     * 获取写后读主库窗口
+     * 
+     * @return 窗口长度（毫秒）
+     */
+    public long getReadAfterWriteWindow() {
+        return readAfterWriteWindow;
+    }
+    
+    /**
+     * 设置写后读主库窗口
+     * 
+     * @param readAfterWriteWindow 窗口长度（毫秒），0表示不启用
+     */
+    public void setReadAfterWriteWindow(long readAfterWriteWindow) {
+        if (readAfterWriteWindow < 0) {
+            throw new IllegalArgumentException("Read-after-write window cannot be negative");
+        }
+        this.readAfterWriteWindow = readAfterWriteWindow;
+    }
+    
+    /**
+     * 验证配置有效性
+     * 
+     * @throws IllegalArgumentException 配置无效时抛出异常
+     */
+    public void validate() throws IllegalArgumentException {
+        if (healthCheckInterval < 100) {
+            throw new IllegalArgumentException("Replica health check interval must be at least 100ms");
+        }
+        
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("Replica failure threshold must be greater than 0");
+        }
+        
+        if (replicas.size() != replicas.stream().distinct().count()) {
+            throw new IllegalArgumentException("Duplicate read replica: " + replicas);
+        }
+    }
+    
+    /**
+     * 从数据库连接属性创建读写分离配置
+     * 
+     * @param properties 连接属性
+     * @return 读写分离配置，未配置副本时返回禁用的默认配置
+     */
+    public static ReplicaRoutingConfig fromProperties(Map<String, Object> properties) {
+        ReplicaRoutingConfig config = new ReplicaRoutingConfig();
+        if (properties == null) {
+            return config;
+        }
+        
+        Object replicas = properties.get("read_replicas");
+        if (replicas != null) {
+            List<String> names = new ArrayList<>();
+            Collection<?> values = replicas instanceof Collection
+                    ? (Collection<?>) replicas
+                    : Arrays.asList(replicas.toString().split(","));
+            for (Object value : values) {
+                String name = value != null ? value.toString().trim() : "";
+                if (!name.isEmpty()) {
+                    names.add(name);
+                }
+            }
+            config.setReplicas(names);
+        }
+        Object interval = properties.get("replica_health_check_interval_ms");
+        if (interval != null) {
+            config.setHealthCheckInterval(Long.parseLong(interval.toString().trim()));
+        }
+        Object maxLag = properties.get("replica_max_lag_seconds");
+        if (maxLag != null) {
+            config.setMaxLagSeconds(Long.parseLong(maxLag.toString().trim()));
+        }
+        Object lagQuery = properties.get("replica_lag_query");
+        if (lagQuery != null && !lagQuery.toString().trim().isEmpty()) {
+            config.setLagQuery(lagQuery.toString().trim());
+        }
+        Object failureThreshold = properties.get("replica_failure_threshold");
+        if (failureThreshold != null) {
+            config.setFailureThreshold(Integer.parseInt(failureThreshold.toString().trim()));
+        }
+        Object readAfterWrite = properties.get("replica_read_after_write_ms");
+        if (readAfterWrite != null) {
+            config.setReadAfterWriteWindow(Long.parseLong(readAfterWrite.toString().trim()));
+        }
+        return config;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("ReplicaRoutingConfig{replicas=%s, healthCheckInterval=%d, maxLagSeconds=%d, failureThreshold=%d, readAfterWriteWindow=%d}",
+                replicas, healthCheckInterval, maxLagSeconds, failureThreshold, readAfterWriteWindow);
+    }
+}
@@ -0,0 +1,54 @@
+package database.core;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 带缓存命名空间的行映射器
+ * 查询缓存默认按映射器实例区分结果，只在当前进程内有效；实现该接口的映射器通过
+ * 显式的命名空间标识自己，多个JVM使用相同命名空间的映射器可以共享二级缓存中的结果
+ * 
+ * 命名空间必须在各节点间保持稳定（不能使用lambda的类名等运行时生成的名称），
+ * 相同命名空间的映射器对同一行必须产生相同的结果
+ * 
+ * @param <T> 目标类型
+ * @author Collections Team
+ * @since 1.0
+ */
+public interface CacheableRowMapper<T> extends RowMapper<T> {
+    
+    /**
+     * 获取缓存命名空间
+     * 
+     * @return 跨进程稳定的命名空间
+     */
+    String cacheNamespace();
+    
+    /**
+     * 为行映射器指定缓存命名空间
+     * 
+     * @param <T> 目标类型
+     * @param namespace 跨进程稳定的命名空间
+     * @param mapper 行映射器
+     * @return 带命名空间的行映射器
+     */
+    static <T> CacheableRowMapper<T> of(String namespace, RowMapper<T> mapper) {
+        if (namespace == null || namespace.isEmpty()) {
+            throw new IllegalArgumentException("Cache namespace cannot be empty");
+        }
+        if (mapper == null) {
+            throw new IllegalArgumentException("Row mapper cannot be null");
+        }
+        return new CacheableRowMapper<T>() {
+            @Override
+            public String cacheNamespace() {
+                return namespace;
+            }
+            
+            @Override
+            public T mapRow(ResultSet rs, int rowNum) throws SQLException {
+                return mapper.mapRow(rs, rowNum);
+            }
+        };
+    }
+}
@@ -3,6 +3,7 @@ package database.core;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * 统一数据库存储接口
@@ -72,6 +73,38 @@ public interface DatabaseStorage {
      */
     <T> Page<T> queryPage(String sql, RowMapper<T> mapper, int pageNum, int pageSize, Object... params) throws StorageException;
     
+    /**
+     * 键集（seek）分页查询
+     * 以上一页最后一行的排序键作为游标，使用WHERE条件定位而不是OFFSET跳过，
+     * 每页的开销与页的深度无关；排序键必须唯一且不为null（例如自增主键）
+     * 
+     * @param <T> 返回类型
+     * @param sql SQL查询语句（不含ORDER BY和LIMIT）
+     * @param mapper 结果集映射器
+     * @param sortKey 排序键列名，必须出现在查询结果中
+     * @param lastSeen 上一页返回的游标，查询第一页时为null
+     * @param pageSize 每页大小
+     * @param params 查询参数
+     * @return 分页查询结果，通过Page.getNextCursor获取下一页游标；只有第一页统计总记录数，
+     *         后续页的总数为 {@link Page#UNKNOWN_TOTAL}，需要时沿用第一页的结果
+     * @throws StorageException 查询失败时抛出异常
+     */
+    <T> Page<T> querySeek(String sql, RowMapper<T> mapper, String sortKey, Object lastSeen, int pageSize, Object... params) throws StorageException;
+    
+    /**
+     * 流式查询
+     * 结果集保持打开状态，逐行调用映射器，适用于导出或重新处理大表；
+     * 返回的Stream持有数据库连接，使用完毕后必须关闭（推荐try-with-resources）
+     * 
+     * @param <T> 返回类型
+     * @param sql SQL查询语句
+     * @param mapper 结果集映射器
+     * @param params 查询参数
+     * @return 惰性映射的结果流，遍历时出错抛出UncheckedStorageException
+     * @throws StorageException 查询失败时抛出异常
+     */
+    <T> Stream<T> queryStream(String sql, RowMapper<T> mapper, Object... params) throws StorageException;
+    
     /**
      * 单条记录插入
      * 
@@ -136,6 +169,33 @@ public interface DatabaseStorage {
      */
     int[] deleteBatch(String table, List<String> conditions) throws StorageException;
     
+    /**
+     * 插入或更新单条记录（按唯一键冲突时更新其余字段）
+     * SQLite使用 INSERT ... ON CONFLICT DO UPDATE，MySQL使用 INSERT ... ON DUPLICATE KEY UPDATE，
+     * 一次往返完成，不需要先查询再插入
+     * 
+     * MySQL无法指定冲突字段：与表上任意一个唯一索引（含主键）冲突都会转为更新，
+     * conflictColumns只用于确认存在对应的唯一索引并排除在更新字段之外
+     * 
+     * @param table 表名
+     * @param data 要写入的数据（字段名-值映射，必须包含冲突键字段）
+     * @param conflictColumns 唯一键字段（需存在对应的唯一索引）
+     * @return 影响的行数
+     * @throws StorageException 写入失败时抛出异常
+     */
+    int upsert(String table, Map<String, Object> data, String... conflictColumns) throws StorageException;
+    
+    /**
+     * 批量插入或更新
+     * 
+     * @param table 表名
+     * @param dataList 要写入的数据列表
+     * @param conflictColumns 唯一键字段（需存在对应的唯一索引）
+     * @return 每条记录影响的行数数组
+     * @throws StorageException 写入失败时抛出异常
+     */
+    int[] upsertBatch(String table, List<Map<String, Object>> dataList, String... conflictColumns) throws StorageException;
+    
     /**
      * 开始事务
      * 
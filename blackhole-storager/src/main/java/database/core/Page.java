@@ -14,6 +14,11 @@ import java.util.Objects;
  */
 public class Page<T> {
     
+    /**
+     * 总记录数未知（键集分页的后续页不再统计总数）
+     */
+    public static final long UNKNOWN_TOTAL = -1;
+    
     private final List<T> content;
     private final int pageNum;
     private final int pageSize;
@@ -24,6 +29,11 @@ public class Page<T> {
     private final boolean isFirst;
     private final boolean isLast;
     
+    /**
+     * 下一页游标（仅键集分页使用，没有下一页时为null）
+     */
+    private final Object nextCursor;
+    
     /**
      * 构造分页结果
      * 
@@ -42,6 +52,30 @@ public class Page<T> {
         this.hasPrevious = calculateHasPrevious();
         this.isFirst = calculateIsFirst();
         this.isLast = calculateIsLast();
+        this.nextCursor = null;
+    }
+    
+    /**
+     * 构造键集分页结果
+     * 键集分页不跟踪页码，是否有前后页由游标决定
+     * 
+     * @param content 当前页的数据内容
+     * @param pageSize 每页大小
+     * @param totalElements 总记录数（可能来自缓存），未知时为UNKNOWN_TOTAL
+     * @param nextCursor 下一页游标，没有下一页时为null
+     * @param first 是否为第一页
+     */
+    private Page(List<T> content, int pageSize, long totalElements, Object nextCursor, boolean first) {
+        this.content = Collections.unmodifiableList(Objects.requireNonNull(content, "Content must not be null"));
+        this.pageNum = 1;
+        this.pageSize = validatePageSize(pageSize);
+        this.totalElements = totalElements == UNKNOWN_TOTAL ? UNKNOWN_TOTAL : validateTotalElements(totalElements);
+        this.totalPages = totalElements == UNKNOWN_TOTAL ? -1 : calculateTotalPages();
+        this.nextCursor = nextCursor;
+        this.hasNext = nextCursor != null;
+        this.hasPrevious = !first;
+        this.isFirst = first;
+        this.isLast = nextCursor == null;
     }
     
     private int validatePageNum(int pageNum) {
@@ -115,16 +149,25 @@ public class Page<T> {
     /**
      * 获取总记录数
      * 
-     * @return 总记录数
+     * @return 总记录数，未知时返回UNKNOWN_TOTAL
      */
     public long getTotalElements() {
         return totalElements;
     }
     
+    /**
+     * 是否统计了总记录数
+     * 
+     * @return false表示键集分页的后续页，总数需沿用第一页的结果
+     */
+    public boolean isTotalKnown() {
+        return totalElements != UNKNOWN_TOTAL;
+    }
+    
     /**
      * 获取总页数
      * 
-     * @return 总页数
+     * @return 总页数，总记录数未知时返回-1
      */
     public int getTotalPages() {
         return totalPages;
@@ -166,6 +209,15 @@ public class Page<T> {
         return isLast;
     }
     
+    /**
+     * 获取下一页游标
+     * 
+     * @return 下一页游标，页码分页或没有下一页时为null
+     */
+    public Object getNextCursor() {
+        return nextCursor;
+    }
+    
     /**
      * 获取当前页的实际记录数
      * 
@@ -210,4 +262,19 @@ public class Page<T> {
     public static <T> Page<T> empty(int pageNum, int pageSize) {
         return new Page<>(Collections.emptyList(), pageNum, pageSize, 0);
     }
+    
+    /**
+     * 创建键集分页结果
+     * 
+     * @param <T> 数据类型
+     * @param content 当前页的数据内容
+     * @param pageSize 每页大小
+     * @param totalElements 总记录数，未知时为UNKNOWN_TOTAL
+     * @param nextCursor 下一页游标，没有下一页时为null
+     * @param first 是否为第一页
+     * @return 键集分页结果
+     */
+    public static <T> Page<T> keyset(List<T> content, int pageSize, long totalElements, Object nextCursor, boolean first) {
+        return new Page<>(content, pageSize, totalElements, nextCursor, first);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,119 @@
+package database.core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 连接池指标快照
+ * 借出次数和累计等待时间是单调递增的计数，两次快照相减得到区间内的平均等待时间；
+ * 连接池只提供近期平均等待时间时，累计等待时间为-1
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public final class PoolMetrics {
+    
+    private final int active;
+    private final int idle;
+    private final int total;
+    private final int waiting;
+    private final int maxSize;
+    private final long acquisitions;
+    private final long totalWaitNanos;
+    private final double recentMeanWaitMillis;
+    
+    /**
+     * 构造函数
+     * 
+     * @param active 使用中的连接数
+     * @param idle 空闲连接数
+     * @param total 连接总数
+     * @param waiting 等待连接的线程数
+     * @param maxSize 最大连接数
+     * @param acquisitions 累计借出次数
+     * @param totalWaitNanos 累计等待时间（纳秒），未知时为-1
+     * @param recentMeanWaitMillis 连接池统计的近期平均等待时间（毫秒），未知时为-1
+     */
+    public PoolMetrics(int active, int idle, int total, int waiting, int maxSize,
+                       long acquisitions, long totalWaitNanos, double recentMeanWaitMillis) {
+        this.active = active;
+        this.idle = idle;
+        this.total = total;
+        this.waiting = waiting;
+        this.maxSize = maxSize;
+        this.acquisitions = acquisitions;
+        this.totalWaitNanos = totalWaitNanos;
+        this.recentMeanWaitMillis = recentMeanWaitMillis;
+    }
+    
+    public int getActive() {
+        return active;
+    }
+    
+    public int getIdle() {
+        return idle;
+    }
+    
+    public int getTotal() {
+        return total;
+    }
+    
+    public int getWaiting() {
+        return waiting;
+    }
+    
+    public int getMaxSize() {
+        return maxSize;
+    }
+    
+    public long getAcquisitions() {
+        return acquisitions;
+    }
+    
+    public long getTotalWaitNanos() {
+        return totalWaitNanos;
+    }
+    
+    public double getRecentMeanWaitMillis() {
+        return recentMeanWaitMillis;
+    }
+    
+    /**
+     * 计算自上一次快照以来的平均等待时间
+     * 
+     * @param previous 上一次快照，为null时使用连接池统计的近期平均值
+     * @return 平均等待时间（毫秒），区间内没有借出连接时返回0
+     */
+    public double meanWaitMillisSince(PoolMetrics previous) {
+        if (totalWaitNanos < 0 || previous == null || previous.totalWaitNanos < 0) {
+            return Math.max(0, recentMeanWaitMillis);
+        }
+        long count = acquisitions - previous.acquisitions;
+        if (count <= 0) {
+            return 0;
+        }
+        return (totalWaitNanos - previous.totalWaitNanos) / (double) count / 1_000_000.0;
+    }
+    
+    /**
+     * 转换为映射（用于状态输出）
+     * 
+     * @return 指标映射
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("active", active);
+        map.put("idle", idle);
+        map.put("total", total);
+        map.put("waiting", waiting);
+        map.put("maxSize", maxSize);
+        map.put("acquisitions", acquisitions);
+        return map;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("PoolMetrics{active=%d, idle=%d, total=%d, waiting=%d, maxSize=%d}",
+                active, idle, total, waiting, maxSize);
+    }
+}
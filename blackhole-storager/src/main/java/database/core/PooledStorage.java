@@ -0,0 +1,27 @@
+package database.core;
+
+/**
+ * 带连接池的存储
+ * 由使用连接池的适配器实现，供后台健康检查读取连接池指标并在运行时调整连接池上限
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public interface PooledStorage {
+    
+    /**
+     * 获取连接池指标快照
+     * 
+     * @return 连接池指标，连接池未打开时返回null
+     */
+    PoolMetrics getPoolMetrics();
+    
+    /**
+     * 调整连接池最大连接数
+     * 缩小时多余的连接在归还后关闭，不会中断正在使用的连接
+     * 
+     * @param maxPoolSize 新的最大连接数
+     * @throws StorageException 连接池未打开时抛出异常
+     */
+    void resizePool(int maxPoolSize) throws StorageException;
+}
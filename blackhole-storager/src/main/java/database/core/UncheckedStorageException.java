@@ -0,0 +1,27 @@
+package database.core;
+
+/**
+ * 非受检存储异常
+ * 用于在Stream、回调等无法声明受检异常的场景中包装StorageException
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class UncheckedStorageException extends RuntimeException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    /**
+     * 构造非受检存储异常
+     * 
+     * @param cause 原始存储异常
+     */
+    public UncheckedStorageException(StorageException cause) {
+        super(cause.getMessage(), cause);
+    }
+    
+    @Override
+    public synchronized StorageException getCause() {
+        return (StorageException) super.getCause();
+    }
+}
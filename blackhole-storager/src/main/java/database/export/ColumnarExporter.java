@@ -0,0 +1,356 @@
+package database.export;
+
+import database.core.DatabaseStorage;
+import database.core.StorageException;
+import database.core.UncheckedStorageException;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.RawLocalFileSystem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * 分区列式文件导出器
+ * 把行流式写入本地磁盘上按Hive布局（列=值 子目录）分区的Parquet或ORC文件，
+ * 之后由HiveAdapter通过 LOAD DATA 或 ADD PARTITION 整批加载，代替逐行INSERT。
+ * 
+ * 行可以来自任意DatabaseStorage的查询（见 {@link #export}），也可以由解析流程直接写入。
+ * 文件写入时使用以点号开头的临时名称（Hive忽略隐藏文件），关闭后才重命名为正式名称，
+ * 导出中途失败不会让Hive读到不完整的文件。
+ * 
+ * 非线程安全的数据结构由同步方法保护，多个生产者可以共用一个导出器。
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class ColumnarExporter implements Closeable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ColumnarExporter.class);
+    
+    /**
+     * Hive默认分区名（分区值为null或空字符串时使用）
+     */
+    public static final String DEFAULT_PARTITION_NAME = "__HIVE_DEFAULT_PARTITION__";
+    
+    private static final String IN_PROGRESS_SUFFIX = ".inprogress";
+    
+    private final Path outputDirectory;
+    private final ExportSchema schema;
+    private final ExportOptions options;
+    private final Configuration conf;
+    
+    /**
+     * 本次导出的文件名标识，避免重复导出到同一目录时覆盖已有文件
+     */
+    private final String runId = UUID.randomUUID().toString().substring(0, 8);
+    
+    /**
+     * 所有分区（相对路径 -> 状态），按首次出现顺序
+     */
+    private final Map<String, PartitionState> partitions = new LinkedHashMap<>();
+    
+    /**
+     * 打开的文件（相对路径 -> 分区），按最近写入顺序，超过上限时关闭最久未写入的
+     */
+    private final LinkedHashMap<String, PartitionState> openWriters = new LinkedHashMap<>(16, 0.75f, true);
+    
+    private int fileSequence;
+    private boolean closed;
+    
+    /**
+     * 构造函数
+     * 
+     * @param outputDirectory 导出目录（不存在时创建）
+     * @param schema 表结构
+     * @param options 导出选项
+     * @throws StorageException 目录无法创建时抛出异常
+     */
+    public ColumnarExporter(Path outputDirectory, ExportSchema schema, ExportOptions options) throws StorageException {
+        schema.validate();
+        this.outputDirectory = outputDirectory.toAbsolutePath().normalize();
+        this.schema = schema;
+        this.options = options;
+        
+        // 使用不写.crc校验文件的本地文件系统，目录中只留下数据文件
+        this.conf = new Configuration(false);
+        conf.setClass("fs.file.impl", RawLocalFileSystem.class, FileSystem.class);
+        conf.setBoolean("fs.file.impl.disable.cache", true);
+        
+        try {
+            Files.createDirectories(this.outputDirectory);
+        } catch (IOException e) {
+            throw new StorageException("EXPORT_FAILED", "Failed to create export directory: " + outputDirectory, e);
+        }
+    }
+    
+    /**
+     * 把查询结果导出为列式文件
+     * 通过queryStream逐行读取，内存占用与结果集大小无关；
+     * 行以小写列标签为键，表结构中的列和按字段取值的分区列必须出现在查询结果中。
+     * 
+     * @param storage 数据源
+     * @param sql 查询语句
+     * @param outputDirectory 导出目录
+     * @param schema 表结构
+     * @param options 导出选项
+     * @param params 查询参数
+     * @return 导出结果
+     * @throws StorageException 查询或写入失败时抛出异常
+     */
+    public static ExportResult export(DatabaseStorage storage, String sql, Path outputDirectory,
+                                      ExportSchema schema, ExportOptions options, Object... params) throws StorageException {
+        long startTime = System.currentTimeMillis();
+        ColumnarExporter exporter = new ColumnarExporter(outputDirectory, schema, options);
+        try (Stream<Map<String, Object>> rows = storage.queryStream(sql, (rs, rowNum) -> {
+            ResultSetMetaData meta = rs.getMetaData();
+            Map<String, Object> row = new HashMap<>(meta.getColumnCount() * 2);
+            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                row.put(meta.getColumnLabel(i).toLowerCase(Locale.ROOT), rs.getObject(i));
+            }
+            return row;
+        }, params)) {
+            Iterator<Map<String, Object>> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                exporter.write(iterator.next());
+            }
+        } catch (UncheckedStorageException e) {
+            exporter.abort();
+            throw e.getCause();
+        } catch (StorageException | RuntimeException e) {
+            exporter.abort();
+            throw e;
+        }
+        
+        ExportResult result = exporter.finish();
+        logger.info("Exported query to {} in {}ms: {}", outputDirectory, System.currentTimeMillis() - startTime, result);
+        return result;
+    }
+    
+    /**
+     * 写入一行
+     * 
+     * @param row 行数据（小写列名 -> 值）
+     * @throws StorageException 值无法转换或写入失败时抛出异常
+     */
+    public synchronized void write(Map<String, Object> row) throws StorageException {
+        if (closed) {
+            throw new StorageException("EXPORT_CLOSED", "Exporter is already closed");
+        }
+        
+        Map<String, String> spec = new LinkedHashMap<>();
+        StringBuilder relativePath = new StringBuilder();
+        for (ExportSchema.PartitionColumn column : schema.getPartitionColumns()) {
+            Object value = column.valueOf(row);
+            String text = value == null || value.toString().isEmpty() ? DEFAULT_PARTITION_NAME : value.toString();
+            spec.put(column.getName(), text);
+            if (relativePath.length() > 0) {
+                relativePath.append('/');
+            }
+            relativePath.append(column.getName()).append('=').append(escapePathName(text));
+        }
+        
+        String key = relativePath.toString();
+        PartitionState partition = partitions.get(key);
+        if (partition == null) {
+            partition = new PartitionState(spec, key, key.isEmpty() ? outputDirectory : outputDirectory.resolve(key));
+            partitions.put(key, partition);
+        }
+        
+        try {
+            if (partition.writer == null) {
+                openWriter(partition);
+            } else {
+                openWriters.get(key); // 更新访问顺序
+            }
+            partition.writer.write(row);
+            partition.rowCount++;
+            if (partition.writer.getRowCount() >= options.getMaxRowsPerFile()) {
+                closeWriter(partition);
+                openWriters.remove(key);
+            }
+        } catch (IOException | RuntimeException e) {
+            throw new StorageException("EXPORT_WRITE_FAILED", "Failed to write row to partition: " + key, e);
+        }
+    }
+    
+    /**
+     * 写入多行
+     * 
+     * @param rows 行数据
+     * @throws StorageException 写入失败时抛出异常
+     */
+    public void writeAll(Iterable<Map<String, Object>> rows) throws StorageException {
+        for (Map<String, Object> row : rows) {
+            write(row);
+        }
+    }
+    
+    /**
+     * 关闭所有文件并返回导出结果
+     * 
+     * @return 导出结果
+     * @throws StorageException 关闭文件失败时抛出异常
+     */
+    public synchronized ExportResult finish() throws StorageException {
+        if (!closed) {
+            closed = true;
+            IOException failure = null;
+            for (PartitionState partition : openWriters.values()) {
+                try {
+                    closeWriter(partition);
+                } catch (IOException e) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            }
+            openWriters.clear();
+            if (failure != null) {
+                throw new StorageException("EXPORT_FAILED", "Failed to close export files in " + outputDirectory, failure);
+            }
+        }
+        
+        List<ExportResult.Partition> results = new ArrayList<>(partitions.size());
+        for (PartitionState partition : partitions.values()) {
+            results.add(new ExportResult.Partition(partition.spec, partition.relativePath, partition.directory,
+                    partition.files, partition.rowCount));
+        }
+        return new ExportResult(outputDirectory, schema, options.getFormat(), results);
+    }
+    
+    /**
+     * 放弃导出：关闭并删除正在写入的临时文件和本次已完成的文件，以及因此变空的分区目录
+     */
+    public synchronized void abort() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (PartitionState partition : openWriters.values()) {
+            try {
+                partition.writer.close();
+            } catch (IOException | RuntimeException e) {
+                logger.debug("Failed to close export file on abort: {}", partition.inProgressFile, e);
+            }
+            deleteQuietly(partition.inProgressFile);
+            partition.writer = null;
+        }
+        openWriters.clear();
+        
+        for (PartitionState partition : partitions.values()) {
+            for (Path file : partition.files) {
+                deleteQuietly(file);
+            }
+            partition.files.clear();
+            partition.rowCount = 0;
+            for (Path directory = partition.directory; directory.startsWith(outputDirectory) && !directory.equals(outputDirectory);
+                 directory = directory.getParent()) {
+                try {
+                    Files.deleteIfExists(directory);
+                } catch (IOException e) {
+                    // 目录中还有其他文件（如之前的导出），保留
+                    break;
+                }
+            }
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } catch (StorageException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+    
+    private void openWriter(PartitionState partition) throws IOException {
+        if (openWriters.size() >= options.getMaxOpenWriters()) {
+            Iterator<PartitionState> eldest = openWriters.values().iterator();
+            PartitionState evicted = eldest.next();
+            eldest.remove();
+            closeWriter(evicted);
+        }
+        
+        Files.createDirectories(partition.directory);
+        String fileName = String.format("part-%05d-%s%s", fileSequence++, runId, options.getFormat().getExtension());
+        partition.pendingFile = partition.directory.resolve(fileName);
+        partition.inProgressFile = partition.directory.resolve("." + fileName + IN_PROGRESS_SUFFIX);
+        partition.writer = options.getFormat() == ExportOptions.Format.ORC
+                ? new OrcColumnarWriter(partition.inProgressFile, schema, options, conf)
+                : new ParquetColumnarWriter(partition.inProgressFile, schema, options, conf);
+        openWriters.put(partition.relativePath, partition);
+    }
+    
+    private void closeWriter(PartitionState partition) throws IOException {
+        ColumnarFileWriter writer = partition.writer;
+        partition.writer = null;
+        writer.close();
+        Files.move(partition.inProgressFile, partition.pendingFile, StandardCopyOption.ATOMIC_MOVE);
+        partition.files.add(partition.pendingFile);
+        logger.debug("Finished export file {} ({} rows)", partition.pendingFile, writer.getRowCount());
+    }
+    
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Failed to delete export file on abort: {}", file, e);
+        }
+    }
+    
+    /**
+     * 按Hive规则转义分区目录名中的特殊字符（%XX）
+     * 
+     * @param value 分区值
+     * @return 转义后的目录名
+     */
+    static String escapePathName(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x20 || c == 0x7F || "\"#%'*/:=?\\{[]^".indexOf(c) >= 0) {
+                escaped.append('%').append(String.format("%02X", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+    
+    /**
+     * 分区的写入状态
+     */
+    private static final class PartitionState {
+        private final Map<String, String> spec;
+        private final String relativePath;
+        private final Path directory;
+        private final List<Path> files = new ArrayList<>();
+        private long rowCount;
+        private ColumnarFileWriter writer;
+        private Path inProgressFile;
+        private Path pendingFile;
+        
+        private PartitionState(Map<String, String> spec, String relativePath, Path directory) {
+            this.spec = spec;
+            this.relativePath = relativePath;
+            this.directory = directory;
+        }
+    }
+}
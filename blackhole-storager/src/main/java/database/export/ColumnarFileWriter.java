@@ -0,0 +1,29 @@
+package database.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * 单个列式文件的写入器
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+interface ColumnarFileWriter extends Closeable {
+    
+    /**
+     * 写入一行
+     * 
+     * @param row 行数据（小写列名 -> 值）
+     * @throws IOException 写入失败时抛出异常
+     */
+    void write(Map<String, Object> row) throws IOException;
+    
+    /**
+     * 获取已写入的行数
+     * 
+     * @return 行数
+     */
+    long getRowCount();
+}
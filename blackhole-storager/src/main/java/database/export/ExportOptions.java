@@ -0,0 +1,169 @@
+package database.export;
+
+/**
+ * 列式导出选项
+ * 文件格式、压缩方式以及文件滚动和并发打开文件数的限制。
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class ExportOptions {
+    
+    /**
+     * 文件格式
+     */
+    public enum Format {
+        PARQUET(".parquet", "PARQUET"),
+        ORC(".orc", "ORC");
+        
+        private final String extension;
+        private final String hiveStorage;
+        
+        Format(String extension, String hiveStorage) {
+            this.extension = extension;
+            this.hiveStorage = hiveStorage;
+        }
+        
+        /**
+         * 获取文件扩展名
+         * 
+         * @return 扩展名（含点号）
+         */
+        public String getExtension() {
+            return extension;
+        }
+        
+        /**
+         * 获取Hive建表时的 STORED AS 名称
+         * 
+         * @return 存储格式名称
+         */
+        public String getHiveStorage() {
+            return hiveStorage;
+        }
+    }
+    
+    /**
+     * 压缩方式（ORC的GZIP对应ZLIB）
+     */
+    public enum Compression {
+        NONE,
+        SNAPPY,
+        GZIP,
+        ZSTD
+    }
+    
+    private Format format = Format.PARQUET;
+    private Compression compression = Compression.SNAPPY;
+    private long maxRowsPerFile = 1_000_000;
+    private int maxOpenWriters = 64;
+    private long blockSize = 128L * 1024 * 1024;
+    
+    /**
+     * 默认选项：Parquet + Snappy
+     * 
+     * @return 选项
+     */
+    public static ExportOptions defaults() {
+        return new ExportOptions();
+    }
+    
+    public Format getFormat() {
+        return format;
+    }
+    
+    /**
+     * 设置文件格式
+     * 
+     * @param format 文件格式
+     * @return 当前选项
+     */
+    public ExportOptions setFormat(Format format) {
+        if (format == null) {
+            throw new IllegalArgumentException("Export format cannot be null");
+        }
+        this.format = format;
+        return this;
+    }
+    
+    public Compression getCompression() {
+        return compression;
+    }
+    
+    /**
+     * 设置压缩方式
+     * Hive 3.1内置的ORC读取器不支持ZSTD，导出ORC给旧版本Hive时应使用SNAPPY或GZIP
+     * 
+     * @param compression 压缩方式
+     * @return 当前选项
+     */
+    public ExportOptions setCompression(Compression compression) {
+        if (compression == null) {
+            throw new IllegalArgumentException("Export compression cannot be null");
+        }
+        this.compression = compression;
+        return this;
+    }
+    
+    public long getMaxRowsPerFile() {
+        return maxRowsPerFile;
+    }
+    
+    /**
+     * 设置单个文件的最大行数，超过后在同一分区下滚动到新文件
+     * 
+     * @param maxRowsPerFile 最大行数
+     * @return 当前选项
+     */
+    public ExportOptions setMaxRowsPerFile(long maxRowsPerFile) {
+        if (maxRowsPerFile <= 0) {
+            throw new IllegalArgumentException("Max rows per file must be positive");
+        }
+        this.maxRowsPerFile = maxRowsPerFile;
+        return this;
+    }
+    
+    public int getMaxOpenWriters() {
+        return maxOpenWriters;
+    }
+    
+    /**
+     * 设置同时打开的文件数上限
+     * 每个打开的文件都缓存一个行组的数据，分区很多时超过上限会关闭最久未写入的文件，
+     * 该分区之后的数据写入新文件
+     * 
+     * @param maxOpenWriters 文件数上限
+     * @return 当前选项
+     */
+    public ExportOptions setMaxOpenWriters(int maxOpenWriters) {
+        if (maxOpenWriters <= 0) {
+            throw new IllegalArgumentException("Max open writers must be positive");
+        }
+        this.maxOpenWriters = maxOpenWriters;
+        return this;
+    }
+    
+    public long getBlockSize() {
+        return blockSize;
+    }
+    
+    /**
+     * 设置Parquet行组/ORC条带大小（字节）
+     * 
+     * @param blockSize 字节数
+     * @return 当前选项
+     */
+    public ExportOptions setBlockSize(long blockSize) {
+        if (blockSize < 1024 * 1024) {
+            throw new IllegalArgumentException("Block size must be at least 1MB");
+        }
+        this.blockSize = blockSize;
+        return this;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("ExportOptions{format=%s, compression=%s, maxRowsPerFile=%d, maxOpenWriters=%d, blockSize=%d}",
+                format, compression, maxRowsPerFile, maxOpenWriters, blockSize);
+    }
+}
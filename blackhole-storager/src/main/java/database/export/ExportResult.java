@@ -0,0 +1,130 @@
+package database.export;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 列式导出结果
+ * 记录每个分区写出的文件和行数，供HiveAdapter按分区加载或登记
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class ExportResult {
+    
+    /**
+     * 一个分区的导出结果
+     */
+    public static final class Partition {
+        private final Map<String, String> spec;
+        private final String relativePath;
+        private final Path directory;
+        private final List<Path> files;
+        private final long rowCount;
+        
+        Partition(Map<String, String> spec, String relativePath, Path directory, List<Path> files, long rowCount) {
+            this.spec = Collections.unmodifiableMap(spec);
+            this.relativePath = relativePath;
+            this.directory = directory;
+            this.files = Collections.unmodifiableList(files);
+            this.rowCount = rowCount;
+        }
+        
+        /**
+         * 获取分区规格（分区列 -> 原始分区值，默认分区为 __HIVE_DEFAULT_PARTITION__）
+         * 
+         * @return 分区规格，未分区时为空
+         */
+        public Map<String, String> getSpec() {
+            return spec;
+        }
+        
+        /**
+         * 获取相对于导出目录的分区路径，如 "site=example.com/dt=2024-01-01"
+         * 
+         * @return 相对路径，未分区时为空字符串
+         */
+        public String getRelativePath() {
+            return relativePath;
+        }
+        
+        public Path getDirectory() {
+            return directory;
+        }
+        
+        public List<Path> getFiles() {
+            return files;
+        }
+        
+        public long getRowCount() {
+            return rowCount;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("Partition{path='%s', files=%d, rows=%d}", relativePath, files.size(), rowCount);
+        }
+    }
+    
+    private final Path outputDirectory;
+    private final ExportSchema schema;
+    private final ExportOptions.Format format;
+    private final List<Partition> partitions;
+    
+    ExportResult(Path outputDirectory, ExportSchema schema, ExportOptions.Format format, List<Partition> partitions) {
+        this.outputDirectory = outputDirectory;
+        this.schema = schema;
+        this.format = format;
+        this.partitions = Collections.unmodifiableList(partitions);
+    }
+    
+    public Path getOutputDirectory() {
+        return outputDirectory;
+    }
+    
+    public ExportSchema getSchema() {
+        return schema;
+    }
+    
+    public ExportOptions.Format getFormat() {
+        return format;
+    }
+    
+    public List<Partition> getPartitions() {
+        return partitions;
+    }
+    
+    /**
+     * 获取导出的总行数
+     * 
+     * @return 行数
+     */
+    public long getTotalRows() {
+        long total = 0;
+        for (Partition partition : partitions) {
+            total += partition.getRowCount();
+        }
+        return total;
+    }
+    
+    /**
+     * 获取导出的文件总数
+     * 
+     * @return 文件数
+     */
+    public int getTotalFiles() {
+        int total = 0;
+        for (Partition partition : partitions) {
+            total += partition.getFiles().size();
+        }
+        return total;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("ExportResult{directory=%s, format=%s, partitions=%d, files=%d, rows=%d}",
+                outputDirectory, format, partitions.size(), getTotalFiles(), getTotalRows());
+    }
+}
@@ -0,0 +1,216 @@
+package database.export;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * 列式导出的表结构
+ * 描述写入文件的数据列及其类型，以及决定目录布局的分区列。
+ * 分区列按Hive约定不写入数据文件，而是体现在 列=值 的子目录名上；
+ * 分区值可以直接取自行中的同名字段，也可以由行计算得出（例如由抓取时间得出日期）。
+ * 
+ * 列名统一转为小写（与Hive一致），写入的行以小写列名为键。
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class ExportSchema {
+    
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]*");
+    
+    /**
+     * 列类型
+     */
+    public enum ColumnType {
+        STRING("STRING"),
+        INT("INT"),
+        LONG("BIGINT"),
+        DOUBLE("DOUBLE"),
+        BOOLEAN("BOOLEAN"),
+        TIMESTAMP("TIMESTAMP"),
+        BINARY("BINARY");
+        
+        private final String hiveType;
+        
+        ColumnType(String hiveType) {
+            this.hiveType = hiveType;
+        }
+        
+        /**
+         * 获取对应的Hive列类型
+         * 
+         * @return Hive类型名称
+         */
+        public String getHiveType() {
+            return hiveType;
+        }
+    }
+    
+    /**
+     * 数据列
+     */
+    public static final class Column {
+        private final String name;
+        private final ColumnType type;
+        
+        private Column(String name, ColumnType type) {
+            this.name = name;
+            this.type = type;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public ColumnType getType() {
+            return type;
+        }
+        
+        @Override
+        public String toString() {
+            return name + " " + type.getHiveType();
+        }
+    }
+    
+    /**
+     * 分区列（Hive中类型为STRING）
+     */
+    public static final class PartitionColumn {
+        private final String name;
+        private final Function<Map<String, Object>, ?> extractor;
+        
+        private PartitionColumn(String name, Function<Map<String, Object>, ?> extractor) {
+            this.name = name;
+            this.extractor = extractor;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        /**
+         * 计算行的分区值
+         * 
+         * @param row 行数据
+         * @return 分区值，可能为null
+         */
+        public Object valueOf(Map<String, Object> row) {
+            return extractor.apply(row);
+        }
+        
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+    
+    private final List<Column> columns = new ArrayList<>();
+    private final List<PartitionColumn> partitionColumns = new ArrayList<>();
+    private final Set<String> names = new HashSet<>();
+    
+    /**
+     * 添加数据列
+     * 
+     * @param name 列名
+     * @param type 列类型
+     * @return 当前结构
+     */
+    public ExportSchema addColumn(String name, ColumnType type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Column type cannot be null: " + name);
+        }
+        columns.add(new Column(register(name), type));
+        return this;
+    }
+    
+    /**
+     * 添加分区列，分区值取自行中的同名字段
+     * 
+     * @param name 分区列名
+     * @return 当前结构
+     */
+    public ExportSchema partitionBy(String name) {
+        String normalized = register(name);
+        partitionColumns.add(new PartitionColumn(normalized, row -> row.get(normalized)));
+        return this;
+    }
+    
+    /**
+     * 添加分区列，分区值由行计算得出
+     * 
+     * @param name 分区列名
+     * @param extractor 分区值计算函数
+     * @return 当前结构
+     */
+    public ExportSchema partitionBy(String name, Function<Map<String, Object>, ?> extractor) {
+        if (extractor == null) {
+            throw new IllegalArgumentException("Partition extractor cannot be null: " + name);
+        }
+        partitionColumns.add(new PartitionColumn(register(name), extractor));
+        return this;
+    }
+    
+    /**
+     * 获取数据列
+     * 
+     * @return 数据列（按写入顺序）
+     */
+    public List<Column> getColumns() {
+        return Collections.unmodifiableList(columns);
+    }
+    
+    /**
+     * 获取分区列
+     * 
+     * @return 分区列（按目录层级顺序）
+     */
+    public List<PartitionColumn> getPartitionColumns() {
+        return Collections.unmodifiableList(partitionColumns);
+    }
+    
+    /**
+     * 是否有分区列
+     * 
+     * @return 是否分区
+     */
+    public boolean isPartitioned() {
+        return !partitionColumns.isEmpty();
+    }
+    
+    /**
+     * 验证结构有效性
+     * 
+     * @throws IllegalArgumentException 结构无效时抛出异常
+     */
+    public void validate() throws IllegalArgumentException {
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("Export schema requires at least one data column");
+        }
+    }
+    
+    private String register(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Column name cannot be null");
+        }
+        String normalized = name.trim().toLowerCase(Locale.ROOT);
+        if (!IDENTIFIER.matcher(normalized).matches()) {
+            throw new IllegalArgumentException("Invalid column name: " + name);
+        }
+        if (!names.add(normalized)) {
+            throw new IllegalArgumentException("Duplicate column name: " + name);
+        }
+        return normalized;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("ExportSchema{columns=%s, partitionColumns=%s}", columns, partitionColumns);
+    }
+}
@@ -0,0 +1,106 @@
+package database.export;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 导出时的值类型转换
+ * 数据库查询和解析结果中的值类型不固定（如数字可能是Integer、Long或字符串），
+ * 按目标列类型统一转换，无法转换时抛出IllegalArgumentException
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+final class ExportValues {
+    
+    private ExportValues() {
+    }
+    
+    static String toText(Object value) {
+        // CharSequence包括延迟解压的CompressedText
+        return value.toString();
+    }
+    
+    static long toLong(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof CharSequence) {
+            return Long.parseLong(value.toString().trim());
+        }
+        throw unsupported(value, "BIGINT");
+    }
+    
+    static int toInt(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        if (value instanceof CharSequence) {
+            return Integer.parseInt(value.toString().trim());
+        }
+        throw unsupported(value, "INT");
+    }
+    
+    static double toDouble(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof CharSequence) {
+            return Double.parseDouble(value.toString().trim());
+        }
+        throw unsupported(value, "DOUBLE");
+    }
+    
+    static boolean toBoolean(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).intValue() != 0;
+        }
+        if (value instanceof CharSequence) {
+            String text = value.toString().trim();
+            return "true".equalsIgnoreCase(text) || "1".equals(text);
+        }
+        throw unsupported(value, "BOOLEAN");
+    }
+    
+    /**
+     * 转换为毫秒时间戳，本地日期时间按系统时区解释
+     */
+    static long toEpochMillis(Object value) {
+        if (value instanceof java.util.Date) {
+            return ((java.util.Date) value).getTime();
+        }
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Instant) {
+            return ((Instant) value).toEpochMilli();
+        }
+        if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+        if (value instanceof LocalDate) {
+            return ((LocalDate) value).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+        throw unsupported(value, "TIMESTAMP");
+    }
+    
+    static byte[] toBytes(Object value) {
+        if (value instanceof byte[]) {
+            return (byte[]) value;
+        }
+        if (value instanceof CharSequence) {
+            return value.toString().getBytes(StandardCharsets.UTF_8);
+        }
+        throw unsupported(value, "BINARY");
+    }
+    
+    private static IllegalArgumentException unsupported(Object value, String type) {
+        return new IllegalArgumentException("Cannot convert " + value.getClass().getName() + " to " + type);
+    }
+}
@@ -0,0 +1,153 @@
+package database.export;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.ColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DoubleColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.TimestampColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.orc.CompressionKind;
+import org.apache.orc.OrcFile;
+import org.apache.orc.TypeDescription;
+import org.apache.orc.Writer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ORC文件写入器
+ * 行先填入列向量批次，批次满时整批交给ORC写入器编码
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+final class OrcColumnarWriter implements ColumnarFileWriter {
+    
+    private final List<ExportSchema.Column> columns;
+    private final Writer writer;
+    private final VectorizedRowBatch batch;
+    private long rowCount;
+    
+    OrcColumnarWriter(Path file, ExportSchema schema, ExportOptions options, Configuration conf) throws IOException {
+        this.columns = schema.getColumns();
+        TypeDescription type = buildTypeDescription(columns);
+        this.writer = OrcFile.createWriter(new org.apache.hadoop.fs.Path(file.toUri()),
+                OrcFile.writerOptions(conf)
+                        .setSchema(type)
+                        .compress(kindOf(options.getCompression()))
+                        .stripeSize(options.getBlockSize()));
+        this.batch = type.createRowBatch();
+    }
+    
+    @Override
+    public void write(Map<String, Object> row) throws IOException {
+        // 全部列填好后才计入批次，转换失败的行不会留在批次中
+        int index = batch.size;
+        for (int i = 0; i < columns.size(); i++) {
+            ExportSchema.Column column = columns.get(i);
+            ColumnVector vector = batch.cols[i];
+            Object value = row.get(column.getName());
+            if (value == null) {
+                vector.noNulls = false;
+                vector.isNull[index] = true;
+                continue;
+            }
+            vector.isNull[index] = false;
+            switch (column.getType()) {
+                case STRING:
+                    ((BytesColumnVector) vector).setVal(index, ExportValues.toBytes(ExportValues.toText(value)));
+                    break;
+                case BINARY:
+                    ((BytesColumnVector) vector).setVal(index, ExportValues.toBytes(value));
+                    break;
+                case INT:
+                    ((LongColumnVector) vector).vector[index] = ExportValues.toInt(value);
+                    break;
+                case LONG:
+                    ((LongColumnVector) vector).vector[index] = ExportValues.toLong(value);
+                    break;
+                case BOOLEAN:
+                    ((LongColumnVector) vector).vector[index] = ExportValues.toBoolean(value) ? 1 : 0;
+                    break;
+                case DOUBLE:
+                    ((DoubleColumnVector) vector).vector[index] = ExportValues.toDouble(value);
+                    break;
+                case TIMESTAMP:
+                    ((TimestampColumnVector) vector).set(index, new Timestamp(ExportValues.toEpochMillis(value)));
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown column type: " + column.getType());
+            }
+        }
+        batch.size++;
+        rowCount++;
+        if (batch.size == batch.getMaxSize()) {
+            writer.addRowBatch(batch);
+            batch.reset();
+        }
+    }
+    
+    @Override
+    public long getRowCount() {
+        return rowCount;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (batch.size > 0) {
+            writer.addRowBatch(batch);
+            batch.reset();
+        }
+        writer.close();
+    }
+    
+    private static TypeDescription buildTypeDescription(List<ExportSchema.Column> columns) {
+        TypeDescription struct = TypeDescription.createStruct();
+        for (ExportSchema.Column column : columns) {
+            switch (column.getType()) {
+                case STRING:
+                    struct.addField(column.getName(), TypeDescription.createString());
+                    break;
+                case INT:
+                    struct.addField(column.getName(), TypeDescription.createInt());
+                    break;
+                case LONG:
+                    struct.addField(column.getName(), TypeDescription.createLong());
+                    break;
+                case DOUBLE:
+                    struct.addField(column.getName(), TypeDescription.createDouble());
+                    break;
+                case BOOLEAN:
+                    struct.addField(column.getName(), TypeDescription.createBoolean());
+                    break;
+                case TIMESTAMP:
+                    struct.addField(column.getName(), TypeDescription.createTimestamp());
+                    break;
+                case BINARY:
+                    struct.addField(column.getName(), TypeDescription.createBinary());
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown column type: " + column.getType());
+            }
+        }
+        return struct;
+    }
+    
+    private static CompressionKind kindOf(ExportOptions.Compression compression) {
+        switch (compression) {
+            case NONE:
+                return CompressionKind.NONE;
+            case GZIP:
+                return CompressionKind.ZLIB;
+            case ZSTD:
+                return CompressionKind.ZSTD;
+            case SNAPPY:
+            default:
+                return CompressionKind.SNAPPY;
+        }
+    }
+}
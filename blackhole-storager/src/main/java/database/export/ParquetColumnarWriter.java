@@ -0,0 +1,160 @@
+package database.export;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.NanoTime;
+import org.apache.parquet.example.data.simple.SimpleGroup;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.util.HadoopOutputFile;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Types;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parquet文件写入器
+ * 所有列都是optional，null值不写入；时间戳写为INT96，Hive 3.x只能按INT96读取Parquet时间戳
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+final class ParquetColumnarWriter implements ColumnarFileWriter {
+    
+    /**
+     * 儒略日与Unix纪元日的差值
+     */
+    private static final long JULIAN_EPOCH_OFFSET_DAYS = 2440588;
+    
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+    
+    private final List<ExportSchema.Column> columns;
+    private final MessageType messageType;
+    private final ParquetWriter<Group> writer;
+    private long rowCount;
+    
+    ParquetColumnarWriter(Path file, ExportSchema schema, ExportOptions options, Configuration conf) throws IOException {
+        this.columns = schema.getColumns();
+        this.messageType = buildMessageType(columns);
+        this.writer = ExampleParquetWriter.builder(HadoopOutputFile.fromPath(new org.apache.hadoop.fs.Path(file.toUri()), conf))
+                .withConf(conf)
+                .withType(messageType)
+                .withCompressionCodec(codecOf(options.getCompression()))
+                .withRowGroupSize(options.getBlockSize())
+                .withDictionaryEncoding(true)
+                .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                .build();
+    }
+    
+    @Override
+    public void write(Map<String, Object> row) throws IOException {
+        Group group = new SimpleGroup(messageType);
+        for (int i = 0; i < columns.size(); i++) {
+            ExportSchema.Column column = columns.get(i);
+            Object value = row.get(column.getName());
+            if (value == null) {
+                continue;
+            }
+            switch (column.getType()) {
+                case STRING:
+                    group.add(i, ExportValues.toText(value));
+                    break;
+                case INT:
+                    group.add(i, ExportValues.toInt(value));
+                    break;
+                case LONG:
+                    group.add(i, ExportValues.toLong(value));
+                    break;
+                case DOUBLE:
+                    group.add(i, ExportValues.toDouble(value));
+                    break;
+                case BOOLEAN:
+                    group.add(i, ExportValues.toBoolean(value));
+                    break;
+                case TIMESTAMP:
+                    group.add(i, toNanoTime(ExportValues.toEpochMillis(value)));
+                    break;
+                case BINARY:
+                    group.add(i, Binary.fromConstantByteArray(ExportValues.toBytes(value)));
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown column type: " + column.getType());
+            }
+        }
+        writer.write(group);
+        rowCount++;
+    }
+    
+    @Override
+    public long getRowCount() {
+        return rowCount;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+    
+    private static MessageType buildMessageType(List<ExportSchema.Column> columns) {
+        Types.MessageTypeBuilder builder = Types.buildMessage();
+        for (ExportSchema.Column column : columns) {
+            switch (column.getType()) {
+                case STRING:
+                    builder.optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named(column.getName());
+                    break;
+                case INT:
+                    builder.optional(PrimitiveTypeName.INT32).named(column.getName());
+                    break;
+                case LONG:
+                    builder.optional(PrimitiveTypeName.INT64).named(column.getName());
+                    break;
+                case DOUBLE:
+                    builder.optional(PrimitiveTypeName.DOUBLE).named(column.getName());
+                    break;
+                case BOOLEAN:
+                    builder.optional(PrimitiveTypeName.BOOLEAN).named(column.getName());
+                    break;
+                case TIMESTAMP:
+                    builder.optional(PrimitiveTypeName.INT96).named(column.getName());
+                    break;
+                case BINARY:
+                    builder.optional(PrimitiveTypeName.BINARY).named(column.getName());
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown column type: " + column.getType());
+            }
+        }
+        return builder.named("record");
+    }
+    
+    private static CompressionCodecName codecOf(ExportOptions.Compression compression) {
+        switch (compression) {
+            case NONE:
+                return CompressionCodecName.UNCOMPRESSED;
+            case GZIP:
+                return CompressionCodecName.GZIP;
+            case ZSTD:
+                return CompressionCodecName.ZSTD;
+            case SNAPPY:
+            default:
+                return CompressionCodecName.SNAPPY;
+        }
+    }
+    
+    /**
+     * 毫秒时间戳转为INT96（儒略日 + 当日纳秒）
+     */
+    private static NanoTime toNanoTime(long epochMillis) {
+        long epochDay = Math.floorDiv(epochMillis, MILLIS_PER_DAY);
+        long nanosOfDay = Math.floorMod(epochMillis, MILLIS_PER_DAY) * 1_000_000L;
+        return new NanoTime((int) (epochDay + JULIAN_EPOCH_OFFSET_DAYS), nanosOfDay);
+    }
+}
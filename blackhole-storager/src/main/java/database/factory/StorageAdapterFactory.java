@@ -31,8 +31,12 @@ public class StorageAdapterFactory {
      */
     public enum AdapterType {
         SQLITE("SQLite", SQLiteAdapter.class),
+        SQLITE_SHARDED("SQLiteSharded", ShardedSQLiteAdapter.class),
         MYSQL("MySQL", MySQLAdapter.class),
+        DUCKDB("DuckDB", DuckDBAdapter.class),
         REDIS("Redis", RedisAdapter.class),
+        REDIS_SHARDED("RedisSharded", ShardedRedisAdapter.class),
+        ROCKSDB("RocksDB", RocksDBAdapter.class),
         HIVE("Hive", HiveAdapter.class),
         HBASE("HBase", HBaseAdapter.class);
         
@@ -216,12 +220,6 @@ public class StorageAdapterFactory {
         try {
             Class<? extends DatabaseStorage> adapterClass = adapterType.getAdapterClass();
             
-            // 检查适配器类是否已实现
-            if (adapterClass == HiveAdapter.class || adapterClass == HBaseAdapter.class) {
-                throw new StorageException("NOT_IMPLEMENTED", 
-                        adapterType.getTypeName() + " adapter is not implemented yet");
-            }
-            
             // 创建适配器实例
             DatabaseStorage adapter = adapterClass.getDeclaredConstructor(DatabaseConfig.class).newInstance(config);
             
@@ -0,0 +1,284 @@
+package database.health;
+
+import database.cache.CachingDatabaseStorage;
+import database.compress.CompressingDatabaseStorage;
+import database.config.ConnectionPoolConfig;
+import database.core.DatabaseStorage;
+import database.core.PoolMetrics;
+import database.core.PooledStorage;
+import database.core.StorageException;
+import database.routing.ReadWriteSplittingDatabaseStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 后台健康检查与连接池自动调整
+ * 按固定间隔检查每个适配器的健康状态，连续失败达到阈值的适配器暂停对外提供（getAdapter抛出异常），
+ * 之后第一次检查成功即恢复。
+ * 
+ * 同时读取连接池指标：获取连接的平均等待时间持续超过阈值（或持续有线程在等待连接）时扩大连接池，
+ * 持续空闲过多时逐步缩回配置的max_pool_size。扩大的上限由连接池配置的auto_size_max_pool_size决定，
+ * 未配置时只记录指标不调整。
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class HealthCheckScheduler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(HealthCheckScheduler.class);
+    
+    /**
+     * 被检查的适配器（管理器中的实时映射）
+     */
+    private final Map<String, DatabaseStorage> adapters;
+    
+    /**
+     * 各数据库的连接池配置
+     */
+    private final Map<String, ConnectionPoolConfig> poolConfigs;
+    
+    /**
+     * 检查间隔（毫秒）
+     */
+    private final long interval;
+    
+    /**
+     * 连续失败多少次后暂停适配器
+     */
+    private final int failureThreshold;
+    
+    /**
+     * 各适配器的检查状态
+     */
+    private final Map<String, AdapterState> states = new ConcurrentHashMap<>();
+    
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private ScheduledExecutorService executor;
+    
+    /**
+     * 构造函数
+     * 
+     * @param adapters 被检查的适配器
+     * @param poolConfigs 各数据库的连接池配置（可以不包含全部数据库）
+     * @param interval 检查间隔（毫秒）
+     * @param failureThreshold 连续失败多少次后暂停适配器
+     */
+    public HealthCheckScheduler(Map<String, DatabaseStorage> adapters, Map<String, ConnectionPoolConfig> poolConfigs,
+                                long interval, int failureThreshold) {
+        if (adapters == null) {
+            throw new IllegalArgumentException("Adapters cannot be null");
+        }
+        if (interval < 100) {
+            throw new IllegalArgumentException("Health check interval must be at least 100ms");
+        }
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("Health check failure threshold must be greater than 0");
+        }
+        this.adapters = adapters;
+        this.poolConfigs = poolConfigs != null ? poolConfigs : new ConcurrentHashMap<>();
+        this.interval = interval;
+        this.failureThreshold = failureThreshold;
+    }
+    
+    /**
+     * 启动后台检查
+     */
+    public void start() {
+        if (running.compareAndSet(false, true)) {
+            executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "blackhole-health-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(this::checkAll, interval, interval, TimeUnit.MILLISECONDS);
+            logger.info("Started health checks every {} ms for {} adapters", interval, adapters.size());
+        }
+    }
+    
+    /**
+     * 停止后台检查
+     */
+    public void stop() {
+        if (running.compareAndSet(true, false) && executor != null) {
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(interval, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            logger.info("Stopped health checks");
+        }
+    }
+    
+    /**
+     * 适配器是否可用（未被暂停）
+     * 
+     * @param name 数据库名称
+     * @return false表示最近连续多次检查失败
+     */
+    public boolean isAvailable(String name) {
+        AdapterState state = states.get(name);
+        return state == null || !state.evicted;
+    }
+    
+    /**
+     * 立即检查所有适配器（后台线程按间隔调用）
+     */
+    public synchronized void checkAll() {
+        states.keySet().retainAll(adapters.keySet());
+        for (Map.Entry<String, DatabaseStorage> entry : adapters.entrySet()) {
+            String name = entry.getKey();
+            AdapterState state = states.computeIfAbsent(name, key -> new AdapterState());
+            try {
+                checkHealth(name, entry.getValue(), state);
+                checkPool(name, entry.getValue(), state);
+            } catch (RuntimeException e) {
+                // 单个适配器的异常不能中断后续检查和定时任务
+                logger.warn("Health check for {} failed unexpectedly", name, e);
+            }
+        }
+    }
+    
+    /**
+     * 获取检查状态
+     * 
+     * @return 数据库名称 -> 健康状态、连续失败次数和连接池指标
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        for (Map.Entry<String, AdapterState> entry : states.entrySet()) {
+            AdapterState state = entry.getValue();
+            Map<String, Object> adapterStatus = new LinkedHashMap<>();
+            adapterStatus.put("available", !state.evicted);
+            adapterStatus.put("consecutiveFailures", state.consecutiveFailures);
+            adapterStatus.put("lastCheckMillis", state.lastCheckMillis);
+            PoolMetrics metrics = state.lastMetrics;
+            if (metrics != null) {
+                adapterStatus.put("pool", metrics.toMap());
+                adapterStatus.put("meanWaitMillis", state.lastMeanWaitMillis);
+            }
+            status.put(entry.getKey(), adapterStatus);
+        }
+        return status;
+    }
+    
+    private void checkHealth(String name, DatabaseStorage storage, AdapterState state) {
+        boolean healthy;
+        try {
+            healthy = storage.isHealthy();
+        } catch (RuntimeException e) {
+            healthy = false;
+        }
+        state.lastCheckMillis = System.currentTimeMillis();
+        
+        if (healthy) {
+            state.consecutiveFailures = 0;
+            if (state.evicted) {
+                state.evicted = false;
+                logger.info("Database {} recovered and is available again", name);
+            }
+        } else {
+            state.consecutiveFailures++;
+            if (!state.evicted && state.consecutiveFailures >= failureThreshold) {
+                state.evicted = true;
+                logger.error("Database {} failed {} consecutive health checks and is unavailable until it recovers",
+                        name, state.consecutiveFailures);
+            }
+        }
+    }
+    
+    /**
+     * 根据持续的等待时间调整连接池
+     */
+    private void checkPool(String name, DatabaseStorage storage, AdapterState state) {
+        PooledStorage pooled = unwrapPooled(storage);
+        if (pooled == null) {
+            return;
+        }
+        PoolMetrics metrics = pooled.getPoolMetrics();
+        if (metrics == null) {
+            return;
+        }
+        double meanWait = metrics.meanWaitMillisSince(state.lastMetrics);
+        state.lastMetrics = metrics;
+        state.lastMeanWaitMillis = meanWait;
+        
+        ConnectionPoolConfig poolConfig = poolConfigs.get(name);
+        if (poolConfig == null || !poolConfig.isAutoSizeEnabled() || state.evicted) {
+            return;
+        }
+        
+        int current = metrics.getMaxSize();
+        boolean starved = meanWait >= poolConfig.getAutoSizeWaitThreshold() || metrics.getWaiting() > 0;
+        boolean oversized = metrics.getWaiting() == 0
+                && meanWait < poolConfig.getAutoSizeWaitThreshold() / 4.0
+                && metrics.getActive() <= current / 2;
+        state.starvedChecks = starved ? state.starvedChecks + 1 : 0;
+        state.idleChecks = oversized ? state.idleChecks + 1 : 0;
+        
+        int target = current;
+        if (state.starvedChecks >= poolConfig.getAutoSizeSustainChecks()) {
+            target = Math.min(poolConfig.getAutoSizeMaxPoolSize(), current + Math.max(1, current / 4));
+        } else if (state.idleChecks >= poolConfig.getAutoSizeSustainChecks()) {
+            target = Math.max(poolConfig.getMaxPoolSize(), current - Math.max(1, current / 4));
+        }
+        if (target == current) {
+            return;
+        }
+        
+        try {
+            pooled.resizePool(target);
+            state.starvedChecks = 0;
+            state.idleChecks = 0;
+            logger.info("Auto-sized connection pool of {} from {} to {} (mean wait {} ms, active {}, waiting {})",
+                    name, current, target, String.format("%.1f", meanWait), metrics.getActive(), metrics.getWaiting());
+        } catch (StorageException e) {
+            logger.warn("Failed to resize connection pool of {}: {}", name, e.getMessage());
+        }
+    }
+    
+    /**
+     * 去掉装饰层，找到持有连接池的适配器
+     * 
+     * @param storage 存储（可能被缓存、读写分离或列压缩装饰）
+     * @return 带连接池的适配器，没有连接池时返回null
+     */
+    static PooledStorage unwrapPooled(DatabaseStorage storage) {
+        DatabaseStorage current = storage;
+        while (true) {
+            if (current instanceof PooledStorage) {
+                return (PooledStorage) current;
+            }
+            if (current instanceof CachingDatabaseStorage) {
+                current = ((CachingDatabaseStorage) current).getDelegate();
+            } else if (current instanceof ReadWriteSplittingDatabaseStorage) {
+                current = ((ReadWriteSplittingDatabaseStorage) current).getDelegate();
+            } else if (current instanceof CompressingDatabaseStorage) {
+                current = ((CompressingDatabaseStorage) current).getDelegate();
+            } else {
+                return null;
+            }
+        }
+    }
+    
+    /**
+     * 单个适配器的检查状态（只在检查线程中修改）
+     */
+    private static final class AdapterState {
+        private volatile boolean evicted;
+        private volatile int consecutiveFailures;
+        private volatile long lastCheckMillis;
+        private volatile PoolMetrics lastMetrics;
+        private volatile double lastMeanWaitMillis;
+        private int starvedChecks;
+        private int idleChecks;
+    }
+}
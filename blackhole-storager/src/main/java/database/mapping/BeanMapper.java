@@ -0,0 +1,310 @@
+package database.mapping;
+
+import database.core.RowMapper;
+
+import java.beans.BeanInfo;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Bean映射器
+ * 为POJO一次性生成行映射器和语句参数绑定器，按类缓存：
+ * <ul>
+ *   <li>构造函数和getter/setter由LambdaMetafactory生成为函数式接口，调用开销与手写代码相同，不经过反射</li>
+ *   <li>列按序号读取，列名到序号的解析每个结果集只做一次</li>
+ *   <li>long/int/double/boolean属性直接走getLong/setLong等原始类型方法，不装箱，也不为每行分配Map</li>
+ * </ul>
+ * 
+ * Bean需要是public类，带public无参构造函数和成对的public getter/setter；
+ * 列名默认是属性名的下划线形式（crawledAt → crawled_at），可用 {@link Column} 覆盖。
+ * 
+ * <pre>
+ * BeanMapper&lt;Article&gt; mapper = BeanMapper.of(Article.class);
+ * List&lt;Article&gt; articles = storage.queryMultiple("SELECT * FROM articles WHERE site = ?", mapper.rowMapper(), site);
+ * adapter.insertBeans("articles", articles, mapper);
+ * </pre>
+ * 
+ * @param <T> Bean类型
+ * @author Collections Team
+ * @since 1.0
+ */
+public final class BeanMapper<T> {
+    
+    private static final ClassValue<BeanMapper<?>> CACHE = new ClassValue<BeanMapper<?>>() {
+        @Override
+        protected BeanMapper<?> computeValue(Class<?> type) {
+            return new BeanMapper<>(type);
+        }
+    };
+    
+    private final Class<T> type;
+    private final Supplier<T> constructor;
+    private final BeanProperty<T>[] properties;
+    private final List<String> columns;
+    private final RowMapper<T> rowMapper;
+    
+    /**
+     * 获取类型的映射器（按类缓存）
+     * 
+     * @param type Bean类型
+     * @param <T> Bean类型
+     * @return 映射器
+     * @throws IllegalArgumentException 类型不能映射时抛出异常
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> BeanMapper<T> of(Class<T> type) {
+        return (BeanMapper<T>) CACHE.get(type);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private BeanMapper(Class<T> type) {
+        if (!isAccessible(type)) {
+            throw new IllegalArgumentException("Bean class must be public: " + type.getName());
+        }
+        this.type = type;
+        
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            Constructor<T> ctor = type.getConstructor();
+            this.constructor = BeanProperty.lambda(lookup, Supplier.class, "get",
+                    MethodType.methodType(Object.class), lookup.unreflectConstructor(ctor));
+            
+            List<BeanProperty<T>> mapped = new ArrayList<>();
+            BeanInfo info = Introspector.getBeanInfo(type, Object.class);
+            for (PropertyDescriptor descriptor : info.getPropertyDescriptors()) {
+                Method getter = descriptor.getReadMethod();
+                Method setter = descriptor.getWriteMethod();
+                if (getter == null || setter == null) {
+                    continue;
+                }
+                Column column = findColumn(type, descriptor.getName(), getter);
+                if (column != null && column.ignore()) {
+                    continue;
+                }
+                String columnName = column != null && !column.value().isEmpty()
+                        ? column.value() : toColumnName(descriptor.getName());
+                mapped.add(BeanProperty.create(lookup, descriptor.getName(), columnName, getter, setter));
+            }
+            if (mapped.isEmpty()) {
+                throw new IllegalArgumentException("No readable and writable properties in " + type.getName());
+            }
+            
+            this.properties = (BeanProperty<T>[]) mapped.toArray(new BeanProperty<?>[0]);
+            List<String> names = new ArrayList<>(properties.length);
+            for (BeanProperty<T> property : properties) {
+                names.add(property.column);
+            }
+            this.columns = Collections.unmodifiableList(names);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("Bean class needs a public no-arg constructor: " + type.getName(), e);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalArgumentException("Failed to build bean mapper for " + type.getName(), e);
+        }
+        this.rowMapper = new BeanRowMapper();
+    }
+    
+    /**
+     * 获取行映射器
+     * 映射器可在多个线程和多次查询间共享
+     * 
+     * @return 行映射器
+     */
+    public RowMapper<T> rowMapper() {
+        return rowMapper;
+    }
+    
+    /**
+     * 按 {@link #getColumns()} 的顺序把Bean的属性绑定为语句参数
+     * 
+     * @param stmt 预编译语句
+     * @param bean Bean
+     * @throws SQLException 绑定失败时抛出异常
+     */
+    public void bind(PreparedStatement stmt, T bean) throws SQLException {
+        for (int i = 0; i < properties.length; i++) {
+            properties[i].bind(stmt, i + 1, bean);
+        }
+    }
+    
+    /**
+     * 生成插入语句
+     * 
+     * @param table 表名（调用方负责校验）
+     * @return INSERT INTO table (c1, c2, ...) VALUES (?, ?, ...)
+     */
+    public String insertSql(String table) {
+        return "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+    }
+    
+    /**
+     * 转换为列名到值的映射，供只接受Map的存储（键值库、装饰层）使用
+     * 
+     * @param bean Bean
+     * @return 列名到值的映射
+     */
+    public Map<String, Object> toMap(T bean) {
+        Map<String, Object> map = new LinkedHashMap<>(properties.length * 2);
+        for (BeanProperty<T> property : properties) {
+            map.put(property.column, property.get(bean));
+        }
+        return map;
+    }
+    
+    /**
+     * 转换为参数数组（按 {@link #getColumns()} 的顺序），供只接受参数数组的写路径使用
+     * 
+     * @param bean Bean
+     * @return 参数数组
+     */
+    public Object[] toParameters(T bean) {
+        Object[] params = new Object[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            params[i] = properties[i].get(bean);
+        }
+        return params;
+    }
+    
+    public Class<T> getType() {
+        return type;
+    }
+    
+    /**
+     * 获取映射的列名（即插入语句和绑定参数的顺序）
+     * 
+     * @return 列名列表
+     */
+    public List<String> getColumns() {
+        return columns;
+    }
+    
+    /**
+     * 属性名转下划线形式的列名
+     * 
+     * @param property 属性名
+     * @return 列名
+     */
+    static String toColumnName(String property) {
+        StringBuilder column = new StringBuilder(property.length() + 4);
+        for (int i = 0; i < property.length(); i++) {
+            char c = property.charAt(i);
+            if (Character.isUpperCase(c)) {
+                if (i > 0) {
+                    column.append('_');
+                }
+                column.append(Character.toLowerCase(c));
+            } else {
+                column.append(c);
+            }
+        }
+        return column.toString();
+    }
+    
+    /**
+     * 列名比较键：忽略大小写和下划线，使crawled_at、CRAWLED_AT和crawledAt都能匹配
+     */
+    private static String matchKey(String column) {
+        return column.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+    
+    private static Column findColumn(Class<?> type, String property, Method getter) {
+        Column column = getter.getAnnotation(Column.class);
+        if (column != null) {
+            return column;
+        }
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            try {
+                Field field = current.getDeclaredField(property);
+                return field.getAnnotation(Column.class);
+            } catch (NoSuchFieldException e) {
+                // 继续查找父类
+            }
+        }
+        return null;
+    }
+    
+    private static boolean isAccessible(Class<?> type) {
+        for (Class<?> current = type; current != null; current = current.getEnclosingClass()) {
+            if (!Modifier.isPublic(current.getModifiers())) {
+                return false;
+            }
+        }
+        return !type.isInterface() && !Modifier.isAbstract(type.getModifiers());
+    }
+    
+    /**
+     * 行映射器
+     * 每个结果集第一行时按列标签解析属性对应的列序号，之后每行只按序号读取。
+     * 解析结果放在ThreadLocal里，多个线程同时用同一个映射器读取不同的查询时互不干扰。
+     */
+    private final class BeanRowMapper implements RowMapper<T> {
+        
+        private final ThreadLocal<Resolution> resolution = new ThreadLocal<>();
+        
+        @Override
+        public T mapRow(ResultSet rs, int rowNum) throws SQLException {
+            Resolution current = resolution.get();
+            int identity = System.identityHashCode(rs);
+            if (current == null || rowNum == 1 || current.resultSetIdentity != identity) {
+                current = resolve(rs, identity);
+                resolution.set(current);
+            }
+            
+            T bean = constructor.get();
+            int[] indexes = current.indexes;
+            for (int i = 0; i < properties.length; i++) {
+                if (indexes[i] > 0) {
+                    properties[i].read(rs, indexes[i], bean);
+                }
+            }
+            return bean;
+        }
+        
+        private Resolution resolve(ResultSet rs, int identity) throws SQLException {
+            ResultSetMetaData metaData = rs.getMetaData();
+            Map<String, Integer> byLabel = new LinkedHashMap<>();
+            for (int i = metaData.getColumnCount(); i >= 1; i--) {
+                // 倒序放入，同名列以第一次出现的为准
+                byLabel.put(matchKey(metaData.getColumnLabel(i)), i);
+            }
+            int[] indexes = new int[properties.length];
+            for (int i = 0; i < properties.length; i++) {
+                Integer index = byLabel.get(matchKey(properties[i].column));
+                indexes[i] = index != null ? index : 0;
+            }
+            return new Resolution(identity, indexes);
+        }
+    }
+    
+    /**
+     * 结果集的列序号解析结果（属性序号 → 列序号，0表示结果集中没有该列）
+     */
+    private static final class Resolution {
+        private final int resultSetIdentity;
+        private final int[] indexes;
+        
+        private Resolution(int resultSetIdentity, int[] indexes) {
+            this.resultSetIdentity = resultSetIdentity;
+            this.indexes = indexes;
+        }
+    }
+}
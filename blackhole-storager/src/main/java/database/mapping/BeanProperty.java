@@ -0,0 +1,445 @@
+package database.mapping;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bean属性访问器
+ * getter/setter通过LambdaMetafactory生成为对应原始类型的函数式接口（ToLongFunction、ObjLongConsumer等），
+ * 读写long/int/double/boolean属性时直接调用ResultSet.getLong/PreparedStatement.setLong等方法，不经过反射也不装箱。
+ * 
+ * @param <T> Bean类型
+ * @author Collections Team
+ * @since 1.0
+ */
+abstract class BeanProperty<T> {
+    
+    final String name;
+    final String column;
+    
+    BeanProperty(String name, String column) {
+        this.name = name;
+        this.column = column;
+    }
+    
+    /**
+     * 从结果集读取列值并写入Bean
+     * 
+     * @param rs 结果集
+     * @param index 列序号（从1开始）
+     * @param bean 目标Bean
+     * @throws SQLException 读取失败时抛出异常
+     */
+    abstract void read(ResultSet rs, int index, T bean) throws SQLException;
+    
+    /**
+     * 把Bean的属性值绑定为语句参数
+     * 
+     * @param stmt 预编译语句
+     * @param index 参数序号（从1开始）
+     * @param bean 来源Bean
+     * @throws SQLException 绑定失败时抛出异常
+     */
+    abstract void bind(PreparedStatement stmt, int index, T bean) throws SQLException;
+    
+    /**
+     * 读取属性值（装箱，仅用于Map形式的回退路径）
+     * 
+     * @param bean 来源Bean
+     * @return 属性值
+     */
+    abstract Object get(T bean);
+    
+    /**
+     * 按属性类型创建访问器
+     * 
+     * @param lookup 查找上下文
+     * @param name 属性名
+     * @param column 列名
+     * @param getter getter方法
+     * @param setter setter方法
+     * @param <T> Bean类型
+     * @return 访问器
+     * @throws Throwable 生成函数式接口失败时抛出异常
+     */
+    static <T> BeanProperty<T> create(MethodHandles.Lookup lookup, String name, String column,
+                                      Method getter, Method setter) throws Throwable {
+        Class<?> type = getter.getReturnType();
+        MethodHandle get = lookup.unreflect(getter);
+        MethodHandle set = lookup.unreflect(setter);
+        
+        if (type == long.class) {
+            return new LongProperty<>(name, column,
+                    lambda(lookup, ToLongFunction.class, "applyAsLong", MethodType.methodType(long.class, Object.class), get),
+                    lambda(lookup, ObjLongConsumer.class, "accept", MethodType.methodType(void.class, Object.class, long.class), set));
+        }
+        if (type == int.class) {
+            return new IntProperty<>(name, column,
+                    lambda(lookup, ToIntFunction.class, "applyAsInt", MethodType.methodType(int.class, Object.class), get),
+                    lambda(lookup, ObjIntConsumer.class, "accept", MethodType.methodType(void.class, Object.class, int.class), set));
+        }
+        if (type == double.class) {
+            return new DoubleProperty<>(name, column,
+                    lambda(lookup, ToDoubleFunction.class, "applyAsDouble", MethodType.methodType(double.class, Object.class), get),
+                    lambda(lookup, ObjDoubleConsumer.class, "accept", MethodType.methodType(void.class, Object.class, double.class), set));
+        }
+        if (type == boolean.class) {
+            return new BooleanProperty<>(name, column,
+                    lambda(lookup, Predicate.class, "test", MethodType.methodType(boolean.class, Object.class), get),
+                    lambda(lookup, ObjBooleanConsumer.class, "accept", MethodType.methodType(void.class, Object.class, boolean.class), set));
+        }
+        if (type.isPrimitive()) {
+            throw new IllegalArgumentException("Unsupported primitive property type " + type + " for " + name
+                    + ", use long, int, double, boolean or a wrapper type");
+        }
+        return new ObjectProperty<>(name, column, ValueKind.of(type), type,
+                lambda(lookup, Function.class, "apply", MethodType.methodType(Object.class, Object.class), get),
+                lambda(lookup, BiConsumer.class, "accept", MethodType.methodType(void.class, Object.class, Object.class), set));
+    }
+    
+    /**
+     * 用LambdaMetafactory把方法句柄包装为函数式接口实例
+     */
+    @SuppressWarnings("unchecked")
+    static <F> F lambda(MethodHandles.Lookup lookup, Class<? super F> functionType, String methodName,
+                        MethodType erasedType, MethodHandle target) throws Throwable {
+        CallSite site = LambdaMetafactory.metafactory(lookup, methodName,
+                MethodType.methodType(functionType), erasedType, target, target.type());
+        return (F) site.getTarget().invoke();
+    }
+    
+    /**
+     * boolean的setter（JDK没有ObjBooleanConsumer）
+     */
+    @FunctionalInterface
+    interface ObjBooleanConsumer<T> {
+        void accept(T bean, boolean value);
+    }
+    
+    /**
+     * long属性
+     */
+    static final class LongProperty<T> extends BeanProperty<T> {
+        private final ToLongFunction<T> getter;
+        private final ObjLongConsumer<T> setter;
+        
+        LongProperty(String name, String column, ToLongFunction<T> getter, ObjLongConsumer<T> setter) {
+            super(name, column);
+            this.getter = getter;
+            this.setter = setter;
+        }
+        
+        @Override
+        void read(ResultSet rs, int index, T bean) throws SQLException {
+            setter.accept(bean, rs.getLong(index));
+        }
+        
+        @Override
+        void bind(PreparedStatement stmt, int index, T bean) throws SQLException {
+            stmt.setLong(index, getter.applyAsLong(bean));
+        }
+        
+        @Override
+        Object get(T bean) {
+            return getter.applyAsLong(bean);
+        }
+    }
+    
+    /**
+     * int属性
+     */
+    static final class IntProperty<T> extends BeanProperty<T> {
+        private final ToIntFunction<T> getter;
+        private final ObjIntConsumer<T> setter;
+        
+        IntProperty(String name, String column, ToIntFunction<T> getter, ObjIntConsumer<T> setter) {
+            super(name, column);
+            this.getter = getter;
+            this.setter = setter;
+        }
+        
+        @Override
+        void read(ResultSet rs, int index, T bean) throws SQLException {
+            setter.accept(bean, rs.getInt(index));
+        }
+        
+        @Override
+        void bind(PreparedStatement stmt, int index, T bean) throws SQLException {
+            stmt.setInt(index, getter.applyAsInt(bean));
+        }
+        
+        @Override
+        Object get(T bean) {
+            return getter.applyAsInt(bean);
+        }
+    }
+    
+    /**
+     * double属性
+     */
+    static final class DoubleProperty<T> extends BeanProperty<T> {
+        private final ToDoubleFunction<T> getter;
+        private final ObjDoubleConsumer<T> setter;
+        
+        DoubleProperty(String name, String column, ToDoubleFunction<T> getter, ObjDoubleConsumer<T> setter) {
+            super(name, column);
+            this.getter = getter;
+            this.setter = setter;
+        }
+        
+        @Override
+        void read(ResultSet rs, int index, T bean) throws SQLException {
+            setter.accept(bean, rs.getDouble(index));
+        }
+        
+        @Override
+        void bind(PreparedStatement stmt, int index, T bean) throws SQLException {
+            stmt.setDouble(index, getter.applyAsDouble(bean));
+        }
+        
+        @Override
+        Object get(T bean) {
+            return getter.applyAsDouble(bean);
+        }
+    }
+    
+    /**
+     * boolean属性
+     */
+    static final class BooleanProperty<T> extends BeanProperty<T> {
+        private final Predicate<T> getter;
+        private final ObjBooleanConsumer<T> setter;
+        
+        BooleanProperty(String name, String column, Predicate<T> getter, ObjBooleanConsumer<T> setter) {
+            super(name, column);
+            this.getter = getter;
+            this.setter = setter;
+        }
+        
+        @Override
+        void read(ResultSet rs, int index, T bean) throws SQLException {
+            setter.accept(bean, rs.getBoolean(index));
+        }
+        
+        @Override
+        void bind(PreparedStatement stmt, int index, T bean) throws SQLException {
+            stmt.setBoolean(index, getter.test(bean));
+        }
+        
+        @Override
+        Object get(T bean) {
+            return getter.test(bean);
+        }
+    }
+    
+    /**
+     * 引用类型属性的读写方式
+     */
+    enum ValueKind {
+        STRING, BYTES, LONG, INTEGER, DOUBLE, BOOLEAN, BIG_DECIMAL, TIMESTAMP, INSTANT, LOCAL_DATE_TIME, DATE, ENUM, OBJECT;
+        
+        static ValueKind of(Class<?> type) {
+            if (type == String.class) {
+                return STRING;
+            } else if (type == byte[].class) {
+                return BYTES;
+            } else if (type == Long.class) {
+                return LONG;
+            } else if (type == Integer.class) {
+                return INTEGER;
+            } else if (type == Double.class) {
+                return DOUBLE;
+            } else if (type == Boolean.class) {
+                return BOOLEAN;
+            } else if (type == BigDecimal.class) {
+                return BIG_DECIMAL;
+            } else if (type == Timestamp.class) {
+                return TIMESTAMP;
+            } else if (type == Instant.class) {
+                return INSTANT;
+            } else if (type == LocalDateTime.class) {
+                return LOCAL_DATE_TIME;
+            } else if (type == Date.class) {
+                return DATE;
+            } else if (type.isEnum()) {
+                return ENUM;
+            }
+            return OBJECT;
+        }
+    }
+    
+    /**
+     * 引用类型属性
+     */
+    static final class ObjectProperty<T> extends BeanProperty<T> {
+        private final ValueKind kind;
+        private final Class<?> type;
+        private final Function<T, Object> getter;
+        private final BiConsumer<T, Object> setter;
+        
+        ObjectProperty(String name, String column, ValueKind kind, Class<?> type,
+                       Function<T, Object> getter, BiConsumer<T, Object> setter) {
+            super(name, column);
+            this.kind = kind;
+            this.type = type;
+            this.getter = getter;
+            this.setter = setter;
+        }
+        
+        @Override
+        void read(ResultSet rs, int index, T bean) throws SQLException {
+            setter.accept(bean, readValue(rs, index));
+        }
+        
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Object readValue(ResultSet rs, int index) throws SQLException {
+            switch (kind) {
+                case STRING:
+                    return rs.getString(index);
+                case BYTES:
+                    return rs.getBytes(index);
+                case LONG: {
+                    long value = rs.getLong(index);
+                    return rs.wasNull() ? null : value;
+                }
+                case INTEGER: {
+                    int value = rs.getInt(index);
+                    return rs.wasNull() ? null : value;
+                }
+                case DOUBLE: {
+                    double value = rs.getDouble(index);
+                    return rs.wasNull() ? null : value;
+                }
+                case BOOLEAN: {
+                    boolean value = rs.getBoolean(index);
+                    return rs.wasNull() ? null : value;
+                }
+                case BIG_DECIMAL:
+                    return rs.getBigDecimal(index);
+                case TIMESTAMP:
+                    return rs.getTimestamp(index);
+                case INSTANT: {
+                    Timestamp value = rs.getTimestamp(index);
+                    return value != null ? value.toInstant() : null;
+                }
+                case LOCAL_DATE_TIME: {
+                    Timestamp value = rs.getTimestamp(index);
+                    return value != null ? value.toLocalDateTime() : null;
+                }
+                case DATE: {
+                    Timestamp value = rs.getTimestamp(index);
+                    return value != null ? new Date(value.getTime()) : null;
+                }
+                case ENUM: {
+                    String value = rs.getString(index);
+                    return value != null ? Enum.valueOf((Class<? extends Enum>) type, value) : null;
+                }
+                default:
+                    return rs.getObject(index);
+            }
+        }
+        
+        @Override
+        void bind(PreparedStatement stmt, int index, T bean) throws SQLException {
+            Object value = getter.apply(bean);
+            if (value == null) {
+                stmt.setNull(index, sqlType());
+                return;
+            }
+            switch (kind) {
+                case STRING:
+                    stmt.setString(index, (String) value);
+                    break;
+                case BYTES:
+                    stmt.setBytes(index, (byte[]) value);
+                    break;
+                case LONG:
+                    stmt.setLong(index, (Long) value);
+                    break;
+                case INTEGER:
+                    stmt.setInt(index, (Integer) value);
+                    break;
+                case DOUBLE:
+                    stmt.setDouble(index, (Double) value);
+                    break;
+                case BOOLEAN:
+                    stmt.setBoolean(index, (Boolean) value);
+                    break;
+                case BIG_DECIMAL:
+                    stmt.setBigDecimal(index, (BigDecimal) value);
+                    break;
+                case TIMESTAMP:
+                    stmt.setTimestamp(index, (Timestamp) value);
+                    break;
+                case INSTANT:
+                    stmt.setTimestamp(index, Timestamp.from((Instant) value));
+                    break;
+                case LOCAL_DATE_TIME:
+                    stmt.setTimestamp(index, Timestamp.valueOf((LocalDateTime) value));
+                    break;
+                case DATE:
+                    stmt.setTimestamp(index, new Timestamp(((Date) value).getTime()));
+                    break;
+                case ENUM:
+                    stmt.setString(index, ((Enum<?>) value).name());
+                    break;
+                default:
+                    stmt.setObject(index, value);
+            }
+        }
+        
+        private int sqlType() {
+            switch (kind) {
+                case STRING:
+                case ENUM:
+                    return Types.VARCHAR;
+                case BYTES:
+                    return Types.VARBINARY;
+                case LONG:
+                    return Types.BIGINT;
+                case INTEGER:
+                    return Types.INTEGER;
+                case DOUBLE:
+                    return Types.DOUBLE;
+                case BOOLEAN:
+                    return Types.BOOLEAN;
+                case BIG_DECIMAL:
+                    return Types.DECIMAL;
+                case TIMESTAMP:
+                case INSTANT:
+                case LOCAL_DATE_TIME:
+                case DATE:
+                    return Types.TIMESTAMP;
+                default:
+                    return Types.NULL;
+            }
+        }
+        
+        @Override
+        Object get(T bean) {
+            return getter.apply(bean);
+        }
+    }
+}
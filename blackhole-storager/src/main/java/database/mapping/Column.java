@@ -0,0 +1,32 @@
+package database.mapping;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 列映射注解
+ * 标注在字段或getter上，覆盖默认的列名（属性名转下划线形式），或把属性排除在映射之外
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface Column {
+    
+    /**
+     * 列名，为空时使用属性名的下划线形式
+     * 
+     * @return 列名
+     */
+    String value() default "";
+    
+    /**
+     * 是否忽略该属性
+     * 
+     * @return true表示不参与读写
+     */
+    boolean ignore() default false;
+}
@@ -0,0 +1,89 @@
+package database.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 延迟直方图
+ * 按微秒以2的幂划分桶（第i个桶为 [2^(i-1), 2^i) 微秒），记录一次只需几次无锁的原子加法；
+ * 百分位数取所在桶的上界，相对误差不超过2倍，足以区分"几毫秒"和"几百毫秒"的语句。
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public final class LatencyHistogram {
+    
+    /**
+     * 桶数，最后一个桶包含2^38微秒（约76小时）以上的所有值
+     */
+    static final int BUCKETS = 40;
+    
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+    
+    /**
+     * 记录一次执行
+     * 
+     * @param micros 耗时（微秒）
+     */
+    public void record(long micros) {
+        long value = Math.max(0, micros);
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value));
+        buckets.incrementAndGet(bucket);
+        count.increment();
+        totalMicros.add(value);
+        maxMicros.accumulate(value);
+    }
+    
+    public long getCount() {
+        return count.sum();
+    }
+    
+    public long getTotalMicros() {
+        return totalMicros.sum();
+    }
+    
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+    
+    /**
+     * 获取平均耗时
+     * 
+     * @return 平均耗时（微秒），没有记录时返回0
+     */
+    public long getMeanMicros() {
+        long n = count.sum();
+        return n == 0 ? 0 : totalMicros.sum() / n;
+    }
+    
+    /**
+     * 估算百分位数
+     * 
+     * @param percentile 百分位（0-100）
+     * @return 耗时上界（微秒），没有记录时返回0
+     */
+    public long getPercentileMicros(double percentile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank && snapshot[i] > 0) {
+                return Math.min(i == 0 ? 0 : 1L << i, getMaxMicros());
+            }
+        }
+        return getMaxMicros();
+    }
+}
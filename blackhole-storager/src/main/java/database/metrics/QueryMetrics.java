@@ -0,0 +1,303 @@
+package database.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * 查询统计
+ * 每个适配器一个实例，按SQL指纹维护延迟直方图、行数和错误数，并保留最近的慢查询样本（含参数）。
+ * 
+ * 指纹数量有上限，超出后新语句都计入 {@link #OTHER_FINGERPRINT}，避免动态拼接的SQL撑爆内存。
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class QueryMetrics implements QueryMetricsMXBean {
+    
+    private static final Logger logger = LoggerFactory.getLogger(QueryMetrics.class);
+    
+    public static final String OTHER_FINGERPRINT = "<other>";
+    
+    private static final int DEFAULT_MAX_STATEMENTS = 500;
+    private static final int DEFAULT_MAX_SLOW_SAMPLES = 100;
+    private static final int MAX_PARAMETER_LENGTH = 200;
+    private static final String JMX_DOMAIN = "database.blackhole";
+    
+    private final String databaseName;
+    private final int maxStatements;
+    private final int maxSlowSamples;
+    private volatile long slowQueryThresholdMillis;
+    
+    private final Map<String, StatementStats> statements = new ConcurrentHashMap<>();
+    private volatile LatencyHistogram overall = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder slowExecutions = new LongAdder();
+    private final Deque<SlowQuerySample> slowSamples = new ArrayDeque<>();
+    
+    private volatile ObjectName registeredName;
+    
+    public QueryMetrics(String databaseName, long slowQueryThresholdMillis) {
+        this(databaseName, slowQueryThresholdMillis, DEFAULT_MAX_STATEMENTS, DEFAULT_MAX_SLOW_SAMPLES);
+    }
+    
+    public QueryMetrics(String databaseName, long slowQueryThresholdMillis, int maxStatements, int maxSlowSamples) {
+        this.databaseName = databaseName;
+        this.slowQueryThresholdMillis = slowQueryThresholdMillis;
+        this.maxStatements = maxStatements;
+        this.maxSlowSamples = maxSlowSamples;
+    }
+    
+    /**
+     * 记录一次成功的执行
+     * 
+     * @param sql          SQL语句
+     * @param elapsedNanos 耗时（纳秒）
+     * @param rows         返回或影响的行数，未知时传-1
+     * @param params       参数，可为null
+     */
+    public void record(String sql, long elapsedNanos, long rows, Object[] params) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(elapsedNanos);
+        String fingerprint = SqlFingerprint.of(sql);
+        
+        StatementStats stats = statsFor(fingerprint);
+        stats.histogram.record(micros);
+        if (rows > 0) {
+            stats.rows.add(rows);
+        }
+        overall.record(micros);
+        
+        long elapsedMillis = micros / 1000;
+        if (elapsedMillis >= slowQueryThresholdMillis) {
+            slowExecutions.increment();
+            String parameters = formatParameters(params);
+            logger.warn("Slow query detected on {} ({} ms, {} rows): {} params={}",
+                    databaseName, elapsedMillis, rows, sql, parameters);
+            addSlowSample(new SlowQuerySample(fingerprint, sql, parameters, elapsedMillis, rows,
+                    System.currentTimeMillis(), Thread.currentThread().getName()));
+        }
+    }
+    
+    /**
+     * 记录一次失败的执行
+     * 
+     * @param sql          SQL语句
+     * @param elapsedNanos 耗时（纳秒）
+     */
+    public void recordError(String sql, long elapsedNanos) {
+        StatementStats stats = statsFor(SqlFingerprint.of(sql));
+        stats.errors.increment();
+        errors.increment();
+    }
+    
+    private StatementStats statsFor(String fingerprint) {
+        StatementStats stats = statements.get(fingerprint);
+        if (stats != null) {
+            return stats;
+        }
+        if (statements.size() >= maxStatements) {
+            return statements.computeIfAbsent(OTHER_FINGERPRINT, key -> new StatementStats());
+        }
+        return statements.computeIfAbsent(fingerprint, key -> new StatementStats());
+    }
+    
+    private void addSlowSample(SlowQuerySample sample) {
+        synchronized (slowSamples) {
+            if (slowSamples.size() >= maxSlowSamples) {
+                slowSamples.removeLast();
+            }
+            slowSamples.addFirst(sample);
+        }
+    }
+    
+    private static String formatParameters(Object[] params) {
+        if (params == null || params.length == 0) {
+            return "[]";
+        }
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < params.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            Object param = params[i];
+            String value;
+            if (param instanceof byte[]) {
+                value = "<" + ((byte[]) param).length + " bytes>";
+            } else {
+                value = String.valueOf(param);
+                if (value.length() > MAX_PARAMETER_LENGTH) {
+                    value = value.substring(0, MAX_PARAMETER_LENGTH) + "...(" + value.length() + " chars)";
+                }
+            }
+            builder.append(value);
+        }
+        return builder.append(']').toString();
+    }
+    
+    /**
+     * 注册到平台MBeanServer
+     * 同名MBean已存在时（例如两个管理器加载了同一份配置）只记录日志
+     */
+    public void registerMBean() {
+        if (registeredName != null) {
+            return;
+        }
+        try {
+            ObjectName name = new ObjectName(JMX_DOMAIN + ":type=QueryMetrics,name=" + ObjectName.quote(databaseName));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            registeredName = name;
+            logger.debug("Registered query metrics MBean {}", name);
+        } catch (InstanceAlreadyExistsException e) {
+            logger.warn("Query metrics MBean for {} already registered", databaseName);
+        } catch (Exception e) {
+            logger.warn("Failed to register query metrics MBean for {}", databaseName, e);
+        }
+    }
+    
+    /**
+     * 从平台MBeanServer注销
+     */
+    public void unregisterMBean() {
+        ObjectName name = registeredName;
+        if (name == null) {
+            return;
+        }
+        registeredName = null;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to unregister query metrics MBean {}", name, e);
+        }
+    }
+    
+    /**
+     * 转换为映射（用于状态输出）
+     * 
+     * @param topStatements 输出的语句数（按总耗时取前N条）
+     * @return 统计映射
+     */
+    public Map<String, Object> toMap(int topStatements) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("executions", overall.getCount());
+        map.put("errors", errors.sum());
+        map.put("slowExecutions", slowExecutions.sum());
+        map.put("slowQueryThresholdMillis", slowQueryThresholdMillis);
+        map.put("meanMicros", overall.getMeanMicros());
+        map.put("p50Micros", overall.getPercentileMicros(50));
+        map.put("p95Micros", overall.getPercentileMicros(95));
+        map.put("p99Micros", overall.getPercentileMicros(99));
+        map.put("maxMicros", overall.getMaxMicros());
+        map.put("fingerprints", statements.size());
+        map.put("topStatements", getStatements().stream()
+                .limit(topStatements)
+                .map(StatementSnapshot::toMap)
+                .collect(Collectors.toList()));
+        map.put("slowQueries", getSlowQueries().stream()
+                .map(SlowQuerySample::toMap)
+                .collect(Collectors.toList()));
+        return map;
+    }
+    
+    @Override
+    public String getDatabaseName() {
+        return databaseName;
+    }
+    
+    @Override
+    public long getTotalExecutions() {
+        return overall.getCount();
+    }
+    
+    @Override
+    public long getTotalErrors() {
+        return errors.sum();
+    }
+    
+    @Override
+    public long getSlowExecutions() {
+        return slowExecutions.sum();
+    }
+    
+    @Override
+    public long getP50Micros() {
+        return overall.getPercentileMicros(50);
+    }
+    
+    @Override
+    public long getP95Micros() {
+        return overall.getPercentileMicros(95);
+    }
+    
+    @Override
+    public long getP99Micros() {
+        return overall.getPercentileMicros(99);
+    }
+    
+    @Override
+    public long getSlowQueryThresholdMillis() {
+        return slowQueryThresholdMillis;
+    }
+    
+    @Override
+    public void setSlowQueryThresholdMillis(long thresholdMillis) {
+        if (thresholdMillis < 0) {
+            throw new IllegalArgumentException("Slow query threshold must be non-negative");
+        }
+        this.slowQueryThresholdMillis = thresholdMillis;
+    }
+    
+    @Override
+    public List<StatementSnapshot> getStatements() {
+        List<StatementSnapshot> snapshots = new ArrayList<>(statements.size());
+        statements.forEach((fingerprint, stats) -> snapshots.add(
+                StatementSnapshot.of(fingerprint, stats.histogram, stats.errors.sum(), stats.rows.sum())));
+        snapshots.sort(Comparator.comparingLong(StatementSnapshot::getTotalMillis).reversed());
+        return snapshots;
+    }
+    
+    @Override
+    public List<SlowQuerySample> getSlowQueries() {
+        synchronized (slowSamples) {
+            return new ArrayList<>(slowSamples);
+        }
+    }
+    
+    @Override
+    public void reset() {
+        statements.clear();
+        synchronized (slowSamples) {
+            slowSamples.clear();
+        }
+        errors.reset();
+        slowExecutions.reset();
+        overall = new LatencyHistogram();
+        logger.info("Query metrics reset for {}", databaseName);
+    }
+    
+    /**
+     * 单个指纹的统计
+     */
+    private static final class StatementStats {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,50 @@
+package database.metrics;
+
+import java.util.List;
+
+/**
+ * 查询统计JMX接口
+ * 注册为 database.blackhole:type=QueryMetrics,name=数据库名称
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public interface QueryMetricsMXBean {
+    
+    String getDatabaseName();
+    
+    long getTotalExecutions();
+    
+    long getTotalErrors();
+    
+    long getSlowExecutions();
+    
+    long getP50Micros();
+    
+    long getP95Micros();
+    
+    long getP99Micros();
+    
+    long getSlowQueryThresholdMillis();
+    
+    void setSlowQueryThresholdMillis(long thresholdMillis);
+    
+    /**
+     * 按总耗时降序排列的语句统计
+     * 
+     * @return 语句统计
+     */
+    List<StatementSnapshot> getStatements();
+    
+    /**
+     * 最近的慢查询样本（新的在前）
+     * 
+     * @return 慢查询样本
+     */
+    List<SlowQuerySample> getSlowQueries();
+    
+    /**
+     * 清空所有统计和样本
+     */
+    void reset();
+}
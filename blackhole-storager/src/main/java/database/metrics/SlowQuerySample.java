@@ -0,0 +1,85 @@
+package database.metrics;
+
+import java.beans.ConstructorProperties;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 慢查询样本
+ * 记录一次超过阈值的执行及其参数（参数已转为字符串并截断）
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public final class SlowQuerySample {
+    
+    private final String fingerprint;
+    private final String sql;
+    private final String parameters;
+    private final long elapsedMillis;
+    private final long rows;
+    private final long timestamp;
+    private final String threadName;
+    
+    @ConstructorProperties({"fingerprint", "sql", "parameters", "elapsedMillis", "rows", "timestamp", "threadName"})
+    public SlowQuerySample(String fingerprint, String sql, String parameters, long elapsedMillis, long rows,
+                           long timestamp, String threadName) {
+        this.fingerprint = fingerprint;
+        this.sql = sql;
+        this.parameters = parameters;
+        this.elapsedMillis = elapsedMillis;
+        this.rows = rows;
+        this.timestamp = timestamp;
+        this.threadName = threadName;
+    }
+    
+    public String getFingerprint() {
+        return fingerprint;
+    }
+    
+    public String getSql() {
+        return sql;
+    }
+    
+    public String getParameters() {
+        return parameters;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    /**
+     * 获取返回或影响的行数
+     * 
+     * @return 行数，未知时为-1
+     */
+    public long getRows() {
+        return rows;
+    }
+    
+    public long getTimestamp() {
+        return timestamp;
+    }
+    
+    public String getThreadName() {
+        return threadName;
+    }
+    
+    /**
+     * 转换为映射（用于状态输出）
+     * 
+     * @return 样本映射
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("fingerprint", fingerprint);
+        map.put("sql", sql);
+        map.put("parameters", parameters);
+        map.put("elapsedMillis", elapsedMillis);
+        map.put("rows", rows);
+        map.put("timestamp", timestamp);
+        map.put("thread", threadName);
+        return map;
+    }
+}
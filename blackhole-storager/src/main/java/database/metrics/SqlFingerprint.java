@@ -0,0 +1,123 @@
+package database.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * SQL指纹
+ * 去掉字面量和注释、合并空白并统一小写，使只有参数不同的语句得到相同的指纹；
+ * IN列表和多行VALUES的长度不同也视为同一条语句。
+ * 
+ * 同一条SQL通常会反复执行，规范化结果按原始SQL缓存，缓存满后不再加入新条目。
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public final class SqlFingerprint {
+    
+    private static final int MAX_CACHED = 4096;
+    
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern REPEATED_ROWS = Pattern.compile("\\(\\?\\+\\)(?:\\s*,\\s*\\(\\?\\+\\))+");
+    
+    private static final Map<String, String> CACHE = new ConcurrentHashMap<>();
+    
+    private SqlFingerprint() {
+        // 工具类，不需要实例化
+    }
+    
+    /**
+     * 计算SQL指纹
+     * 
+     * @param sql SQL语句
+     * @return 指纹
+     */
+    public static String of(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        String fingerprint = CACHE.get(sql);
+        if (fingerprint == null) {
+            fingerprint = normalize(sql);
+            if (CACHE.size() < MAX_CACHED) {
+                CACHE.put(sql, fingerprint);
+            }
+        }
+        return fingerprint;
+    }
+    
+    static String normalize(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            
+            if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                // 行注释
+                while (i < length && sql.charAt(i) != '\n') {
+                    i++;
+                }
+                appendSpace(out);
+            } else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                // 块注释
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+                appendSpace(out);
+            } else if (c == '\'') {
+                // 字符串字面量（'' 为转义的单引号）
+                i++;
+                while (i < length) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                i++;
+                out.append('?');
+            } else if (c == '"' || c == '`') {
+                // 带引号的标识符原样保留
+                int end = sql.indexOf(c, i + 1);
+                end = end < 0 ? length : end + 1;
+                out.append(sql, i, end);
+                i = end;
+            } else if (Character.isDigit(c) && !isIdentifierTail(out)) {
+                // 数字字面量（包括小数和科学计数法）
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                out.append('?');
+            } else if (Character.isWhitespace(c)) {
+                appendSpace(out);
+                i++;
+            } else {
+                out.append(Character.toLowerCase(c));
+                i++;
+            }
+        }
+        
+        String normalized = out.toString().trim();
+        normalized = PLACEHOLDER_LIST.matcher(normalized).replaceAll("(?+)");
+        normalized = REPEATED_ROWS.matcher(normalized).replaceAll("(?+)");
+        return normalized;
+    }
+    
+    private static void appendSpace(StringBuilder out) {
+        if (out.length() > 0 && out.charAt(out.length() - 1) != ' ') {
+            out.append(' ');
+        }
+    }
+    
+    private static boolean isIdentifierTail(StringBuilder out) {
+        if (out.length() == 0) {
+            return false;
+        }
+        char previous = out.charAt(out.length() - 1);
+        return Character.isLetterOrDigit(previous) || previous == '_' || previous == '$';
+    }
+}
@@ -0,0 +1,108 @@
+package database.metrics;
+
+import java.beans.ConstructorProperties;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 单条语句（按指纹）的执行统计快照
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public final class StatementSnapshot {
+    
+    private final String fingerprint;
+    private final long executions;
+    private final long errors;
+    private final long rows;
+    private final long totalMillis;
+    private final long meanMicros;
+    private final long p50Micros;
+    private final long p95Micros;
+    private final long p99Micros;
+    private final long maxMicros;
+    
+    @ConstructorProperties({"fingerprint", "executions", "errors", "rows", "totalMillis",
+            "meanMicros", "p50Micros", "p95Micros", "p99Micros", "maxMicros"})
+    public StatementSnapshot(String fingerprint, long executions, long errors, long rows, long totalMillis,
+                             long meanMicros, long p50Micros, long p95Micros, long p99Micros, long maxMicros) {
+        this.fingerprint = fingerprint;
+        this.executions = executions;
+        this.errors = errors;
+        this.rows = rows;
+        this.totalMillis = totalMillis;
+        this.meanMicros = meanMicros;
+        this.p50Micros = p50Micros;
+        this.p95Micros = p95Micros;
+        this.p99Micros = p99Micros;
+        this.maxMicros = maxMicros;
+    }
+    
+    static StatementSnapshot of(String fingerprint, LatencyHistogram histogram, long errors, long rows) {
+        return new StatementSnapshot(fingerprint, histogram.getCount(), errors, rows,
+                histogram.getTotalMicros() / 1000, histogram.getMeanMicros(),
+                histogram.getPercentileMicros(50), histogram.getPercentileMicros(95),
+                histogram.getPercentileMicros(99), histogram.getMaxMicros());
+    }
+    
+    public String getFingerprint() {
+        return fingerprint;
+    }
+    
+    public long getExecutions() {
+        return executions;
+    }
+    
+    public long getErrors() {
+        return errors;
+    }
+    
+    public long getRows() {
+        return rows;
+    }
+    
+    public long getTotalMillis() {
+        return totalMillis;
+    }
+    
+    public long getMeanMicros() {
+        return meanMicros;
+    }
+    
+    public long getP50Micros() {
+        return p50Micros;
+    }
+    
+    public long getP95Micros() {
+        return p95Micros;
+    }
+    
+    public long getP99Micros() {
+        return p99Micros;
+    }
+    
+    public long getMaxMicros() {
+        return maxMicros;
+    }
+    
+    /**
+     * 转换为映射（用于状态输出）
+     * 
+     * @return 统计映射
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("fingerprint", fingerprint);
+        map.put("executions", executions);
+        map.put("errors", errors);
+        map.put("rows", rows);
+        map.put("totalMillis", totalMillis);
+        map.put("meanMicros", meanMicros);
+        map.put("p50Micros", p50Micros);
+        map.put("p95Micros", p95Micros);
+        map.put("p99Micros", p99Micros);
+        map.put("maxMicros", maxMicros);
+        return map;
+    }
+}
@@ -0,0 +1,145 @@
+package database.partition;
+
+import database.adapter.BaseStorageAdapter;
+import database.config.PartitionRetentionConfig;
+import database.config.PartitionRetentionConfig.TableRetention;
+import database.core.StorageException;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * MySQL原生分区
+ * 表需要预先按分区列建成RANGE分区，例如：
+ * <pre>
+ * CREATE TABLE raw_pages (
+ *     id BIGINT NOT NULL AUTO_INCREMENT,
+ *     crawled_at DATETIME NOT NULL,
+ *     ...
+ *     PRIMARY KEY (id, crawled_at)
+ * ) PARTITION BY RANGE COLUMNS (crawled_at) (
+ *     PARTITION pmax VALUES LESS THAN (MAXVALUE)
+ * );
+ * </pre>
+ * 新分区从MAXVALUE分区中拆出（REORGANIZE PARTITION，兜底分区为空时只修改元数据），
+ * 过期分区用 ALTER TABLE ... DROP PARTITION 整体删除，不逐行删除、不产生碎片。
+ * 也支持 PARTITION BY RANGE (TO_DAYS(crawled_at)) 的表。
+ * 新分区只能在 {@link PartitionWindow} 范围内创建：追加一个很晚的分区会把之前所有日期都并入它，
+ * 直到该分区过期前都无法按天删除。
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+final class MySQLPartitionDialect implements PartitionDialect {
+    
+    private static final Pattern PARTITION_NAME = Pattern.compile("p(\\d{8})");
+    
+    private static final String PARTITIONS_SQL = "SELECT PARTITION_NAME, PARTITION_METHOD, PARTITION_DESCRIPTION "
+            + "FROM information_schema.PARTITIONS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? "
+            + "ORDER BY PARTITION_ORDINAL_POSITION";
+    
+    private final BaseStorageAdapter adapter;
+    private final PartitionGranularity granularity;
+    private final PartitionRetentionConfig config;
+    private final ZoneId zone;
+    
+    MySQLPartitionDialect(BaseStorageAdapter adapter, PartitionGranularity granularity,
+                          PartitionRetentionConfig config, ZoneId zone) {
+        this.adapter = adapter;
+        this.granularity = granularity;
+        this.config = config;
+        this.zone = zone;
+    }
+    
+    @Override
+    public List<LocalDate> listPartitions(TableRetention table) throws StorageException {
+        return describe(table).starts;
+    }
+    
+    @Override
+    public boolean createPartition(TableRetention table, LocalDate start, LocalDate end) throws StorageException {
+        PartitionWindow.of(granularity, config, table, LocalDate.now(zone)).check(table, start);
+        Layout layout = describe(table);
+        if (!layout.starts.isEmpty() && !start.isAfter(layout.starts.get(layout.starts.size() - 1))) {
+            // RANGE分区只能在末尾追加，更早的日期已被已有分区覆盖
+            return false;
+        }
+        
+        String bound = layout.toDays ? "TO_DAYS('" + end + "')" : "'" + end + "'";
+        String partition = "PARTITION " + PartitionGranularity.partitionName(start) + " VALUES LESS THAN (" + bound + ")";
+        if (layout.catchAll != null) {
+            adapter.update("ALTER TABLE " + table.getTable() + " REORGANIZE PARTITION " + layout.catchAll
+                    + " INTO (" + partition + ", PARTITION " + layout.catchAll + " VALUES LESS THAN (MAXVALUE))");
+        } else {
+            adapter.update("ALTER TABLE " + table.getTable() + " ADD PARTITION (" + partition + ")");
+        }
+        return true;
+    }
+    
+    @Override
+    public void dropPartition(TableRetention table, LocalDate start) throws StorageException {
+        adapter.update("ALTER TABLE " + table.getTable() + " DROP PARTITION " + PartitionGranularity.partitionName(start));
+    }
+    
+    @Override
+    public String source(TableRetention table, List<LocalDate> starts) {
+        if (starts.isEmpty()) {
+            return table.getTable();
+        }
+        List<String> names = new ArrayList<>(starts.size());
+        for (LocalDate start : starts) {
+            names.add(PartitionGranularity.partitionName(start));
+        }
+        return table.getTable() + " PARTITION (" + String.join(", ", names) + ")";
+    }
+    
+    @Override
+    public String writeTarget(TableRetention table, LocalDate start) {
+        return table.getTable();
+    }
+    
+    /**
+     * 读取表的分区布局
+     */
+    private Layout describe(TableRetention table) throws StorageException {
+        List<String[]> rows = adapter.queryMultiple(PARTITIONS_SQL,
+                (rs, rowNum) -> new String[]{rs.getString(1), rs.getString(2), rs.getString(3)}, table.getTable());
+        if (rows.isEmpty()) {
+            throw new StorageException("CONFIG_INVALID", "Partitioned table does not exist: " + table.getTable());
+        }
+        if (rows.get(0)[0] == null) {
+            throw new StorageException("CONFIG_INVALID", "Table " + table.getTable()
+                    + " is not partitioned; create it with PARTITION BY RANGE COLUMNS (" + table.getColumn() + ")");
+        }
+        
+        Layout layout = new Layout();
+        for (String[] row : rows) {
+            if (row[1] == null || !row[1].startsWith("RANGE")) {
+                throw new StorageException("CONFIG_INVALID", "Table " + table.getTable() + " must use RANGE partitioning");
+            }
+            layout.toDays = "RANGE".equals(row[1]);
+            if ("MAXVALUE".equalsIgnoreCase(row[2])) {
+                layout.catchAll = row[0];
+                continue;
+            }
+            Matcher matcher = PARTITION_NAME.matcher(row[0]);
+            if (matcher.matches()) {
+                layout.starts.add(PartitionGranularity.parseStart(matcher.group(1)));
+            }
+        }
+        return layout;
+    }
+    
+    /**
+     * 分区布局
+     */
+    private static final class Layout {
+        private final List<LocalDate> starts = new ArrayList<>();
+        private String catchAll;
+        private boolean toDays;
+    }
+}
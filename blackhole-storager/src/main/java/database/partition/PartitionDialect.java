@@ -0,0 +1,62 @@
+package database.partition;
+
+import database.config.PartitionRetentionConfig.TableRetention;
+import database.core.StorageException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 分区的数据库方言
+ * 不同存储实现分区的方式不同：MySQL使用原生RANGE分区，SQLite每个分区一张表，
+ * 按日期分片的SQLite每个分区一个文件。
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+interface PartitionDialect {
+    
+    /**
+     * 列出表当前已有的分区
+     * 
+     * @param table 分区表
+     * @return 各分区的起始日期，按时间升序
+     */
+    List<LocalDate> listPartitions(TableRetention table) throws StorageException;
+    
+    /**
+     * 创建分区，分区已存在或已被已有分区覆盖时不做任何事
+     * 
+     * @param table 分区表
+     * @param start 分区起始日期
+     * @param end 分区结束日期（不含）
+     * @return true表示新建了分区
+     */
+    boolean createPartition(TableRetention table, LocalDate start, LocalDate end) throws StorageException;
+    
+    /**
+     * 整体删除分区
+     * 
+     * @param table 分区表
+     * @param start 分区起始日期
+     */
+    void dropPartition(TableRetention table, LocalDate start) throws StorageException;
+    
+    /**
+     * 生成只读取指定分区的FROM子句来源
+     * 
+     * @param table 分区表
+     * @param starts 要读取的分区（已存在）
+     * @return 可直接放在FROM之后的表名或子查询
+     */
+    String source(TableRetention table, List<LocalDate> starts);
+    
+    /**
+     * 获取写入分区时使用的表名
+     * 
+     * @param table 分区表
+     * @param start 分区起始日期
+     * @return 表名
+     */
+    String writeTarget(TableRetention table, LocalDate start);
+}
@@ -0,0 +1,100 @@
+package database.partition;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+/**
+ * 分区粒度
+ * 分区以起始日期命名（p + yyyyMMdd），覆盖 [起始日期, 下一个分区的起始日期) 的数据
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public enum PartitionGranularity {
+    
+    /**
+     * 每天一个分区
+     */
+    DAY,
+    
+    /**
+     * 每周一个分区（周一开始）
+     */
+    WEEK,
+    
+    /**
+     * 每月一个分区
+     */
+    MONTH;
+    
+    /**
+     * 获取日期所在分区的起始日期
+     * 
+     * @param date 日期
+     * @return 分区起始日期
+     */
+    public LocalDate start(LocalDate date) {
+        switch (this) {
+            case WEEK:
+                return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH:
+                return date.withDayOfMonth(1);
+            default:
+                return date;
+        }
+    }
+    
+    /**
+     * 获取下一个分区的起始日期（即本分区的结束日期，不含）
+     * 
+     * @param start 分区起始日期
+     * @return 下一个分区的起始日期
+     */
+    public LocalDate next(LocalDate start) {
+        switch (this) {
+            case WEEK:
+                return start.plusWeeks(1);
+            case MONTH:
+                return start.plusMonths(1);
+            default:
+                return start.plusDays(1);
+        }
+    }
+    
+    /**
+     * 获取分区名称
+     * 
+     * @param start 分区起始日期
+     * @return p + yyyyMMdd
+     */
+    public static String partitionName(LocalDate start) {
+        return "p" + start.format(DateTimeFormatter.BASIC_ISO_DATE);
+    }
+    
+    /**
+     * 解析分区名称中的起始日期
+     * 
+     * @param suffix 分区名称中p之后的yyyyMMdd
+     * @return 分区起始日期
+     */
+    public static LocalDate parseStart(String suffix) {
+        return LocalDate.parse(suffix, DateTimeFormatter.BASIC_ISO_DATE);
+    }
+    
+    /**
+     * 从配置字符串解析分区粒度
+     * 
+     * @param value day、week或month
+     * @return 分区粒度
+     */
+    public static PartitionGranularity fromString(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Unsupported partition granularity: " + value);
+        }
+    }
+}
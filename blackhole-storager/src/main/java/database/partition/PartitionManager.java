@@ -0,0 +1,430 @@
+package database.partition;
+
+import database.adapter.MySQLAdapter;
+import database.adapter.SQLiteAdapter;
+import database.adapter.ShardedSQLiteAdapter;
+import database.cache.CachingDatabaseStorage;
+import database.config.PartitionRetentionConfig;
+import database.config.PartitionRetentionConfig.TableRetention;
+import database.core.DatabaseStorage;
+import database.core.StorageException;
+import database.util.DateValues;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 分区生命周期管理
+ * 抓取表（原始页面、文章）按抓取日期的天/周/月分区，后台任务按固定间隔：
+ * <ul>
+ *   <li>预建当前及之后 partition_precreate 个分区，写入时不需要等待建分区</li>
+ *   <li>整体删除结束日期早于保留期限的分区（MySQL DROP PARTITION，SQLite DROP TABLE或删除分片文件），
+ *       不逐行DELETE，不长时间锁表，也不在文件中留下大量碎片</li>
+ * </ul>
+ * 
+ * 写入通过 {@link #insert} / {@link #insertBatch} 按分区列路由到对应分区（MySQL由数据库路由），
+ * 查询通过 {@link #source} 只读取与时间范围有交集的分区：
+ * <pre>
+ * PartitionManager partitions = manager.getPartitionManager("sqlite-prod");
+ * String sql = "SELECT * FROM " + partitions.source("raw_pages", from, to) + " WHERE crawled_at &gt;= ?";
+ * List&lt;Page&gt; pages = storage.queryMultiple(sql, mapper, from.toString());
+ * </pre>
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class PartitionManager {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PartitionManager.class);
+    
+    /**
+     * 数据库名称
+     */
+    private final String name;
+    
+    /**
+     * 写入和查询使用的存储（可能带查询缓存等装饰层）
+     */
+    private final DatabaseStorage storage;
+    
+    private final PartitionRetentionConfig config;
+    private final PartitionGranularity granularity;
+    private final PartitionDialect dialect;
+    private final ZoneId zone = ZoneId.systemDefault();
+    
+    /**
+     * 分区表（表名小写 → 配置）
+     */
+    private final Map<String, TableRetention> tables = new LinkedHashMap<>();
+    
+    /**
+     * 已知存在的分区（表名 → 分区起始日期），写入时据此判断是否需要建分区
+     */
+    private final Map<String, NavigableSet<LocalDate>> partitions = new ConcurrentHashMap<>();
+    
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private ScheduledExecutorService executor;
+    
+    private final AtomicLong maintenanceRuns = new AtomicLong();
+    private final AtomicLong partitionsCreated = new AtomicLong();
+    private final AtomicLong partitionsDropped = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile long lastRunMillis;
+    private volatile String lastError;
+    
+    /**
+     * 构造函数
+     * 
+     * @param name 数据库名称
+     * @param storage 写入和查询使用的存储
+     * @param base 去掉装饰层后的适配器，用于执行分区DDL
+     * @param config 分区生命周期配置
+     * @throws StorageException 存储类型不支持分区或配置不一致时抛出异常
+     */
+    public PartitionManager(String name, DatabaseStorage storage, DatabaseStorage base,
+                            PartitionRetentionConfig config) throws StorageException {
+        if (storage == null || base == null || config == null) {
+            throw new IllegalArgumentException("Storage and partition configuration cannot be null");
+        }
+        try {
+            config.validate();
+        } catch (IllegalArgumentException e) {
+            throw new StorageException("CONFIG_INVALID", e.getMessage(), e);
+        }
+        this.name = name;
+        this.storage = storage;
+        this.config = config;
+        this.granularity = PartitionGranularity.fromString(config.getGranularity());
+        
+        if (base instanceof MySQLAdapter) {
+            this.dialect = new MySQLPartitionDialect((MySQLAdapter) base, granularity, config, zone);
+        } else if (base instanceof SQLiteAdapter) {
+            this.dialect = new SQLitePartitionDialect((SQLiteAdapter) base);
+        } else if (base instanceof ShardedSQLiteAdapter) {
+            ShardFilePartitionDialect shardDialect = new ShardFilePartitionDialect((ShardedSQLiteAdapter) base, config.isArchive());
+            for (TableRetention table : config.getTables()) {
+                shardDialect.checkCompatible(table, granularity);
+            }
+            this.dialect = shardDialect;
+        } else {
+            throw new StorageException("UNSUPPORTED_OPERATION",
+                    "Partition lifecycle is not supported for database type: " + base.getDatabaseType());
+        }
+        
+        for (TableRetention table : config.getTables()) {
+            tables.put(table.getTable().toLowerCase(Locale.ROOT), table);
+        }
+    }
+    
+    /**
+     * 启动后台维护，立即执行第一次
+     */
+    public void start() {
+        if (running.compareAndSet(false, true)) {
+            executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "blackhole-partition-" + name);
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(this::runMaintenance, 0, config.getMaintenanceInterval(), TimeUnit.MILLISECONDS);
+            logger.info("Started partition maintenance every {} ms for database: {} ({})",
+                    config.getMaintenanceInterval(), name, config);
+        }
+    }
+    
+    /**
+     * 停止后台维护
+     */
+    public void stop() {
+        if (running.compareAndSet(true, false) && executor != null) {
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            logger.info("Stopped partition maintenance for database: {}", name);
+        }
+    }
+    
+    /**
+     * 立即执行一次维护（后台线程按间隔调用）
+     * 单个表失败不影响其他表，失败记录在统计信息中
+     * 
+     * @return 表名到本次创建和删除的分区的映射
+     */
+    public synchronized Map<String, Object> runMaintenance() {
+        maintenanceRuns.incrementAndGet();
+        LocalDate today = LocalDate.now(zone);
+        Map<String, Object> report = new LinkedHashMap<>();
+        
+        for (TableRetention table : tables.values()) {
+            Map<String, Object> tableReport = new LinkedHashMap<>();
+            try {
+                tableReport.put("created", precreate(table, today));
+                tableReport.put("dropped", dropExpired(table, today));
+            } catch (StorageException | RuntimeException e) {
+                failures.incrementAndGet();
+                lastError = table.getTable() + ": " + e.getMessage();
+                tableReport.put("error", e.getMessage());
+                logger.error("Partition maintenance failed for {}.{}", name, table.getTable(), e);
+            }
+            report.put(table.getTable(), tableReport);
+        }
+        lastRunMillis = System.currentTimeMillis();
+        return report;
+    }
+    
+    /**
+     * 生成只读取时间范围内分区的FROM子句来源
+     * 返回的来源带表名作为别名，WHERE条件中仍应按分区列过滤分区内的时间范围
+     * 
+     * @param table 分区表
+     * @param from 起始日期（含），null表示不限
+     * @param to 结束日期（含），null表示不限
+     * @return 可直接放在FROM之后的表名或子查询
+     */
+    public String source(String table, LocalDate from, LocalDate to) throws StorageException {
+        TableRetention retention = requireTable(table);
+        NavigableSet<LocalDate> known = knownPartitions(retention);
+        LocalDate lower = from != null ? granularity.start(from) : null;
+        
+        List<LocalDate> selected = new ArrayList<>();
+        for (LocalDate start : known) {
+            if ((lower == null || !start.isBefore(lower)) && (to == null || !start.isAfter(to))) {
+                selected.add(start);
+            }
+        }
+        return dialect.source(retention, selected);
+    }
+    
+    /**
+     * 写入记录到分区列对应的分区，分区不存在时先创建
+     * 分区列早于保留期限或晚于预建范围时以INVALID_PARTITION_KEY拒绝
+     * 
+     * @param table 分区表
+     * @param data 记录
+     * @return 影响行数
+     */
+    public int insert(String table, Map<String, Object> data) throws StorageException {
+        TableRetention retention = requireTable(table);
+        LocalDate start = ensurePartition(retention, partitionDate(retention, data), window(retention));
+        return storage.insert(dialect.writeTarget(retention, start), data);
+    }
+    
+    /**
+     * 批量写入记录，按分区分组后逐个分区写入
+     * 任一记录的分区超出允许范围时整批拒绝，不写入任何记录
+     * 
+     * @param table 分区表
+     * @param dataList 记录列表
+     * @return 与记录顺序一致的影响行数
+     */
+    public int[] insertBatch(String table, List<Map<String, Object>> dataList) throws StorageException {
+        TableRetention retention = requireTable(table);
+        if (dataList == null || dataList.isEmpty()) {
+            return new int[0];
+        }
+        
+        Map<LocalDate, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < dataList.size(); i++) {
+            LocalDate start = granularity.start(partitionDate(retention, dataList.get(i)));
+            groups.computeIfAbsent(start, key -> new ArrayList<>()).add(i);
+        }
+        PartitionWindow window = window(retention);
+        for (LocalDate start : groups.keySet()) {
+            window.check(retention, start);
+        }
+        
+        int[] results = new int[dataList.size()];
+        for (Map.Entry<LocalDate, List<Integer>> group : groups.entrySet()) {
+            LocalDate start = ensurePartition(retention, group.getKey(), window);
+            List<Integer> indexes = group.getValue();
+            List<Map<String, Object>> rows = new ArrayList<>(indexes.size());
+            for (Integer index : indexes) {
+                rows.add(dataList.get(index));
+            }
+            int[] counts = storage.insertBatch(dialect.writeTarget(retention, start), rows);
+            for (int i = 0; i < indexes.size() && i < counts.length; i++) {
+                results[indexes.get(i)] = counts[i];
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * 获取表当前的分区
+     * 
+     * @param table 分区表
+     * @return 分区起始日期，按时间升序
+     */
+    public List<LocalDate> getPartitions(String table) throws StorageException {
+        TableRetention retention = requireTable(table);
+        return new ArrayList<>(refresh(retention));
+    }
+    
+    /**
+     * 获取维护统计信息
+     * 
+     * @return 统计信息
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("granularity", granularity.name().toLowerCase(Locale.ROOT));
+        stats.put("running", running.get());
+        stats.put("maintenanceRuns", maintenanceRuns.get());
+        stats.put("partitionsCreated", partitionsCreated.get());
+        stats.put("partitionsDropped", partitionsDropped.get());
+        stats.put("failures", failures.get());
+        stats.put("lastRunMillis", lastRunMillis);
+        if (lastError != null) {
+            stats.put("lastError", lastError);
+        }
+        Map<String, Object> tableStats = new LinkedHashMap<>();
+        for (TableRetention table : tables.values()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            NavigableSet<LocalDate> known = partitions.get(table.getTable());
+            entry.put("column", table.getColumn());
+            entry.put("retentionDays", config.getRetentionDays(table));
+            entry.put("partitions", known != null ? known.size() : 0);
+            if (known != null && !known.isEmpty()) {
+                entry.put("oldest", known.first().toString());
+                entry.put("newest", known.last().toString());
+            }
+            tableStats.put(table.getTable(), entry);
+        }
+        stats.put("tables", tableStats);
+        return stats;
+    }
+    
+    /**
+     * 创建当前分区和之后的预建分区
+     */
+    private List<String> precreate(TableRetention table, LocalDate today) throws StorageException {
+        NavigableSet<LocalDate> known = refresh(table);
+        List<String> created = new ArrayList<>();
+        LocalDate start = granularity.start(today);
+        for (int i = 0; i <= config.getPrecreate(); i++) {
+            LocalDate end = granularity.next(start);
+            if (!known.contains(start) && dialect.createPartition(table, start, end)) {
+                known.add(start);
+                partitionsCreated.incrementAndGet();
+                created.add(start.toString());
+            }
+            start = end;
+        }
+        return created;
+    }
+    
+    /**
+     * 删除整个分区都早于保留期限的分区
+     */
+    private List<String> dropExpired(TableRetention table, LocalDate today) throws StorageException {
+        List<String> dropped = new ArrayList<>();
+        int retentionDays = config.getRetentionDays(table);
+        if (retentionDays <= 0) {
+            return dropped;
+        }
+        
+        LocalDate cutoff = today.minusDays(retentionDays);
+        NavigableSet<LocalDate> known = partitions.get(table.getTable());
+        for (LocalDate start : new ArrayList<>(known)) {
+            if (granularity.next(start).isAfter(cutoff)) {
+                break;
+            }
+            dialect.dropPartition(table, start);
+            known.remove(start);
+            partitionsDropped.incrementAndGet();
+            dropped.add(start.toString());
+            logger.info("Dropped expired partition {} of {}.{} (retention {} days)",
+                    start, name, table.getTable(), retentionDays);
+        }
+        if (!dropped.isEmpty() && storage instanceof CachingDatabaseStorage) {
+            CachingDatabaseStorage cache = (CachingDatabaseStorage) storage;
+            cache.invalidateTable(table.getTable());
+            for (String start : dropped) {
+                cache.invalidateTable(dialect.writeTarget(table, LocalDate.parse(start)));
+            }
+        }
+        return dropped;
+    }
+    
+    /**
+     * 确保日期所在的分区存在
+     * 已有的分区直接写入；新建的分区必须在允许的范围内，避免错误的时间戳建出很久以后的分区
+     * 或马上又被删除的过期分区
+     * 
+     * @return 分区起始日期
+     */
+    private LocalDate ensurePartition(TableRetention table, LocalDate date, PartitionWindow window) throws StorageException {
+        LocalDate start = granularity.start(date);
+        if (knownPartitions(table).contains(start)) {
+            return start;
+        }
+        window.check(table, start);
+        synchronized (this) {
+            NavigableSet<LocalDate> known = refresh(table);
+            if (!known.contains(start)) {
+                if (dialect.createPartition(table, start, granularity.next(start))) {
+                    partitionsCreated.incrementAndGet();
+                }
+                // 未新建时该日期已被已有分区覆盖（或由存储在写入时创建），不必每次写入都重新检查
+                known.add(start);
+            }
+        }
+        return start;
+    }
+    
+    private PartitionWindow window(TableRetention table) {
+        return PartitionWindow.of(granularity, config, table, LocalDate.now(zone));
+    }
+    
+    private NavigableSet<LocalDate> knownPartitions(TableRetention table) throws StorageException {
+        NavigableSet<LocalDate> known = partitions.get(table.getTable());
+        return known != null ? known : refresh(table);
+    }
+    
+    /**
+     * 从数据库重新读取表的分区
+     */
+    private NavigableSet<LocalDate> refresh(TableRetention table) throws StorageException {
+        NavigableSet<LocalDate> known = new ConcurrentSkipListSet<>(dialect.listPartitions(table));
+        partitions.put(table.getTable(), known);
+        return known;
+    }
+    
+    private LocalDate partitionDate(TableRetention table, Map<String, Object> data) throws StorageException {
+        Object value = data != null ? data.get(table.getColumn()) : null;
+        if (value == null) {
+            throw new StorageException("PARTITION_KEY_MISSING", "Missing value for partition column: " + table.getColumn());
+        }
+        try {
+            return DateValues.toLocalDate(value, zone);
+        } catch (IllegalArgumentException e) {
+            throw new StorageException("INVALID_PARTITION_KEY", e.getMessage(), e);
+        }
+    }
+    
+    private TableRetention requireTable(String table) throws StorageException {
+        TableRetention retention = table != null ? tables.get(table.toLowerCase(Locale.ROOT)) : null;
+        if (retention == null) {
+            throw new StorageException("CONFIG_INVALID", "Table is not partitioned in " + name + ": " + table);
+        }
+        return retention;
+    }
+}
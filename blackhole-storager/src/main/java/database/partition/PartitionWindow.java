@@ -0,0 +1,72 @@
+package database.partition;
+
+import database.config.PartitionRetentionConfig;
+import database.config.PartitionRetentionConfig.TableRetention;
+import database.core.StorageException;
+
+import java.time.LocalDate;
+
+/**
+ * 允许创建分区的日期范围
+ * 从保留期限起点所在的分区到当前分区之后第 partition_precreate 个分区（均含）。
+ * 更早的分区会在下一次维护时被删除，更晚的分区多半来自错误的时间戳，
+ * 在MySQL中还会把中间所有日期并入这个分区，因此都不创建。
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+final class PartitionWindow {
+    
+    /**
+     * 最早的分区起始日期，null表示永久保留不限制
+     */
+    private final LocalDate earliest;
+    
+    /**
+     * 最晚的分区起始日期
+     */
+    private final LocalDate latest;
+    
+    private PartitionWindow(LocalDate earliest, LocalDate latest) {
+        this.earliest = earliest;
+        this.latest = latest;
+    }
+    
+    /**
+     * 计算表在指定日期允许创建的分区范围
+     * 
+     * @param granularity 分区粒度
+     * @param config 分区生命周期配置
+     * @param table 分区表
+     * @param today 当前日期
+     * @return 分区范围
+     */
+    static PartitionWindow of(PartitionGranularity granularity, PartitionRetentionConfig config,
+                              TableRetention table, LocalDate today) {
+        int retentionDays = config.getRetentionDays(table);
+        LocalDate earliest = retentionDays > 0 ? granularity.start(today.minusDays(retentionDays)) : null;
+        LocalDate latest = granularity.start(today);
+        for (int i = 0; i < config.getPrecreate(); i++) {
+            latest = granularity.next(latest);
+        }
+        return new PartitionWindow(earliest, latest);
+    }
+    
+    /**
+     * 检查分区是否在范围内
+     * 
+     * @param table 分区表
+     * @param start 分区起始日期
+     * @throws StorageException 超出范围时抛出INVALID_PARTITION_KEY
+     */
+    void check(TableRetention table, LocalDate start) throws StorageException {
+        if (earliest != null && start.isBefore(earliest)) {
+            throw new StorageException("INVALID_PARTITION_KEY", "Partition " + start + " of " + table.getTable()
+                    + " is older than the retention window starting " + earliest);
+        }
+        if (start.isAfter(latest)) {
+            throw new StorageException("INVALID_PARTITION_KEY", "Partition " + start + " of " + table.getTable()
+                    + " is later than the last precreated partition " + latest);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package database.partition;
+
+import database.adapter.SQLiteAdapter;
+import database.config.PartitionRetentionConfig.TableRetention;
+import database.core.StorageException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * SQLite按表分区
+ * 原表作为空的模板表保留，每个分区是一张结构相同的表（raw_pages_p20261019），
+ * 建表语句和索引从模板表的定义复制。过期分区用 DROP TABLE 整体删除，释放的页进入空闲列表
+ * 被新分区复用，文件不再无限增长；auto_vacuum为INCREMENTAL时随后归还给文件系统。
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+final class SQLitePartitionDialect implements PartitionDialect {
+    
+    private static final Pattern CREATE_TABLE = Pattern.compile(
+            "(?is)^\\s*CREATE\\s+TABLE\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?(?:\"[^\"]+\"|\\[[^\\]]+\\]|`[^`]+`|[A-Za-z_][A-Za-z0-9_.]*)");
+    
+    private static final Pattern CREATE_INDEX = Pattern.compile(
+            "(?is)^\\s*CREATE\\s+(UNIQUE\\s+)?INDEX\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?\\S+\\s+ON\\s+[^\\s(]+\\s*\\(");
+    
+    private final SQLiteAdapter adapter;
+    
+    SQLitePartitionDialect(SQLiteAdapter adapter) {
+        this.adapter = adapter;
+    }
+    
+    @Override
+    public List<LocalDate> listPartitions(TableRetention table) throws StorageException {
+        String prefix = table.getTable() + "_p";
+        List<String> names = adapter.queryMultiple(
+                "SELECT name FROM sqlite_master WHERE type = 'table' AND name LIKE ? ESCAPE '\\'",
+                (rs, rowNum) -> rs.getString(1), prefix.replace("_", "\\_") + "%");
+        
+        Pattern partitionName = Pattern.compile(Pattern.quote(prefix) + "(\\d{8})");
+        List<LocalDate> starts = new ArrayList<>();
+        for (String name : names) {
+            Matcher matcher = partitionName.matcher(name);
+            if (matcher.matches()) {
+                starts.add(PartitionGranularity.parseStart(matcher.group(1)));
+            }
+        }
+        Collections.sort(starts);
+        return starts;
+    }
+    
+    @Override
+    public boolean createPartition(TableRetention table, LocalDate start, LocalDate end) throws StorageException {
+        String partition = partitionTable(table, start);
+        String suffix = "_" + PartitionGranularity.partitionName(start);
+        
+        List<String> tableSql = adapter.queryMultiple(
+                "SELECT sql FROM sqlite_master WHERE type = 'table' AND name = ?",
+                (rs, rowNum) -> rs.getString(1), table.getTable());
+        if (tableSql.isEmpty() || tableSql.get(0) == null) {
+            throw new StorageException("CONFIG_INVALID", "Partition template table does not exist: " + table.getTable());
+        }
+        Matcher createTable = CREATE_TABLE.matcher(tableSql.get(0));
+        if (!createTable.lookingAt()) {
+            throw new StorageException("CONFIG_INVALID", "Cannot copy definition of table: " + table.getTable());
+        }
+        adapter.update("CREATE TABLE IF NOT EXISTS " + partition + tableSql.get(0).substring(createTable.end()));
+        
+        List<String[]> indexes = adapter.queryMultiple(
+                "SELECT name, sql FROM sqlite_master WHERE type = 'index' AND tbl_name = ? AND sql IS NOT NULL",
+                (rs, rowNum) -> new String[]{rs.getString(1), rs.getString(2)}, table.getTable());
+        for (String[] index : indexes) {
+            Matcher createIndex = CREATE_INDEX.matcher(index[1]);
+            if (!createIndex.lookingAt()) {
+                continue;
+            }
+            String unique = createIndex.group(1) != null ? "UNIQUE " : "";
+            adapter.update("CREATE " + unique + "INDEX IF NOT EXISTS " + index[0] + suffix + " ON " + partition
+                    + " (" + index[1].substring(createIndex.end()));
+        }
+        return true;
+    }
+    
+    @Override
+    public void dropPartition(TableRetention table, LocalDate start) throws StorageException {
+        adapter.update("DROP TABLE IF EXISTS " + partitionTable(table, start));
+        // auto_vacuum = INCREMENTAL (2) 时把空闲页归还给文件系统
+        if ("2".equals(adapter.executePragma("auto_vacuum"))) {
+            adapter.update("PRAGMA incremental_vacuum");
+        }
+    }
+    
+    @Override
+    public String source(TableRetention table, List<LocalDate> starts) {
+        if (starts.isEmpty()) {
+            // 模板表始终为空
+            return table.getTable();
+        }
+        if (starts.size() == 1) {
+            return partitionTable(table, starts.get(0)) + " AS " + table.getTable();
+        }
+        List<String> selects = new ArrayList<>(starts.size());
+        for (LocalDate start : starts) {
+            selects.add("SELECT * FROM " + partitionTable(table, start));
+        }
+        return "(" + String.join(" UNION ALL ", selects) + ") AS " + table.getTable();
+    }
+    
+    @Override
+    public String writeTarget(TableRetention table, LocalDate start) {
+        return partitionTable(table, start);
+    }
+    
+    private static String partitionTable(TableRetention table, LocalDate start) {
+        return table.getTable() + "_" + PartitionGranularity.partitionName(start);
+    }
+}
@@ -0,0 +1,88 @@
+package database.partition;
+
+import database.adapter.ShardedSQLiteAdapter;
+import database.config.PartitionRetentionConfig.TableRetention;
+import database.core.StorageException;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按日期分片的SQLite，每个分区一个文件
+ * 分区即 {@link ShardedSQLiteAdapter} 的时间段分片：文件在首次写入时由适配器创建，
+ * 过期分区整个文件删除或移动到归档目录，不影响正在写入的分片。
+ * 分区列必须是适配器的分片键列，分区粒度必须与 shard_date_granularity 一致。
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+final class ShardFilePartitionDialect implements PartitionDialect {
+    
+    private final ShardedSQLiteAdapter adapter;
+    private final boolean archive;
+    
+    ShardFilePartitionDialect(ShardedSQLiteAdapter adapter, boolean archive) {
+        this.adapter = adapter;
+        this.archive = archive;
+    }
+    
+    /**
+     * 检查分区配置与分片配置是否一致
+     * 
+     * @param table 分区表
+     * @param granularity 分区粒度
+     * @throws StorageException 不一致时抛出异常
+     */
+    void checkCompatible(TableRetention table, PartitionGranularity granularity) throws StorageException {
+        String shardGranularity = adapter.getDateGranularity();
+        if (shardGranularity == null) {
+            throw new StorageException("CONFIG_INVALID", "Partition retention requires shard_strategy 'date'");
+        }
+        if (!shardGranularity.equalsIgnoreCase(granularity.name())) {
+            throw new StorageException("CONFIG_INVALID", "Partition granularity " + granularity
+                    + " does not match shard_date_granularity " + shardGranularity);
+        }
+        if (!adapter.getShardKeyColumn().equalsIgnoreCase(table.getColumn())) {
+            throw new StorageException("CONFIG_INVALID", "Partition column " + table.getColumn()
+                    + " does not match shard_key_column " + adapter.getShardKeyColumn());
+        }
+    }
+    
+    @Override
+    public List<LocalDate> listPartitions(TableRetention table) {
+        List<LocalDate> starts = new ArrayList<>();
+        for (String period : adapter.getShards().keySet()) {
+            starts.add(period.length() == 7 ? YearMonth.parse(period).atDay(1) : LocalDate.parse(period));
+        }
+        return starts;
+    }
+    
+    @Override
+    public boolean createPartition(TableRetention table, LocalDate start, LocalDate end) {
+        // 分片文件在首次写入该时间段时创建
+        return false;
+    }
+    
+    @Override
+    public void dropPartition(TableRetention table, LocalDate start) throws StorageException {
+        String period = adapter.getShardFor(start);
+        if (archive) {
+            adapter.archiveShard(period);
+        } else {
+            adapter.dropShard(period);
+        }
+    }
+    
+    @Override
+    public String source(TableRetention table, List<LocalDate> starts) {
+        // 查询由适配器广播到各分片，按时间范围裁剪使用 ShardedSQLiteAdapter#queryRange
+        return table.getTable();
+    }
+    
+    @Override
+    public String writeTarget(TableRetention table, LocalDate start) {
+        return table.getTable();
+    }
+}
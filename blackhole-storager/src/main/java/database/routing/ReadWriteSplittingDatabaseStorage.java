@@ -0,0 +1,539 @@
+package database.routing;
+
+import database.config.ReplicaRoutingConfig;
+import database.core.DatabaseStorage;
+import database.core.Page;
+import database.core.RowMapper;
+import database.core.StorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * 读写分离装饰器
+ * 写入、事务以及事务中的查询发往主库；事务外的查询在可用的只读副本之间按延迟负载均衡
+ * （随机取两个副本，选择平均响应时间较低的一个），没有可用副本时回退到主库。
+ * 
+ * 后台线程按固定间隔检查每个副本的连通性和复制延迟，延迟超过阈值或检查失败的副本暂停接收读请求，
+ * 恢复后重新加入；副本上的查询失败时该次查询改由主库执行，连续失败达到阈值的副本同样暂停使用。
+ * 
+ * 副本由各自的数据库配置创建和关闭，本装饰器只负责主库的生命周期。
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class ReadWriteSplittingDatabaseStorage implements DatabaseStorage {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteSplittingDatabaseStorage.class);
+    
+    /**
+     * 响应时间指数移动平均的权重
+     */
+    private static final double LATENCY_DECAY = 0.2;
+    
+    /**
+     * MySQL副本的复制延迟查询（8.0.22起），更早的版本不支持时回退到 SHOW SLAVE STATUS
+     */
+    private static final String MYSQL_REPLICA_STATUS = "SHOW REPLICA STATUS";
+    private static final String MYSQL_SLAVE_STATUS = "SHOW SLAVE STATUS";
+    
+    /**
+     * MySQL语法错误的错误码
+     */
+    private static final int MYSQL_PARSE_ERROR = 1064;
+    
+    /**
+     * 主库
+     */
+    private final DatabaseStorage primary;
+    
+    /**
+     * 只读副本
+     */
+    private final List<Replica> replicas;
+    
+    /**
+     * 读写分离配置
+     */
+    private final ReplicaRoutingConfig routingConfig;
+    
+    /**
+     * 数据库名称（用于日志和线程名）
+     */
+    private final String name;
+    
+    /**
+     * 各线程最近一次写入的时间（纳秒），用于写后读主库
+     */
+    private final ThreadLocal<Long> lastWriteNanos = new ThreadLocal<>();
+    
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private ScheduledExecutorService healthChecker;
+    
+    private final LongAdder primaryReads = new LongAdder();
+    private final LongAdder fallbackReads = new LongAdder();
+    
+    /**
+     * 构造函数
+     * 
+     * @param primary 主库
+     * @param replicas 副本名称 -> 副本存储
+     * @param routingConfig 读写分离配置
+     * @param name 数据库名称
+     */
+    public ReadWriteSplittingDatabaseStorage(DatabaseStorage primary, Map<String, DatabaseStorage> replicas,
+                                             ReplicaRoutingConfig routingConfig, String name) {
+        if (primary == null) {
+            throw new IllegalArgumentException("Primary storage cannot be null");
+        }
+        if (replicas == null || replicas.isEmpty()) {
+            throw new IllegalArgumentException("At least one read replica is required");
+        }
+        if (routingConfig == null) {
+            throw new IllegalArgumentException("Replica routing configuration cannot be null");
+        }
+        routingConfig.validate();
+        
+        this.primary = primary;
+        this.routingConfig = routingConfig;
+        this.name = name;
+        List<Replica> list = new ArrayList<>(replicas.size());
+        for (Map.Entry<String, DatabaseStorage> entry : replicas.entrySet()) {
+            list.add(new Replica(entry.getKey(), entry.getValue()));
+        }
+        this.replicas = Collections.unmodifiableList(list);
+    }
+    
+    /**
+     * 获取被装饰的存储（主库）
+     * 
+     * @return 主库
+     */
+    public DatabaseStorage getDelegate() {
+        return primary;
+    }
+    
+    /**
+     * 获取主库
+     * 
+     * @return 主库
+     */
+    public DatabaseStorage getPrimary() {
+        return primary;
+    }
+    
+    @Override
+    public void initialize() throws StorageException {
+        primary.initialize();
+        if (running.compareAndSet(false, true)) {
+            // 启动前先检查一次，避免启动时把读请求发往延迟过大的副本
+            checkReplicas();
+            healthChecker = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "replica-health-check-" + name);
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = routingConfig.getHealthCheckInterval();
+            healthChecker.scheduleWithFixedDelay(this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    @Override
+    public void shutdown() throws StorageException {
+        if (running.compareAndSet(true, false) && healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+        primary.shutdown();
+    }
+    
+    @Override
+    public boolean isHealthy() {
+        return primary.isHealthy();
+    }
+    
+    @Override
+    public <T> Optional<T> querySingle(String sql, RowMapper<T> mapper, Object... params) throws StorageException {
+        return read(storage -> storage.querySingle(sql, mapper, params));
+    }
+    
+    @Override
+    public <T> List<T> queryMultiple(String sql, RowMapper<T> mapper, Object... params) throws StorageException {
+        return read(storage -> storage.queryMultiple(sql, mapper, params));
+    }
+    
+    @Override
+    public <T> Page<T> queryPage(String sql, RowMapper<T> mapper, int pageNum, int pageSize, Object... params) throws StorageException {
+        return read(storage -> storage.queryPage(sql, mapper, pageNum, pageSize, params));
+    }
+    
+    @Override
+    public <T> Page<T> querySeek(String sql, RowMapper<T> mapper, String sortKey, Object lastSeen, int pageSize, Object... params) throws StorageException {
+        return read(storage -> storage.querySeek(sql, mapper, sortKey, lastSeen, pageSize, params));
+    }
+    
+    /**
+     * 流式查询
+     * 只有打开游标时的失败会回退到主库，读取过程中副本断开时异常直接抛给调用方
+     */
+    @Override
+    public <T> Stream<T> queryStream(String sql, RowMapper<T> mapper, Object... params) throws StorageException {
+        return read(storage -> storage.queryStream(sql, mapper, params));
+    }
+    
+    @Override
+    public int insert(String table, Map<String, Object> data) throws StorageException {
+        markWrite();
+        return primary.insert(table, data);
+    }
+    
+    @Override
+    public int[] insertBatch(String table, List<Map<String, Object>> dataList) throws StorageException {
+        markWrite();
+        return primary.insertBatch(table, dataList);
+    }
+    
+    @Override
+    public int update(String table, Map<String, Object> data, String condition, Object... params) throws StorageException {
+        markWrite();
+        return primary.update(table, data, condition, params);
+    }
+    
+    @Override
+    public int[] updateBatch(String table, List<Map<String, Object>> dataList, String condition) throws StorageException {
+        markWrite();
+        return primary.updateBatch(table, dataList, condition);
+    }
+    
+    @Override
+    public int delete(String table, String condition, Object... params) throws StorageException {
+        markWrite();
+        return primary.delete(table, condition, params);
+    }
+    
+    @Override
+    public int[] deleteBatch(String table, List<String> conditions) throws StorageException {
+        markWrite();
+        return primary.deleteBatch(table, conditions);
+    }
+    
+    @Override
+    public int upsert(String table, Map<String, Object> data, String... conflictColumns) throws StorageException {
+        markWrite();
+        return primary.upsert(table, data, conflictColumns);
+    }
+    
+    @Override
+    public int[] upsertBatch(String table, List<Map<String, Object>> dataList, String... conflictColumns) throws StorageException {
+        markWrite();
+        return primary.upsertBatch(table, dataList, conflictColumns);
+    }
+    
+    @Override
+    public void beginTransaction() throws StorageException {
+        primary.beginTransaction();
+    }
+    
+    @Override
+    public void commit() throws StorageException {
+        markWrite();
+        primary.commit();
+    }
+    
+    @Override
+    public void rollback() throws StorageException {
+        primary.rollback();
+    }
+    
+    @Override
+    public boolean isInTransaction() {
+        return primary.isInTransaction();
+    }
+    
+    @Override
+    public String getDatabaseType() {
+        return primary.getDatabaseType();
+    }
+    
+    @Override
+    public String getConnectionInfo() {
+        int available = 0;
+        for (Replica replica : replicas) {
+            if (replica.available) {
+                available++;
+            }
+        }
+        return primary.getConnectionInfo() + " - Read replicas: " + available + "/" + replicas.size() + " available";
+    }
+    
+    /**
+     * 获取路由统计信息
+     * 
+     * @return 主库读次数、回退次数以及每个副本的状态、延迟和读次数
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("primaryReads", primaryReads.sum());
+        stats.put("fallbackReads", fallbackReads.sum());
+        Map<String, Object> replicaStats = new LinkedHashMap<>();
+        for (Replica replica : replicas) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("available", replica.available);
+            entry.put("lagSeconds", replica.lagSeconds);
+            entry.put("latencyMicros", Math.round(replica.latencyNanos / 1000.0));
+            entry.put("reads", replica.reads.sum());
+            entry.put("failures", replica.failures.sum());
+            replicaStats.put(replica.name, entry);
+        }
+        stats.put("replicas", replicaStats);
+        return stats;
+    }
+    
+    /**
+     * 执行读操作：事务中或写后读窗口内发往主库，否则选择一个副本，副本失败时回退到主库
+     */
+    private <R> R read(ReadCall<R> call) throws StorageException {
+        if (mustReadPrimary()) {
+            primaryReads.increment();
+            return call.execute(primary);
+        }
+        
+        Replica replica = chooseReplica();
+        if (replica == null) {
+            fallbackReads.increment();
+            return call.execute(primary);
+        }
+        
+        long start = System.nanoTime();
+        try {
+            R result = call.execute(replica.storage);
+            replica.recordSuccess(System.nanoTime() - start);
+            return result;
+        } catch (StorageException e) {
+            replica.recordFailure(routingConfig.getFailureThreshold());
+            logger.warn("Read on replica {} of {} failed, retrying on primary: {}", replica.name, name, e.getMessage());
+            fallbackReads.increment();
+            return call.execute(primary);
+        }
+    }
+    
+    private boolean mustReadPrimary() {
+        if (primary.isInTransaction()) {
+            return true;
+        }
+        long window = routingConfig.getReadAfterWriteWindow();
+        if (window <= 0) {
+            return false;
+        }
+        Long lastWrite = lastWriteNanos.get();
+        return lastWrite != null && System.nanoTime() - lastWrite < TimeUnit.MILLISECONDS.toNanos(window);
+    }
+    
+    private void markWrite() {
+        if (routingConfig.getReadAfterWriteWindow() > 0) {
+            lastWriteNanos.set(System.nanoTime());
+        }
+    }
+    
+    /**
+     * 在可用副本中随机取两个，选择平均响应时间较低的一个
+     * 比总选最快的副本更不容易把负载集中到一台上
+     * 
+     * @return 选中的副本，没有可用副本时返回null
+     */
+    private Replica chooseReplica() {
+        List<Replica> candidates = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            if (replica.available) {
+                candidates.add(replica);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        Replica a = candidates.get(first);
+        Replica b = candidates.get(second);
+        return a.latencyNanos <= b.latencyNanos ? a : b;
+    }
+    
+    /**
+     * 检查所有副本的连通性和复制延迟
+     */
+    private void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean wasAvailable = replica.available;
+            String reason = null;
+            try {
+                long start = System.nanoTime();
+                if (!replica.storage.isHealthy()) {
+                    reason = "health check failed";
+                } else {
+                    replica.recordLatency(System.nanoTime() - start);
+                    Long lag = measureLag(replica);
+                    replica.lagSeconds = lag != null ? lag : -1;
+                    if (lag != null && lag > routingConfig.getMaxLagSeconds()) {
+                        reason = lag == Long.MAX_VALUE ? "replication stopped" : "lagging " + lag + "s";
+                    }
+                }
+            } catch (Exception e) {
+                reason = e.getMessage();
+            }
+            
+            if (reason == null) {
+                replica.consecutiveFailures.set(0);
+                replica.available = true;
+                if (!wasAvailable) {
+                    logger.info("Read replica {} of {} is available again", replica.name, name);
+                }
+            } else {
+                replica.available = false;
+                if (wasAvailable) {
+                    logger.warn("Read replica {} of {} removed from rotation: {}", replica.name, name, reason);
+                }
+            }
+        }
+    }
+    
+    /**
+     * 查询副本的复制延迟
+     * 
+     * @param replica 副本
+     * @return 延迟秒数；复制已停止时返回Long.MAX_VALUE；无法检查延迟时返回null
+     */
+    private Long measureLag(Replica replica) throws StorageException {
+        DatabaseStorage storage = replica.storage;
+        String lagQuery = routingConfig.getLagQuery();
+        if (lagQuery != null) {
+            Optional<Long> lag = storage.querySingle(lagQuery, (rs, rowNum) -> {
+                long value = rs.getLong(1);
+                return rs.wasNull() ? Long.MAX_VALUE : value;
+            });
+            return lag.orElse(null);
+        }
+        if ("MySQL".equalsIgnoreCase(storage.getDatabaseType())) {
+            // 不是副本的实例返回空结果
+            if (!replica.legacyStatusQuery) {
+                try {
+                    return storage.querySingle(MYSQL_REPLICA_STATUS, (rs, rowNum) -> mysqlLag(rs)).orElse(null);
+                } catch (StorageException e) {
+                    if (!isSyntaxError(e)) {
+                        throw e;
+                    }
+                    replica.legacyStatusQuery = true;
+                    logger.info("Read replica {} of {} does not support {}, using {}",
+                            replica.name, name, MYSQL_REPLICA_STATUS, MYSQL_SLAVE_STATUS);
+                }
+            }
+            return storage.querySingle(MYSQL_SLAVE_STATUS, (rs, rowNum) -> mysqlLag(rs)).orElse(null);
+        }
+        return null;
+    }
+    
+    /**
+     * 读取复制状态中的延迟列，MySQL 8.0.22起为Seconds_Behind_Source，
+     * 更早的版本和MariaDB为Seconds_Behind_Master；值为NULL表示复制线程未运行
+     */
+    private static long mysqlLag(ResultSet rs) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        String column = "Seconds_Behind_Master";
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if ("Seconds_Behind_Source".equalsIgnoreCase(metaData.getColumnLabel(i))) {
+                column = "Seconds_Behind_Source";
+                break;
+            }
+        }
+        long value = rs.getLong(column);
+        return rs.wasNull() ? Long.MAX_VALUE : value;
+    }
+    
+    private static boolean isSyntaxError(StorageException e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                SQLException sqlException = (SQLException) cause;
+                return sqlException.getErrorCode() == MYSQL_PARSE_ERROR || "42000".equals(sqlException.getSQLState());
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * 读操作
+     */
+    @FunctionalInterface
+    private interface ReadCall<R> {
+        
+        /**
+         * 在指定存储上执行读操作
+         * 
+         * @param storage 主库或副本
+         * @return 查询结果
+         * @throws StorageException 查询失败时抛出异常
+         */
+        R execute(DatabaseStorage storage) throws StorageException;
+    }
+    
+    /**
+     * 只读副本及其状态
+     */
+    private static final class Replica {
+        private final String name;
+        private final DatabaseStorage storage;
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private final LongAdder reads = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private volatile boolean available = true;
+        private volatile long lagSeconds = -1;
+        private volatile double latencyNanos;
+        private volatile boolean legacyStatusQuery;
+        
+        private Replica(String name, DatabaseStorage storage) {
+            this.name = name;
+            this.storage = storage;
+        }
+        
+        private void recordSuccess(long elapsedNanos) {
+            reads.increment();
+            consecutiveFailures.set(0);
+            recordLatency(elapsedNanos);
+        }
+        
+        private void recordFailure(int threshold) {
+            failures.increment();
+            if (consecutiveFailures.incrementAndGet() >= threshold && available) {
+                available = false;
+                logger.warn("Read replica {} removed from rotation after {} consecutive failures", name, threshold);
+            }
+        }
+        
+        private synchronized void recordLatency(long elapsedNanos) {
+            // 新副本的平均值为0，会先被选中几次以得到真实的响应时间
+            latencyNanos = latencyNanos == 0 ? elapsedNanos : latencyNanos + LATENCY_DECAY * (elapsedNanos - latencyNanos);
+        }
+    }
+}
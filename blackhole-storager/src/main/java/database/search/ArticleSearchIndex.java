@@ -0,0 +1,365 @@
+package database.search;
+
+import database.adapter.SQLiteAdapter;
+import database.core.Page;
+import database.core.RowMapper;
+import database.core.StorageException;
+import database.util.UrlHash;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 文章全文检索索引（SQLite FTS5）
+ * 在文章表上建立外部内容（external content）FTS5虚拟表，索引只保存倒排信息，不重复存储正文。
+ * 文章表上的触发器在插入、更新、删除时增量维护索引，写入文章后即可检索；
+ * 检索结果按BM25相关度排序（标题权重高于正文），以Page返回。
+ * 
+ * 大批量导入时可调用 {@link #beginBulkLoad()} 暂停触发器，导入完成后由
+ * {@link #endBulkLoad()} 一次性重建索引，比逐行维护快得多。
+ * 
+ * 文章表结构：
+ * <pre>
+ * id INTEGER PRIMARY KEY, url_hash INTEGER UNIQUE, url TEXT, title TEXT, content TEXT,
+ * source TEXT, published_at INTEGER, crawled_at INTEGER
+ * </pre>
+ * url_hash为规范化URL的64位哈希（见 {@link UrlHash}），通过 {@link #upsertArticles(List)}
+ * 写入时重复抓取的文章原地更新，不会产生重复记录。
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class ArticleSearchIndex {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ArticleSearchIndex.class);
+    
+    /**
+     * 默认文章表名
+     */
+    public static final String DEFAULT_ARTICLE_TABLE = "articles";
+    
+    /**
+     * 标题列的BM25权重
+     */
+    private static final double TITLE_WEIGHT = 10.0;
+    
+    /**
+     * 正文列的BM25权重
+     */
+    private static final double CONTENT_WEIGHT = 1.0;
+    
+    /**
+     * 表名格式
+     */
+    private static final Pattern TABLE_NAME_PATTERN = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+    
+    /**
+     * 检索词分隔符
+     */
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    
+    /**
+     * SQLite存储
+     */
+    private final SQLiteAdapter storage;
+    
+    /**
+     * 文章表名
+     */
+    private final String articleTable;
+    
+    /**
+     * FTS5索引表名
+     */
+    private final String indexTable;
+    
+    /**
+     * 使用默认文章表创建检索索引
+     * 
+     * @param storage SQLite存储
+     */
+    public ArticleSearchIndex(SQLiteAdapter storage) {
+        this(storage, DEFAULT_ARTICLE_TABLE);
+    }
+    
+    /**
+     * 创建检索索引
+     * 
+     * @param storage SQLite存储
+     * @param articleTable 文章表名
+     */
+    public ArticleSearchIndex(SQLiteAdapter storage, String articleTable) {
+        if (storage == null) {
+            throw new IllegalArgumentException("Storage cannot be null");
+        }
+        if (articleTable == null || !TABLE_NAME_PATTERN.matcher(articleTable).matches()) {
+            throw new IllegalArgumentException("Invalid article table name: " + articleTable);
+        }
+        this.storage = storage;
+        this.articleTable = articleTable;
+        this.indexTable = articleTable + "_fts";
+    }
+    
+    /**
+     * 创建文章表、FTS5索引表和维护索引的触发器（已存在时跳过）
+     * 
+     * @throws StorageException 创建失败时抛出异常
+     */
+    public void initialize() throws StorageException {
+        storage.update("CREATE TABLE IF NOT EXISTS " + articleTable + " ("
+                + "id INTEGER PRIMARY KEY, "
+                + "url_hash INTEGER NOT NULL, "
+                + "url TEXT NOT NULL, "
+                + "title TEXT, "
+                + "content TEXT, "
+                + "source TEXT, "
+                + "published_at INTEGER, "
+                + "crawled_at INTEGER)");
+        storage.update("CREATE UNIQUE INDEX IF NOT EXISTS " + articleTable + "_url_hash ON "
+                + articleTable + " (url_hash)");
+        storage.update("CREATE VIRTUAL TABLE IF NOT EXISTS " + indexTable + " USING fts5("
+                + "title, content, "
+                + "content='" + articleTable + "', content_rowid='id', "
+                + "tokenize='unicode61 remove_diacritics 2')");
+        // 持久化默认排序函数：标题权重高于正文
+        storage.update("INSERT INTO " + indexTable + "(" + indexTable + ", rank) VALUES('rank', 'bm25("
+                + TITLE_WEIGHT + ", " + CONTENT_WEIGHT + ")')");
+        createTriggers();
+        logger.info("Article search index ready: {} -> {}", articleTable, indexTable);
+    }
+    
+    /**
+     * 写入或更新文章
+     * 
+     * @param article 文章字段（必须包含url）
+     * @return 影响的行数
+     * @throws StorageException 写入失败时抛出异常
+     */
+    public int upsertArticle(Map<String, Object> article) throws StorageException {
+        return upsertArticles(Collections.singletonList(article))[0];
+    }
+    
+    /**
+     * 批量写入或更新文章
+     * 按规范化URL的哈希去重：新URL插入，已存在的URL原地更新其余字段，索引随之增量更新
+     * 
+     * @param articles 文章字段列表（每条必须包含url）
+     * @return 每条记录影响的行数
+     * @throws StorageException 写入失败时抛出异常
+     */
+    public int[] upsertArticles(List<Map<String, Object>> articles) throws StorageException {
+        List<Map<String, Object>> rows = new ArrayList<>(articles.size());
+        for (Map<String, Object> article : articles) {
+            Object url = article.get("url");
+            if (url == null) {
+                throw new StorageException("INVALID_DATA", "Article url is required");
+            }
+            Map<String, Object> row = new LinkedHashMap<>(article);
+            row.put("url_hash", UrlHash.hash64(url.toString()));
+            rows.add(row);
+        }
+        return storage.upsertBatch(articleTable, rows, "url_hash");
+    }
+    
+    /**
+     * 按关键词检索文章
+     * 关键词按空白拆分，每个词作为短语匹配，所有词都需命中
+     * 
+     * @param keywords 关键词
+     * @param pageNum 页码（从1开始）
+     * @param pageSize 每页大小
+     * @return 按相关度排序的检索结果
+     * @throws StorageException 检索失败时抛出异常
+     */
+    public Page<SearchHit> search(String keywords, int pageNum, int pageSize) throws StorageException {
+        String match = toMatchExpression(keywords);
+        if (match.isEmpty()) {
+            return Page.empty(pageNum, pageSize);
+        }
+        return searchMatch(match, pageNum, pageSize);
+    }
+    
+    /**
+     * 使用FTS5查询语法检索文章（支持 AND/OR/NOT、前缀 term*、列过滤 title:term 等）
+     * 
+     * @param matchExpression FTS5 MATCH表达式
+     * @param pageNum 页码（从1开始）
+     * @param pageSize 每页大小
+     * @return 按相关度排序的检索结果
+     * @throws StorageException 检索失败或表达式语法错误时抛出异常
+     */
+    public Page<SearchHit> searchMatch(String matchExpression, int pageNum, int pageSize) throws StorageException {
+        return searchMatch(matchExpression, pageNum, pageSize, (rs, rowNum) -> new SearchHit(
+                rs.getLong("id"),
+                rs.getString("url"),
+                rs.getString("title"),
+                rs.getString("snippet"),
+                rs.getDouble("score")));
+    }
+    
+    /**
+     * 使用FTS5查询语法检索文章，并用自定义映射器映射结果
+     * 结果集包含文章表的所有列，以及 snippet（命中片段）和 score（相关度）两列
+     * 
+     * @param matchExpression FTS5 MATCH表达式
+     * @param pageNum 页码（从1开始）
+     * @param pageSize 每页大小
+     * @param rowMapper 行映射器
+     * @param <T> 结果类型
+     * @return 按相关度排序的检索结果
+     * @throws StorageException 检索失败或表达式语法错误时抛出异常
+     */
+    public <T> Page<T> searchMatch(String matchExpression, int pageNum, int pageSize,
+                                   RowMapper<T> rowMapper) throws StorageException {
+        if (pageNum < 1 || pageSize < 1) {
+            throw new StorageException("INVALID_PAGE", "Page number and page size must be greater than 0");
+        }
+        
+        Long total = storage.querySingle(
+                "SELECT COUNT(*) FROM " + indexTable + " WHERE " + indexTable + " MATCH ?",
+                (rs, rowNum) -> rs.getLong(1), matchExpression);
+        if (total == null || total == 0) {
+            return new Page<>(new ArrayList<>(), pageNum, pageSize, 0);
+        }
+        
+        // ORDER BY rank 由FTS5直接按相关度输出，不需要额外排序，snippet只对返回的行计算
+        String sql = "SELECT a.*, "
+                + "snippet(" + indexTable + ", 1, '[', ']', '...', 16) AS snippet, "
+                + "-" + indexTable + ".rank AS score "
+                + "FROM " + indexTable + " JOIN " + articleTable + " a ON a.id = " + indexTable + ".rowid "
+                + "WHERE " + indexTable + " MATCH ? "
+                + "ORDER BY " + indexTable + ".rank "
+                + "LIMIT ? OFFSET ?";
+        List<T> content = storage.queryMultiple(sql, rowMapper,
+                matchExpression, pageSize, (long) (pageNum - 1) * pageSize);
+        return new Page<>(content, pageNum, pageSize, total);
+    }
+    
+    /**
+     * 统计命中的文章数
+     * 
+     * @param keywords 关键词
+     * @return 命中的文章数
+     * @throws StorageException 检索失败时抛出异常
+     */
+    public long count(String keywords) throws StorageException {
+        String match = toMatchExpression(keywords);
+        if (match.isEmpty()) {
+            return 0;
+        }
+        Long total = storage.querySingle(
+                "SELECT COUNT(*) FROM " + indexTable + " WHERE " + indexTable + " MATCH ?",
+                (rs, rowNum) -> rs.getLong(1), match);
+        return total != null ? total : 0;
+    }
+    
+    /**
+     * 从文章表完整重建索引
+     * 
+     * @throws StorageException 重建失败时抛出异常
+     */
+    public void rebuild() throws StorageException {
+        long startTime = System.currentTimeMillis();
+        storage.update("INSERT INTO " + indexTable + "(" + indexTable + ") VALUES('rebuild')");
+        logger.info("Rebuilt search index {} in {}ms", indexTable, System.currentTimeMillis() - startTime);
+    }
+    
+    /**
+     * 合并索引段，提高检索速度（适合在大量写入后的空闲时段执行）
+     * 
+     * @throws StorageException 执行失败时抛出异常
+     */
+    public void optimize() throws StorageException {
+        long startTime = System.currentTimeMillis();
+        storage.update("INSERT INTO " + indexTable + "(" + indexTable + ") VALUES('optimize')");
+        logger.info("Optimized search index {} in {}ms", indexTable, System.currentTimeMillis() - startTime);
+    }
+    
+    /**
+     * 开始批量导入：移除维护索引的触发器，导入期间写入文章不再逐行更新索引
+     * 
+     * @throws StorageException 执行失败时抛出异常
+     */
+    public void beginBulkLoad() throws StorageException {
+        dropTriggers();
+        logger.info("Search index triggers on {} suspended for bulk load", articleTable);
+    }
+    
+    /**
+     * 结束批量导入：重建索引并恢复触发器
+     * 
+     * @throws StorageException 执行失败时抛出异常
+     */
+    public void endBulkLoad() throws StorageException {
+        rebuild();
+        createTriggers();
+        optimize();
+        logger.info("Search index triggers on {} restored after bulk load", articleTable);
+    }
+    
+    /**
+     * 获取FTS5索引表名
+     * 
+     * @return 索引表名
+     */
+    public String getIndexTable() {
+        return indexTable;
+    }
+    
+    /**
+     * 将用户输入的关键词转换为FTS5 MATCH表达式
+     * 每个词用双引号包裹为短语，避免特殊字符被解析为查询语法
+     * 
+     * @param keywords 关键词
+     * @return MATCH表达式，没有有效关键词时返回空字符串
+     */
+    public static String toMatchExpression(String keywords) {
+        if (keywords == null) {
+            return "";
+        }
+        StringBuilder match = new StringBuilder();
+        for (String term : WHITESPACE.split(keywords.trim())) {
+            if (term.isEmpty()) {
+                continue;
+            }
+            if (match.length() > 0) {
+                match.append(' ');
+            }
+            match.append('"').append(term.replace("\"", "\"\"")).append('"');
+        }
+        return match.toString();
+    }
+    
+    /**
+     * 创建维护索引的触发器
+     */
+    private void createTriggers() throws StorageException {
+        storage.update("CREATE TRIGGER IF NOT EXISTS " + indexTable + "_ai AFTER INSERT ON " + articleTable + " BEGIN "
+                + "INSERT INTO " + indexTable + "(rowid, title, content) VALUES (new.id, new.title, new.content); "
+                + "END");
+        storage.update("CREATE TRIGGER IF NOT EXISTS " + indexTable + "_ad AFTER DELETE ON " + articleTable + " BEGIN "
+                + "INSERT INTO " + indexTable + "(" + indexTable + ", rowid, title, content) "
+                + "VALUES ('delete', old.id, old.title, old.content); "
+                + "END");
+        storage.update("CREATE TRIGGER IF NOT EXISTS " + indexTable + "_au AFTER UPDATE OF title, content ON " + articleTable + " BEGIN "
+                + "INSERT INTO " + indexTable + "(" + indexTable + ", rowid, title, content) "
+                + "VALUES ('delete', old.id, old.title, old.content); "
+                + "INSERT INTO " + indexTable + "(rowid, title, content) VALUES (new.id, new.title, new.content); "
+                + "END");
+    }
+    
+    /**
+     * 移除维护索引的触发器
+     */
+    private void dropTriggers() throws StorageException {
+        storage.update("DROP TRIGGER IF EXISTS " + indexTable + "_ai");
+        storage.update("DROP TRIGGER IF EXISTS " + indexTable + "_ad");
+        storage.update("DROP TRIGGER IF EXISTS " + indexTable + "_au");
+    }
+}
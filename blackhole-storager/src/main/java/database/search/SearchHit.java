@@ -0,0 +1,58 @@
+package database.search;
+
+/**
+ * 全文检索命中结果
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class SearchHit {
+    
+    private final long id;
+    private final String url;
+    private final String title;
+    private final String snippet;
+    private final double score;
+    
+    /**
+     * 构造检索结果
+     * 
+     * @param id 文章ID
+     * @param url 文章URL
+     * @param title 文章标题
+     * @param snippet 命中片段（关键词以[]标出）
+     * @param score 相关度得分（BM25取反，越大越相关）
+     */
+    public SearchHit(long id, String url, String title, String snippet, double score) {
+        this.id = id;
+        this.url = url;
+        this.title = title;
+        this.snippet = snippet;
+        this.score = score;
+    }
+    
+    public long getId() {
+        return id;
+    }
+    
+    public String getUrl() {
+        return url;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public String getSnippet() {
+        return snippet;
+    }
+    
+    public double getScore() {
+        return score;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("SearchHit{id=%d, score=%.3f, title='%s', url='%s'}", id, score, title, url);
+    }
+}
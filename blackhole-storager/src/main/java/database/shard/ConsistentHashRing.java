@@ -0,0 +1,257 @@
+package database.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * 一致性哈希环
+ * 每个物理节点在环上放置若干虚拟节点，键按哈希值顺时针路由到第一个虚拟节点。
+ * 增加或移除一个节点时，只有约1/N的键会改变归属。
+ * 键中包含 {tag} 时只对tag部分求哈希，使相关的键落在同一分片上。
+ * 
+ * 环结构和节点表放在同一个不可变快照中写时复制，路由查询无锁且总是看到一致的快照；
+ * 增删节点为低频操作。
+ * 
+ * @param <N> 节点类型
+ * @author Collections Team
+ * @since 1.0
+ */
+public class ConsistentHashRing<N> {
+    
+    /**
+     * 默认每个物理节点的虚拟节点数
+     */
+    public static final int DEFAULT_VIRTUAL_NODES = 160;
+    
+    /**
+     * 每个物理节点的虚拟节点数
+     */
+    private final int virtualNodes;
+    
+    /**
+     * 每个线程复用的MD5摘要实例，避免每次路由都创建
+     */
+    private static final ThreadLocal<MessageDigest> MD5 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 algorithm not available", e);
+        }
+    });
+    
+    /**
+     * 当前快照（哈希环和物理节点）
+     */
+    private volatile Snapshot<N> snapshot = new Snapshot<>(new TreeMap<>(), new LinkedHashMap<>());
+    
+    /**
+     * 使用默认虚拟节点数创建哈希环
+     */
+    public ConsistentHashRing() {
+        this(DEFAULT_VIRTUAL_NODES);
+    }
+    
+    /**
+     * 创建哈希环
+     * 
+     * @param virtualNodes 每个物理节点的虚拟节点数
+     */
+    public ConsistentHashRing(int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("Virtual node count must be greater than 0");
+        }
+        this.virtualNodes = virtualNodes;
+    }
+    
+    /**
+     * 添加节点
+     * 
+     * @param nodeId 节点ID（决定节点在环上的位置，应保持稳定，例如 host:port）
+     * @param node 节点
+     */
+    public synchronized void addNode(String nodeId, N node) {
+        if (nodeId == null || node == null) {
+            throw new IllegalArgumentException("Node id and node cannot be null");
+        }
+        Snapshot<N> current = snapshot;
+        if (current.nodes.containsKey(nodeId)) {
+            throw new IllegalArgumentException("Node already exists: " + nodeId);
+        }
+        
+        TreeMap<Long, String> newRing = new TreeMap<>(current.ring);
+        for (int i = 0; i < virtualNodes; i++) {
+            // 哈希碰撞时保留已有的虚拟节点，避免已有键被迁移
+            newRing.putIfAbsent(hash(nodeId + "#" + i), nodeId);
+        }
+        Map<String, N> newNodes = new LinkedHashMap<>(current.nodes);
+        newNodes.put(nodeId, node);
+        
+        snapshot = new Snapshot<>(newRing, newNodes);
+    }
+    
+    /**
+     * 移除节点
+     * 
+     * @param nodeId 节点ID
+     * @return 被移除的节点，不存在时返回null
+     */
+    public synchronized N removeNode(String nodeId) {
+        Snapshot<N> current = snapshot;
+        if (!current.nodes.containsKey(nodeId)) {
+            return null;
+        }
+        
+        TreeMap<Long, String> newRing = new TreeMap<>(current.ring);
+        newRing.values().removeIf(nodeId::equals);
+        Map<String, N> newNodes = new LinkedHashMap<>(current.nodes);
+        N removed = newNodes.remove(nodeId);
+        
+        snapshot = new Snapshot<>(newRing, newNodes);
+        return removed;
+    }
+    
+    /**
+     * 获取键所属的节点ID
+     * 
+     * @param key 键
+     * @return 节点ID
+     * @throws IllegalStateException 环为空时抛出异常
+     */
+    public String getNodeId(String key) {
+        return snapshot.getNodeId(key);
+    }
+    
+    /**
+     * 获取键所属的节点
+     * 
+     * @param key 键
+     * @return 节点
+     * @throws IllegalStateException 环为空时抛出异常
+     */
+    public N getNode(String key) {
+        Snapshot<N> current = snapshot;
+        return current.nodes.get(current.getNodeId(key));
+    }
+    
+    /**
+     * 按所属节点对键分组，组内保持键的原有顺序
+     * 所有键都在同一个快照上路由并直接解析为节点，并发增删节点时不会得到已不在环上的节点ID
+     * 
+     * @param keys 键集合
+     * @return 节点到键列表的映射
+     * @throws IllegalStateException 环为空时抛出异常
+     */
+    public Map<N, List<String>> groupByNode(Collection<String> keys) {
+        Snapshot<N> current = snapshot;
+        Map<N, List<String>> groups = new LinkedHashMap<>();
+        for (String key : keys) {
+            groups.computeIfAbsent(current.nodes.get(current.getNodeId(key)), node -> new ArrayList<>()).add(key);
+        }
+        return groups;
+    }
+    
+    /**
+     * 获取所有节点
+     * 
+     * @return 节点ID到节点的只读映射（调用时的快照，之后增删节点不会反映在其中）
+     */
+    public Map<String, N> getNodes() {
+        return Collections.unmodifiableMap(snapshot.nodes);
+    }
+    
+    /**
+     * 获取物理节点数
+     * 
+     * @return 节点数
+     */
+    public int size() {
+        return snapshot.nodes.size();
+    }
+    
+    /**
+     * 获取每个物理节点的虚拟节点数
+     * 
+     * @return 虚拟节点数
+     */
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+    
+    /**
+     * 提取键中的哈希标签（与Redis Cluster的 {tag} 规则一致）
+     * 
+     * @param key 键
+     * @return 参与哈希计算的部分
+     */
+    static String hashTag(String key) {
+        int start = key.indexOf('{');
+        if (start >= 0) {
+            int end = key.indexOf('}', start + 1);
+            if (end > start + 1) {
+                return key.substring(start + 1, end);
+            }
+        }
+        return key;
+    }
+    
+    /**
+     * 计算64位哈希值（MD5前8个字节）
+     * 
+     * @param value 输入字符串
+     * @return 哈希值
+     */
+    static long hash(String value) {
+        // digest()结束时会重置摘要实例，可以直接复用
+        byte[] digest = MD5.get().digest(value.getBytes(StandardCharsets.UTF_8));
+        long h = 0;
+        for (int i = 0; i < 8; i++) {
+            h = (h << 8) | (digest[i] & 0xFF);
+        }
+        return h;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("ConsistentHashRing{nodes=%s, virtualNodes=%d}", snapshot.nodes.keySet(), virtualNodes);
+    }
+    
+    /**
+     * 哈希环的不可变快照，创建后不再修改
+     * 
+     * @param <N> 节点类型
+     */
+    private static final class Snapshot<N> {
+        
+        /**
+         * 哈希环（虚拟节点哈希 -> 节点ID）
+         */
+        private final NavigableMap<Long, String> ring;
+        
+        /**
+         * 物理节点（节点ID -> 节点）
+         */
+        private final Map<String, N> nodes;
+        
+        private Snapshot(NavigableMap<Long, String> ring, Map<String, N> nodes) {
+            this.ring = ring;
+            this.nodes = nodes;
+        }
+        
+        private String getNodeId(String key) {
+            if (ring.isEmpty()) {
+                throw new IllegalStateException("Hash ring has no nodes");
+            }
+            Map.Entry<Long, String> entry = ring.ceilingEntry(hash(hashTag(key)));
+            return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package database.util;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+
+/**
+ * 日期值转换工具
+ * 把写入记录中的时间列（抓取时间、发布时间）统一转换为日期，用于按天/按月路由分片和分区。
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public final class DateValues {
+    
+    /**
+     * 私有构造函数，防止实例化
+     */
+    private DateValues() {
+        // 工具类，不需要实例化
+    }
+    
+    /**
+     * 把时间值转换为日期
+     * 支持java.sql.Date/Timestamp、java.util.Date、java.time类型、毫秒时间戳和ISO格式字符串
+     * （yyyy-MM-dd、yyyy-MM-dd HH:mm:ss、带时区偏移的ISO时间）
+     * 
+     * @param value 时间值
+     * @param zone 时间戳和带时区的值换算到日期时使用的时区
+     * @return 日期
+     * @throws IllegalArgumentException 值为null或无法识别时抛出异常
+     */
+    public static LocalDate toLocalDate(Object value, ZoneId zone) {
+        if (value == null) {
+            throw new IllegalArgumentException("Date value cannot be null");
+        }
+        if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate();
+        }
+        if (value instanceof java.sql.Timestamp) {
+            return ((java.sql.Timestamp) value).toLocalDateTime().toLocalDate();
+        }
+        if (value instanceof java.util.Date) {
+            return ((java.util.Date) value).toInstant().atZone(zone).toLocalDate();
+        }
+        if (value instanceof LocalDate) {
+            return (LocalDate) value;
+        }
+        if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).toLocalDate();
+        }
+        if (value instanceof Instant) {
+            return ((Instant) value).atZone(zone).toLocalDate();
+        }
+        if (value instanceof ZonedDateTime) {
+            return ((ZonedDateTime) value).withZoneSameInstant(zone).toLocalDate();
+        }
+        if (value instanceof OffsetDateTime) {
+            return ((OffsetDateTime) value).atZoneSameInstant(zone).toLocalDate();
+        }
+        if (value instanceof Number) {
+            return Instant.ofEpochMilli(((Number) value).longValue()).atZone(zone).toLocalDate();
+        }
+        if (value instanceof TemporalAccessor) {
+            return LocalDate.from((TemporalAccessor) value);
+        }
+        
+        String text = value.toString().trim();
+        try {
+            if (!text.isEmpty() && text.chars().allMatch(Character::isDigit)) {
+                return Instant.ofEpochMilli(Long.parseLong(text)).atZone(zone).toLocalDate();
+            }
+            if (text.endsWith("Z") || text.lastIndexOf('+') > 10 || text.lastIndexOf('-') > 10) {
+                return OffsetDateTime.parse(text.replace(' ', 'T')).atZoneSameInstant(zone).toLocalDate();
+            }
+            return LocalDate.parse(text.length() > 10 ? text.substring(0, 10) : text);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Cannot derive a date from value: " + value, e);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package database.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 加盐行键
+ * HBase按行键字节序把数据划分到Region，新闻URL和按时间生成的键（如 /2024/01/01/...）是单调递增的，
+ * 直接作为行键时所有写入都落在最后一个Region上。行键前加一个由键本身哈希得到的盐字节，
+ * 把写入均匀分散到多个预分区中；盐值由键确定，点查时可以直接算出完整行键。
+ * 
+ * 代价是按前缀扫描需要在每个分桶上各扫描一次再合并。
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public final class SaltedRowKey {
+    
+    /**
+     * 最大分桶数（盐为一个字节）
+     */
+    public static final int MAX_BUCKETS = 256;
+    
+    private final int buckets;
+    
+    /**
+     * 构造函数
+     * 
+     * @param buckets 分桶数（1-256），建表后不能再修改，否则已有数据的行键无法算出
+     */
+    public SaltedRowKey(int buckets) {
+        if (buckets < 1 || buckets > MAX_BUCKETS) {
+            throw new IllegalArgumentException("Salt buckets must be between 1 and " + MAX_BUCKETS);
+        }
+        this.buckets = buckets;
+    }
+    
+    /**
+     * 获取分桶数
+     * 
+     * @return 分桶数
+     */
+    public int getBuckets() {
+        return buckets;
+    }
+    
+    /**
+     * 为键加盐
+     * 
+     * @param key 逻辑键
+     * @return 行键（盐字节 + 逻辑键）
+     */
+    public byte[] salt(String key) {
+        return salt(key.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * 为键加盐
+     * 
+     * @param key 逻辑键
+     * @return 行键（盐字节 + 逻辑键）
+     */
+    public byte[] salt(byte[] key) {
+        return withBucket(bucketOf(key), key);
+    }
+    
+    /**
+     * 在指定分桶下构造行键
+     * 
+     * @param bucket 分桶
+     * @param key 逻辑键
+     * @return 行键
+     */
+    public byte[] withBucket(int bucket, byte[] key) {
+        byte[] rowKey = new byte[key.length + 1];
+        rowKey[0] = (byte) bucket;
+        System.arraycopy(key, 0, rowKey, 1, key.length);
+        return rowKey;
+    }
+    
+    /**
+     * 去掉行键中的盐
+     * 
+     * @param rowKey 行键
+     * @return 逻辑键
+     */
+    public static byte[] unsalt(byte[] rowKey) {
+        return Arrays.copyOfRange(rowKey, 1, rowKey.length);
+    }
+    
+    /**
+     * 计算键所在的分桶（FNV-1a哈希取模）
+     * 
+     * @param key 逻辑键
+     * @return 分桶（0到buckets-1）
+     */
+    public int bucketOf(byte[] key) {
+        int hash = 0x811C9DC5;
+        for (byte b : key) {
+            hash ^= b & 0xFF;
+            hash *= 0x01000193;
+        }
+        return (hash & Integer.MAX_VALUE) % buckets;
+    }
+    
+    /**
+     * 建表时的预分区键，每个分桶一个Region
+     * 
+     * @return 分区键（buckets-1个）
+     */
+    public byte[][] splitKeys() {
+        byte[][] splits = new byte[buckets - 1][];
+        for (int i = 1; i < buckets; i++) {
+            splits[i - 1] = new byte[]{(byte) i};
+        }
+        return splits;
+    }
+    
+    /**
+     * 计算分桶内前缀扫描的起始行键
+     * 
+     * @param bucket 分桶
+     * @param prefix 逻辑键前缀
+     * @return 起始行键（包含）
+     */
+    public byte[] scanStart(int bucket, byte[] prefix) {
+        return withBucket(bucket, prefix);
+    }
+    
+    /**
+     * 计算分桶内前缀扫描的结束行键
+     * 
+     * @param bucket 分桶
+     * @param prefix 逻辑键前缀
+     * @return 结束行键（不包含）；最后一个分桶且前缀没有后继时返回空数组，表示扫描到表尾
+     */
+    public byte[] scanStop(int bucket, byte[] prefix) {
+        for (int i = prefix.length - 1; i >= 0; i--) {
+            if (prefix[i] != (byte) 0xFF) {
+                byte[] bound = Arrays.copyOf(prefix, i + 1);
+                bound[i]++;
+                return withBucket(bucket, bound);
+            }
+        }
+        return bucket + 1 < MAX_BUCKETS ? new byte[]{(byte) (bucket + 1)} : new byte[0];
+    }
+}
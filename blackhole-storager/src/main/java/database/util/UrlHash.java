@@ -0,0 +1,140 @@
+package database.util;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * URL规范化与哈希工具
+ * 同一篇文章经由不同种子或渠道抓取时URL形式往往不同（大小写、默认端口、锚点、跟踪参数、参数顺序），
+ * 先规范化再取SHA-256的前64/128位作为紧凑的唯一键，用于建立唯一索引和upsert去重。
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public final class UrlHash {
+    
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    
+    /**
+     * 私有构造函数，防止实例化
+     */
+    private UrlHash() {
+        // 工具类，不需要实例化
+    }
+    
+    /**
+     * 规范化URL
+     * 协议和主机名转小写，去掉默认端口、锚点和跟踪参数（utm_*、gclid、fbclid），查询参数按名称排序
+     * 
+     * @param url 原始URL
+     * @return 规范化后的URL，无法解析时返回去掉首尾空白的原始URL
+     */
+    public static String canonicalize(String url) {
+        if (url == null) {
+            throw new IllegalArgumentException("URL cannot be null");
+        }
+        String trimmed = url.trim();
+        URI uri;
+        try {
+            uri = new URI(trimmed);
+        } catch (URISyntaxException e) {
+            return trimmed;
+        }
+        if (uri.getScheme() == null || uri.getRawAuthority() == null) {
+            return trimmed;
+        }
+        
+        String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+        StringBuilder canonical = new StringBuilder(trimmed.length()).append(scheme).append("://");
+        if (uri.getRawUserInfo() != null) {
+            canonical.append(uri.getRawUserInfo()).append('@');
+        }
+        canonical.append(uri.getHost() != null
+                ? uri.getHost().toLowerCase(Locale.ROOT)
+                : uri.getRawAuthority().toLowerCase(Locale.ROOT));
+        int port = uri.getPort();
+        if (port != -1 && !("http".equals(scheme) && port == 80) && !("https".equals(scheme) && port == 443)) {
+            canonical.append(':').append(port);
+        }
+        
+        String path = uri.getRawPath();
+        canonical.append(path == null || path.isEmpty() ? "/" : path);
+        
+        String query = canonicalQuery(uri.getRawQuery());
+        if (!query.isEmpty()) {
+            canonical.append('?').append(query);
+        }
+        return canonical.toString();
+    }
+    
+    /**
+     * 计算规范化URL的64位哈希（可直接存入INTEGER/BIGINT列）
+     * 
+     * @param url 原始URL
+     * @return 64位哈希值
+     */
+    public static long hash64(String url) {
+        byte[] digest = sha256(canonicalize(url));
+        long hash = 0;
+        for (int i = 0; i < 8; i++) {
+            hash = (hash << 8) | (digest[i] & 0xFF);
+        }
+        return hash;
+    }
+    
+    /**
+     * 计算规范化URL的128位哈希（32位十六进制字符串，可存入CHAR(32)/BINARY(16)列）
+     * 
+     * @param url 原始URL
+     * @return 128位哈希的十六进制表示
+     */
+    public static String hash128Hex(String url) {
+        byte[] digest = sha256(canonicalize(url));
+        char[] hex = new char[32];
+        for (int i = 0; i < 16; i++) {
+            hex[i * 2] = HEX[(digest[i] >> 4) & 0x0F];
+            hex[i * 2 + 1] = HEX[digest[i] & 0x0F];
+        }
+        return new String(hex);
+    }
+    
+    private static String canonicalQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return "";
+        }
+        List<String> params = new ArrayList<>();
+        for (String param : rawQuery.split("&")) {
+            if (param.isEmpty()) {
+                continue;
+            }
+            int separator = param.indexOf('=');
+            String name = (separator >= 0 ? param.substring(0, separator) : param).toLowerCase(Locale.ROOT);
+            if (name.startsWith("utm_") || "gclid".equals(name) || "fbclid".equals(name)) {
+                continue;
+            }
+            params.add(param);
+        }
+        // 按参数名排序，同名参数保持原有顺序
+        params.sort((a, b) -> paramName(a).compareTo(paramName(b)));
+        return String.join("&", params);
+    }
+    
+    private static String paramName(String param) {
+        int separator = param.indexOf('=');
+        return separator >= 0 ? param.substring(0, separator) : param;
+    }
+    
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package localfile;
+
+/**
+ * 追加日志写入器配置
+ */
+public class AppendLogOptions {
+
+    /**
+     * 刷盘（fsync）策略
+     */
+    public enum SyncPolicy {
+        /** 只写入操作系统页缓存，由操作系统决定何时落盘 */
+        NEVER,
+        /** 每隔syncIntervalMillis落盘一次 */
+        INTERVAL,
+        /** 每次组刷新后落盘（组提交） */
+        ALWAYS
+    }
+
+    /**
+     * 轮转后分段文件的压缩方式
+     */
+    public enum Compression {
+        NONE(""),
+        GZIP(".gz"),
+        ZSTD(".zst");
+
+        private final String suffix;
+
+        Compression(String suffix) {
+            this.suffix = suffix;
+        }
+
+        public String getSuffix() {
+            return suffix;
+        }
+    }
+
+    private int bufferSize = 1024 * 1024;
+    private long flushIntervalMillis = 200;
+    private SyncPolicy syncPolicy = SyncPolicy.INTERVAL;
+    private long syncIntervalMillis = 1000;
+    private long maxSegmentBytes = 256L * 1024 * 1024;
+    private long rotateIntervalMillis = 0;
+    private Compression compression = Compression.NONE;
+    private long maxPendingBytes = 64L * 1024 * 1024;
+
+    public static AppendLogOptions defaults() {
+        return new AppendLogOptions();
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * 直接内存写缓冲区大小（字节）
+     */
+    public AppendLogOptions setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+        return this;
+    }
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    /**
+     * 队列空闲时写线程最长等待时间（毫秒），也是缓冲数据写入文件的最大延迟
+     */
+    public AppendLogOptions setFlushIntervalMillis(long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+        return this;
+    }
+
+    public SyncPolicy getSyncPolicy() {
+        return syncPolicy;
+    }
+
+    public AppendLogOptions setSyncPolicy(SyncPolicy syncPolicy) {
+        this.syncPolicy = syncPolicy;
+        return this;
+    }
+
+    public long getSyncIntervalMillis() {
+        return syncIntervalMillis;
+    }
+
+    public AppendLogOptions setSyncIntervalMillis(long syncIntervalMillis) {
+        this.syncIntervalMillis = syncIntervalMillis;
+        return this;
+    }
+
+    public long getMaxSegmentBytes() {
+        return maxSegmentBytes;
+    }
+
+    /**
+     * 单个分段文件的最大字节数，超过后轮转，0表示不按大小轮转
+     */
+    public AppendLogOptions setMaxSegmentBytes(long maxSegmentBytes) {
+        this.maxSegmentBytes = maxSegmentBytes;
+        return this;
+    }
+
+    public long getRotateIntervalMillis() {
+        return rotateIntervalMillis;
+    }
+
+    /**
+     * 按时间轮转的间隔（毫秒），0表示不按时间轮转
+     */
+    public AppendLogOptions setRotateIntervalMillis(long rotateIntervalMillis) {
+        this.rotateIntervalMillis = rotateIntervalMillis;
+        return this;
+    }
+
+    public Compression getCompression() {
+        return compression;
+    }
+
+    public AppendLogOptions setCompression(Compression compression) {
+        this.compression = compression;
+        return this;
+    }
+
+    public long getMaxPendingBytes() {
+        return maxPendingBytes;
+    }
+
+    /**
+     * 队列中尚未写入的最大字节数，超过后写入方等待，避免写线程跟不上时内存无限增长
+     */
+    public AppendLogOptions setMaxPendingBytes(long maxPendingBytes) {
+        this.maxPendingBytes = maxPendingBytes;
+        return this;
+    }
+
+    public void validate() {
+        if (bufferSize < 4096) {
+            throw new IllegalArgumentException("Buffer size must be at least 4096 bytes");
+        }
+        if (flushIntervalMillis < 1) {
+            throw new IllegalArgumentException("Flush interval must be greater than 0");
+        }
+        if (syncPolicy == null || compression == null) {
+            throw new IllegalArgumentException("Sync policy and compression cannot be null");
+        }
+        if (syncPolicy == SyncPolicy.INTERVAL && syncIntervalMillis < 1) {
+            throw new IllegalArgumentException("Sync interval must be greater than 0");
+        }
+        if (maxSegmentBytes < 0 || rotateIntervalMillis < 0) {
+            throw new IllegalArgumentException("Rotation thresholds cannot be negative");
+        }
+        if (maxPendingBytes < bufferSize) {
+            throw new IllegalArgumentException("Max pending bytes must not be smaller than buffer size");
+        }
+    }
+}
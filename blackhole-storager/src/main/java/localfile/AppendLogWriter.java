@@ -0,0 +1,486 @@
+package localfile;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 高吞吐追加日志写入器
+ * 多个线程通过无锁队列提交记录，由一个写线程持有长期打开的FileChannel，
+ * 将记录攒入直接内存缓冲区后成组写入；按配置的策略fsync，按大小/时间轮转分段文件，
+ * 轮转出的分段可在后台压缩为gzip或zstd。
+ *
+ * 写入是异步的：append返回时记录只保证已入队，调用flush()可等待此前的记录写入并落盘。
+ */
+public class AppendLogWriter implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppendLogWriter.class);
+
+    private static final AtomicInteger WRITER_COUNTER = new AtomicInteger();
+
+    // 分段改名失败后继续写当前文件，间隔一段时间再尝试轮转
+    private static final long ROTATE_RETRY_MILLIS = 10_000;
+
+    // 关闭后写入仍持续失败（如磁盘已满）时，超过这个时间就丢弃剩余记录，close()不会无限等待
+    private static final long CLOSE_TIMEOUT_MILLIS = 30_000;
+
+    private final Path path;
+    private final AppendLogOptions options;
+
+    /**
+     * 待写入的记录（byte[]）和刷新屏障（FlushBarrier），多生产者单消费者
+     */
+    private final Queue<Object> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pendingBytes = new AtomicLong();
+
+    private final Thread writerThread;
+    private final ExecutorService compressor;
+    private volatile boolean writerWaiting;
+    private volatile boolean closed;
+    private volatile long closeDeadline;
+
+    // 以下字段只由写线程访问
+    private final ByteBuffer buffer;
+    private FileChannel channel;
+    private long segmentBytes;
+    private long segmentOpenedAt;
+    private long lastSyncAt;
+    private boolean unsynced;
+    private int rotationSeq;
+    private long rotateRetryAt;
+
+    // 统计信息
+    private final AtomicLong appendedRecords = new AtomicLong();
+    private final AtomicLong writtenBytes = new AtomicLong();
+    private final AtomicLong syncCount = new AtomicLong();
+    private final AtomicLong rotationCount = new AtomicLong();
+    private final AtomicLong writeErrors = new AtomicLong();
+    private final AtomicLong droppedRecords = new AtomicLong();
+
+    private AppendLogWriter(Path path, AppendLogOptions options) throws IOException {
+        options.validate();
+        this.path = path.toAbsolutePath();
+        this.options = options;
+        this.buffer = ByteBuffer.allocateDirect(options.getBufferSize());
+
+        Path parent = this.path.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        openSegment();
+
+        this.compressor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "append-log-compressor-" + this.path.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.writerThread = new Thread(this::runWriter,
+                "append-log-writer-" + WRITER_COUNTER.incrementAndGet() + "-" + this.path.getFileName());
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    public static AppendLogWriter open(String filePath) throws IOException {
+        return open(Paths.get(filePath), AppendLogOptions.defaults());
+    }
+
+    public static AppendLogWriter open(Path path, AppendLogOptions options) throws IOException {
+        return new AppendLogWriter(path, options);
+    }
+
+    /**
+     * 追加一行文本（自动补换行符）
+     */
+    public void appendLine(String line) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        byte[] record = new byte[bytes.length + 1];
+        System.arraycopy(bytes, 0, record, 0, bytes.length);
+        record[bytes.length] = '\n';
+        append(record);
+    }
+
+    /**
+     * 追加一条原始记录，记录内容原样写入
+     */
+    public void append(byte[] record) {
+        if (closed) {
+            throw new IllegalStateException("Append log writer is closed: " + path);
+        }
+        // 写线程跟不上时限制队列中的数据量
+        while (pendingBytes.get() > options.getMaxPendingBytes()) {
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+            if (closed) {
+                throw new IllegalStateException("Append log writer is closed: " + path);
+            }
+        }
+        pendingBytes.addAndGet(record.length);
+        queue.offer(record);
+        appendedRecords.incrementAndGet();
+        if (writerWaiting) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    /**
+     * 等待此前追加的所有记录写入文件并fsync；写入器在此期间关闭且记录未能写入时抛出异常
+     */
+    public void flush() throws IOException {
+        if (closed) {
+            return;
+        }
+        FlushBarrier barrier = new FlushBarrier();
+        queue.offer(barrier);
+        LockSupport.unpark(writerThread);
+        try {
+            while (true) {
+                try {
+                    barrier.done.get(options.getFlushIntervalMillis(), TimeUnit.MILLISECONDS);
+                    return;
+                } catch (TimeoutException e) {
+                    // 与close()并发时屏障可能在写线程退出后才入队，不会再有人处理
+                    if (!writerThread.isAlive()) {
+                        barrier.done.completeExceptionally(closedBeforeWrite());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while flushing " + path, e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to flush " + path, e.getCause());
+        }
+    }
+
+    /**
+     * 写入并落盘所有剩余记录，关闭文件；等待后台压缩完成。
+     * 写入持续失败时最多等待CLOSE_TIMEOUT_MILLIS，之后丢弃未写入的记录
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closeDeadline = System.currentTimeMillis() + CLOSE_TIMEOUT_MILLIS;
+        closed = true;
+        LockSupport.unpark(writerThread);
+        try {
+            // 写线程在截止时间后的下一次重试时退出；阻塞在文件系统调用中时不再等待
+            writerThread.join(CLOSE_TIMEOUT_MILLIS + 2 * options.getFlushIntervalMillis());
+            if (writerThread.isAlive()) {
+                compressor.shutdownNow();
+                throw new IOException("Timed out waiting for append log writer to finish: " + path);
+            }
+            compressor.shutdown();
+            compressor.awaitTermination(5, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while closing " + path, e);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getAppendedRecords() {
+        return appendedRecords.get();
+    }
+
+    public long getWrittenBytes() {
+        return writtenBytes.get();
+    }
+
+    public long getPendingBytes() {
+        return pendingBytes.get();
+    }
+
+    /**
+     * 实际执行fsync（FileChannel.force）的次数，只写出缓冲区不计入
+     */
+    public long getSyncCount() {
+        return syncCount.get();
+    }
+
+    public long getRotationCount() {
+        return rotationCount.get();
+    }
+
+    public long getWriteErrors() {
+        return writeErrors.get();
+    }
+
+    /**
+     * 关闭时因写入持续失败而丢弃的记录数
+     */
+    public long getDroppedRecords() {
+        return droppedRecords.get();
+    }
+
+    private void runWriter() {
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(options.getFlushIntervalMillis());
+        while (true) {
+            // 只有写线程消费队列：记录先peek，写入缓冲区成功后再出队，失败时下一轮重试同一条记录
+            Object item = queue.peek();
+            try {
+                if (item == null) {
+                    // 队列已空：成组写出缓冲区，再按策略落盘和轮转
+                    flushBuffer();
+                    syncIfDue(options.getSyncPolicy() == AppendLogOptions.SyncPolicy.ALWAYS);
+                    rotateIfDue(0);
+                    if (closed && queue.isEmpty()) {
+                        break;
+                    }
+                    writerWaiting = true;
+                    if (queue.isEmpty() && !closed) {
+                        LockSupport.parkNanos(this, idleNanos);
+                    }
+                    writerWaiting = false;
+                } else if (item instanceof FlushBarrier) {
+                    queue.poll();
+                    try {
+                        flushBuffer();
+                        syncIfDue(true);
+                        ((FlushBarrier) item).done.complete(null);
+                    } catch (IOException e) {
+                        ((FlushBarrier) item).done.completeExceptionally(e);
+                        throw e;
+                    }
+                } else {
+                    writeRecord((byte[]) item);
+                    queue.poll();
+                }
+            } catch (IOException e) {
+                writeErrors.incrementAndGet();
+                logger.error("Failed to write append log {}", path, e);
+                closeChannelQuietly();
+                if (closed && System.currentTimeMillis() >= closeDeadline) {
+                    break;
+                }
+                // 稍后重试打开文件，缓冲区中未写出的数据和未出队的记录保留
+                LockSupport.parkNanos(idleNanos);
+            }
+        }
+
+        try {
+            flushBuffer();
+            syncIfDue(true);
+        } catch (IOException e) {
+            logger.error("Failed to flush append log {} on close, {} buffered bytes lost", path, buffer.position(), e);
+        } finally {
+            closeChannelQuietly();
+            failQueued();
+        }
+    }
+
+    /**
+     * 写线程退出后丢弃仍在队列中的记录，并让其中的刷新屏障以异常完成，避免flush()永远等待
+     */
+    private void failQueued() {
+        long dropped = 0;
+        for (Object item = queue.poll(); item != null; item = queue.poll()) {
+            if (item instanceof FlushBarrier) {
+                ((FlushBarrier) item).done.completeExceptionally(closedBeforeWrite());
+            } else {
+                pendingBytes.addAndGet(-((byte[]) item).length);
+                dropped++;
+            }
+        }
+        if (dropped > 0) {
+            droppedRecords.addAndGet(dropped);
+            logger.error("Dropped {} unwritten records of append log {} on close", dropped, path);
+        }
+    }
+
+    private IOException closedBeforeWrite() {
+        return new IOException("Append log writer closed before pending records were written: " + path);
+    }
+
+    /**
+     * 写入一条记录：先按需轮转，再放入缓冲区（超大记录直接写出）；
+     * 抛出异常时记录未被接收，由调用方重试
+     */
+    private void writeRecord(byte[] record) throws IOException {
+        rotateIfDue(record.length);
+
+        if (record.length > buffer.capacity()) {
+            // 超大记录直接写出
+            flushBuffer();
+            ByteBuffer wrapped = ByteBuffer.wrap(record);
+            while (wrapped.hasRemaining()) {
+                segmentBytes += ensureChannel().write(wrapped);
+            }
+            writtenBytes.addAndGet(record.length);
+            unsynced = true;
+        } else {
+            if (buffer.remaining() < record.length) {
+                flushBuffer();
+            }
+            buffer.put(record);
+        }
+        pendingBytes.addAndGet(-record.length);
+    }
+
+    private void flushBuffer() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        try {
+            FileChannel current = ensureChannel();
+            while (buffer.hasRemaining()) {
+                int written = current.write(buffer);
+                segmentBytes += written;
+                writtenBytes.addAndGet(written);
+            }
+            unsynced = true;
+        } finally {
+            buffer.compact();
+        }
+    }
+
+    private void syncIfDue(boolean force) throws IOException {
+        if (!unsynced || channel == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        boolean due = force
+                || (options.getSyncPolicy() == AppendLogOptions.SyncPolicy.INTERVAL
+                    && now - lastSyncAt >= options.getSyncIntervalMillis());
+        if (due) {
+            channel.force(false);
+            lastSyncAt = now;
+            unsynced = false;
+            syncCount.incrementAndGet();
+        }
+    }
+
+    private void rotateIfDue(int incomingBytes) throws IOException {
+        long size = segmentBytes + buffer.position();
+        if (size == 0 || System.currentTimeMillis() < rotateRetryAt) {
+            return;
+        }
+        boolean bySize = options.getMaxSegmentBytes() > 0 && size + incomingBytes > options.getMaxSegmentBytes();
+        boolean byTime = options.getRotateIntervalMillis() > 0
+                && System.currentTimeMillis() - segmentOpenedAt >= options.getRotateIntervalMillis();
+        if (bySize || byTime) {
+            rotate();
+        }
+    }
+
+    private void rotate() throws IOException {
+        flushBuffer();
+        syncIfDue(true);
+        closeChannelQuietly();
+
+        String suffix = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date())
+                + "-" + String.format("%03d", ++rotationSeq % 1000);
+        Path rotated = path.resolveSibling(path.getFileName() + "." + suffix);
+        try {
+            Files.move(path, rotated, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // 改名失败时继续追加到当前文件，不丢弃正在写入的记录
+            writeErrors.incrementAndGet();
+            rotateRetryAt = System.currentTimeMillis() + ROTATE_RETRY_MILLIS;
+            logger.error("Failed to rotate append log {}, retrying in {}ms", path, ROTATE_RETRY_MILLIS, e);
+            openSegment();
+            return;
+        }
+        rotationCount.incrementAndGet();
+        logger.info("Rotated append log {} -> {}", path, rotated.getFileName());
+
+        if (options.getCompression() != AppendLogOptions.Compression.NONE) {
+            compressor.execute(() -> compress(rotated, options.getCompression()));
+        }
+        openSegment();
+    }
+
+    private FileChannel ensureChannel() throws IOException {
+        if (channel == null || !channel.isOpen()) {
+            openSegment();
+        }
+        return channel;
+    }
+
+    private void openSegment() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentBytes = channel.size();
+        segmentOpenedAt = System.currentTimeMillis();
+        lastSyncAt = segmentOpenedAt;
+        unsynced = false;
+    }
+
+    private void closeChannelQuietly() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close append log {}", path, e);
+            }
+            channel = null;
+        }
+    }
+
+    private static void compress(Path source, AppendLogOptions.Compression compression) {
+        Path target = source.resolveSibling(source.getFileName() + compression.getSuffix());
+        Path partial = source.resolveSibling(target.getFileName() + ".tmp");
+        try (InputStream in = Files.newInputStream(source);
+             OutputStream out = compression == AppendLogOptions.Compression.GZIP
+                     ? new GZIPOutputStream(Files.newOutputStream(partial), 64 * 1024)
+                     : new ZstdOutputStream(Files.newOutputStream(partial))) {
+            byte[] chunk = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                out.write(chunk, 0, read);
+            }
+        } catch (IOException e) {
+            logger.error("Failed to compress rotated log {}", source, e);
+            try {
+                Files.deleteIfExists(partial);
+            } catch (IOException ignored) {
+                // 保留未压缩的分段
+            }
+            return;
+        }
+        try {
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+            Files.delete(source);
+        } catch (IOException e) {
+            logger.error("Failed to finish compressing rotated log {}", source, e);
+        }
+    }
+
+    /**
+     * 刷新屏障：写线程处理到屏障时，此前入队的记录均已写出并落盘
+     */
+    private static final class FlushBarrier {
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+    }
+}
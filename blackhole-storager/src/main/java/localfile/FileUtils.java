@@ -1,27 +1,66 @@
 package localfile;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class FileUtils {
-    public static synchronized void appendLine(String filePath, String line) {
-        try {
-            FileWriter fileWriter = new FileWriter(filePath, true);
-            BufferedWriter bufferedWriter = new BufferedWriter(fileWriter);
+    // 每个文件一个长期打开的写入器，避免每次追加都打开/关闭文件
+    private static final Map<Path, AppendLogWriter> WRITERS = new ConcurrentHashMap<>();
 
-            bufferedWriter.write(line);
-            bufferedWriter.newLine();
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(FileUtils::closeAll, "file-utils-shutdown"));
+    }
 
-            bufferedWriter.close();
-            fileWriter.close();
+    public static void appendLine(String filePath, String line) {
+        try {
+            writerFor(filePath).appendLine(line);
         } catch (Exception e) {
             System.out.println("添加失败：" + e.getMessage());
         }
     }
 
+    public static AppendLogWriter writerFor(String filePath) {
+        Path path = Paths.get(filePath).toAbsolutePath().normalize();
+        return WRITERS.computeIfAbsent(path, key -> {
+            try {
+                return AppendLogWriter.open(key, AppendLogOptions.defaults());
+            } catch (IOException e) {
+                throw new IllegalStateException("无法打开文件：" + key, e);
+            }
+        });
+    }
+
+    public static void flushAll() {
+        for (AppendLogWriter writer : WRITERS.values()) {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                System.out.println("刷新失败：" + e.getMessage());
+            }
+        }
+    }
+
+    public static void closeAll() {
+        for (Path path : WRITERS.keySet()) {
+            AppendLogWriter writer = WRITERS.remove(path);
+            if (writer == null) {
+                continue;
+            }
+            try {
+                writer.close();
+            } catch (IOException e) {
+                System.out.println("关闭失败：" + e.getMessage());
+            }
+        }
+    }
+
     public static void main(String[] args) {
         appendLine("test.txt", "123");
         appendLine("test.txt", "123");
         appendLine("test.txt", "123");
+        flushAll();
     }
 }
@@ -0,0 +1,117 @@
+package database.adapter;
+
+import database.config.ConnectionPoolConfig;
+import database.config.DatabaseConfig;
+import database.core.Page;
+import database.core.RowMapper;
+import database.core.StorageException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * BaseStorageAdapter键集分页和总记录数缓存测试
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class BaseStorageAdapterTest {
+    
+    private static final RowMapper<Long> ID = (rs, rowNum) -> rs.getLong("id");
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    private String url;
+    private SQLiteAdapter adapter;
+    
+    @Before
+    public void setUp() throws Exception {
+        url = "jdbc:sqlite:" + new File(folder.getRoot(), "pages.db").getAbsolutePath();
+        execute("CREATE TABLE articles (id INTEGER PRIMARY KEY, title TEXT)",
+                "CREATE TABLE crawl_log (id INTEGER PRIMARY KEY, url TEXT)");
+        for (int i = 1; i <= 5; i++) {
+            execute("INSERT INTO articles (id, title) VALUES (" + i + ", 'title " + i + "')");
+        }
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("url", url);
+        properties.put("count_cache_ttl_ms", 60000);
+        adapter = new SQLiteAdapter(new DatabaseConfig("sqlite", "pages", true, properties,
+                new ConnectionPoolConfig(2, 1, 5000, 60000, 600000)));
+        adapter.initialize();
+    }
+    
+    @After
+    public void tearDown() throws StorageException {
+        adapter.shutdown();
+    }
+    
+    @Test
+    public void testSeekCountsOnlyFirstPage() throws Exception {
+        Page<Long> first = adapter.querySeek("SELECT id FROM articles", ID, "id", null, 2);
+        assertEquals(Arrays.asList(1L, 2L), first.getContent());
+        assertTrue(first.isTotalKnown());
+        assertEquals(5, first.getTotalElements());
+        assertEquals(3, first.getTotalPages());
+        
+        Page<Long> second = adapter.querySeek("SELECT id FROM articles", ID, "id", first.getNextCursor(), 2);
+        assertEquals(Arrays.asList(3L, 4L), second.getContent());
+        assertFalse(second.isTotalKnown());
+        assertEquals(Page.UNKNOWN_TOTAL, second.getTotalElements());
+        assertTrue(second.hasNext());
+        
+        Page<Long> last = adapter.querySeek("SELECT id FROM articles", ID, "id", second.getNextCursor(), 2);
+        assertEquals(Arrays.asList(5L), last.getContent());
+        assertNull(last.getNextCursor());
+        assertTrue(last.isLast());
+    }
+    
+    @Test
+    public void testWriteInvalidatesOnlyCountsOfWrittenTable() throws Exception {
+        assertEquals(5, total("SELECT id FROM articles"));
+        assertEquals(0, total("SELECT id FROM crawl_log"));
+        
+        // 绕过适配器写入，缓存的总数保持不变
+        execute("INSERT INTO articles (id, title) VALUES (6, 'title 6')");
+        adapter.insert("INSERT INTO crawl_log (id, url) VALUES (?, ?)", 1, "https://example.com/");
+        
+        assertEquals(5, total("SELECT id FROM articles"));
+        assertEquals(1, total("SELECT id FROM crawl_log"));
+        
+        adapter.update("UPDATE articles SET title = ? WHERE id = ?", "updated", 1);
+        assertEquals(6, total("SELECT id FROM articles"));
+        
+        execute("INSERT INTO articles (id, title) VALUES (7, 'title 7')");
+        adapter.clearCountCache("main.ARTICLES");
+        assertEquals(7, total("SELECT id FROM articles"));
+    }
+    
+    private long total(String sql) throws StorageException {
+        return adapter.queryPage(sql, ID, 1, 10).getTotalElements();
+    }
+    
+    private void execute(String... statements) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package database.adapter;
+
+import database.config.ConnectionPoolConfig;
+import database.config.DatabaseConfig;
+import database.core.StorageException;
+import database.util.SaltedRowKey;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.BufferedMutatorParams;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Mutation;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.RetriesExhaustedWithDetailsException;
+import org.apache.hadoop.hbase.client.Row;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * HBaseAdapter测试
+ * 通过providedConnection注入模拟的Connection、Table和BufferedMutator，表数据保存在内存的有序Map中，
+ * 验证缓冲写入、multiGet顺序以及跨分桶的前缀扫描合并
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class HBaseAdapterTest {
+    
+    private static final byte[] FAMILY = Bytes.toBytes("d");
+    
+    /**
+     * 行键 -> (列名 -> 值)，按HBase的字节序排列
+     */
+    private final NavigableMap<byte[], NavigableMap<String, String>> rows = new TreeMap<>(Bytes.BYTES_COMPARATOR);
+    private final List<Mutation> pending = new ArrayList<>();
+    private final List<ResultScanner> openedScanners = new ArrayList<>();
+    private final List<List<Get>> multiGets = new ArrayList<>();
+    
+    private Connection connection;
+    private BufferedMutator mutator;
+    private HBaseAdapter adapter;
+    
+    @After
+    public void tearDown() throws StorageException {
+        if (adapter != null) {
+            adapter.shutdown();
+        }
+    }
+    
+    @Test
+    public void testPutIsBufferedUntilFlush() throws Exception {
+        open(16, 0);
+        Map<String, Object> columns = new LinkedHashMap<>();
+        columns.put("title", "Breaking");
+        columns.put("body", null);
+        adapter.put("articles", "https://news.example.com/a", columns);
+        
+        assertNull(adapter.get("articles", "https://news.example.com/a"));
+        adapter.flush();
+        
+        assertEquals(Collections.singletonMap("title", "Breaking"), adapter.get("articles", "https://news.example.com/a"));
+        byte[] rowKey = rows.firstKey();
+        SaltedRowKey rowKeys = new SaltedRowKey(16);
+        assertEquals(rowKeys.bucketOf(Bytes.toBytes("https://news.example.com/a")), rowKey[0]);
+        assertArrayEquals(Bytes.toBytes("https://news.example.com/a"), SaltedRowKey.unsalt(rowKey));
+    }
+    
+    @Test
+    public void testMultiGetKeepsRequestOrder() throws Exception {
+        open(16, 0);
+        Map<String, Map<String, ?>> batch = new LinkedHashMap<>();
+        for (int i = 0; i < 4; i++) {
+            batch.put("key-" + i, Collections.singletonMap("n", String.valueOf(i)));
+        }
+        adapter.putAll("articles", batch);
+        adapter.flush("articles");
+        
+        List<String> keys = Arrays.asList("key-3", "missing", "key-0", "key-2", "key-1");
+        List<Map<String, String>> results = adapter.multiGet("articles", keys);
+        
+        assertEquals(5, results.size());
+        assertEquals("3", results.get(0).get("n"));
+        assertNull(results.get(1));
+        assertEquals("0", results.get(2).get("n"));
+        assertEquals("2", results.get(3).get("n"));
+        assertEquals("1", results.get(4).get("n"));
+        // multi_get_batch=2：5个键分3批发送
+        assertEquals(3, multiGets.size());
+        assertEquals(1, multiGets.get(2).size());
+    }
+    
+    @Test
+    public void testScanPrefixMergesBucketsInKeyOrder() throws Exception {
+        open(8, 1);
+        Map<String, Map<String, ?>> batch = new LinkedHashMap<>();
+        for (String key : Arrays.asList("site-b/3", "site-a/2", "site-b/1", "site-a/1", "site-b/2", "site-c/1", "site-a/3")) {
+            Map<String, Object> columns = new LinkedHashMap<>();
+            columns.put("title", "t:" + key);
+            columns.put("url", "u:" + key);
+            columns.put("etag", "e:" + key);
+            batch.put(key, columns);
+        }
+        adapter.putAll("articles", batch);
+        adapter.flush();
+        // 键应分布在多个分桶中，才能覆盖合并逻辑
+        SaltedRowKey rowKeys = new SaltedRowKey(8);
+        assertTrue(rowKeys.bucketOf(Bytes.toBytes("site-b/1")) != rowKeys.bucketOf(Bytes.toBytes("site-b/2"))
+                || rowKeys.bucketOf(Bytes.toBytes("site-b/2")) != rowKeys.bucketOf(Bytes.toBytes("site-b/3")));
+        
+        Map<String, Map<String, String>> result = adapter.scanPrefix("articles", "site-b/", 0);
+        
+        assertEquals(Arrays.asList("site-b/1", "site-b/2", "site-b/3"), new ArrayList<>(result.keySet()));
+        for (Map.Entry<String, Map<String, String>> row : result.entrySet()) {
+            // scan_batch=1时每行被拆成3个Result，合并后列完整
+            assertEquals(3, row.getValue().size());
+            assertEquals("t:" + row.getKey(), row.getValue().get("title"));
+            assertEquals("u:" + row.getKey(), row.getValue().get("url"));
+            assertEquals("e:" + row.getKey(), row.getValue().get("etag"));
+        }
+        assertEquals(8, openedScanners.size());
+        for (ResultScanner scanner : openedScanners) {
+            verify(scanner).close();
+        }
+    }
+    
+    @Test
+    public void testScanPrefixWithEmptyPrefixAndLimit() throws Exception {
+        open(4, 2);
+        Map<String, Map<String, ?>> batch = new LinkedHashMap<>();
+        for (int i = 9; i >= 0; i--) {
+            Map<String, Object> columns = new LinkedHashMap<>();
+            columns.put("a", "a" + i);
+            columns.put("b", "b" + i);
+            columns.put("c", "c" + i);
+            batch.put("k" + i, columns);
+        }
+        adapter.putAll("articles", batch);
+        adapter.flush();
+        
+        Map<String, Map<String, String>> all = adapter.scanPrefix("articles", "", 0);
+        assertEquals(10, all.size());
+        assertEquals("k0", all.keySet().iterator().next());
+        assertEquals("c9", all.get("k9").get("c"));
+        
+        Map<String, Map<String, String>> limited = adapter.scanPrefix("articles", "", 4);
+        assertEquals(Arrays.asList("k0", "k1", "k2", "k3"), new ArrayList<>(limited.keySet()));
+        assertEquals(3, limited.get("k3").size());
+    }
+    
+    @Test
+    public void testFailedBufferedWritesSurfaceOnFlush() throws Exception {
+        open(16, 0);
+        adapter.put("articles", "k", Collections.singletonMap("a", "1"));
+        ArgumentCaptor<BufferedMutatorParams> params = ArgumentCaptor.forClass(BufferedMutatorParams.class);
+        verify(connection).getBufferedMutator(params.capture());
+        
+        Put failed = new Put(Bytes.toBytes("k"));
+        params.getValue().getListener().onException(new RetriesExhaustedWithDetailsException(
+                Collections.singletonList(new IOException("region server down")),
+                Collections.<Row>singletonList(failed), Collections.singletonList("rs1:16020")), mutator);
+        try {
+            adapter.flush("articles");
+            fail("Expected failed mutations to be reported");
+        } catch (StorageException e) {
+            assertEquals("HBASE_WRITE_FAILED", e.getErrorCode());
+        }
+        // 同一批失败只报告一次
+        adapter.flush("articles");
+    }
+    
+    @Test
+    public void testShutdownClosesMutatorsButNotProvidedConnection() throws Exception {
+        open(16, 0);
+        adapter.put("articles", "k", Collections.singletonMap("a", "1"));
+        adapter.shutdown();
+        adapter = null;
+        
+        verify(mutator).close();
+        verify(connection, never()).close();
+        assertEquals(1, rows.size());
+    }
+    
+    private void open(int saltBuckets, int scanBatch) throws Exception {
+        connection = mock(Connection.class);
+        mutator = mock(BufferedMutator.class);
+        Table table = mock(Table.class);
+        when(connection.getTable(any())).thenReturn(table);
+        when(connection.getBufferedMutator(any(BufferedMutatorParams.class))).thenReturn(mutator);
+        
+        doAnswer(invocation -> {
+            pending.add(invocation.getArgument(0));
+            return null;
+        }).when(mutator).mutate(any(Mutation.class));
+        doAnswer(invocation -> {
+            pending.addAll(invocation.getArgument(0));
+            return null;
+        }).when(mutator).mutate(anyList());
+        doAnswer(invocation -> {
+            applyPending();
+            return null;
+        }).when(mutator).flush();
+        doAnswer(invocation -> {
+            applyPending();
+            return null;
+        }).when(mutator).close();
+        
+        when(table.get(any(Get.class))).thenAnswer(invocation -> result(invocation.<Get>getArgument(0).getRow()));
+        when(table.get(anyList())).thenAnswer(invocation -> {
+            List<Get> gets = new ArrayList<>(invocation.<List<Get>>getArgument(0));
+            multiGets.add(gets);
+            Result[] results = new Result[gets.size()];
+            for (int i = 0; i < gets.size(); i++) {
+                results[i] = result(gets.get(i).getRow());
+            }
+            return results;
+        });
+        when(table.getScanner(any(Scan.class))).thenAnswer(invocation -> scanner(invocation.getArgument(0)));
+        
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("salt_buckets", saltBuckets);
+        properties.put("scan_batch", scanBatch);
+        properties.put("multi_get_batch", 2);
+        adapter = new HBaseAdapter(new DatabaseConfig("hbase", "hbase-test", true, properties,
+                new ConnectionPoolConfig(4, 1, 1000, 60000, 600000)), connection);
+        adapter.initialize();
+    }
+    
+    private void applyPending() {
+        for (Mutation mutation : pending) {
+            NavigableMap<String, String> row = rows.computeIfAbsent(mutation.getRow(), key -> new TreeMap<>());
+            for (List<Cell> cells : mutation.getFamilyCellMap().values()) {
+                for (Cell cell : cells) {
+                    row.put(Bytes.toString(cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength()),
+                            Bytes.toString(cell.getValueArray(), cell.getValueOffset(), cell.getValueLength()));
+                }
+            }
+        }
+        pending.clear();
+    }
+    
+    private Result result(byte[] rowKey) {
+        NavigableMap<String, String> row = rows.get(rowKey);
+        return row != null ? toResult(rowKey, new ArrayList<>(row.entrySet())) : Result.EMPTY_RESULT;
+    }
+    
+    /**
+     * 按扫描范围返回结果，设置了batch时把一行拆成多个Result
+     */
+    private ResultScanner scanner(Scan scan) throws IOException {
+        byte[] stop = scan.getStopRow();
+        NavigableMap<byte[], NavigableMap<String, String>> range = stop.length == 0
+                ? rows.tailMap(scan.getStartRow(), true)
+                : rows.subMap(scan.getStartRow(), true, stop, false);
+        List<Result> results = new ArrayList<>();
+        for (Map.Entry<byte[], NavigableMap<String, String>> row : range.entrySet()) {
+            List<Map.Entry<String, String>> columns = new ArrayList<>(row.getValue().entrySet());
+            int batch = scan.getBatch() > 0 ? scan.getBatch() : columns.size();
+            for (int start = 0; start < columns.size(); start += batch) {
+                results.add(toResult(row.getKey(), columns.subList(start, Math.min(columns.size(), start + batch))));
+            }
+        }
+        Iterator<Result> iterator = results.iterator();
+        ResultScanner scanner = mock(ResultScanner.class);
+        when(scanner.next()).thenAnswer(invocation -> iterator.hasNext() ? iterator.next() : null);
+        openedScanners.add(scanner);
+        return scanner;
+    }
+    
+    private static Result toResult(byte[] rowKey, List<Map.Entry<String, String>> columns) {
+        List<Cell> cells = new ArrayList<>(columns.size());
+        for (Map.Entry<String, String> column : columns) {
+            cells.add(new KeyValue(rowKey, FAMILY, Bytes.toBytes(column.getKey()), Bytes.toBytes(column.getValue())));
+        }
+        return Result.create(cells);
+    }
+}
@@ -0,0 +1,264 @@
+package database.adapter;
+
+import database.config.ConnectionPoolConfig;
+import database.config.DatabaseConfig;
+import database.core.StorageException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * ShardedRedisAdapter测试
+ * 通过createNodeAdapter注入以内存Map为存储的节点，验证路由、多键分组、增删节点和并发安全
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class ShardedRedisAdapterTest {
+    
+    private static final String NODES = "10.0.0.1:6379,10.0.0.2:6379,10.0.0.3:6379";
+    
+    private FakeShardedRedisAdapter adapter;
+    
+    @Before
+    public void setUp() throws StorageException {
+        adapter = new FakeShardedRedisAdapter(NODES);
+        adapter.initialize();
+    }
+    
+    @After
+    public void tearDown() throws StorageException {
+        adapter.shutdown();
+    }
+    
+    @Test
+    public void testSingleKeyOperationsUseOwningShard() throws StorageException {
+        for (int i = 0; i < 200; i++) {
+            adapter.set("article:" + i, "v" + i);
+        }
+        
+        for (int i = 0; i < 200; i++) {
+            String key = "article:" + i;
+            String owner = adapter.getNodeFor(key);
+            for (Map.Entry<String, Map<String, String>> node : adapter.data.entrySet()) {
+                assertEquals(key + " on " + node.getKey(), owner.equals(node.getKey()), node.getValue().containsKey(key));
+            }
+            assertEquals("v" + i, adapter.get(key));
+        }
+        // 200个键应分布到所有节点上
+        for (Map<String, String> node : adapter.data.values()) {
+            assertFalse(node.isEmpty());
+        }
+    }
+    
+    @Test
+    public void testHashTagKeepsRelatedKeysTogether() throws StorageException {
+        String node = adapter.getNodeFor("{site:42}:links");
+        assertEquals(node, adapter.getNodeFor("{site:42}:articles"));
+        assertEquals(node, adapter.getNodeFor("prefix{site:42}"));
+    }
+    
+    @Test
+    public void testMultiKeyOperationsAreGroupedByShard() throws StorageException {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            values.put("url:" + i, "hash" + i);
+        }
+        
+        assertEquals(100, adapter.mset(values));
+        for (Map.Entry<String, Map<String, String>> node : adapter.data.entrySet()) {
+            for (String key : node.getValue().keySet()) {
+                assertEquals(node.getKey(), adapter.getNodeFor(key));
+            }
+        }
+        
+        // 结果按请求的键顺序返回，包括不存在的键
+        List<String> keys = new ArrayList<>(values.keySet());
+        keys.add(37, "url:missing");
+        List<String> result = adapter.mget(keys);
+        assertEquals(keys.size(), result.size());
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(keys.get(i), values.get(keys.get(i)), result.get(i));
+        }
+        
+        assertEquals(3, adapter.del("url:1", "url:2", "url:3", "url:missing"));
+        assertNull(adapter.get("url:2"));
+    }
+    
+    @Test
+    public void testAddNodeMovesOnlyAShareOfKeys() throws StorageException {
+        List<String> keys = new ArrayList<>();
+        Map<String, String> before = new HashMap<>();
+        for (int i = 0; i < 3000; i++) {
+            String key = "seen:" + i;
+            keys.add(key);
+            before.put(key, adapter.getNodeFor(key));
+        }
+        
+        adapter.addNode("10.0.0.4");
+        assertEquals(4, adapter.getShards().size());
+        assertTrue(adapter.getShards().containsKey("10.0.0.4:6379"));
+        
+        int moved = 0;
+        for (String key : keys) {
+            String owner = adapter.getNodeFor(key);
+            if (!owner.equals(before.get(key))) {
+                // 改变归属的键只能迁往新节点
+                assertEquals("10.0.0.4:6379", owner);
+                moved++;
+            }
+        }
+        // 期望约1/4的键迁移
+        assertTrue("moved " + moved, moved > 3000 / 8 && moved < 3000 / 2);
+    }
+    
+    @Test
+    public void testRemoveNodeShutsDownAndReroutes() throws StorageException {
+        RedisAdapter removed = adapter.getShards().get("10.0.0.2:6379");
+        Map<String, String> owners = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            owners.put("k" + i, adapter.getNodeFor("k" + i));
+        }
+        
+        assertTrue(adapter.removeNode("10.0.0.2:6379"));
+        assertFalse(adapter.removeNode("10.0.0.2:6379"));
+        verify(removed).shutdown();
+        assertEquals(2, adapter.getShards().size());
+        
+        for (Map.Entry<String, String> entry : owners.entrySet()) {
+            String owner = adapter.getNodeFor(entry.getKey());
+            assertNotEquals("10.0.0.2:6379", owner);
+            if (!"10.0.0.2:6379".equals(entry.getValue())) {
+                // 其他节点上的键不受影响
+                assertEquals(entry.getValue(), owner);
+            }
+        }
+        adapter.mget(new ArrayList<>(owners.keySet()));
+        verify(removed, never()).mget(anyList());
+    }
+    
+    @Test
+    public void testMultiKeyOperationsDuringTopologyChanges() throws Exception {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            keys.add("race:" + i);
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch started = new CountDownLatch(4);
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            futures.add(readers.submit(() -> {
+                started.countDown();
+                int rounds = 0;
+                while (running.get()) {
+                    assertEquals(keys.size(), adapter.mget(keys).size());
+                    adapter.mset(Collections.singletonMap(keys.get(rounds % keys.size()), "x"));
+                    rounds++;
+                }
+                return rounds;
+            }));
+        }
+        
+        started.await();
+        for (int i = 0; i < 200; i++) {
+            adapter.addNode("10.0.1." + i);
+            adapter.removeNode("10.0.1." + i + ":6379");
+        }
+        running.set(false);
+        readers.shutdown();
+        assertTrue(readers.awaitTermination(10, TimeUnit.SECONDS));
+        
+        // 分组和解析节点在同一个快照上完成，不会因为节点被移除而拿到null
+        for (Future<Integer> future : futures) {
+            assertTrue(future.get() > 0);
+        }
+        assertEquals(3, adapter.getShards().size());
+    }
+    
+    /**
+     * 以内存Map代替Redis节点的分片适配器
+     */
+    private static class FakeShardedRedisAdapter extends ShardedRedisAdapter {
+        
+        private final Map<String, Map<String, String>> data = new ConcurrentHashMap<>();
+        
+        FakeShardedRedisAdapter(String nodes) {
+            super(config(nodes));
+        }
+        
+        private static DatabaseConfig config(String nodes) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("nodes", nodes);
+            properties.put("virtual_nodes", 64);
+            return new DatabaseConfig("redis_sharded", "sharded-test", true, properties,
+                    new ConnectionPoolConfig(4, 1, 1000, 60000, 600000));
+        }
+        
+        @Override
+        protected RedisAdapter createNodeAdapter(DatabaseConfig nodeConfig) {
+            String nodeId = nodeConfig.getProperty("host") + ":" + nodeConfig.getProperty("port");
+            Map<String, String> store = new ConcurrentHashMap<>();
+            data.put(nodeId, store);
+            RedisAdapter node = mock(RedisAdapter.class);
+            try {
+                doAnswer(invocation -> {
+                    store.put(invocation.getArgument(0), invocation.getArgument(1));
+                    return "OK";
+                }).when(node).set(anyString(), anyString());
+                doAnswer(invocation -> store.get(invocation.<String>getArgument(0))).when(node).get(anyString());
+                doAnswer(invocation -> {
+                    Map<String, String> values = invocation.getArgument(0);
+                    store.putAll(values);
+                    return values.size();
+                }).when(node).mset(anyMap());
+                doAnswer(invocation -> {
+                    List<String> keys = invocation.getArgument(0);
+                    List<String> values = new ArrayList<>(keys.size());
+                    for (String key : keys) {
+                        values.add(store.get(key));
+                    }
+                    return values;
+                }).when(node).mget(anyList());
+                doAnswer(invocation -> {
+                    long removed = 0;
+                    for (Object key : invocation.getArguments()) {
+                        removed += store.remove((String) key) != null ? 1 : 0;
+                    }
+                    return removed;
+                }).when(node).del(any());
+            } catch (StorageException e) {
+                throw new IllegalStateException(e);
+            }
+            return node;
+        }
+    }
+}
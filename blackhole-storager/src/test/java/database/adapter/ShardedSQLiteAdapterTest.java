@@ -0,0 +1,157 @@
+package database.adapter;
+
+import database.config.ConnectionPoolConfig;
+import database.config.DatabaseConfig;
+import database.core.Page;
+import database.core.RowMapper;
+import database.core.StorageException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * ShardedSQLiteAdapter测试
+ * 在临时目录下按hash方式写入三个SQLite分片文件，验证queryPage按ORDER BY归并、querySeek的游标跨分片继续有效，
+ * 以及无法归并的ORDER BY被拒绝
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class ShardedSQLiteAdapterTest {
+    
+    private static final int ROWS = 20;
+    private static final RowMapper<Long> ID = (rs, rowNum) -> rs.getLong("id");
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    private ShardedSQLiteAdapter adapter;
+    
+    @Before
+    public void setUp() throws Exception {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("shard_strategy", "hash");
+        properties.put("shard_key_column", "id");
+        properties.put("shard_count", 3);
+        properties.put("shard_dir", folder.getRoot().getAbsolutePath());
+        properties.put("shard_init_sql", "CREATE TABLE articles (id INTEGER PRIMARY KEY, site TEXT, score INTEGER)");
+        adapter = new ShardedSQLiteAdapter(new DatabaseConfig("sqlite", "pages", true, properties,
+                new ConnectionPoolConfig(2, 1, 5000, 60000, 600000)));
+        adapter.initialize();
+        
+        for (int id = 1; id <= ROWS; id++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", id);
+            row.put("site", "site-" + (id % 4));
+            row.put("score", score(id));
+            assertEquals(1, adapter.insert("articles", row));
+        }
+    }
+    
+    @After
+    public void tearDown() throws StorageException {
+        adapter.shutdown();
+    }
+    
+    @Test
+    public void testRowsSpreadAcrossShardFiles() throws Exception {
+        assertEquals(3, adapter.getShards().size());
+        assertEquals(3, folder.getRoot().listFiles((dir, name) -> name.endsWith(".db")).length);
+        
+        int total = 0;
+        for (SQLiteAdapter shard : adapter.getShards().values()) {
+            int rows = shard.queryMultiple("SELECT id FROM articles", ID).size();
+            assertTrue(rows > 0);
+            total += rows;
+        }
+        assertEquals(ROWS, total);
+    }
+    
+    @Test
+    public void testQueryPageMergesOrderByAcrossShards() throws Exception {
+        List<Long> expected = IntStream.rangeClosed(1, ROWS).boxed()
+                .sorted(Comparator.comparing(ShardedSQLiteAdapterTest::score).reversed()
+                        .thenComparing(Comparator.naturalOrder()))
+                .map(Integer::longValue)
+                .collect(Collectors.toList());
+        
+        List<Long> actual = new ArrayList<>();
+        for (int pageNum = 1; pageNum <= 4; pageNum++) {
+            Page<Long> page = adapter.queryPage("SELECT a.id, a.score FROM articles a ORDER BY a.score DESC, a.id",
+                    ID, pageNum, 6);
+            assertEquals(ROWS, page.getTotalElements());
+            assertEquals(4, page.getTotalPages());
+            actual.addAll(page.getContent());
+        }
+        assertEquals(expected, actual);
+    }
+    
+    @Test
+    public void testQueryPageWithoutOrderByReturnsEveryRowOnce() throws Exception {
+        List<Long> actual = new ArrayList<>();
+        for (int pageNum = 1; pageNum <= 3; pageNum++) {
+            actual.addAll(adapter.queryPage("SELECT id FROM articles", ID, pageNum, 7).getContent());
+        }
+        actual.sort(Comparator.naturalOrder());
+        assertEquals(ids(1, ROWS), actual);
+    }
+    
+    @Test
+    public void testQuerySeekCursorContinuesAcrossShards() throws Exception {
+        String sql = "SELECT id FROM articles WHERE site <> ?";
+        
+        Page<Long> page = adapter.querySeek(sql, ID, "id", null, 6, "site-0");
+        assertTrue(page.isTotalKnown());
+        assertEquals(15, page.getTotalElements());
+        
+        List<Long> seen = new ArrayList<>(page.getContent());
+        int pages = 1;
+        while (page.getNextCursor() != null) {
+            page = adapter.querySeek(sql, ID, "id", page.getNextCursor(), 6, "site-0");
+            assertFalse(page.isTotalKnown());
+            seen.addAll(page.getContent());
+            pages++;
+        }
+        assertEquals(3, pages);
+        assertNull(page.getNextCursor());
+        
+        List<Long> expected = ids(1, ROWS).stream().filter(id -> id % 4 != 0).collect(Collectors.toList());
+        assertEquals(expected, seen);
+    }
+    
+    @Test
+    public void testOrderByOnExpressionRejected() throws Exception {
+        try {
+            adapter.queryPage("SELECT id, score FROM articles ORDER BY score * 2", ID, 1, 5);
+            fail("Expected UNSUPPORTED_OPERATION");
+        } catch (StorageException e) {
+            assertEquals("UNSUPPORTED_OPERATION", e.getErrorCode());
+        }
+    }
+    
+    private static int score(int id) {
+        // 不同分片上有相同分数，检验第二排序列
+        return (id * 7) % 5;
+    }
+    
+    private static List<Long> ids(int from, int to) {
+        return IntStream.rangeClosed(from, to).mapToObj(Long::valueOf).collect(Collectors.toList());
+    }
+}
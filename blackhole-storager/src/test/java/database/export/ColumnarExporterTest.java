@@ -0,0 +1,225 @@
+package database.export;
+
+import database.core.StorageException;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DoubleColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.orc.OrcFile;
+import org.apache.orc.Reader;
+import org.apache.orc.RecordReader;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * ColumnarExporter测试
+ * 导出Parquet和ORC文件到临时目录后用对应的读取器读回，验证分区目录、文件滚动和放弃导出
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class ColumnarExporterTest {
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    private final Configuration conf = new Configuration(false);
+    
+    @Test
+    public void testParquetExportReadsBack() throws Exception {
+        Path output = folder.getRoot().toPath().resolve("parquet");
+        ColumnarExporter exporter = new ColumnarExporter(output, schema().partitionBy("dt"),
+                ExportOptions.defaults().setFormat(ExportOptions.Format.PARQUET));
+        exporter.writeAll(rows(6));
+        ExportResult result = exporter.finish();
+        
+        assertEquals(6, result.getTotalRows());
+        assertEquals(2, result.getPartitions().size());
+        Map<Long, Group> read = new HashMap<>();
+        for (ExportResult.Partition partition : result.getPartitions()) {
+            assertEquals("dt=" + partition.getSpec().get("dt"), partition.getRelativePath());
+            assertEquals(1, partition.getFiles().size());
+            Path file = partition.getFiles().get(0);
+            assertTrue(file.getFileName().toString().endsWith(".parquet"));
+            try (ParquetReader<Group> reader = ParquetReader.builder(new GroupReadSupport(),
+                    new org.apache.hadoop.fs.Path(file.toUri())).withConf(conf).build()) {
+                for (Group group = reader.read(); group != null; group = reader.read()) {
+                    read.put(group.getLong("id", 0), group);
+                }
+            }
+        }
+        
+        assertEquals(6, read.size());
+        for (long id = 0; id < 6; id++) {
+            Group group = read.get(id);
+            assertEquals("title " + id, group.getString("title", 0));
+            assertEquals(id * 1.5, group.getDouble("score", 0), 0.0);
+            assertEquals(0, group.getFieldRepetitionCount("missing_text"));
+        }
+        assertNoHiddenFiles(output);
+    }
+    
+    @Test
+    public void testOrcExportReadsBack() throws Exception {
+        Path output = folder.getRoot().toPath().resolve("orc");
+        ColumnarExporter exporter = new ColumnarExporter(output, schema().partitionBy("dt"),
+                ExportOptions.defaults().setFormat(ExportOptions.Format.ORC).setCompression(ExportOptions.Compression.ZSTD));
+        exporter.writeAll(rows(6));
+        ExportResult result = exporter.finish();
+        
+        assertEquals(6, result.getTotalRows());
+        List<String> titles = new ArrayList<>();
+        for (ExportResult.Partition partition : result.getPartitions()) {
+            Path file = partition.getFiles().get(0);
+            assertTrue(file.getFileName().toString().endsWith(".orc"));
+            Reader reader = OrcFile.createReader(new org.apache.hadoop.fs.Path(file.toUri()), OrcFile.readerOptions(conf));
+            assertEquals(partition.getRowCount(), reader.getNumberOfRows());
+            VectorizedRowBatch batch = reader.getSchema().createRowBatch();
+            try (RecordReader rows = reader.rows()) {
+                while (rows.nextBatch(batch)) {
+                    LongColumnVector ids = (LongColumnVector) batch.cols[0];
+                    BytesColumnVector texts = (BytesColumnVector) batch.cols[1];
+                    DoubleColumnVector scores = (DoubleColumnVector) batch.cols[2];
+                    for (int i = 0; i < batch.size; i++) {
+                        String title = texts.toString(i);
+                        assertEquals("title " + ids.vector[i], title);
+                        assertEquals(ids.vector[i] * 1.5, scores.vector[i], 0.0);
+                        assertTrue(batch.cols[3].isNull[i]);
+                        titles.add(title);
+                    }
+                }
+            }
+        }
+        assertEquals(6, titles.size());
+        assertNoHiddenFiles(output);
+    }
+    
+    @Test
+    public void testPartitionValuesAreEscaped() throws Exception {
+        Path output = folder.getRoot().toPath().resolve("escaped");
+        ColumnarExporter exporter = new ColumnarExporter(output, schema().partitionBy("site"), ExportOptions.defaults());
+        exporter.write(row(1, "news.example.com/world:en"));
+        exporter.write(row(2, null));
+        exporter.write(row(3, ""));
+        ExportResult result = exporter.finish();
+        
+        List<String> paths = result.getPartitions().stream()
+                .map(ExportResult.Partition::getRelativePath).collect(Collectors.toList());
+        assertEquals(Arrays.asList("site=news.example.com%2Fworld%3Aen",
+                "site=" + ColumnarExporter.DEFAULT_PARTITION_NAME), paths);
+        assertEquals("news.example.com/world:en", result.getPartitions().get(0).getSpec().get("site"));
+        assertEquals(2, result.getPartitions().get(1).getRowCount());
+        assertTrue(Files.isDirectory(output.resolve("site=news.example.com%2Fworld%3Aen")));
+        
+        assertEquals("a%3Db%25c%5Bd%5D%01", ColumnarExporter.escapePathName("a=b%c[d]\u0001"));
+        assertEquals("plain-value_1.2", ColumnarExporter.escapePathName("plain-value_1.2"));
+    }
+    
+    @Test
+    public void testMaxRowsPerFileRollsOver() throws Exception {
+        Path output = folder.getRoot().toPath().resolve("rollover");
+        ColumnarExporter exporter = new ColumnarExporter(output, schema(), ExportOptions.defaults().setMaxRowsPerFile(10));
+        exporter.writeAll(rows(25));
+        ExportResult result = exporter.finish();
+        
+        assertEquals(1, result.getPartitions().size());
+        assertEquals(3, result.getTotalFiles());
+        assertEquals(25, result.getTotalRows());
+        List<Long> counts = new ArrayList<>();
+        for (Path file : result.getPartitions().get(0).getFiles()) {
+            long count = 0;
+            try (ParquetReader<Group> reader = ParquetReader.builder(new GroupReadSupport(),
+                    new org.apache.hadoop.fs.Path(file.toUri())).withConf(conf).build()) {
+                while (reader.read() != null) {
+                    count++;
+                }
+            }
+            counts.add(count);
+        }
+        assertEquals(Arrays.asList(10L, 10L, 5L), counts);
+    }
+    
+    @Test
+    public void testAbortDeletesCompletedAndInProgressFiles() throws Exception {
+        Path output = folder.getRoot().toPath().resolve("aborted");
+        Files.createDirectories(output.resolve("dt=2024-01-01"));
+        Path previous = Files.write(output.resolve("dt=2024-01-01").resolve("previous.parquet"),
+                "earlier export".getBytes(StandardCharsets.UTF_8));
+        ColumnarExporter exporter = new ColumnarExporter(output, schema().partitionBy("dt"),
+                ExportOptions.defaults().setMaxRowsPerFile(4));
+        // 每个分区都有已完成的文件和正在写入的文件
+        exporter.writeAll(rows(11));
+        assertTrue(regularFiles(output).size() > 1);
+        
+        exporter.abort();
+        
+        assertEquals(Arrays.asList(previous), regularFiles(output));
+        assertFalse(Files.exists(output.resolve("dt=2024-01-02")));
+        try {
+            exporter.write(row(99, "x"));
+            fail("Expected closed exporter to reject writes");
+        } catch (StorageException e) {
+            assertEquals("EXPORT_CLOSED", e.getErrorCode());
+        }
+    }
+    
+    private static ExportSchema schema() {
+        return new ExportSchema()
+                .addColumn("id", ExportSchema.ColumnType.LONG)
+                .addColumn("title", ExportSchema.ColumnType.STRING)
+                .addColumn("score", ExportSchema.ColumnType.DOUBLE)
+                .addColumn("missing_text", ExportSchema.ColumnType.STRING);
+    }
+    
+    private static List<Map<String, Object>> rows(int count) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(row(i, i % 2 == 0 ? "2024-01-01" : "2024-01-02"));
+        }
+        return rows;
+    }
+    
+    private static Map<String, Object> row(long id, String partition) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("title", "title " + id);
+        row.put("score", id * 1.5);
+        row.put("dt", partition);
+        row.put("site", partition);
+        return row;
+    }
+    
+    private static List<Path> regularFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+    }
+    
+    private static void assertNoHiddenFiles(Path directory) throws IOException {
+        for (Path file : regularFiles(directory)) {
+            assertFalse(file.toString(), file.getFileName().toString().startsWith("."));
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package database.mapping;
+
+import database.adapter.SQLiteAdapter;
+import database.config.ConnectionPoolConfig;
+import database.config.DatabaseConfig;
+import database.core.StorageException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * BeanMapper测试
+ * 在临时SQLite文件上用insertBeans写入、rowMapper读回，覆盖原始类型、可空包装类型、枚举和Instant属性，
+ * 以及列顺序不同或只选部分列的结果集
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class BeanMapperTest {
+    
+    private static final Instant CRAWLED_AT = Instant.ofEpochMilli(1700000000123L);
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    private final BeanMapper<Article> mapper = BeanMapper.of(Article.class);
+    private SQLiteAdapter adapter;
+    
+    @Before
+    public void setUp() throws Exception {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("url", "jdbc:sqlite:" + new File(folder.getRoot(), "beans.db").getAbsolutePath());
+        adapter = new SQLiteAdapter(new DatabaseConfig("sqlite", "beans", true, properties,
+                new ConnectionPoolConfig(2, 1, 5000, 60000, 600000)));
+        adapter.initialize();
+        adapter.update("CREATE TABLE articles (id INTEGER PRIMARY KEY, score REAL, published INTEGER, "
+                + "parent_id INTEGER, title TEXT, status TEXT, crawled_at INTEGER, body_text TEXT)");
+    }
+    
+    @After
+    public void tearDown() throws StorageException {
+        adapter.shutdown();
+    }
+    
+    @Test
+    public void testColumnsFollowNamingAndAnnotations() {
+        assertSame(mapper, BeanMapper.of(Article.class));
+        assertTrue(mapper.getColumns().contains("parent_id"));
+        assertTrue(mapper.getColumns().contains("crawled_at"));
+        assertTrue(mapper.getColumns().contains("body_text"));
+        assertFalse(mapper.getColumns().contains("body"));
+        assertFalse(mapper.getColumns().contains("note"));
+        assertEquals(8, mapper.getColumns().size());
+        assertEquals("INSERT INTO articles (" + String.join(", ", mapper.getColumns()) + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                mapper.insertSql("articles"));
+    }
+    
+    @Test
+    public void testInsertBeansRoundTrip() throws Exception {
+        Article full = article(1, "Compiler release", 0.75, true, 7L, Status.PUBLISHED, CRAWLED_AT, "body");
+        Article sparse = article(2, null, 0, false, null, null, null, null);
+        
+        assertEquals(2, adapter.insertBeans("articles", Arrays.asList(full, sparse), mapper).length);
+        
+        List<Article> loaded = adapter.queryMultiple("SELECT * FROM articles ORDER BY id", mapper.rowMapper());
+        assertEquals(2, loaded.size());
+        
+        Article first = loaded.get(0);
+        assertEquals(1, first.getId());
+        assertEquals("Compiler release", first.getTitle());
+        assertEquals(0.75, first.getScore(), 0.0);
+        assertTrue(first.isPublished());
+        assertEquals(Long.valueOf(7), first.getParentId());
+        assertEquals(Status.PUBLISHED, first.getStatus());
+        assertEquals(CRAWLED_AT, first.getCrawledAt());
+        assertEquals("body", first.getBody());
+        assertNull(first.getNote());
+        
+        Article second = loaded.get(1);
+        assertEquals(2, second.getId());
+        assertFalse(second.isPublished());
+        assertNull(second.getParentId());
+        assertNull(second.getStatus());
+        assertNull(second.getCrawledAt());
+        assertNull(second.getTitle());
+    }
+    
+    @Test
+    public void testReorderedAndPartialColumns() throws Exception {
+        adapter.insertBeans("articles", Arrays.asList(
+                article(1, "First", 1.5, true, 3L, Status.DRAFT, CRAWLED_AT, "one"),
+                article(2, "Second", 2.5, false, null, Status.PUBLISHED, null, "two")), mapper);
+        
+        // 列顺序与属性顺序不同，列标签的大小写和下划线不影响匹配
+        List<Article> reordered = adapter.queryMultiple(
+                "SELECT body_text, status AS STATUS, crawled_at AS crawledAt, title, id FROM articles ORDER BY id",
+                mapper.rowMapper());
+        assertEquals("one", reordered.get(0).getBody());
+        assertEquals(Status.DRAFT, reordered.get(0).getStatus());
+        assertEquals(CRAWLED_AT, reordered.get(0).getCrawledAt());
+        assertEquals("Second", reordered.get(1).getTitle());
+        assertEquals(2, reordered.get(1).getId());
+        // 结果集中没有的列保持默认值
+        assertEquals(0.0, reordered.get(0).getScore(), 0.0);
+        assertNull(reordered.get(0).getParentId());
+        
+        // 同一个映射器换一个列集合读取时重新解析列序号
+        List<Article> partial = adapter.queryMultiple("SELECT parent_id, id FROM articles WHERE id = ?",
+                mapper.rowMapper(), 1);
+        assertEquals(1, partial.size());
+        assertEquals(1, partial.get(0).getId());
+        assertEquals(Long.valueOf(3), partial.get(0).getParentId());
+        assertNull(partial.get(0).getTitle());
+        assertNull(partial.get(0).getStatus());
+    }
+    
+    @Test
+    public void testNonPublicBeanRejected() {
+        try {
+            BeanMapper.of(Hidden.class);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("public"));
+        }
+    }
+    
+    private static Article article(long id, String title, double score, boolean published, Long parentId,
+                                   Status status, Instant crawledAt, String body) {
+        Article article = new Article();
+        article.setId(id);
+        article.setTitle(title);
+        article.setScore(score);
+        article.setPublished(published);
+        article.setParentId(parentId);
+        article.setStatus(status);
+        article.setCrawledAt(crawledAt);
+        article.setBody(body);
+        article.setNote("not stored");
+        return article;
+    }
+    
+    public enum Status {
+        DRAFT, PUBLISHED
+    }
+    
+    public static class Article {
+        private long id;
+        private String title;
+        private double score;
+        private boolean published;
+        private Long parentId;
+        private Status status;
+        private Instant crawledAt;
+        @Column("body_text")
+        private String body;
+        @Column(ignore = true)
+        private String note;
+        
+        public long getId() {
+            return id;
+        }
+        
+        public void setId(long id) {
+            this.id = id;
+        }
+        
+        public String getTitle() {
+            return title;
+        }
+        
+        public void setTitle(String title) {
+            this.title = title;
+        }
+        
+        public double getScore() {
+            return score;
+        }
+        
+        public void setScore(double score) {
+            this.score = score;
+        }
+        
+        public boolean isPublished() {
+            return published;
+        }
+        
+        public void setPublished(boolean published) {
+            this.published = published;
+        }
+        
+        public Long getParentId() {
+            return parentId;
+        }
+        
+        public void setParentId(Long parentId) {
+            this.parentId = parentId;
+        }
+        
+        public Status getStatus() {
+            return status;
+        }
+        
+        public void setStatus(Status status) {
+            this.status = status;
+        }
+        
+        public Instant getCrawledAt() {
+            return crawledAt;
+        }
+        
+        public void setCrawledAt(Instant crawledAt) {
+            this.crawledAt = crawledAt;
+        }
+        
+        public String getBody() {
+            return body;
+        }
+        
+        public void setBody(String body) {
+            this.body = body;
+        }
+        
+        public String getNote() {
+            return note;
+        }
+        
+        public void setNote(String note) {
+            this.note = note;
+        }
+    }
+    
+    static class Hidden {
+        private long id;
+        
+        public long getId() {
+            return id;
+        }
+        
+        public void setId(long id) {
+            this.id = id;
+        }
+    }
+}
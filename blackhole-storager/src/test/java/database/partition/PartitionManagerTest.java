@@ -0,0 +1,185 @@
+package database.partition;
+
+import database.adapter.BaseStorageAdapter;
+import database.adapter.SQLiteAdapter;
+import database.config.ConnectionPoolConfig;
+import database.config.DatabaseConfig;
+import database.config.PartitionRetentionConfig;
+import database.config.PartitionRetentionConfig.TableRetention;
+import database.core.RowMapper;
+import database.core.StorageException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * PartitionManager测试
+ * 在临时SQLite文件上验证分区只在保留期限和预建范围内创建，MySQL方言用模拟的适配器验证
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class PartitionManagerTest {
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    private final ZoneId zone = ZoneId.systemDefault();
+    private SQLiteAdapter adapter;
+    
+    @Before
+    public void setUp() throws Exception {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("url", "jdbc:sqlite:" + new File(folder.getRoot(), "pages.db").getAbsolutePath());
+        adapter = new SQLiteAdapter(new DatabaseConfig("sqlite", "pages", true, properties,
+                new ConnectionPoolConfig(2, 1, 5000, 60000, 600000)));
+        adapter.initialize();
+        adapter.update("CREATE TABLE raw_pages (id INTEGER PRIMARY KEY, crawled_at TEXT NOT NULL)");
+    }
+    
+    @After
+    public void tearDown() throws StorageException {
+        adapter.shutdown();
+    }
+    
+    @Test
+    public void testInsertWithinWindowCreatesPartition() throws Exception {
+        PartitionManager partitions = manager(7, 2);
+        LocalDate date = LocalDate.now(zone).minusDays(3);
+        
+        assertEquals(1, partitions.insert("raw_pages", row(1, date)));
+        
+        assertEquals(Collections.singletonList(date), partitions.getPartitions("raw_pages"));
+        assertEquals(1, count("raw_pages_" + PartitionGranularity.partitionName(date)));
+    }
+    
+    @Test
+    public void testInsertRejectsDateBeyondPrecreate() throws Exception {
+        PartitionManager partitions = manager(7, 2);
+        LocalDate today = LocalDate.now(zone);
+        
+        partitions.insert("raw_pages", row(1, today.plusDays(2)));
+        assertInvalidKey(() -> partitions.insert("raw_pages", row(2, today.plusDays(3))));
+        assertInvalidKey(() -> partitions.insert("raw_pages", row(3, LocalDate.of(2999, 1, 1))));
+        
+        assertEquals(Collections.singletonList(today.plusDays(2)), partitions.getPartitions("raw_pages"));
+    }
+    
+    @Test
+    public void testInsertRejectsDateOlderThanRetention() throws Exception {
+        PartitionManager partitions = manager(7, 2);
+        LocalDate today = LocalDate.now(zone);
+        
+        partitions.insert("raw_pages", row(1, today.minusDays(7)));
+        assertInvalidKey(() -> partitions.insert("raw_pages", row(2, today.minusDays(8))));
+        assertInvalidKey(() -> partitions.insert("raw_pages", row(3, LocalDate.of(1970, 1, 1))));
+        
+        assertEquals(Collections.singletonList(today.minusDays(7)), partitions.getPartitions("raw_pages"));
+    }
+    
+    @Test
+    public void testWithoutRetentionOldDatesAreAllowed() throws Exception {
+        PartitionManager partitions = manager(0, 0);
+        LocalDate old = LocalDate.of(2001, 5, 1);
+        
+        partitions.insert("raw_pages", row(1, old));
+        
+        assertEquals(Collections.singletonList(old), partitions.getPartitions("raw_pages"));
+        assertInvalidKey(() -> partitions.insert("raw_pages", row(2, LocalDate.now(zone).plusDays(1))));
+    }
+    
+    @Test
+    public void testInsertBatchRejectsWholeBatch() throws Exception {
+        PartitionManager partitions = manager(7, 1);
+        LocalDate today = LocalDate.now(zone);
+        
+        assertInvalidKey(() -> partitions.insertBatch("raw_pages",
+                Arrays.asList(row(1, today), row(2, today.plusDays(30)))));
+        assertTrue(partitions.getPartitions("raw_pages").isEmpty());
+        
+        int[] counts = partitions.insertBatch("raw_pages", Arrays.asList(row(3, today), row(4, today.plusDays(1))));
+        assertArrayEquals(new int[]{1, 1}, counts);
+        assertEquals(Arrays.asList(today, today.plusDays(1)), partitions.getPartitions("raw_pages"));
+    }
+    
+    @Test
+    public void testMySQLDialectRefusesPartitionOutsideWindow() throws Exception {
+        BaseStorageAdapter mysql = mock(BaseStorageAdapter.class);
+        LocalDate today = LocalDate.now(zone);
+        List<String[]> layout = new ArrayList<>();
+        layout.add(new String[]{PartitionGranularity.partitionName(today), "RANGE COLUMNS", "'" + today.plusDays(1) + "'"});
+        layout.add(new String[]{"pmax", "RANGE COLUMNS", "MAXVALUE"});
+        doReturn(layout).when(mysql).queryMultiple(anyString(), any(RowMapper.class), any());
+        
+        TableRetention table = new TableRetention("raw_pages", "crawled_at", 7);
+        MySQLPartitionDialect dialect = new MySQLPartitionDialect(mysql, PartitionGranularity.DAY, config(7, 2), zone);
+        
+        assertInvalidKey(() -> dialect.createPartition(table, today.plusYears(1), today.plusYears(1).plusDays(1)));
+        assertInvalidKey(() -> dialect.createPartition(table, today.minusDays(30), today.minusDays(29)));
+        verify(mysql, never()).update(anyString());
+        
+        assertTrue(dialect.createPartition(table, today.plusDays(2), today.plusDays(3)));
+        verify(mysql).update("ALTER TABLE raw_pages REORGANIZE PARTITION pmax INTO (PARTITION "
+                + PartitionGranularity.partitionName(today.plusDays(2)) + " VALUES LESS THAN ('" + today.plusDays(3)
+                + "'), PARTITION pmax VALUES LESS THAN (MAXVALUE))");
+    }
+    
+    private PartitionManager manager(int retentionDays, int precreate) throws StorageException {
+        return new PartitionManager("pages", adapter, adapter, config(retentionDays, precreate));
+    }
+    
+    private static PartitionRetentionConfig config(int retentionDays, int precreate) {
+        PartitionRetentionConfig config = new PartitionRetentionConfig();
+        config.setTables(Collections.singletonList(new TableRetention("raw_pages", "crawled_at", -1)));
+        config.setRetentionDays(retentionDays);
+        config.setPrecreate(precreate);
+        return config;
+    }
+    
+    private static Map<String, Object> row(long id, LocalDate date) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("crawled_at", date.toString());
+        return row;
+    }
+    
+    private long count(String table) throws StorageException {
+        return adapter.querySingle("SELECT COUNT(*) FROM " + table, (rs, rowNum) -> rs.getLong(1)).orElse(0L);
+    }
+    
+    private static void assertInvalidKey(Call call) {
+        try {
+            call.run();
+            fail("Expected INVALID_PARTITION_KEY");
+        } catch (StorageException e) {
+            assertEquals("INVALID_PARTITION_KEY", e.getErrorCode());
+        }
+    }
+    
+    private interface Call {
+        void run() throws StorageException;
+    }
+}
@@ -0,0 +1,310 @@
+package database.routing;
+
+import database.adapter.SQLiteAdapter;
+import database.config.ConnectionPoolConfig;
+import database.config.DatabaseConfig;
+import database.config.ReplicaRoutingConfig;
+import database.core.DatabaseStorage;
+import database.core.RowMapper;
+import database.core.StorageException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * ReadWriteSplittingDatabaseStorage测试
+ * 主库和副本是两个独立的本地SQLite文件，表中的标记值区分查询实际发往哪个库；
+ * 副本的复制延迟由副本文件中的replica_lag表模拟
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class ReadWriteSplittingDatabaseStorageTest {
+    
+    private static final RowMapper<String> ORIGIN = (rs, rowNum) -> rs.getString(1);
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    private String primaryUrl;
+    private String replicaUrl;
+    private SQLiteAdapter primary;
+    private SQLiteAdapter replica;
+    private ReadWriteSplittingDatabaseStorage storage;
+    
+    @Before
+    public void setUp() throws Exception {
+        primaryUrl = "jdbc:sqlite:" + new File(folder.getRoot(), "primary.db").getAbsolutePath();
+        replicaUrl = "jdbc:sqlite:" + new File(folder.getRoot(), "replica.db").getAbsolutePath();
+        execute(primaryUrl, "CREATE TABLE origin (id INTEGER PRIMARY KEY, v TEXT)",
+                "INSERT INTO origin (id, v) VALUES (1, 'primary')",
+                "CREATE TABLE primary_only (v TEXT)",
+                "INSERT INTO primary_only (v) VALUES ('primary')");
+        execute(replicaUrl, "CREATE TABLE origin (id INTEGER PRIMARY KEY, v TEXT)",
+                "INSERT INTO origin (id, v) VALUES (1, 'replica')",
+                "CREATE TABLE replica_lag (seconds INTEGER)",
+                "INSERT INTO replica_lag (seconds) VALUES (0)");
+        primary = new SQLiteAdapter(config("primary", primaryUrl));
+        replica = new SQLiteAdapter(config("replica", replicaUrl));
+        replica.initialize();
+    }
+    
+    @After
+    public void tearDown() throws StorageException {
+        if (storage != null) {
+            storage.shutdown();
+        }
+        replica.shutdown();
+    }
+    
+    @Test
+    public void testReadsGoToReplicaAndWritesToPrimary() throws Exception {
+        storage = open(routing());
+        
+        assertEquals("replica", readOrigin());
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 2);
+        row.put("v", "written");
+        assertEquals(1, storage.insert("origin", row));
+        
+        assertEquals(Collections.singletonList("written"), query(primaryUrl, "SELECT v FROM origin WHERE id = 2"));
+        assertTrue(query(replicaUrl, "SELECT v FROM origin WHERE id = 2").isEmpty());
+        assertEquals("replica", readOrigin());
+        assertEquals(2L, replicaStats().get("reads"));
+        assertEquals(0L, storage.getStats().get("primaryReads"));
+    }
+    
+    @Test
+    public void testReadAfterWritePinsWritingThreadToPrimary() throws Exception {
+        ReplicaRoutingConfig config = routing();
+        config.setReadAfterWriteWindow(60000);
+        storage = open(config);
+        
+        assertEquals("replica", readOrigin());
+        storage.update("origin", Collections.singletonMap("v", "primary-updated"), "id = ?", 1);
+        assertEquals("primary-updated", readOrigin());
+        assertEquals(1L, storage.getStats().get("primaryReads"));
+        
+        // 其他线程没有写入，仍然读副本
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            assertEquals("replica", other.submit(this::readOrigin).get(10, TimeUnit.SECONDS));
+        } finally {
+            other.shutdownNow();
+        }
+    }
+    
+    @Test
+    public void testFailedReplicaReadFallsBackAndEvictsReplica() throws Exception {
+        ReplicaRoutingConfig config = routing();
+        config.setFailureThreshold(2);
+        storage = open(config);
+        
+        // 副本上没有该表，查询失败后改由主库执行
+        for (int i = 0; i < 2; i++) {
+            assertEquals(Collections.singletonList("primary"), storage.queryMultiple("SELECT v FROM primary_only", ORIGIN));
+        }
+        assertEquals(2L, storage.getStats().get("fallbackReads"));
+        assertEquals(2L, replicaStats().get("failures"));
+        assertEquals(false, replicaStats().get("available"));
+        
+        // 副本暂停使用后，普通读也发往主库
+        assertEquals("primary", readOrigin());
+        assertEquals(3L, storage.getStats().get("fallbackReads"));
+        assertEquals(0L, replicaStats().get("reads"));
+    }
+    
+    @Test
+    public void testLaggingReplicaIsEvictedAndRecovers() throws Exception {
+        storage = open(routing());
+        assertEquals("replica", readOrigin());
+        
+        execute(replicaUrl, "UPDATE replica_lag SET seconds = 60");
+        awaitAvailable(false);
+        assertEquals(60L, replicaStats().get("lagSeconds"));
+        assertEquals("primary", readOrigin());
+        
+        // 复制线程停止（延迟为NULL）同样不可用
+        execute(replicaUrl, "UPDATE replica_lag SET seconds = NULL");
+        awaitLag(Long.MAX_VALUE);
+        assertEquals(false, replicaStats().get("available"));
+        
+        execute(replicaUrl, "UPDATE replica_lag SET seconds = 1");
+        awaitAvailable(true);
+        assertEquals("replica", readOrigin());
+    }
+    
+    @Test
+    public void testMysqlLagUsesReplicaStatusFirst() throws Exception {
+        DatabaseStorage mysqlPrimary = mock(DatabaseStorage.class);
+        DatabaseStorage mysqlReplica = mysqlReplica();
+        when(mysqlReplica.querySingle(eq("SHOW REPLICA STATUS"), any())).thenAnswer(invocation ->
+                Optional.of(invocation.<RowMapper<Long>>getArgument(1).mapRow(statusRow("Seconds_Behind_Source", 42L), 1)));
+        
+        storage = new ReadWriteSplittingDatabaseStorage(mysqlPrimary, Collections.singletonMap("replica", mysqlReplica),
+                mysqlRouting(), "mysql-test");
+        storage.initialize();
+        
+        assertEquals(42L, replicaStats().get("lagSeconds"));
+        assertEquals(false, replicaStats().get("available"));
+        verify(mysqlReplica, times(0)).querySingle(eq("SHOW SLAVE STATUS"), any());
+    }
+    
+    @Test
+    public void testMysqlLagFallsBackToSlaveStatusOnOlderServers() throws Exception {
+        DatabaseStorage mysqlPrimary = mock(DatabaseStorage.class);
+        DatabaseStorage mysqlReplica = mysqlReplica();
+        when(mysqlReplica.querySingle(eq("SHOW REPLICA STATUS"), any())).thenThrow(new StorageException("QUERY_FAILED",
+                "Failed to execute query", new SQLException("You have an error in your SQL syntax", "42000", 1064)));
+        when(mysqlReplica.querySingle(eq("SHOW SLAVE STATUS"), any())).thenAnswer(invocation ->
+                Optional.of(invocation.<RowMapper<Long>>getArgument(1).mapRow(statusRow("Seconds_Behind_Master", 3L), 1)));
+        
+        storage = new ReadWriteSplittingDatabaseStorage(mysqlPrimary, Collections.singletonMap("replica", mysqlReplica),
+                mysqlRouting(), "mysql-test");
+        storage.initialize();
+        
+        assertEquals(3L, replicaStats().get("lagSeconds"));
+        assertEquals(true, replicaStats().get("available"));
+        // 不支持的语句只尝试一次，之后的检查直接使用 SHOW SLAVE STATUS
+        verify(mysqlReplica, timeout(5000).atLeast(2)).querySingle(eq("SHOW SLAVE STATUS"), any());
+        verify(mysqlReplica, times(1)).querySingle(eq("SHOW REPLICA STATUS"), any());
+    }
+    
+    @Test
+    public void testMysqlConnectionFailureDoesNotSwitchStatusQuery() throws Exception {
+        DatabaseStorage mysqlPrimary = mock(DatabaseStorage.class);
+        DatabaseStorage mysqlReplica = mysqlReplica();
+        when(mysqlReplica.querySingle(eq("SHOW REPLICA STATUS"), any())).thenThrow(new StorageException("QUERY_FAILED",
+                "Failed to execute query", new SQLException("Communications link failure", "08S01", 0)));
+        
+        storage = new ReadWriteSplittingDatabaseStorage(mysqlPrimary, Collections.singletonMap("replica", mysqlReplica),
+                mysqlRouting(), "mysql-test");
+        storage.initialize();
+        
+        assertEquals(false, replicaStats().get("available"));
+        verify(mysqlReplica, times(0)).querySingle(eq("SHOW SLAVE STATUS"), any());
+    }
+    
+    private ReadWriteSplittingDatabaseStorage open(ReplicaRoutingConfig config) throws StorageException {
+        ReadWriteSplittingDatabaseStorage opened = new ReadWriteSplittingDatabaseStorage(primary,
+                Collections.singletonMap("replica", replica), config, "routing-test");
+        opened.initialize();
+        return opened;
+    }
+    
+    private ReplicaRoutingConfig routing() {
+        ReplicaRoutingConfig config = new ReplicaRoutingConfig();
+        config.setReplicas(Collections.singletonList("replica"));
+        config.setHealthCheckInterval(100);
+        config.setMaxLagSeconds(5);
+        config.setLagQuery("SELECT seconds FROM replica_lag");
+        return config;
+    }
+    
+    private ReplicaRoutingConfig mysqlRouting() {
+        ReplicaRoutingConfig config = routing();
+        config.setLagQuery(null);
+        return config;
+    }
+    
+    private String readOrigin() throws StorageException {
+        return storage.queryMultiple("SELECT v FROM origin WHERE id = 1", ORIGIN).get(0);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> replicaStats() {
+        return (Map<String, Object>) ((Map<String, Object>) storage.getStats().get("replicas")).get("replica");
+    }
+    
+    private void awaitAvailable(boolean available) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!Boolean.valueOf(available).equals(replicaStats().get("available")) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(available, replicaStats().get("available"));
+    }
+    
+    private void awaitLag(long lag) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!Long.valueOf(lag).equals(replicaStats().get("lagSeconds")) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(lag, replicaStats().get("lagSeconds"));
+    }
+    
+    private static DatabaseStorage mysqlReplica() {
+        DatabaseStorage mysqlReplica = mock(DatabaseStorage.class);
+        when(mysqlReplica.getDatabaseType()).thenReturn("MySQL");
+        when(mysqlReplica.isHealthy()).thenReturn(true);
+        return mysqlReplica;
+    }
+    
+    private static ResultSet statusRow(String lagColumn, long lag) throws SQLException {
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(2);
+        when(metaData.getColumnLabel(1)).thenReturn("Replica_IO_State");
+        when(metaData.getColumnLabel(2)).thenReturn(lagColumn);
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getMetaData()).thenReturn(metaData);
+        when(rs.getLong(lagColumn)).thenReturn(lag);
+        return rs;
+    }
+    
+    private static DatabaseConfig config(String name, String url) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("url", url);
+        return new DatabaseConfig("sqlite", name, true, properties,
+                new ConnectionPoolConfig(2, 1, 5000, 60000, 600000));
+    }
+    
+    private static void execute(String url, String... statements) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+    
+    private static List<String> query(String url, String sql) throws SQLException {
+        List<String> values = new ArrayList<>();
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            while (rs.next()) {
+                values.add(rs.getString(1));
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,114 @@
+package database.search;
+
+import database.adapter.SQLiteAdapter;
+import database.config.ConnectionPoolConfig;
+import database.config.DatabaseConfig;
+import database.core.Page;
+import database.core.StorageException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * ArticleSearchIndex测试
+ * 在临时SQLite文件上建立FTS5索引，验证检索、计数、分页和更新后的增量索引
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class ArticleSearchIndexTest {
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    private SQLiteAdapter storage;
+    private ArticleSearchIndex index;
+    
+    @Before
+    public void setUp() throws Exception {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("url", "jdbc:sqlite:" + new File(folder.getRoot(), "articles.db").getAbsolutePath());
+        storage = new SQLiteAdapter(new DatabaseConfig("sqlite", "articles", true, properties,
+                new ConnectionPoolConfig(2, 1, 5000, 60000, 600000)));
+        storage.initialize();
+        index = new ArticleSearchIndex(storage);
+        index.initialize();
+        index.upsertArticles(Arrays.asList(
+                article("https://news.example.com/1", "Rust compiler release", "The new compiler improves build times."),
+                article("https://news.example.com/2", "Gardening tips", "Notes on the compiler of seed catalogues."),
+                article("https://news.example.com/3", "Weather report", "Rain expected over the weekend.")));
+    }
+    
+    @After
+    public void tearDown() throws StorageException {
+        storage.shutdown();
+    }
+    
+    @Test
+    public void testSearchRanksTitleMatchesFirst() throws Exception {
+        Page<SearchHit> hits = index.search("compiler", 1, 10);
+        
+        assertEquals(2, hits.getTotalElements());
+        assertEquals(2, hits.getContent().size());
+        assertEquals("https://news.example.com/1", hits.getContent().get(0).getUrl());
+        assertTrue(hits.getContent().get(0).getScore() > hits.getContent().get(1).getScore());
+        assertTrue(hits.getContent().get(0).getSnippet().contains("[compiler]")
+                || hits.getContent().get(0).getSnippet().contains("[Compiler]"));
+        assertEquals(2, index.count("compiler"));
+        assertEquals(0, index.count("volcano"));
+        assertEquals(0, index.search("volcano", 1, 10).getTotalElements());
+    }
+    
+    @Test
+    public void testSearchMatchPagesAndSupportsQuerySyntax() throws Exception {
+        Page<SearchHit> first = index.searchMatch("compiler OR rain", 1, 2);
+        Page<SearchHit> second = index.searchMatch("compiler OR rain", 2, 2);
+        
+        assertEquals(3, first.getTotalElements());
+        assertEquals(2, first.getContent().size());
+        assertEquals(1, second.getContent().size());
+        assertEquals(1, index.searchMatch("title:weather", 1, 10).getTotalElements());
+        assertEquals(1, index.searchMatch("garden*", 1, 10).getTotalElements());
+    }
+    
+    @Test
+    public void testUpsertUpdatesIndex() throws Exception {
+        index.upsertArticle(article("https://news.example.com/3", "Volcano erupts", "Ash cloud over the island."));
+        
+        assertEquals(0, index.count("rain"));
+        assertEquals(1, index.count("volcano"));
+        assertEquals(Arrays.asList("Volcano erupts"), storage.queryMultiple("SELECT title FROM articles WHERE url = ?",
+                (rs, rowNum) -> rs.getString(1), "https://news.example.com/3"));
+    }
+    
+    @Test
+    public void testInvalidMatchExpressionFails() {
+        try {
+            index.searchMatch("title:(", 1, 10);
+            fail("Expected syntax error");
+        } catch (StorageException e) {
+            assertEquals("QUERY_FAILED", e.getErrorCode());
+        }
+    }
+    
+    private static Map<String, Object> article(String url, String title, String content) {
+        Map<String, Object> article = new LinkedHashMap<>();
+        article.put("url", url);
+        article.put("title", title);
+        article.put("content", content);
+        article.put("source", "example");
+        return article;
+    }
+}
@@ -0,0 +1,76 @@
+package database.util;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * SaltedRowKey测试
+ * 
+ * @author Collections Team
+ * @since 1.0
+ */
+public class SaltedRowKeyTest {
+    
+    private static final byte FF = (byte) 0xFF;
+    
+    @Test
+    public void testSaltRoundTrip() {
+        SaltedRowKey rowKeys = new SaltedRowKey(16);
+        byte[] key = "https://news.example.com/2024/01/01/a".getBytes(StandardCharsets.UTF_8);
+        byte[] rowKey = rowKeys.salt(key);
+        
+        assertEquals(key.length + 1, rowKey.length);
+        assertEquals(rowKeys.bucketOf(key), rowKey[0]);
+        assertTrue(rowKey[0] >= 0 && rowKey[0] < 16);
+        assertArrayEquals(key, SaltedRowKey.unsalt(rowKey));
+        assertEquals(15, rowKeys.splitKeys().length);
+        assertArrayEquals(new byte[]{15}, rowKeys.splitKeys()[14]);
+    }
+    
+    @Test
+    public void testScanStopIncrementsLastByte() {
+        SaltedRowKey rowKeys = new SaltedRowKey(16);
+        assertArrayEquals(new byte[]{3, 'a', 'c'}, rowKeys.scanStop(3, new byte[]{'a', 'b'}));
+        assertArrayEquals(new byte[]{3, 'a', 'b'}, rowKeys.scanStart(3, new byte[]{'a', 'b'}));
+    }
+    
+    @Test
+    public void testScanStopDropsTrailingFF() {
+        SaltedRowKey rowKeys = new SaltedRowKey(16);
+        assertArrayEquals(new byte[]{5, 'b'}, rowKeys.scanStop(5, new byte[]{'a', FF, FF}));
+        assertArrayEquals(new byte[]{5, 0x01}, rowKeys.scanStop(5, new byte[]{0x00, FF}));
+    }
+    
+    @Test
+    public void testScanStopForEmptyPrefixEndsAtNextBucket() {
+        SaltedRowKey rowKeys = new SaltedRowKey(16);
+        assertArrayEquals(new byte[]{1}, rowKeys.scanStop(0, new byte[0]));
+        assertArrayEquals(new byte[]{16}, rowKeys.scanStop(15, new byte[0]));
+        assertArrayEquals(new byte[]{8}, rowKeys.scanStart(8, new byte[0]));
+    }
+    
+    @Test
+    public void testScanStopForAllFFPrefixEndsAtNextBucket() {
+        SaltedRowKey rowKeys = new SaltedRowKey(16);
+        assertArrayEquals(new byte[]{7}, rowKeys.scanStop(6, new byte[]{FF}));
+        assertArrayEquals(new byte[]{7}, rowKeys.scanStop(6, new byte[]{FF, FF, FF}));
+    }
+    
+    @Test
+    public void testScanStopInLastPossibleBucketScansToTableEnd() {
+        SaltedRowKey rowKeys = new SaltedRowKey(SaltedRowKey.MAX_BUCKETS);
+        assertArrayEquals(new byte[0], rowKeys.scanStop(255, new byte[0]));
+        assertArrayEquals(new byte[0], rowKeys.scanStop(255, new byte[]{FF, FF}));
+        assertArrayEquals(new byte[]{FF, 'b'}, rowKeys.scanStop(255, new byte[]{'a'}));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsTooManyBuckets() {
+        new SaltedRowKey(SaltedRowKey.MAX_BUCKETS + 1);
+    }
+}
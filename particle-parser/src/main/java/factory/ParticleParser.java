@@ -1,8 +1,10 @@
 package factory;
 
+import database.blob.PackBlobStore;
 import index.Index;
 import matrix.BaseParticleParser;
 import model.AbstractResponse;
+import model.HttpResponse;
 
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
@@ -15,6 +17,7 @@ public class ParticleParser {
     private static int DEFAULT_THREAD_NUM = 10;
     private int threadNum;
     private Index index;
+    private volatile PackBlobStore pageStore; //保存原始页面，用于审计和重新解析
 
     public ParticleParser(AbstractUniverse universe, Index index) {
         this.universe = universe;
@@ -32,6 +35,10 @@ public class ParticleParser {
         startParser();
     }
 
+    public void setPageStore(PackBlobStore pageStore) {
+        this.pageStore = pageStore;
+    }
+
     public void startParser() {
         ExecutorService fixedThreadPool = Executors.newFixedThreadPool(threadNum);
         for (int i = 0; i < threadNum; i++) {
@@ -60,11 +67,28 @@ public class ParticleParser {
             System.out.println("no parser: " + response.category);
         }
         if (parser.checkSuccess(response)) {
+            archivePage(response);
             parser.process(response, universe);
         }else {
             universe.send(response.request);
         }
     }
 
+    private void archivePage(AbstractResponse response) {
+        PackBlobStore store = pageStore;
+        if (store == null || !(response instanceof HttpResponse)) {
+            return;
+        }
+        HttpResponse httpResponse = (HttpResponse) response;
+        if (httpResponse.getResultPage() == null || httpResponse.getResultPageRef() != null) {
+            return;
+        }
+        try {
+            httpResponse.setResultPageRef(store.putString(httpResponse.getResultPage()));
+        } catch (Exception e) {
+            System.out.println("页面保存失败：" + e.getMessage());
+        }
+    }
+
 
 }
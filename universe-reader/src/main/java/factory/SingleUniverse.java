@@ -71,6 +71,24 @@ public class SingleUniverse extends AbstractUniverse {
         return responseQueue;
     }
 
+    /**
+     * 待下载请求数（size()需要遍历队列，只用于监控采样）
+     *
+     * @return
+     */
+    public int getRequestQueueSize() {
+        return requestQueue.size();
+    }
+
+    /**
+     * 待解析响应数（size()需要遍历队列，只用于监控采样）
+     *
+     * @return
+     */
+    public int getResponseQueueSize() {
+        return responseQueue.size();
+    }
+
     @Override
     public void send(AbstractRequest request) {
         requestQueue.add(request);
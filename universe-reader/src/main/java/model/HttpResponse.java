@@ -3,6 +3,7 @@ package model;
 public class HttpResponse extends AbstractResponse{
     int httpCode;
     String resultPage;
+    String resultPageRef; //页面在blob存储中的内容哈希
 
     public int getHttpCode() {
         return httpCode;
@@ -20,5 +21,13 @@ public class HttpResponse extends AbstractResponse{
         this.resultPage = resultPage;
     }
 
+    public String getResultPageRef() {
+        return resultPageRef;
+    }
+
+    public void setResultPageRef(String resultPageRef) {
+        this.resultPageRef = resultPageRef;
+    }
+
 
 }
@@ -0,0 +1,82 @@
+package matrix.loadtest;
+
+import database.adapter.SQLiteAdapter;
+import database.config.ConnectionPoolConfig;
+import database.config.DatabaseConfig;
+import database.core.StorageException;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 压测的文章存储，代替详情解析器中"存储结果"的TODO
+ * 文章写入SQLite（单写者组提交），原始页面由ParticleParser的PackBlobStore保存，这里只记录页面哈希
+ */
+public class ArticleStore {
+
+    private static final String CREATE_SQL = "CREATE TABLE IF NOT EXISTS articles ("
+            + "id INTEGER PRIMARY KEY AUTOINCREMENT, "
+            + "url TEXT NOT NULL, "
+            + "category TEXT NOT NULL, "
+            + "page_ref TEXT, "
+            + "page_bytes INTEGER NOT NULL, "
+            + "discovered_at INTEGER, "
+            + "stored_at INTEGER NOT NULL)";
+
+    private static final String INSERT_SQL = "INSERT INTO articles (url, category, page_ref, page_bytes, discovered_at, stored_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final SQLiteAdapter adapter;
+    private final int delayMs;
+    private final PipelineMetrics metrics;
+
+    public ArticleStore(Path file, int delayMs, PipelineMetrics metrics) throws StorageException {
+        this.delayMs = delayMs;
+        this.metrics = metrics;
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("url", "jdbc:sqlite:" + file);
+        properties.put("write_mode", "queue");
+        properties.put("busy_timeout", "30000");
+        ConnectionPoolConfig pool = new ConnectionPoolConfig(4, 1, 30000, 600000, 1800000);
+        adapter = new SQLiteAdapter(new DatabaseConfig("sqlite", "loadtest-articles", true, properties, pool));
+        adapter.initialize();
+        adapter.update(CREATE_SQL);
+    }
+
+    /**
+     * 保存一篇文章
+     *
+     * @param url          详情页地址
+     * @param category     详情页类型
+     * @param pageRef      原始页面哈希
+     * @param pageBytes    页面大小
+     * @param discoveredAt 在搜索页中发现的时间，未知时为null
+     */
+    public void store(String url, String category, String pageRef, int pageBytes, Long discoveredAt) {
+        long start = System.nanoTime();
+        try {
+            if (delayMs > 0) {
+                //模拟慢存储，下游变慢时解析线程被占住，响应队列开始堆积
+                Thread.sleep(delayMs);
+            }
+            long now = System.currentTimeMillis();
+            adapter.insert(INSERT_SQL, url, category, pageRef, pageBytes, discoveredAt, now);
+            metrics.articlesStored.increment();
+            if (discoveredAt != null) {
+                metrics.endToEndLatency.record((now - discoveredAt) * 1000);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            metrics.storeErrors.increment();
+        } catch (Exception e) {
+            metrics.storeErrors.increment();
+        } finally {
+            metrics.storeLatency.record(PipelineMetrics.micros(start));
+        }
+    }
+
+    public void close() throws StorageException {
+        adapter.shutdown();
+    }
+}
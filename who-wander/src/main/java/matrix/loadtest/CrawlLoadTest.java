@@ -0,0 +1,136 @@
+package matrix.loadtest;
+
+import database.blob.PackBlobStore;
+import factory.ParticleParser;
+import factory.SingleUniverse;
+import index.Index;
+import index.all.ElectionIndex;
+import matrix.election.seed.GenerateSeeds;
+import model.HttpRequest;
+import org.json.JSONObject;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 全链路压测：任务投递 -> SingleUniverse下载 -> ParticleParser -> 各站点解析器 -> 存储
+ * 所有请求都发往本地模拟站点（SyntheticOutletServer），不访问真实新闻站点。
+ * 定时输出吞吐（pages/s、stored/s）、队列深度及变化、尾延迟，结束后输出汇总。
+ *
+ * 例：java -Dloadtest.duration=120 -Dloadtest.seeds.per.second=20 -Dloadtest.store.delay.ms=50 matrix.loadtest.CrawlLoadTest
+ * 参数见LoadTestConfig；-Dloadtest.quiet=false 保留解析器的控制台输出
+ */
+public class CrawlLoadTest {
+
+    public final static void main(final String[] args) throws Exception {
+        LoadTestConfig config = new LoadTestConfig();
+        PrintStream report = System.out;
+        if (Boolean.parseBoolean(System.getProperty("loadtest.quiet", "true"))) {
+            //解析器逐条打印页面和链接，压测时关闭以免控制台成为瓶颈
+            System.setOut(new PrintStream(new OutputStream() {
+                @Override
+                public void write(int b) {
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                }
+            }));
+        }
+
+        PipelineMetrics metrics = new PipelineMetrics();
+        SyntheticOutletServer server = new SyntheticOutletServer(config, metrics);
+        server.start();
+        Path dataDir = Paths.get(config.dataDir, "run-" + System.currentTimeMillis());
+        PackBlobStore pageStore = new PackBlobStore(dataDir.resolve("pages"));
+        ArticleStore articleStore = new ArticleStore(dataDir.resolve("articles.db"), config.storeDelayMs, metrics);
+        report.println("synthetic outlets at " + server.getBaseUrl() + ", data in " + dataDir.toAbsolutePath());
+        report.println(config);
+
+        //生成下载器
+        SingleUniverse singleUniverse = new SingleUniverse();
+        singleUniverse.create(config.downloadThreads);
+        //注册真实解析器，再用带统计和存储的装饰覆盖压测站点的解析器
+        ElectionIndex index = new ElectionIndex();
+        for (SyntheticOutlet outlet : SyntheticOutlet.values()) {
+            Index.register(new MeteredParser(Index.getIndexParser(outlet.searchCategory), metrics, null));
+            Index.register(new MeteredParser(Index.getIndexParser(outlet.detailCategory), metrics, articleStore));
+        }
+        //生成解析器
+        ParticleParser particleParser = new ParticleParser(singleUniverse, index, config.parserThreads);
+        particleParser.setPageStore(pageStore);
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        reporter.scheduleAtFixedRate(() -> report.println(metrics.intervalReport(
+                        singleUniverse.getRequestQueueSize(), singleUniverse.getResponseQueueSize())),
+                config.reportIntervalSeconds, config.reportIntervalSeconds, TimeUnit.SECONDS);
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> metrics.sampleQueues(
+                        singleUniverse.getRequestQueueSize(), singleUniverse.getResponseQueueSize()),
+                200, 200, TimeUnit.MILLISECONDS);
+
+        seed(config, server, singleUniverse, metrics);
+        drain(config, singleUniverse, metrics, report);
+
+        reporter.shutdownNow();
+        sampler.shutdownNow();
+        report.println(metrics.finalReport());
+        server.stop();
+        articleStore.close();
+        pageStore.close();
+        //下载和解析线程没有退出机制
+        System.exit(0);
+    }
+
+    /**
+     * 按固定速率轮流向各站点投递搜索任务
+     */
+    private static void seed(LoadTestConfig config, SyntheticOutletServer server, SingleUniverse singleUniverse,
+                             PipelineMetrics metrics) throws InterruptedException {
+        List<String> seeds = GenerateSeeds.getAllSeeds();
+        SyntheticOutlet[] outlets = SyntheticOutlet.values();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.seedsPerSecond;
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(config.durationSeconds);
+        long next = start;
+        for (long i = 0; System.nanoTime() < end; i++) {
+            SyntheticOutlet outlet = outlets[(int) (i % outlets.length)];
+            String searchKey = seeds.get((int) (i / outlets.length % seeds.size())).replace(" ", "+");
+            HttpRequest request = new HttpRequest("GET", outlet.searchCategory);
+            request.setUrl(server.searchUrl(outlet, searchKey));
+            request.setTransport(new JSONObject().put("searchKey", searchKey));
+            singleUniverse.send(request);
+            metrics.seedsSent.increment();
+
+            next += intervalNanos;
+            long waitNanos = next - System.nanoTime();
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        }
+    }
+
+    /**
+     * 停止投递后等待队列排空：两个队列都为空且连续3秒没有新文章入库，或超过loadtest.drain秒
+     */
+    private static void drain(LoadTestConfig config, SingleUniverse singleUniverse, PipelineMetrics metrics,
+                              PrintStream report) throws InterruptedException {
+        report.println("seeding finished, draining for up to " + config.drainSeconds + "s");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.drainSeconds);
+        long lastStored = -1;
+        int idleSeconds = 0;
+        while (System.nanoTime() < deadline && idleSeconds < 3) {
+            TimeUnit.SECONDS.sleep(1);
+            long stored = metrics.articlesStored.sum();
+            boolean empty = singleUniverse.getRequestQueueSize() == 0 && singleUniverse.getResponseQueueSize() == 0;
+            idleSeconds = empty && stored == lastStored ? idleSeconds + 1 : 0;
+            lastStored = stored;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package matrix.loadtest;
+
+/**
+ * 压测参数，全部从系统属性读取（-Dloadtest.xxx=...），未设置时使用默认值
+ */
+public class LoadTestConfig {
+
+    //压测时长和收尾时间
+    public final int durationSeconds;
+    public final int drainSeconds;
+    public final int reportIntervalSeconds;
+
+    //每秒投递的搜索任务数，调高到超过下载和解析能力即可观察背压
+    public final int seedsPerSecond;
+    public final int downloadThreads;
+    public final int parserThreads;
+    public final int serverThreads;
+
+    //每个搜索页的文章数和文章正文大小
+    public final int articlesPerSearch;
+    public final int articleBytes;
+
+    //故障注入：基础延迟、长尾延迟、429、断连、畸形页面
+    public final int latencyMs;
+    public final int latencyJitterMs;
+    public final double slowRate;
+    public final int slowLatencyMs;
+    public final double rate429;
+    public final double resetRate;
+    public final double malformedRate;
+    //服务端限流，超过后返回429，0表示不限流
+    public final int maxRequestsPerSecond;
+
+    //存储：每篇文章额外的写入延迟（模拟慢存储），数据目录
+    public final int storeDelayMs;
+    public final String dataDir;
+
+    public LoadTestConfig() {
+        durationSeconds = intProperty("loadtest.duration", 60);
+        drainSeconds = intProperty("loadtest.drain", 30);
+        reportIntervalSeconds = intProperty("loadtest.report.interval", 5);
+        seedsPerSecond = intProperty("loadtest.seeds.per.second", 5);
+        downloadThreads = intProperty("loadtest.download.threads", 10);
+        parserThreads = intProperty("loadtest.parser.threads", 10);
+        serverThreads = intProperty("loadtest.server.threads", 32);
+        articlesPerSearch = intProperty("loadtest.articles.per.search", 10);
+        articleBytes = intProperty("loadtest.article.bytes", 8 * 1024);
+        latencyMs = intProperty("loadtest.latency.ms", 20);
+        latencyJitterMs = intProperty("loadtest.latency.jitter.ms", 30);
+        slowRate = doubleProperty("loadtest.slow.rate", 0.01);
+        slowLatencyMs = intProperty("loadtest.slow.latency.ms", 3000);
+        rate429 = doubleProperty("loadtest.429.rate", 0.02);
+        resetRate = doubleProperty("loadtest.reset.rate", 0.01);
+        malformedRate = doubleProperty("loadtest.malformed.rate", 0.02);
+        maxRequestsPerSecond = intProperty("loadtest.server.max.rps", 0);
+        storeDelayMs = intProperty("loadtest.store.delay.ms", 0);
+        dataDir = System.getProperty("loadtest.data.dir", "./data/loadtest");
+        validate();
+    }
+
+    private void validate() {
+        if (durationSeconds < 1 || reportIntervalSeconds < 1 || drainSeconds < 0) {
+            throw new IllegalArgumentException("loadtest.duration/report.interval must be positive, loadtest.drain non-negative");
+        }
+        if (seedsPerSecond < 1 || downloadThreads < 1 || parserThreads < 1 || serverThreads < 1 || articlesPerSearch < 1) {
+            throw new IllegalArgumentException("loadtest seeds.per.second, thread counts and articles.per.search must be positive");
+        }
+        checkRate("loadtest.slow.rate", slowRate);
+        checkRate("loadtest.429.rate", rate429);
+        checkRate("loadtest.reset.rate", resetRate);
+        checkRate("loadtest.malformed.rate", malformedRate);
+    }
+
+    private static void checkRate(String name, double rate) {
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException(name + " must be between 0 and 1");
+        }
+    }
+
+    private static int intProperty(String name, int defaultValue) {
+        String value = System.getProperty(name);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        return value == null ? defaultValue : Double.parseDouble(value.trim());
+    }
+
+    @Override
+    public String toString() {
+        return "duration=" + durationSeconds + "s, seeds/s=" + seedsPerSecond
+                + ", download=" + downloadThreads + ", parser=" + parserThreads
+                + ", articles/search=" + articlesPerSearch + ", articleBytes=" + articleBytes
+                + ", latency=" + latencyMs + "+" + latencyJitterMs + "ms, slow=" + slowRate + "@" + slowLatencyMs + "ms"
+                + ", 429=" + rate429 + ", reset=" + resetRate + ", malformed=" + malformedRate
+                + ", maxRps=" + maxRequestsPerSecond + ", storeDelay=" + storeDelayMs + "ms";
+    }
+}
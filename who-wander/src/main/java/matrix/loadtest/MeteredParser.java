@@ -0,0 +1,72 @@
+package matrix.loadtest;
+
+import factory.AbstractUniverse;
+import matrix.BaseParticleParser;
+import model.AbstractResponse;
+import model.HttpRequest;
+import model.HttpResponse;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 解析器装饰：调用真实解析器，统计解析次数和耗时；详情页解析后写入ArticleStore
+ * 注册到Index时覆盖同类型的真实解析器（类型取自被装饰的解析器）
+ */
+public class MeteredParser extends BaseParticleParser {
+
+    private static final Pattern DISCOVERED_AT = Pattern.compile("[?&]ts=(\\d+)");
+
+    private final BaseParticleParser delegate;
+    private final PipelineMetrics metrics;
+    //为null时是搜索页解析器
+    private final ArticleStore store;
+
+    public MeteredParser(BaseParticleParser delegate, PipelineMetrics metrics, ArticleStore store) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.store = store;
+    }
+
+    @Override
+    public String getCategory() {
+        return delegate.getCategory();
+    }
+
+    @Override
+    public boolean checkSuccess(AbstractResponse response) {
+        return delegate.checkSuccess(response);
+    }
+
+    @Override
+    public void process(AbstractResponse response, AbstractUniverse universe) {
+        HttpResponse httpResponse = (HttpResponse) response;
+        if (httpResponse.getHttpCode() != 200) {
+            //真实解析器的checkSuccess都返回true，429等错误页也会进入解析
+            metrics.nonOkParsed.increment();
+        }
+        long start = System.nanoTime();
+        try {
+            delegate.process(response, universe);
+        } catch (RuntimeException e) {
+            metrics.parseErrors.increment();
+            throw e;
+        } finally {
+            //搜索页解析包含解析器里每个链接1秒的投递间隔
+            if (store == null) {
+                metrics.searchParsed.increment();
+                metrics.searchParseLatency.record(PipelineMetrics.micros(start));
+            } else {
+                metrics.detailParsed.increment();
+                metrics.detailParseLatency.record(PipelineMetrics.micros(start));
+            }
+        }
+
+        if (store != null && httpResponse.getHttpCode() == 200 && httpResponse.getResultPage() != null) {
+            String url = ((HttpRequest) response.request).getUrl();
+            Matcher matcher = DISCOVERED_AT.matcher(url);
+            store.store(url, response.category, httpResponse.getResultPageRef(), httpResponse.getResultPage().length(),
+                    matcher.find() ? Long.valueOf(matcher.group(1)) : null);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package matrix.loadtest;
+
+import database.metrics.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 全链路压测指标：服务端（模拟站点）、下载/解析队列、解析器、存储
+ * 计数用LongAdder，延迟用blackhole-storager的LatencyHistogram（2的幂分桶，百分位为桶上界）
+ */
+public class PipelineMetrics {
+
+    //模拟站点
+    final LongAdder seedsSent = new LongAdder();
+    final LongAdder searchServed = new LongAdder();
+    final LongAdder detailServed = new LongAdder();
+    final LongAdder articlesOffered = new LongAdder();
+    final LongAdder throttled = new LongAdder();
+    final LongAdder resets = new LongAdder();
+    final LongAdder malformed = new LongAdder();
+    final LongAdder bytesServed = new LongAdder();
+    final LatencyHistogram serverLatency = new LatencyHistogram();
+
+    //解析器
+    final LongAdder searchParsed = new LongAdder();
+    final LongAdder detailParsed = new LongAdder();
+    final LongAdder nonOkParsed = new LongAdder();
+    final LongAdder parseErrors = new LongAdder();
+    final LatencyHistogram searchParseLatency = new LatencyHistogram();
+    final LatencyHistogram detailParseLatency = new LatencyHistogram();
+
+    //存储
+    final LongAdder articlesStored = new LongAdder();
+    final LongAdder storeErrors = new LongAdder();
+    final LatencyHistogram storeLatency = new LatencyHistogram();
+    //从搜索页发现文章到文章入库
+    final LatencyHistogram endToEndLatency = new LatencyHistogram();
+
+    //队列深度峰值
+    final AtomicInteger maxRequestQueue = new AtomicInteger();
+    final AtomicInteger maxResponseQueue = new AtomicInteger();
+
+    private final long startNanos = System.nanoTime();
+    private long lastReportNanos = startNanos;
+    private long lastSearchServed;
+    private long lastDetailServed;
+    private long lastStored;
+    private int lastRequestQueue;
+    private int lastResponseQueue;
+
+    static long micros(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+    }
+
+    void sampleQueues(int requestQueue, int responseQueue) {
+        maxRequestQueue.accumulateAndGet(requestQueue, Math::max);
+        maxResponseQueue.accumulateAndGet(responseQueue, Math::max);
+    }
+
+    /**
+     * 区间报告：区间吞吐、当前队列深度及其变化（持续增长说明下游跟不上，即背压）、累计尾延迟
+     *
+     * @param requestQueue  当前待下载请求数
+     * @param responseQueue 当前待解析响应数
+     * @return
+     */
+    synchronized String intervalReport(int requestQueue, int responseQueue) {
+        sampleQueues(requestQueue, responseQueue);
+        long now = System.nanoTime();
+        double seconds = Math.max(1e-3, (now - lastReportNanos) / 1e9);
+        long search = searchServed.sum();
+        long detail = detailServed.sum();
+        long stored = articlesStored.sum();
+        String line = String.format("[%6.1fs] pages/s=%.1f (search %.1f, detail %.1f) stored/s=%.1f"
+                        + " | requestQueue=%d (%+d) responseQueue=%d (%+d)"
+                        + " | e2e p50=%s p99=%s p999=%s | 429=%d reset=%d malformed=%d storeErr=%d",
+                (now - startNanos) / 1e9,
+                (search - lastSearchServed + detail - lastDetailServed) / seconds,
+                (search - lastSearchServed) / seconds, (detail - lastDetailServed) / seconds,
+                (stored - lastStored) / seconds,
+                requestQueue, requestQueue - lastRequestQueue, responseQueue, responseQueue - lastResponseQueue,
+                millis(endToEndLatency.getPercentileMicros(50)), millis(endToEndLatency.getPercentileMicros(99)),
+                millis(endToEndLatency.getPercentileMicros(99.9)),
+                throttled.sum(), resets.sum(), malformed.sum(), storeErrors.sum());
+        lastReportNanos = now;
+        lastSearchServed = search;
+        lastDetailServed = detail;
+        lastStored = stored;
+        lastRequestQueue = requestQueue;
+        lastResponseQueue = responseQueue;
+        return line;
+    }
+
+    /**
+     * 最终报告
+     *
+     * @return
+     */
+    String finalReport() {
+        double seconds = Math.max(1e-3, (System.nanoTime() - startNanos) / 1e9);
+        long offered = articlesOffered.sum();
+        long stored = articlesStored.sum();
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("==== crawl load test: %.1fs ====%n", seconds));
+        sb.append(String.format("seeds sent          %d%n", seedsSent.sum()));
+        sb.append(String.format("pages served        search=%d detail=%d (%.1f pages/s, %.1f MB)%n",
+                searchServed.sum(), detailServed.sum(), (searchServed.sum() + detailServed.sum()) / seconds,
+                bytesServed.sum() / 1024.0 / 1024.0));
+        sb.append(String.format("faults injected     429=%d reset=%d malformed=%d%n",
+                throttled.sum(), resets.sum(), malformed.sum()));
+        sb.append(String.format("pages parsed        search=%d detail=%d non-200=%d errors=%d%n",
+                searchParsed.sum(), detailParsed.sum(), nonOkParsed.sum(), parseErrors.sum()));
+        sb.append(String.format("articles            offered=%d stored=%d (%.1f stored/s) lost=%d storeErrors=%d%n",
+                offered, stored, stored / seconds, Math.max(0, offered - stored), storeErrors.sum()));
+        sb.append(String.format("queue peak          request=%d response=%d%n", maxRequestQueue.get(), maxResponseQueue.get()));
+        sb.append(String.format("%-20s %8s %8s %8s %8s %8s %8s%n", "latency (ms)", "count", "mean", "p50", "p99", "p999", "max"));
+        appendLatency(sb, "server", serverLatency);
+        appendLatency(sb, "parse search", searchParseLatency);
+        appendLatency(sb, "parse detail", detailParseLatency);
+        appendLatency(sb, "store", storeLatency);
+        appendLatency(sb, "discover->stored", endToEndLatency);
+        return sb.toString();
+    }
+
+    private static void appendLatency(StringBuilder sb, String name, LatencyHistogram histogram) {
+        sb.append(String.format("%-20s %8d %8s %8s %8s %8s %8s%n", name, histogram.getCount(),
+                millis(histogram.getMeanMicros()), millis(histogram.getPercentileMicros(50)),
+                millis(histogram.getPercentileMicros(99)), millis(histogram.getPercentileMicros(99.9)),
+                millis(histogram.getMaxMicros())));
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.1f", micros / 1000.0);
+    }
+}
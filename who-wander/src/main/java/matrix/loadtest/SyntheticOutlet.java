@@ -0,0 +1,159 @@
+package matrix.loadtest;
+
+import index.Category;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.List;
+
+/**
+ * 压测用的模拟站点，页面结构与particle-parser中对应解析器的选择器一致
+ * 只包含文章链接取自页面本身的站点；nytimes、reuters、bbc、guardian的解析器在链接前拼接了真实域名，
+ * 无法指向本地服务，不参与压测
+ */
+public enum SyntheticOutlet {
+
+    AP("ap", Category.ELECTION_AP_SEARCH, Category.ELECTION_AP_DETAIL, false) {
+        @Override
+        String searchPage(List<String> links) {
+            StringBuilder sb = new StringBuilder("<html><body><div class=\"SearchResultsModule-results\">");
+            for (String link : links) {
+                sb.append("<div class=\"PagePromo\"><div class=\"PagePromo-title\"><a href=\"").append(link)
+                        .append("\">").append(title(link)).append("</a></div></div>");
+            }
+            return sb.append("</div></body></html>").toString();
+        }
+
+        @Override
+        String detailPage(String title, String body) {
+            return "<html><body><h1 class=\"Page-headline\">" + title + "</h1>"
+                    + "<div class=\"RichTextStoryBody RichTextBody\"><p>" + body + "</p></div></body></html>";
+        }
+    },
+
+    CNN("cnn", Category.ELECTION_CNN_SEARCH, Category.ELECTION_CNN_DETAIL, true) {
+        @Override
+        String searchPage(List<String> links) {
+            JSONArray result = new JSONArray();
+            for (String link : links) {
+                result.put(new JSONObject().put("path", link).put("headline", title(link)));
+            }
+            return new JSONObject().put("result", result).toString();
+        }
+
+        @Override
+        String detailPage(String title, String body) {
+            String ld = new JSONObject().put("@type", "NewsArticle").put("headline", title).put("articleBody", body).toString();
+            return "<html><head><script type=\"application/ld+json\">" + ld + "</script></head>"
+                    + "<body><h1>" + title + "</h1></body></html>";
+        }
+    },
+
+    HUFFPOST("huffpost", Category.ELECTION_HUFFPOST_SEARCH, Category.ELECTION_HUFFPOST_DETAIL, false) {
+        @Override
+        String searchPage(List<String> links) {
+            StringBuilder sb = new StringBuilder("<html><body>");
+            for (String link : links) {
+                sb.append("<div aria-label=\"article\"><a href=\"").append(link).append("\">")
+                        .append(title(link)).append("</a></div>");
+            }
+            return sb.append("</body></html>").toString();
+        }
+
+        @Override
+        String detailPage(String title, String body) {
+            return "<html><body><h1 class=\"headline\">" + title + "</h1>"
+                    + "<section id=\"entry-body\"><p>" + body + "</p></section></body></html>";
+        }
+    },
+
+    LA("la", Category.ELECTION_LA_SEARCH, Category.ELECTION_LA_DETAIL, false) {
+        @Override
+        String searchPage(List<String> links) {
+            StringBuilder sb = new StringBuilder("<html><body><ul>");
+            for (String link : links) {
+                sb.append("<li><h3 class=\"promo-title\"><a href=\"").append(link).append("\">")
+                        .append(title(link)).append("</a></h3></li>");
+            }
+            return sb.append("</ul></body></html>").toString();
+        }
+
+        @Override
+        String detailPage(String title, String body) {
+            return "<html><body><h1 class=\"headline\">" + title + "</h1>"
+                    + "<div data-element=\"story-summary\">" + title + "</div>"
+                    + "<div data-element=\"story-body\"><p>" + body + "</p></div></body></html>";
+        }
+    },
+
+    WP("wp", Category.ELECTION_WP_SEARCH, Category.ELECTION_WP_DETAIL, true) {
+        @Override
+        String searchPage(List<String> links) {
+            JSONArray items = new JSONArray();
+            for (String link : links) {
+                items.put(new JSONObject().put("link", link).put("headline", title(link)));
+            }
+            return new JSONObject().put("body", new JSONObject().put("items", items)).toString();
+        }
+
+        @Override
+        String detailPage(String title, String body) {
+            return "<html><body><h1>" + title + "</h1><article><p>" + body + "</p></article></body></html>";
+        }
+    };
+
+    final String path;
+    final String searchCategory;
+    final String detailCategory;
+    //搜索接口返回json而不是html
+    final boolean jsonSearch;
+
+    SyntheticOutlet(String path, String searchCategory, String detailCategory, boolean jsonSearch) {
+        this.path = path;
+        this.searchCategory = searchCategory;
+        this.detailCategory = detailCategory;
+        this.jsonSearch = jsonSearch;
+    }
+
+    /**
+     * 搜索结果页
+     *
+     * @param links 文章详情页的绝对地址
+     * @return
+     */
+    abstract String searchPage(List<String> links);
+
+    /**
+     * 文章详情页
+     *
+     * @param title 标题
+     * @param body  正文
+     * @return
+     */
+    abstract String detailPage(String title, String body);
+
+    /**
+     * 畸形页面：截断一半并留下未闭合的标签，json会解析失败，html会丢失选择器命中的元素
+     *
+     * @param page 正常页面
+     * @return
+     */
+    static String malformed(String page) {
+        return page.substring(0, page.length() / 2) + "<div class=\"";
+    }
+
+    static SyntheticOutlet fromPath(String path) {
+        for (SyntheticOutlet outlet : values()) {
+            if (outlet.path.equals(path)) {
+                return outlet;
+            }
+        }
+        return null;
+    }
+
+    private static String title(String link) {
+        int start = link.lastIndexOf('/') + 1;
+        int end = link.indexOf('?', start);
+        return "Synthetic election story " + link.substring(start, end > 0 ? end : link.length());
+    }
+}
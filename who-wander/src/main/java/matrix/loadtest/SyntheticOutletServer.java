@@ -0,0 +1,177 @@
+package matrix.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 本地模拟站点，替代真实新闻站点提供搜索页和详情页
+ * 地址：/{站点}/search?q=关键词，/{站点}/article/{文章id}?ts={发现时间}
+ * 每个请求按配置注入延迟（含长尾）、429、断连（不返回响应直接关闭连接）和畸形页面
+ */
+public class SyntheticOutletServer {
+
+    private final LoadTestConfig config;
+    private final PipelineMetrics metrics;
+    private final AtomicLong nextArticleId = new AtomicLong();
+    private final String articleBody;
+
+    //服务端限流：按秒计数
+    private final AtomicLong rateWindow = new AtomicLong();
+    private final AtomicInteger rateCount = new AtomicInteger();
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private String baseUrl;
+
+    public SyntheticOutletServer(LoadTestConfig config, PipelineMetrics metrics) {
+        this.config = config;
+        this.metrics = metrics;
+        this.articleBody = loremText(config.articleBytes);
+    }
+
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.createContext("/", this::handle);
+        executor = Executors.newFixedThreadPool(config.serverThreads);
+        server.setExecutor(executor);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * 搜索页地址
+     *
+     * @param outlet    站点
+     * @param searchKey 关键词（已转义）
+     * @return
+     */
+    public String searchUrl(SyntheticOutlet outlet, String searchKey) {
+        return baseUrl + "/" + outlet.path + "/search?q=" + searchKey;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        try {
+            exchange.getRequestBody().close();
+            String[] parts = exchange.getRequestURI().getPath().split("/");
+            SyntheticOutlet outlet = parts.length >= 3 ? SyntheticOutlet.fromPath(parts[1]) : null;
+            boolean search = outlet != null && parts.length == 3 && "search".equals(parts[2]);
+            boolean detail = outlet != null && parts.length == 4 && "article".equals(parts[2]);
+            if (!search && !detail) {
+                respond(exchange, 404, "text/plain", "not found");
+                return;
+            }
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (overRateLimit() || random.nextDouble() < config.rate429) {
+                metrics.throttled.increment();
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                respond(exchange, 429, "text/html", "<html><body><h1>Too Many Requests</h1></body></html>");
+                return;
+            }
+            sleep(config.latencyMs + (config.latencyJitterMs > 0 ? random.nextInt(config.latencyJitterMs + 1) : 0)
+                    + (random.nextDouble() < config.slowRate ? config.slowLatencyMs : 0));
+            if (random.nextDouble() < config.resetRate) {
+                //不发送响应头直接关闭，客户端读到连接意外结束
+                metrics.resets.increment();
+                exchange.close();
+                return;
+            }
+
+            String page;
+            if (search) {
+                metrics.searchServed.increment();
+                page = searchPage(outlet);
+            } else {
+                metrics.detailServed.increment();
+                page = outlet.detailPage("Synthetic election story " + parts[3], articleBody);
+            }
+            if (random.nextDouble() < config.malformedRate) {
+                metrics.malformed.increment();
+                page = SyntheticOutlet.malformed(page);
+            } else if (search) {
+                metrics.articlesOffered.add(config.articlesPerSearch);
+            }
+            respond(exchange, 200, search && outlet.jsonSearch ? "application/json" : "text/html", page);
+        } finally {
+            metrics.serverLatency.record(PipelineMetrics.micros(start));
+        }
+    }
+
+    private String searchPage(SyntheticOutlet outlet) {
+        long now = System.currentTimeMillis();
+        List<String> links = new ArrayList<>(config.articlesPerSearch);
+        for (int i = 0; i < config.articlesPerSearch; i++) {
+            links.add(baseUrl + "/" + outlet.path + "/article/" + nextArticleId.incrementAndGet() + "?ts=" + now);
+        }
+        return outlet.searchPage(links);
+    }
+
+    private boolean overRateLimit() {
+        if (config.maxRequestsPerSecond <= 0) {
+            return false;
+        }
+        long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        long window = rateWindow.get();
+        if (window != second && rateWindow.compareAndSet(window, second)) {
+            rateCount.set(0);
+        }
+        return rateCount.incrementAndGet() > config.maxRequestsPerSecond;
+    }
+
+    private void respond(HttpExchange exchange, int code, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.sendResponseHeaders(code, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+        metrics.bytesServed.add(bytes.length);
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String loremText(int size) {
+        String[] words = {"election", "campaign", "voters", "poll", "senate", "ballot", "district", "governor",
+                "debate", "turnout", "candidate", "county", "results", "policy", "state", "primary"};
+        StringBuilder sb = new StringBuilder(size + 16);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (sb.length() < size) {
+            sb.append(words[random.nextInt(words.length)]).append(random.nextInt(12) == 0 ? ". " : " ");
+        }
+        return sb.substring(0, size);
+    }
+}